@@ -8,6 +8,7 @@ import com.ladyluh.nekoffee.api.gateway.GatewayIntent;
 import com.ladyluh.nekoffee.api.payload.channel.ChannelModifyPayload;
 import com.ladyluh.nekoffee.api.payload.channel.CreateGuildChannelPayload;
 import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
 import com.ladyluh.nekoffee.api.payload.send.MessageSendPayload;
 import com.ladyluh.nekoffee.api.voice.VoiceConnection;
 import okhttp3.MultipartBody;
@@ -41,6 +42,11 @@ public interface NekoffeeClient {
 
     CompletableFuture<Member> getGuildMember(String guildId, String userId);
 
+    /**
+     * @return O resolvedor de permissões síncrono, alimentado pelo cache de entidades.
+     */
+    PermissionResolver getPermissionResolver();
+
     CompletableFuture<Void> addRoleToMember(String guildId, String userId, String roleId);
 
     CompletableFuture<Void> removeRoleFromMember(String guildId, String userId, String roleId);
@@ -1,6 +1,7 @@
 package com.ladyluh.nekoffee.api.entities;
 
 import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -50,4 +51,14 @@ public interface Guild extends DiscordEntity {
 
     List<VoiceState> getVoiceStates(); 
 
+    /**
+     * @return Os canais do servidor, presentes apenas quando a guild veio de um GUILD_CREATE.
+     */
+    List<Channel> getChannels();
+
+    /**
+     * @return Os membros enviados no GUILD_CREATE (todos em guilds pequenas, parcial em guilds grandes).
+     */
+    List<Member> getMembers();
+
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.ladyluh.nekoffee.api.entities;
 
 import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
 import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.OffsetDateTime;
 import java.util.Collection;
@@ -30,6 +34,22 @@ public interface Member extends DiscordEntity {
      * @return Um CompletableFuture contendo true se o membro possui todas as permissões, false caso contrário.
      */
     CompletableFuture<Boolean> hasPermissions(Collection<Permission> permissions); 
+
+    /**
+     * Calcula as permissões só com o cache, sem chamadas à API.
+     *
+     * @param channel Canal cujos overwrites são aplicados, ou null para as permissões da guild.
+     * @return O bitmask efetivo, ou {@link PermissionResolver#UNKNOWN} se os cargos da guild não estão em cache.
+     */
+    long getPermissionsRaw(@Nullable Channel channel);
+
+    /**
+     * Versão síncrona de {@link #hasPermission(Permission)}; retorna false se as permissões não puderem ser calculadas.
+     *
+     * @param channel Canal cujos overwrites são aplicados, ou null para as permissões da guild.
+     */
+    boolean hasPermission(@Nullable Channel channel, Permission permission);
+
     /**
      * @return O objeto User associado a este membro. Contém informações globais do usuário.
      */
@@ -50,6 +70,13 @@ public interface Member extends DiscordEntity {
      */
     List<String> getRoleIds();
 
+    /**
+     * @return Os IDs dos cargos deste membro como Snowflakes primitivos.
+     */
+    default long[] getRoleIdsLong() {
+        return getRoleIds().stream().mapToLong(Snowflake::parse).toArray();
+    }
+
     /**
      * Busca a lista de objetos Role que este membro possui.
      * Isso pode envolver buscar todos os cargos da guild e filtrar, ou pode ser populado diretamente
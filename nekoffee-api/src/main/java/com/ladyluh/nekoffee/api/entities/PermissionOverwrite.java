@@ -0,0 +1,27 @@
+package com.ladyluh.nekoffee.api.entities;
+
+/**
+ * Sobrescrita de permissões de um canal para um cargo ou um membro.
+ */
+public interface PermissionOverwrite {
+
+    /**
+     * @return O ID do cargo ou do membro afetado.
+     */
+    long getTargetIdLong();
+
+    /**
+     * @return Se o alvo é um cargo ou um membro.
+     */
+    TargetType getTargetType();
+
+    /**
+     * @return As permissões (bitwise) liberadas pelo overwrite.
+     */
+    long getAllowRaw();
+
+    /**
+     * @return As permissões (bitwise) negadas pelo overwrite.
+     */
+    long getDenyRaw();
+}
@@ -2,6 +2,9 @@ package com.ladyluh.nekoffee.api.entities.channel;
 
 import com.ladyluh.nekoffee.api.NekoffeeClient;
 import com.ladyluh.nekoffee.api.entities.DiscordEntity;
+import com.ladyluh.nekoffee.api.entities.PermissionOverwrite;
+
+import java.util.List;
 
 public interface Channel extends DiscordEntity {
 
@@ -23,4 +26,9 @@ public interface Channel extends DiscordEntity {
      */
     String getGuildId();
 
+    /**
+     * @return Os overwrites de permissão do canal. Vazio para DMs.
+     */
+    List<PermissionOverwrite> getPermissionOverwrites();
+
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.ladyluh.nekoffee.api.event.channel;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.event.AbstractEvent;
+
+public class ChannelCreateEvent extends AbstractEvent {
+    private final Channel channel;
+
+    public ChannelCreateEvent(NekoffeeClient nekoffeeClient, Channel channel) {
+        super(nekoffeeClient);
+        this.channel = channel;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+}
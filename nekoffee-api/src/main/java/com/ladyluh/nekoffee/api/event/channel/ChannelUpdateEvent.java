@@ -0,0 +1,18 @@
+package com.ladyluh.nekoffee.api.event.channel;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.event.AbstractEvent;
+
+public class ChannelUpdateEvent extends AbstractEvent {
+    private final Channel channel;
+
+    public ChannelUpdateEvent(NekoffeeClient nekoffeeClient, Channel channel) {
+        super(nekoffeeClient);
+        this.channel = channel;
+    }
+
+    public Channel getChannel() {
+        return channel;
+    }
+}
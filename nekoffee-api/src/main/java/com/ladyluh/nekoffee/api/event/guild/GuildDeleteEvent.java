@@ -0,0 +1,26 @@
+package com.ladyluh.nekoffee.api.event.guild;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.event.AbstractEvent;
+
+public class GuildDeleteEvent extends AbstractEvent {
+    private final String guildId;
+    private final boolean unavailable;
+
+    public GuildDeleteEvent(NekoffeeClient nekoffeeClient, String guildId, boolean unavailable) {
+        super(nekoffeeClient);
+        this.guildId = guildId;
+        this.unavailable = unavailable;
+    }
+
+    public String getGuildId() {
+        return guildId;
+    }
+
+    /**
+     * @return true se a guild apenas ficou indisponível (queda), false se o bot saiu ou foi removido.
+     */
+    public boolean isUnavailable() {
+        return unavailable;
+    }
+}
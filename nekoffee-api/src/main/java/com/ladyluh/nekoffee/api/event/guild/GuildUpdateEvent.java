@@ -0,0 +1,21 @@
+package com.ladyluh.nekoffee.api.event.guild;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Guild;
+import com.ladyluh.nekoffee.api.event.AbstractEvent;
+
+public class GuildUpdateEvent extends AbstractEvent {
+    private final Guild guild;
+
+    public GuildUpdateEvent(NekoffeeClient nekoffeeClient, Guild guild) {
+        super(nekoffeeClient);
+        this.guild = guild;
+    }
+
+    /**
+     * @return A guild com os dados atualizados. Não inclui canais, membros nem voice_states.
+     */
+    public Guild getGuild() {
+        return guild;
+    }
+}
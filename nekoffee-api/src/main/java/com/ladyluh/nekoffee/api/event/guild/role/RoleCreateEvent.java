@@ -0,0 +1,24 @@
+package com.ladyluh.nekoffee.api.event.guild.role;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Role;
+import com.ladyluh.nekoffee.api.event.AbstractEvent;
+
+public class RoleCreateEvent extends AbstractEvent {
+    private final String guildId;
+    private final Role role;
+
+    public RoleCreateEvent(NekoffeeClient nekoffeeClient, String guildId, Role role) {
+        super(nekoffeeClient);
+        this.guildId = guildId;
+        this.role = role;
+    }
+
+    public String getGuildId() {
+        return guildId;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ladyluh.nekoffee.api.event.guild.role;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.event.AbstractEvent;
+
+public class RoleDeleteEvent extends AbstractEvent {
+    private final String guildId;
+    private final String roleId;
+
+    public RoleDeleteEvent(NekoffeeClient nekoffeeClient, String guildId, String roleId) {
+        super(nekoffeeClient);
+        this.guildId = guildId;
+        this.roleId = roleId;
+    }
+
+    public String getGuildId() {
+        return guildId;
+    }
+
+    public String getRoleId() {
+        return roleId;
+    }
+}
@@ -4,8 +4,10 @@ import com.ladyluh.nekoffee.api.NekoffeeClient;
 import com.ladyluh.nekoffee.api.entities.Guild;
 import com.ladyluh.nekoffee.api.entities.Member;
 import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.entities.VoiceState;
 import com.ladyluh.nekoffee.api.entities.channel.Channel;
 import com.ladyluh.nekoffee.api.event.AbstractEvent;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.CompletableFuture;
 
@@ -16,17 +18,33 @@ public class VoiceStateUpdateEvent extends AbstractEvent {
     private final String userId;
     private final boolean isMuted;
     private final boolean isDeafened;
+    @Nullable
+    private final VoiceState voiceState;
 
     public VoiceStateUpdateEvent(NekoffeeClient nekoffeeClient,
                                  String guildId, String channelId, String userId,
                                  boolean isMuted, boolean isDeafened) {
+        this(nekoffeeClient, guildId, channelId, userId, isMuted, isDeafened, null);
+    }
+
+    /**
+     * Evento com o estado de voz completo (sessão, stream, vídeo, supressão), como enviado pelo Gateway.
+     */
+    public VoiceStateUpdateEvent(NekoffeeClient nekoffeeClient, VoiceState voiceState) {
+        this(nekoffeeClient, voiceState.getGuildId(), voiceState.getChannelId(), voiceState.getUserId(),
+                voiceState.isMute() || voiceState.isSelfMute(), voiceState.isDeaf() || voiceState.isSelfDeaf(), voiceState);
+    }
+
+    private VoiceStateUpdateEvent(NekoffeeClient nekoffeeClient,
+                                  String guildId, String channelId, String userId,
+                                  boolean isMuted, boolean isDeafened, @Nullable VoiceState voiceState) {
         super(nekoffeeClient);
         this.guildId = guildId;
         this.channelId = channelId;
         this.userId = userId;
         this.isMuted = isMuted;
         this.isDeafened = isDeafened;
-
+        this.voiceState = voiceState;
     }
 
     public String getGuildId() {
@@ -49,6 +67,14 @@ public class VoiceStateUpdateEvent extends AbstractEvent {
         return isDeafened;
     }
 
+    /**
+     * @return O estado de voz completo, ou null se o evento foi criado só com os campos básicos.
+     */
+    @Nullable
+    public VoiceState getVoiceState() {
+        return voiceState;
+    }
+
     public CompletableFuture<User> retrieveUser() {
         return nekoffeeClient.getUserById(userId);
     }
@@ -0,0 +1,35 @@
+package com.ladyluh.nekoffee.api.payload.permission;
+
+import com.ladyluh.nekoffee.api.entities.Member;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Calcula permissões só com o que o cliente já tem em memória, sem chamadas à API.
+ */
+public interface PermissionResolver {
+
+    /**
+     * Retornado quando os cargos da guild ainda não estão em memória.
+     */
+    long UNKNOWN = -1L;
+
+    /**
+     * Retornado para administradores e para o dono da guild.
+     */
+    long ALL_PERMISSIONS = Long.MAX_VALUE;
+
+    /**
+     * @param channel Canal cujos overwrites são aplicados, ou null para as permissões da guild.
+     * @return O bitmask efetivo do membro, ou {@link #UNKNOWN}.
+     */
+    long getPermissions(Member member, @Nullable Channel channel);
+
+    /**
+     * @return true se o membro tem a permissão; false também quando o resultado é {@link #UNKNOWN}.
+     */
+    default boolean hasPermission(Member member, @Nullable Channel channel, Permission permission) {
+        long permissions = getPermissions(member, channel);
+        return permissions != UNKNOWN && (permissions & permission.getRawValue()) == permission.getRawValue();
+    }
+}
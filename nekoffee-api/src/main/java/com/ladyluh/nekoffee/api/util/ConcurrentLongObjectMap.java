@@ -0,0 +1,169 @@
+package com.ladyluh.nekoffee.api.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Versão thread-safe de {@link LongObjectHashMap}: as chaves são distribuídas entre segmentos,
+ * cada um protegido pelo seu próprio lock, para que threads do gateway e dos listeners não
+ * disputem um único monitor.
+ *
+ * @param <V> O tipo dos valores. Valores nulos não são permitidos.
+ */
+public class ConcurrentLongObjectMap<V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+
+    private final LongObjectHashMap<V>[] segments;
+    private final int segmentMask;
+
+    public ConcurrentLongObjectMap() {
+        this(DEFAULT_SEGMENTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConcurrentLongObjectMap(int concurrencyLevel) {
+        int count = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1)) << 1;
+        if (concurrencyLevel <= 1) {
+            count = 1;
+        }
+        this.segments = new LongObjectHashMap[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new LongObjectHashMap<>();
+        }
+        this.segmentMask = count - 1;
+    }
+
+    private LongObjectHashMap<V> segmentFor(long key) {
+        // Usa os bits altos do hash: os baixos já escolhem o slot dentro do segmento.
+        return segments[(Snowflake.hash(key) >>> 24) & segmentMask];
+    }
+
+    public V get(long key) {
+        LongObjectHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.get(key);
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public V put(long key, V value) {
+        LongObjectHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.put(key, value);
+        }
+    }
+
+    public V putIfAbsent(long key, V value) {
+        LongObjectHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            V existing = segment.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            segment.put(key, value);
+            return null;
+        }
+    }
+
+    /**
+     * A função roda sob o lock do segmento e não deve acessar este mapa.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+        LongObjectHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            V existing = segment.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            V created = mappingFunction.apply(key);
+            if (created != null) {
+                segment.put(key, created);
+            }
+            return created;
+        }
+    }
+
+    public V remove(long key) {
+        LongObjectHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.remove(key);
+        }
+    }
+
+    /**
+     * Remove apenas se a chave ainda estiver associada a {@code expected} (comparação por identidade).
+     */
+    public boolean remove(long key, V expected) {
+        LongObjectHashMap<V> segment = segmentFor(key);
+        synchronized (segment) {
+            if (segment.get(key) != expected) {
+                return false;
+            }
+            segment.remove(key);
+            return true;
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (LongObjectHashMap<V> segment : segments) {
+            synchronized (segment) {
+                total += segment.size();
+            }
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        for (LongObjectHashMap<V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /**
+     * Itera segmento a segmento; a visão é consistente por segmento, não global.
+     * A ação roda sob o lock do segmento e não deve acessar este mapa.
+     */
+    public void forEach(LongObjectHashMap.LongObjectConsumer<? super V> action) {
+        for (LongObjectHashMap<V> segment : segments) {
+            synchronized (segment) {
+                segment.forEach(action);
+            }
+        }
+    }
+
+    public long[] keys() {
+        long[][] parts = new long[segments.length][];
+        int total = 0;
+        for (int i = 0; i < segments.length; i++) {
+            synchronized (segments[i]) {
+                parts[i] = segments[i].keys();
+            }
+            total += parts[i].length;
+        }
+        long[] result = new long[total];
+        int offset = 0;
+        for (long[] part : parts) {
+            System.arraycopy(part, 0, result, offset, part.length);
+            offset += part.length;
+        }
+        return result;
+    }
+
+    public List<V> values() {
+        List<V> result = new ArrayList<>();
+        forEach((key, value) -> result.add(value));
+        return result;
+    }
+}
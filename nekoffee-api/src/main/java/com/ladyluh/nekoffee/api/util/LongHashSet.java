@@ -0,0 +1,162 @@
+package com.ladyluh.nekoffee.api.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto de {@code long} primitivos com endereçamento aberto. Não é thread-safe.
+ */
+public class LongHashSet {
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(8);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(LongObjectHashMap.tableSizeFor(expectedSize));
+    }
+
+    public boolean contains(long value) {
+        if (value == 0L) {
+            return containsZero;
+        }
+        for (int slot = Snowflake.hash(value) & mask; ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == value) {
+                return true;
+            }
+            if (existing == 0L) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return true se o valor não estava presente.
+     */
+    public boolean add(long value) {
+        if (value == 0L) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        for (int slot = Snowflake.hash(value) & mask; ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == value) {
+                return false;
+            }
+            if (existing == 0L) {
+                keys[slot] = value;
+                if (++size > resizeAt) {
+                    rehash(keys.length << 1);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return true se o valor estava presente.
+     */
+    public boolean remove(long value) {
+        if (value == 0L) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        for (int slot = Snowflake.hash(value) & mask; ; slot = (slot + 1) & mask) {
+            long existing = keys[slot];
+            if (existing == 0L) {
+                return false;
+            }
+            if (existing == value) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        containsZero = false;
+        size = 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(0L);
+        }
+        for (long key : keys) {
+            if (key != 0L) {
+                action.accept(key);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] result = new long[size];
+        int i = 0;
+        if (containsZero) {
+            result[i++] = 0L;
+        }
+        for (long key : keys) {
+            if (key != 0L) {
+                result[i++] = key;
+            }
+        }
+        return result;
+    }
+
+    private void shiftBack(int slot) {
+        int gap = slot;
+        for (int next = (gap + 1) & mask; keys[next] != 0L; next = (next + 1) & mask) {
+            int ideal = Snowflake.hash(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                gap = next;
+            }
+        }
+        keys[gap] = 0L;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        allocate(newCapacity);
+        for (long key : oldKeys) {
+            if (key != 0L) {
+                int slot = Snowflake.hash(key) & mask;
+                while (keys[slot] != 0L) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.6f);
+    }
+}
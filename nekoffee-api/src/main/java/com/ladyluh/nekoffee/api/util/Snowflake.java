@@ -0,0 +1,59 @@
+package com.ladyluh.nekoffee.api.util;
+
+/**
+ * Conversões entre a representação textual de um Snowflake (como o Discord envia no JSON)
+ * e o {@code long} usado internamente. O valor {@code 0} representa "sem ID".
+ */
+public final class Snowflake {
+
+    public static final long NONE = 0L;
+
+    private Snowflake() {
+    }
+
+    /**
+     * Converte sem lançar exceção: qualquer entrada malformada vira {@link #NONE}. Isso inclui null, string
+     * vazia, sinais, espaços, qualquer caractere fora de {@code 0-9}, mais de 19 dígitos e valores acima de
+     * {@link Long#MAX_VALUE}. Como {@code "0"} também resulta em {@link #NONE}, quem precisa distinguir "ausente"
+     * de "inválido" deve checar a string antes.
+     *
+     * @return o Snowflake como long, ou {@link #NONE} se a string for nula, vazia ou inválida.
+     */
+    public static long parse(String id) {
+        if (id == null) {
+            return NONE;
+        }
+        int length = id.length();
+        if (length == 0 || length > 19) {
+            return NONE;
+        }
+        long result = 0L;
+        for (int i = 0; i < length; i++) {
+            int digit = id.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NONE;
+            }
+            result = result * 10 + digit;
+            if (result < 0) {
+                return NONE;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return a forma textual do Snowflake, ou {@code null} para {@link #NONE}.
+     */
+    public static String toString(long id) {
+        return id == NONE ? null : Long.toString(id);
+    }
+
+    /**
+     * Mistura os bits do ID para uso em tabelas hash com máscara de potência de dois.
+     * Snowflakes têm os bits baixos dominados pelo contador do worker, então o ID cru distribui mal.
+     */
+    public static int hash(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
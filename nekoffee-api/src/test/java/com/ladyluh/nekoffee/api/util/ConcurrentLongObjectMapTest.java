@@ -0,0 +1,137 @@
+package com.ladyluh.nekoffee.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentLongObjectMapTest {
+    private static final int THREADS = 8;
+    private static final int KEYS_PER_THREAD = 50_000;
+
+    @Test
+    void concurrentPutsOfDisjointKeysAreAllVisible() throws Exception {
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>();
+        runConcurrently(thread -> {
+            for (long i = 0; i < KEYS_PER_THREAD; i++) {
+                long key = 1_000_000_000_000_000L + thread * (long) KEYS_PER_THREAD + i;
+                assertNull(map.put(key, key));
+            }
+        });
+        assertEquals(THREADS * KEYS_PER_THREAD, map.size());
+        assertEquals(THREADS * KEYS_PER_THREAD, map.keys().length);
+        for (long key = 1_000_000_000_000_000L; key < 1_000_000_000_000_000L + THREADS * KEYS_PER_THREAD; key++) {
+            assertEquals(key, map.get(key));
+        }
+    }
+
+    @Test
+    void computeIfAbsentCreatesOneValuePerKey() throws Exception {
+        ConcurrentLongObjectMap<Object> map = new ConcurrentLongObjectMap<>();
+        AtomicInteger created = new AtomicInteger();
+        Set<Object>[] seen = newSeenSets(1_000);
+        runConcurrently(thread -> {
+            for (int key = 1; key <= 1_000; key++) {
+                seen[key - 1].add(map.computeIfAbsent(key, k -> {
+                    created.incrementAndGet();
+                    return new Object();
+                }));
+            }
+        });
+        assertEquals(1_000, created.get());
+        for (Set<Object> values : seen) {
+            assertEquals(1, values.size());
+        }
+    }
+
+    @Test
+    void concurrentPutIfAbsentHasOneWinner() throws Exception {
+        ConcurrentLongObjectMap<Integer> map = new ConcurrentLongObjectMap<>();
+        AtomicInteger winners = new AtomicInteger();
+        runConcurrently(thread -> {
+            if (map.putIfAbsent(42L, thread) == null) {
+                winners.incrementAndGet();
+            }
+        });
+        assertEquals(1, winners.get());
+    }
+
+    @Test
+    void conditionalRemoveComparesIdentity() {
+        ConcurrentLongObjectMap<String> map = new ConcurrentLongObjectMap<>();
+        String value = new String("a");
+        map.put(1L, value);
+        assertFalse(map.remove(1L, new String("a")));
+        assertSame(value, map.get(1L));
+        assertTrue(map.remove(1L, value));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void concurrentPutsAndRemovesLeaveConsistentState() throws Exception {
+        ConcurrentLongObjectMap<Long> map = new ConcurrentLongObjectMap<>(4);
+        runConcurrently(thread -> {
+            long base = thread * 10_000L + 1;
+            for (long key = base; key < base + 10_000; key++) {
+                map.put(key, key);
+            }
+            for (long key = base; key < base + 10_000; key += 2) {
+                assertEquals(key, map.remove(key));
+            }
+        });
+        assertEquals(THREADS * 5_000, map.size());
+        for (int thread = 0; thread < THREADS; thread++) {
+            long base = thread * 10_000L + 1;
+            assertNull(map.get(base));
+            assertEquals(base + 1, map.get(base + 1));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<Object>[] newSeenSets(int count) {
+        Set<Object>[] sets = new Set[count];
+        for (int i = 0; i < count; i++) {
+            sets[i] = ConcurrentHashMap.newKeySet();
+        }
+        return sets;
+    }
+
+    private static void runConcurrently(ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int id = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(id);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ladyluh.nekoffee.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongLongHashMapTest {
+
+    @Test
+    void removeInsideCollisionClusterKeepsOtherKeys() {
+        long[] keys = LongObjectHashMapTest.collidingKeys(8, 5, 4);
+        LongLongHashMap map = new LongLongHashMap();
+        for (long key : keys) {
+            map.put(key, key * 10);
+        }
+        assertTrue(map.remove(keys[1]));
+        assertFalse(map.remove(keys[1]));
+        assertEquals(-1L, map.get(keys[1], -1L));
+        assertEquals(keys[0] * 10, map.get(keys[0], -1L));
+        assertEquals(keys[2] * 10, map.get(keys[2], -1L));
+        assertEquals(keys[3] * 10, map.get(keys[3], -1L));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void zeroKeyAndZeroValue() {
+        LongLongHashMap map = new LongLongHashMap();
+        assertFalse(map.containsKey(0L));
+        map.put(0L, 0L);
+        assertTrue(map.containsKey(0L));
+        assertEquals(0L, map.get(0L, -1L));
+        map.put(7L, 0L);
+        assertTrue(map.containsKey(7L));
+        assertEquals(2, map.size());
+        assertTrue(map.remove(0L));
+        assertEquals(-1L, map.get(0L, -1L));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        LongLongHashMap original = new LongLongHashMap();
+        original.put(1L, 1L);
+        LongLongHashMap copy = new LongLongHashMap(original);
+        copy.put(2L, 2L);
+        copy.remove(1L);
+        assertEquals(1L, original.get(1L, -1L));
+        assertFalse(original.containsKey(2L));
+        assertEquals(1, original.size());
+        assertEquals(1, copy.size());
+    }
+
+    @Test
+    void matchesHashMapAcrossResizes() {
+        SplittableRandom random = new SplittableRandom(7);
+        LongLongHashMap map = new LongLongHashMap();
+        Map<Long, Long> reference = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextLong(5_000);
+            long value = random.nextLong();
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    reference.put(key, value);
+                    map.put(key, value);
+                }
+                case 1 -> assertEquals(reference.remove(key) != null, map.remove(key));
+                default -> assertEquals(reference.getOrDefault(key, Long.MIN_VALUE), map.get(key, Long.MIN_VALUE));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+}
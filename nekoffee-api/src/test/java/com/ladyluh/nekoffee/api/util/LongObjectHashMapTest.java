@@ -0,0 +1,142 @@
+package com.ladyluh.nekoffee.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectHashMapTest {
+
+    /**
+     * Chaves que caem no mesmo slot ideal de uma tabela de {@code capacity} posições.
+     */
+    static long[] collidingKeys(int capacity, int slot, int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            if ((Snowflake.hash(key) & (capacity - 1)) == slot) {
+                keys[found++] = key;
+            }
+        }
+        return keys;
+    }
+
+    @Test
+    void collidingKeysAreAllReachable() {
+        // Capacidade inicial 8 cresce depois de 4 entradas: 4 colisões ficam na mesma tabela.
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        long[] keys = collidingKeys(8, 3, 4);
+        for (long key : keys) {
+            assertNull(map.put(key, "v" + key));
+        }
+        for (long key : keys) {
+            assertEquals("v" + key, map.get(key));
+        }
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    void removeShiftsBackTheRestOfTheCluster() {
+        long[] keys = collidingKeys(8, 3, 4);
+        for (int removed = 0; removed < keys.length; removed++) {
+            LongObjectHashMap<String> map = new LongObjectHashMap<>();
+            for (long key : keys) {
+                map.put(key, "v" + key);
+            }
+            assertEquals("v" + keys[removed], map.remove(keys[removed]));
+            assertNull(map.get(keys[removed]));
+            assertNull(map.remove(keys[removed]));
+            for (int i = 0; i < keys.length; i++) {
+                if (i != removed) {
+                    assertEquals("v" + keys[i], map.get(keys[i]), "chave " + i + " depois de remover " + removed);
+                }
+            }
+            assertEquals(3, map.size());
+        }
+    }
+
+    @Test
+    void clusterWrappingAroundTheEndOfTheTable() {
+        // Slot ideal 7 numa tabela de 8: as colisões continuam nos slots 0, 1, ...
+        long[] keys = collidingKeys(8, 7, 3);
+        long other = collidingKeys(8, 0, 1)[0];
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        for (long key : keys) {
+            map.put(key, "v" + key);
+        }
+        map.put(other, "other");
+        map.remove(keys[0]);
+        assertEquals("v" + keys[1], map.get(keys[1]));
+        assertEquals("v" + keys[2], map.get(keys[2]));
+        assertEquals("other", map.get(other));
+        map.remove(keys[1]);
+        assertEquals("v" + keys[2], map.get(keys[2]));
+        assertEquals("other", map.get(other));
+    }
+
+    @Test
+    void zeroKeyIsStoredOutsideTheTable() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertNull(map.get(0L));
+        map.put(0L, "zero");
+        map.put(1L, "one");
+        assertEquals("zero", map.get(0L));
+        assertEquals(2, map.size());
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertEquals(List.of(0L, 1L), Arrays.stream(keys).boxed().toList());
+        assertEquals("zero", map.remove(0L));
+        assertFalse(map.containsKey(0L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void nullValuesAreRejected() {
+        assertThrows(NullPointerException.class, () -> new LongObjectHashMap<String>().put(1L, null));
+    }
+
+    @Test
+    void resizeKeepsEveryEntry() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        for (long key = 1; key <= 100_000; key++) {
+            map.put(key * 4_194_304L, key);
+        }
+        assertEquals(100_000, map.size());
+        for (long key = 1; key <= 100_000; key++) {
+            assertEquals(key, map.get(key * 4_194_304L));
+        }
+        List<Long> values = new ArrayList<>(map.values());
+        assertEquals(100_000, values.size());
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        SplittableRandom random = new SplittableRandom(42);
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        Map<Long, Long> reference = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // Poucas chaves distintas para forçar remoções de chaves existentes e clusters densos.
+            long key = random.nextLong(2_000);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(reference.put(key, (long) i), map.put(key, (long) i));
+                case 1 -> assertEquals(reference.remove(key), map.remove(key));
+                default -> assertEquals(reference.get(key), map.get(key));
+            }
+            assertEquals(reference.size(), map.size());
+        }
+        map.forEach((key, value) -> assertEquals(reference.get(key), value));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(reference.keySet().iterator().next()));
+    }
+}
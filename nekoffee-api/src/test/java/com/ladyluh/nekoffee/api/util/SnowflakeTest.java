@@ -0,0 +1,52 @@
+package com.ladyluh.nekoffee.api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnowflakeTest {
+
+    @Test
+    void parsesValidIds() {
+        assertEquals(80351110224678912L, Snowflake.parse("80351110224678912"));
+        assertEquals(1L, Snowflake.parse("1"));
+        assertEquals(Long.MAX_VALUE, Snowflake.parse(Long.toString(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void malformedInputReturnsNone() {
+        String[] malformed = {null, "", " ", "abc", "12a", "-1", "+1", " 1", "1 ", "1.0", "0x10", "<@123>",
+                "9223372036854775808", "99999999999999999999", "١٢٣"};
+        for (String input : malformed) {
+            assertEquals(Snowflake.NONE, Snowflake.parse(input), "parse(" + input + ")");
+        }
+    }
+
+    @Test
+    void zeroIsIndistinguishableFromNone() {
+        assertEquals(Snowflake.NONE, Snowflake.parse("0"));
+    }
+
+    @Test
+    void toStringRoundTrips() {
+        assertEquals("80351110224678912", Snowflake.toString(Snowflake.parse("80351110224678912")));
+        assertNull(Snowflake.toString(Snowflake.NONE));
+    }
+
+    @Test
+    void hashSpreadsSequentialIdsAcrossLowBits() {
+        // IDs do mesmo worker diferem nos bits baixos só pelo contador; o hash deve espalhá-los.
+        boolean[] used = new boolean[64];
+        int distinct = 0;
+        for (long id = 80351110224678912L; id < 80351110224678912L + 64; id++) {
+            int slot = Snowflake.hash(id) & 63;
+            if (!used[slot]) {
+                used[slot] = true;
+                distinct++;
+            }
+        }
+        assertTrue(distinct > 32, "slots distintos: " + distinct);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.ladyluh.nekoffee.opus.OpusDecoder;
+
+/**
+ * Frames PCM sintéticos no formato do Discord: 20ms, 48kHz, estéreo, 16-bit little-endian.
+ */
+final class AudioFrames {
+    static final int PCM_FRAME_BYTES = OpusDecoder.FRAME_SIZE * OpusDecoder.CHANNELS * 2;
+
+    private AudioFrames() {
+    }
+
+    static byte[] sine(double frequency, double amplitude, int frameIndex) {
+        byte[] pcm = new byte[PCM_FRAME_BYTES];
+        int sampleOffset = frameIndex * OpusDecoder.FRAME_SIZE;
+        for (int i = 0; i < OpusDecoder.FRAME_SIZE; i++) {
+            double t = (sampleOffset + i) / (double) OpusDecoder.SAMPLE_RATE;
+            short sample = (short) (Math.sin(2 * Math.PI * frequency * t) * amplitude * Short.MAX_VALUE);
+            for (int channel = 0; channel < OpusDecoder.CHANNELS; channel++) {
+                int index = (i * OpusDecoder.CHANNELS + channel) * 2;
+                pcm[index] = (byte) sample;
+                pcm[index + 1] = (byte) (sample >> 8);
+            }
+        }
+        return pcm;
+    }
+}
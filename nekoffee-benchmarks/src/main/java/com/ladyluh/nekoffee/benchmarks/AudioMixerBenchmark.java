@@ -0,0 +1,47 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.ladyluh.nekoffee.services.TimedAudioMixer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mixagem de um frame de 20ms com N falantes simultâneos, como no relógio do TimedAudioMixer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AudioMixerBenchmark {
+
+    @Param({"1", "4", "10"})
+    public int speakers;
+
+    private byte[][] speakerFrames;
+    private byte[] mixedFrame;
+    private ByteBuffer mixedFrameBuffer;
+
+    @Setup
+    public void setup() {
+        speakerFrames = new byte[speakers][];
+        for (int i = 0; i < speakers; i++) {
+            speakerFrames[i] = AudioFrames.sine(220 + 110 * i, 0.3, i);
+        }
+        mixedFrame = new byte[AudioFrames.PCM_FRAME_BYTES];
+        mixedFrameBuffer = ByteBuffer.wrap(mixedFrame).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public byte[] mixFrame() {
+        Arrays.fill(mixedFrame, (byte) 0);
+        for (byte[] frame : speakerFrames) {
+            TimedAudioMixer.mixInto(mixedFrameBuffer, frame);
+        }
+        return mixedFrame;
+    }
+}
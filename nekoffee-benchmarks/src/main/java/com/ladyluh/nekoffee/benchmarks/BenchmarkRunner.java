@@ -0,0 +1,126 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ladyluh.nekoffee.json.util.JsonEngine;
+import com.ladyluh.nekoffee.json.util.impl.JacksonJsonEngineImpl;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Roda as suítes com o GCProfiler e, opcionalmente, barra regressões de alocação contra uma execução anterior.
+ * <p>
+ * Uso: {@code java -jar nekoffee-benchmarks/target/benchmarks.jar [regex] [--out arquivo.json]
+ * [--baseline anterior.json] [--tolerance 0.10]}
+ * <p>
+ * O gate compara gc.alloc.rate.norm (bytes alocados por operação), que independe da máquina, ao contrário do tempo.
+ */
+public final class BenchmarkRunner {
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+    /**
+     * Folga absoluta em bytes/op, para benchmarks que quase não alocam não falharem por ruído.
+     */
+    private static final double ALLOC_SLACK_BYTES = 16;
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = BenchmarkRunner.class.getPackageName() + ".*";
+        Path output = Path.of("benchmarks-result.json");
+        Path baseline = null;
+        double tolerance = 0.10;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--out" -> output = Path.of(args[++i]);
+                case "--baseline" -> baseline = Path.of(args[++i]);
+                case "--tolerance" -> tolerance = Double.parseDouble(args[++i]);
+                default -> include = args[i];
+            }
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(output.toString());
+
+        Collection<RunResult> results = new Runner(options.build()).run();
+
+        if (baseline != null) {
+            List<String> regressions = compareAllocations(results, readBaseline(baseline), tolerance);
+            if (!regressions.isEmpty()) {
+                System.err.println("Regressões de alocação em relação a " + baseline + ":");
+                regressions.forEach(line -> System.err.println("  " + line));
+                System.exit(1);
+            }
+            System.out.println("Nenhuma regressão de alocação acima de " + Math.round(tolerance * 100) + "%.");
+        }
+    }
+
+    private static Map<String, Double> readBaseline(Path baseline) throws IOException {
+        JsonEngine jsonEngine = new JacksonJsonEngineImpl();
+        JsonNode runs = jsonEngine.fromJsonBytes(Files.readAllBytes(baseline), JsonNode.class);
+        Map<String, Double> allocations = new HashMap<>();
+        for (JsonNode run : runs) {
+            Map<String, String> params = new TreeMap<>();
+            JsonNode paramsNode = run.get("params");
+            if (paramsNode != null) {
+                paramsNode.fields().forEachRemaining(entry -> params.put(entry.getKey(), entry.getValue().asText()));
+            }
+            JsonNode secondary = run.path("secondaryMetrics");
+            secondary.fields().forEachRemaining(entry -> {
+                if (stripPrefix(entry.getKey()).equals(ALLOC_NORM)) {
+                    allocations.put(key(run.get("benchmark").asText(), params), entry.getValue().get("score").asDouble());
+                }
+            });
+        }
+        return allocations;
+    }
+
+    private static List<String> compareAllocations(Collection<RunResult> results, Map<String, Double> baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            Map<String, String> paramValues = new TreeMap<>();
+            for (String name : params.getParamsKeys()) {
+                paramValues.put(name, params.getParam(name));
+            }
+            String key = key(params.getBenchmark(), paramValues);
+            Double previous = baseline.get(key);
+            if (previous == null) continue;
+
+            for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+                if (!stripPrefix(entry.getKey()).equals(ALLOC_NORM)) continue;
+                double current = entry.getValue().getScore();
+                if (current > previous * (1 + tolerance) + ALLOC_SLACK_BYTES) {
+                    regressions.add(String.format(Locale.ROOT, "%s: %.1f -> %.1f B/op", key, previous, current));
+                }
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Versões antigas do JMH prefixam as métricas do profiler com "·".
+     */
+    private static String stripPrefix(String metric) {
+        return metric.startsWith("·") ? metric.substring(1) : metric;
+    }
+
+    private static String key(String benchmark, Map<String, String> params) {
+        return params.isEmpty() ? benchmark : benchmark + params;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ladyluh.nekoffee.api.entities.Message;
+import com.ladyluh.nekoffee.gateway.client.impl.OkHttpWebSocketGatewayClientImpl.GatewayReceivePayload;
+import com.ladyluh.nekoffee.json.util.JsonEngine;
+import com.ladyluh.nekoffee.json.util.impl.JacksonJsonEngineImpl;
+import com.ladyluh.nekoffee.model.gateway.GuildMemberRemovePayloadData;
+import com.ladyluh.nekoffee.model.gateway.ReadyPayloadData;
+import com.ladyluh.nekoffee.model.guild.GuildImpl;
+import com.ladyluh.nekoffee.model.member.MemberImpl;
+import com.ladyluh.nekoffee.model.message.LazyMessage;
+import com.ladyluh.nekoffee.model.message.MessageImpl;
+import com.ladyluh.nekoffee.model.user.UserImpl;
+import com.ladyluh.nekoffee.model.voice.VoiceStateImpl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificação de um frame do Gateway, do texto recebido até a entidade do evento, seguindo os mesmos
+ * passos do listener em OkHttpWebSocketGatewayClientImpl: envelope, depois o "d" para o tipo do evento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewayDecodeBenchmark {
+
+    @Param({"READY", "GUILD_CREATE", "MESSAGE_CREATE", "MESSAGE_UPDATE", "GUILD_MEMBER_UPDATE", "VOICE_STATE_UPDATE"})
+    public String eventType;
+
+    private JsonEngine jsonEngine;
+    private String textFrame;
+    private byte[] binaryFrame;
+
+    @Setup
+    public void setup() {
+        jsonEngine = new JacksonJsonEngineImpl();
+        binaryFrame = Payloads.load(eventType);
+        textFrame = new String(binaryFrame, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object textFrame() {
+        return dispatch(jsonEngine.fromJsonString(textFrame, GatewayReceivePayload.class));
+    }
+
+    @Benchmark
+    public Object binaryFrame() {
+        return dispatch(jsonEngine.fromJsonBytes(binaryFrame, GatewayReceivePayload.class));
+    }
+
+    /**
+     * Modo de entidades preguiçosas com um listener típico, que lê só autor, conteúdo e canal.
+     */
+    @Benchmark
+    public void lazyMessageRead(Blackhole blackhole) {
+        if (!eventType.startsWith("MESSAGE_")) {
+            return;
+        }
+        GatewayReceivePayload payload = jsonEngine.fromJsonString(textFrame, GatewayReceivePayload.class);
+        Message message = new LazyMessage(payload.d, node -> jsonEngine.fromJsonTree(node, UserImpl.class));
+        blackhole.consume(message.getAuthor());
+        blackhole.consume(message.getContentRaw());
+        blackhole.consume(message.getChannelId());
+        blackhole.consume(message.getGuildId());
+    }
+
+    private Object dispatch(GatewayReceivePayload payload) {
+        JsonNode data = payload.d;
+        return switch (payload.t) {
+            case "READY" -> jsonEngine.fromJsonTree(data, ReadyPayloadData.class);
+            case "GUILD_CREATE" -> jsonEngine.fromJsonTree(data, GuildImpl.class);
+            case "MESSAGE_CREATE", "MESSAGE_UPDATE" -> jsonEngine.fromJsonTree(data, MessageImpl.class);
+            case "GUILD_MEMBER_ADD", "GUILD_MEMBER_UPDATE" -> jsonEngine.fromJsonTree(data, MemberImpl.class);
+            case "GUILD_MEMBER_REMOVE" -> jsonEngine.fromJsonTree(data, GuildMemberRemovePayloadData.class);
+            case "VOICE_STATE_UPDATE" -> jsonEngine.fromJsonTree(data, VoiceStateImpl.class);
+            default -> data;
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ladyluh.nekoffee.gateway.client.impl.OkHttpWebSocketGatewayClientImpl.GatewayReceivePayload;
+import com.ladyluh.nekoffee.json.util.JsonEngine;
+import com.ladyluh.nekoffee.json.util.impl.JacksonJsonEngineImpl;
+import com.ladyluh.nekoffee.model.guild.GuildImpl;
+import com.ladyluh.nekoffee.model.message.MessageImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ida e volta pelo JsonEngine (bytes -> entidade -> bytes), nas formas String, byte[] e stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonEngineBenchmark {
+
+    @Param({"MESSAGE_CREATE", "GUILD_CREATE"})
+    public String eventType;
+
+    private JsonEngine jsonEngine;
+    private Class<?> entityType;
+    private byte[] entityJson;
+    private String entityJsonString;
+    private ByteArrayOutputStream outputStream;
+
+    @Setup
+    public void setup() {
+        jsonEngine = new JacksonJsonEngineImpl();
+        entityType = eventType.equals("GUILD_CREATE") ? GuildImpl.class : MessageImpl.class;
+        JsonNode data = jsonEngine.fromJsonBytes(Payloads.load(eventType), GatewayReceivePayload.class).d;
+        entityJson = jsonEngine.toJsonBytes(data);
+        entityJsonString = jsonEngine.toJsonString(data);
+        outputStream = new ByteArrayOutputStream(entityJson.length * 2);
+    }
+
+    @Benchmark
+    public String stringRoundTrip() {
+        return jsonEngine.toJsonString(jsonEngine.fromJsonString(entityJsonString, entityType));
+    }
+
+    @Benchmark
+    public byte[] bytesRoundTrip() {
+        return jsonEngine.toJsonBytes(jsonEngine.fromJsonBytes(entityJson, entityType));
+    }
+
+    @Benchmark
+    public int streamRoundTrip() {
+        outputStream.reset();
+        jsonEngine.writeJson(jsonEngine.fromJsonBytes(entityJson, entityType), outputStream);
+        return outputStream.size();
+    }
+}
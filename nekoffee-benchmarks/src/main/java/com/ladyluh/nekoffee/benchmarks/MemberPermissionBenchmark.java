@@ -0,0 +1,74 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.cache.entity.CacheFlag;
+import com.ladyluh.nekoffee.cache.entity.EntityStore;
+import com.ladyluh.nekoffee.cache.permission.PermissionEngine;
+import com.ladyluh.nekoffee.gateway.client.impl.OkHttpWebSocketGatewayClientImpl.GatewayReceivePayload;
+import com.ladyluh.nekoffee.json.util.JsonEngine;
+import com.ladyluh.nekoffee.json.util.impl.JacksonJsonEngineImpl;
+import com.ladyluh.nekoffee.model.guild.GuildImpl;
+import com.ladyluh.nekoffee.model.member.MemberImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de permissões de um membro sobre os cargos da guild gravada em GUILD_CREATE:
+ * pelo caminho assíncrono (getGuildRoles) e pelo PermissionEngine em cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemberPermissionBenchmark {
+
+    private MemberImpl member;
+    private MemberImpl cachedMember;
+    private Channel channel;
+    private EnumSet<Permission> required;
+
+    @Setup
+    public void setup() {
+        JsonEngine jsonEngine = new JacksonJsonEngineImpl();
+        JsonNode guildData = jsonEngine.fromJsonBytes(Payloads.load("GUILD_CREATE"), GatewayReceivePayload.class).d;
+        GuildImpl guild = jsonEngine.fromJsonTree(guildData, GuildImpl.class);
+
+        member = jsonEngine.fromJsonTree(guildData.get("members").get(0), MemberImpl.class);
+        member.setGuildId(guild.getId());
+        member.setNekoffeeClient(StubClients.withGuildRoles(guild.getRoles()));
+        required = EnumSet.of(Permission.MANAGE_CHANNELS, Permission.MOVE_MEMBERS);
+
+        EntityStore entityStore = new EntityStore(CacheFlag.defaults());
+        entityStore.putGuild(guild);
+        cachedMember = jsonEngine.fromJsonTree(guildData.get("members").get(0), MemberImpl.class);
+        cachedMember.setGuildId(guild.getId());
+        cachedMember.setNekoffeeClient(StubClients.withGuildRoles(guild.getRoles(), new PermissionEngine(entityStore)));
+        channel = jsonEngine.fromJsonTree(guildData.get("channels").get(0), Channel.class);
+    }
+
+    @Benchmark
+    public long permissionsRaw() {
+        return member.getPermissionsRaw().join();
+    }
+
+    @Benchmark
+    public boolean hasPermissions() {
+        return member.hasPermissions(required).join();
+    }
+
+    @Benchmark
+    public long enginePermissions() {
+        return cachedMember.getPermissionsRaw(null);
+    }
+
+    @Benchmark
+    public long engineChannelPermissions() {
+        return cachedMember.getPermissionsRaw(channel);
+    }
+}
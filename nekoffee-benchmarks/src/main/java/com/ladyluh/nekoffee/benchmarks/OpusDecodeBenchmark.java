@@ -0,0 +1,47 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.ladyluh.nekoffee.opus.OpusDecoder;
+import com.ladyluh.nekoffee.opus.OpusEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OpusDecoder.decode sobre frames codificados no setup (requer a libopus nativa, como em produção).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpusDecodeBenchmark {
+    private static final int FRAME_COUNT = 50;
+
+    private OpusDecoder decoder;
+    private byte[][] opusFrames;
+    private int next;
+
+    @Setup
+    public void setup() {
+        opusFrames = new byte[FRAME_COUNT][];
+        try (OpusEncoder encoder = new OpusEncoder()) {
+            for (int i = 0; i < FRAME_COUNT; i++) {
+                opusFrames[i] = encoder.encode(AudioFrames.sine(440, 0.4, i));
+            }
+        }
+        decoder = new OpusDecoder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        decoder.close();
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        byte[] frame = opusFrames[next];
+        next = (next + 1) % FRAME_COUNT;
+        return decoder.decode(frame);
+    }
+}
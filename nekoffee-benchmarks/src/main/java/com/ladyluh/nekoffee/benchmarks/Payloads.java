@@ -0,0 +1,26 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Frames do Gateway gravados em src/main/resources/payloads, um arquivo por tipo de evento.
+ */
+final class Payloads {
+
+    private Payloads() {
+    }
+
+    static byte[] load(String eventType) {
+        String resource = "/payloads/" + eventType + ".json";
+        try (InputStream in = Payloads.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Payload gravado não encontrado: " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler " + resource, e);
+        }
+    }
+}
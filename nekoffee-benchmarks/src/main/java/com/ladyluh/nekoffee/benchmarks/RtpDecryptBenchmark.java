@@ -0,0 +1,57 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.iwebpp.crypto.TweetNaclFast;
+import com.ladyluh.nekoffee.voice.RtpPacketDecryptor;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abertura de pacotes RTP xsalsa20_poly1305_suffix pelo mesmo RtpPacketDecryptor usado no VoiceConnectionImpl.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RtpDecryptBenchmark {
+
+    /**
+     * Tamanho do payload Opus (com a extensão de cabeçalho RTP); ~120 bytes é típico para voz a 64kbps.
+     */
+    @Param({"120", "400"})
+    public int payloadSize;
+
+    private RtpPacketDecryptor decryptor;
+    private ByteBuffer packet;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        byte[] secretKey = new byte[32];
+        random.nextBytes(secretKey);
+
+        byte[] header = new byte[RtpPacketDecryptor.RTP_HEADER_SIZE];
+        header[0] = (byte) 0x90;
+        header[1] = 0x78;
+        byte[] nonce = new byte[RtpPacketDecryptor.NONCE_SIZE];
+        random.nextBytes(nonce);
+        byte[] payload = new byte[payloadSize];
+        random.nextBytes(payload);
+
+        byte[] encrypted = new TweetNaclFast.SecretBox(secretKey).box(payload, nonce);
+        packet = ByteBuffer.allocate(header.length + encrypted.length + nonce.length);
+        packet.put(header).put(encrypted).put(nonce).flip();
+
+        decryptor = new RtpPacketDecryptor(secretKey);
+    }
+
+    @Benchmark
+    public byte[] open() {
+        packet.position(0);
+        return decryptor.open(packet);
+    }
+}
@@ -0,0 +1,40 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Role;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * NekoffeeClient falso para os benchmarks: responde getGuildRoles com os cargos gravados, sem rede.
+ */
+final class StubClients {
+
+    private StubClients() {
+    }
+
+    static NekoffeeClient withGuildRoles(List<Role> roles) {
+        return withGuildRoles(roles, null);
+    }
+
+    /**
+     * @param resolver Resolvedor síncrono devolvido pelo cliente; null força o caminho via getGuildRoles.
+     */
+    static NekoffeeClient withGuildRoles(List<Role> roles, PermissionResolver resolver) {
+        CompletableFuture<List<Role>> rolesFuture = CompletableFuture.completedFuture(roles);
+        return (NekoffeeClient) Proxy.newProxyInstance(
+                NekoffeeClient.class.getClassLoader(),
+                new Class<?>[]{NekoffeeClient.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getGuildRoles" -> rolesFuture;
+                    case "getPermissionResolver" -> resolver;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubNekoffeeClient";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
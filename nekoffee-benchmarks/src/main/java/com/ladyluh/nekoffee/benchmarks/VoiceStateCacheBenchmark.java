@@ -0,0 +1,85 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.ladyluh.nekoffee.api.event.guild.GuildCreateEvent;
+import com.ladyluh.nekoffee.api.event.voice.VoiceStateUpdateEvent;
+import com.ladyluh.nekoffee.cache.VoiceStateCacheManager;
+import com.ladyluh.nekoffee.gateway.client.impl.OkHttpWebSocketGatewayClientImpl.GatewayReceivePayload;
+import com.ladyluh.nekoffee.json.util.JsonEngine;
+import com.ladyluh.nekoffee.json.util.impl.JacksonJsonEngineImpl;
+import com.ladyluh.nekoffee.model.guild.GuildImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Atualizações do VoiceStateCacheManager a partir do estado de voz gravado em GUILD_CREATE: usuários
+ * entrando, trocando de canal e saindo, além das consultas feitas pelos listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VoiceStateCacheBenchmark {
+    private static final int USERS = 40;
+
+    private VoiceStateCacheManager cache;
+    private String guildId;
+    private List<String> voiceChannelIds;
+    private VoiceStateUpdateEvent[] updates;
+    private String lookupUserId;
+    private int next;
+
+    @Setup
+    public void setup() {
+        JsonEngine jsonEngine = new JacksonJsonEngineImpl();
+        GatewayReceivePayload payload = jsonEngine.fromJsonBytes(Payloads.load("GUILD_CREATE"), GatewayReceivePayload.class);
+        GuildImpl guild = jsonEngine.fromJsonTree(payload.d, GuildImpl.class);
+        guildId = guild.getId();
+
+        voiceChannelIds = new ArrayList<>();
+        payload.d.get("channels").forEach(channel -> {
+            if (channel.get("type").asInt() == 2) voiceChannelIds.add(channel.get("id").asText());
+        });
+
+        cache = new VoiceStateCacheManager();
+        cache.onGuildCreate(new GuildCreateEvent(null, guild));
+
+        // Cada usuário percorre: canal A -> canal B -> sai, gerando entradas, trocas e saídas na mesma proporção.
+        lookupUserId = guild.getVoiceStates().getFirst().getUserId();
+        updates = new VoiceStateUpdateEvent[USERS * 3];
+        for (int i = 0; i < USERS; i++) {
+            String userId = payload.d.get("members").get(i).get("user").get("id").asText();
+            String channelA = voiceChannelIds.get(i % voiceChannelIds.size());
+            String channelB = voiceChannelIds.get((i + 1) % voiceChannelIds.size());
+            updates[i * 3] = new VoiceStateUpdateEvent(null, guildId, channelA, userId, false, false);
+            updates[i * 3 + 1] = new VoiceStateUpdateEvent(null, guildId, channelB, userId, false, false);
+            updates[i * 3 + 2] = new VoiceStateUpdateEvent(null, guildId, null, userId, false, false);
+        }
+    }
+
+    @Benchmark
+    public void update() {
+        cache.onVoiceStateUpdate(updates[next]);
+        next = (next + 1) % updates.length;
+    }
+
+    @Benchmark
+    public Set<String> membersInChannel() {
+        return cache.getMembersInVoiceChannel(guildId, voiceChannelIds.get(0));
+    }
+
+    @Benchmark
+    public String userVoiceChannel() {
+        return cache.getUserVoiceChannelId(guildId, lookupUserId);
+    }
+
+    @Benchmark
+    public boolean isChannelEmpty() {
+        return cache.isVoiceChannelEmpty(guildId, voiceChannelIds.get(1));
+    }
+}
@@ -0,0 +1,106 @@
+package com.ladyluh.nekoffee.benchmarks;
+
+import com.ladyluh.nekoffee.database.DatabaseManager;
+import com.ladyluh.nekoffee.database.LogXPRepository;
+import com.ladyluh.nekoffee.database.UserXP;
+import com.ladyluh.nekoffee.database.XPBucket;
+import com.ladyluh.nekoffee.database.XPRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Os dois armazenamentos de XP lado a lado: SQLite ({@link DatabaseManager}) e o log append-only
+ * ({@link LogXPRepository}), com uma guild de 10 000 membros já gravada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XPRepositoryBenchmark {
+    private static final String GUILD = "41771983423143937";
+    private static final int MEMBERS = 10_000;
+    private static final int BATCH = 100;
+
+    @Param({"sqlite", "log"})
+    public String backend;
+
+    private XPRepository repository;
+    private Path directory;
+    private String dbFileName;
+    private int round;
+    private int next;
+
+    @Setup
+    public void setup() throws IOException {
+        if (backend.equals("sqlite")) {
+            dbFileName = "benchmark-xp-" + UUID.randomUUID() + ".db";
+            repository = new DatabaseManager(dbFileName);
+        } else {
+            directory = Files.createTempDirectory("xp-benchmark");
+            repository = new LogXPRepository(directory);
+        }
+        List<UserXP> rows = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new UserXP(GUILD, user(i), i, i / 100, i));
+        }
+        repository.updateUserXPBatch(rows).join();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (repository instanceof DatabaseManager database) {
+            database.shutdown();
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(Path.of("data", dbFileName + suffix));
+            }
+        } else {
+            ((LogXPRepository) repository).close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private static String user(int i) {
+        return Long.toString(80351110224678912L + i);
+    }
+
+    /**
+     * Um flush do XPEngine: {@value #BATCH} usuários com XP novo e o bucket da hora de cada um.
+     */
+    @Benchmark
+    public Void writeBatch() {
+        round++;
+        List<UserXP> rows = new ArrayList<>(BATCH);
+        List<XPBucket> buckets = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            int member = (next++ & Integer.MAX_VALUE) % MEMBERS;
+            rows.add(new UserXP(GUILD, user(member), member + round, member / 100, round));
+            buckets.add(new XPBucket(GUILD, user(member), 490_000 + (round >> 10), 20));
+        }
+        return repository.updateUserXPBatch(rows, buckets).join();
+    }
+
+    @Benchmark
+    public UserXP getUserXP() {
+        return repository.getUserXP(GUILD, user((next++ & Integer.MAX_VALUE) % MEMBERS)).join();
+    }
+
+    @Benchmark
+    public List<UserXP> getGuildXP() {
+        return repository.getGuildXP(GUILD).join();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ladyluh.nekoffee.cache.entity;
+
+import java.util.EnumSet;
+
+/**
+ * Tipos de entidade que o {@link EntityStore} mantém a partir dos eventos do Gateway.
+ * Um tipo desligado não é guardado e as leituras dele sempre vão para a API REST.
+ */
+public enum CacheFlag {
+    GUILDS,
+    CHANNELS,
+    ROLES,
+    /**
+     * Usuários que chegam junto com membros pelo Gateway. Os buscados via REST sempre passam pelo cache limitado.
+     */
+    USERS,
+    /**
+     * Só fica consistente com o intent GUILD_MEMBERS; sem ele não chegam GUILD_MEMBER_UPDATE/REMOVE.
+     */
+    MEMBERS,
+    /**
+     * Junto com MEMBERS, guarda os membros em slabs fora do heap ({@link com.ladyluh.nekoffee.cache.member.OffHeapMemberStore}).
+     * Vale a pena a partir de centenas de milhares de membros, quando os objetos Member pesam no GC.
+     * Custo em memória direta: 376 bytes por membro, reservados por guild a partir de 16 registros (~6 KiB) e
+     * dobrando até slabs de 4096 (~1,5 MiB); 10 mil guilds pequenas ficam perto de 60 MiB.
+     */
+    MEMBERS_OFF_HEAP;
+
+    /**
+     * @return Guilds, canais, cargos e usuários. Membros ficam de fora por dependerem de um intent privilegiado.
+     */
+    public static EnumSet<CacheFlag> defaults() {
+        return EnumSet.of(GUILDS, CHANNELS, ROLES, USERS);
+    }
+}
@@ -0,0 +1,305 @@
+package com.ladyluh.nekoffee.cache.entity;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Guild;
+import com.ladyluh.nekoffee.api.entities.Member;
+import com.ladyluh.nekoffee.api.entities.Role;
+import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.event.Event;
+import com.ladyluh.nekoffee.api.event.channel.ChannelCreateEvent;
+import com.ladyluh.nekoffee.api.event.channel.ChannelDeleteEvent;
+import com.ladyluh.nekoffee.api.event.channel.ChannelUpdateEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildCreateEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildDeleteEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildUpdateEvent;
+import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberAddEvent;
+import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberRemoveEvent;
+import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberUpdateEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleCreateEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleDeleteEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleUpdateEvent;
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import com.ladyluh.nekoffee.cache.member.OffHeapMemberStore;
+import com.ladyluh.nekoffee.cache.policy.CacheStats;
+import com.ladyluh.nekoffee.cache.policy.WTinyLfuCache;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Guarda em memória as entidades que o Gateway já entrega (GUILD_CREATE, CHANNEL_*, GUILD_ROLE_*, membros),
+ * para que as leituras do cliente não precisem ir à API REST.
+ * <p>
+ * Leituras não bloqueiam. As listas de cargos são imutáveis e trocadas inteiras a cada alteração
+ * (eventos de cargo são raros e as leituras acontecem a cada checagem de permissão).
+ */
+public class EntityStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(EntityStore.class);
+
+    private final Set<CacheFlag> flags;
+    private final ConcurrentLongObjectMap<Guild> guilds = new ConcurrentLongObjectMap<>();
+    private final ConcurrentLongObjectMap<Channel> channels = new ConcurrentLongObjectMap<>();
+    private final ConcurrentLongObjectMap<List<Role>> rolesByGuild = new ConcurrentLongObjectMap<>();
+    private final WTinyLfuCache<User> users;
+    private final ConcurrentLongObjectMap<ConcurrentLongObjectMap<Member>> membersByGuild = new ConcurrentLongObjectMap<>();
+    @Nullable
+    private final OffHeapMemberStore offHeapMembers;
+
+    public EntityStore(Collection<CacheFlag> flags) {
+        this(flags, UserCacheConfig.defaults());
+    }
+
+    public EntityStore(Collection<CacheFlag> flags, UserCacheConfig userCacheConfig) {
+        this.flags = flags.isEmpty() ? Collections.unmodifiableSet(EnumSet.noneOf(CacheFlag.class))
+                : Collections.unmodifiableSet(EnumSet.copyOf(flags));
+        this.users = new WTinyLfuCache<>(userCacheConfig.memoryBudgetBytes(), userCacheConfig.expireAfterWrite(), EntityStore::estimateUserWeight);
+        this.offHeapMembers = isEnabled(CacheFlag.MEMBERS_OFF_HEAP) ? new OffHeapMemberStore(users::get) : null;
+        LOGGER.info("EntityStore inicializado com os flags {} e cache de usuários de {} bytes.", this.flags, userCacheConfig.memoryBudgetBytes());
+    }
+
+    public boolean isEnabled(CacheFlag flag) {
+        return flags.contains(flag);
+    }
+
+    public Set<CacheFlag> getFlags() {
+        return flags;
+    }
+
+    /**
+     * Cliente entregue aos membros lidos de {@link CacheFlag#MEMBERS_OFF_HEAP}, que são recriados a cada leitura.
+     */
+    public void setNekoffeeClient(NekoffeeClient client) {
+        if (offHeapMembers != null) {
+            offHeapMembers.setNekoffeeClient(client);
+        }
+    }
+
+    /**
+     * Aplica um evento do Gateway ao store. Eventos sem relação com as entidades guardadas são ignorados.
+     */
+    public void onEvent(Event event) {
+        if (event instanceof GuildCreateEvent e) {
+            onGuildCreate(e.getGuild());
+        } else if (event instanceof GuildUpdateEvent e) {
+            putGuild(e.getGuild());
+        } else if (event instanceof GuildDeleteEvent e) {
+            // Guild indisponível (queda do Discord) volta num GUILD_CREATE; só a saída do bot apaga os dados.
+            if (!e.isUnavailable()) {
+                removeGuild(Snowflake.parse(e.getGuildId()));
+            }
+        } else if (event instanceof ChannelCreateEvent e) {
+            putChannel(e.getChannel());
+        } else if (event instanceof ChannelUpdateEvent e) {
+            putChannel(e.getChannel());
+        } else if (event instanceof ChannelDeleteEvent e) {
+            removeChannel(e.getChannel().getIdLong());
+        } else if (event instanceof RoleCreateEvent e) {
+            putRole(Snowflake.parse(e.getGuildId()), e.getRole());
+        } else if (event instanceof RoleUpdateEvent e) {
+            putRole(Snowflake.parse(e.getGuildId()), e.getRole());
+        } else if (event instanceof RoleDeleteEvent e) {
+            removeRole(Snowflake.parse(e.getGuildId()), Snowflake.parse(e.getRoleId()));
+        } else if (event instanceof GuildMemberAddEvent e) {
+            putMember(e.getMember());
+        } else if (event instanceof GuildMemberUpdateEvent e) {
+            putMember(e.getMember());
+        } else if (event instanceof GuildMemberRemoveEvent e) {
+            if (e.getUser() != null) {
+                removeMember(Snowflake.parse(e.getGuildId()), e.getUser().getIdLong());
+            }
+        }
+    }
+
+    private void onGuildCreate(Guild guild) {
+        putGuild(guild);
+        long guildId = guild.getIdLong();
+        if (isEnabled(CacheFlag.CHANNELS)) {
+            for (Channel channel : guild.getChannels()) {
+                channels.put(channel.getIdLong(), channel);
+            }
+        }
+        if (isEnabled(CacheFlag.MEMBERS) || isEnabled(CacheFlag.USERS)) {
+            for (Member member : guild.getMembers()) {
+                putMember(guildId, member);
+            }
+        }
+        LOGGER.debug("EntityStore: guild {} carregada ({} canais, {} membros).", guildId, guild.getChannels().size(), guild.getMembers().size());
+    }
+
+    /**
+     * Guarda a guild e, se ROLES estiver ativo, substitui os cargos dela pelos que vieram junto.
+     */
+    public void putGuild(Guild guild) {
+        long guildId = guild.getIdLong();
+        if (isEnabled(CacheFlag.GUILDS)) {
+            guilds.put(guildId, guild);
+        }
+        if (isEnabled(CacheFlag.ROLES) && guild.getRoles() != null && !guild.getRoles().isEmpty()) {
+            putGuildRoles(guildId, guild.getRoles());
+        }
+    }
+
+    public void removeGuild(long guildId) {
+        // NONE casaria com os canais de DM, cujo guild_id é nulo.
+        if (guildId == Snowflake.NONE) {
+            return;
+        }
+        guilds.remove(guildId);
+        synchronized (this) {
+            rolesByGuild.remove(guildId);
+        }
+        membersByGuild.remove(guildId);
+        if (offHeapMembers != null) {
+            offHeapMembers.removeGuild(guildId);
+        }
+        for (long channelId : channels.keys()) {
+            Channel channel = channels.get(channelId);
+            if (channel != null && Snowflake.parse(channel.getGuildId()) == guildId) {
+                channels.remove(channelId, channel);
+            }
+        }
+    }
+
+    @Nullable
+    public Guild getGuild(long guildId) {
+        return guilds.get(guildId);
+    }
+
+    public void putChannel(Channel channel) {
+        if (isEnabled(CacheFlag.CHANNELS)) {
+            channels.put(channel.getIdLong(), channel);
+        }
+    }
+
+    public void removeChannel(long channelId) {
+        channels.remove(channelId);
+    }
+
+    @Nullable
+    public Channel getChannel(long channelId) {
+        return channels.get(channelId);
+    }
+
+    public synchronized void putGuildRoles(long guildId, List<Role> roles) {
+        if (isEnabled(CacheFlag.ROLES)) {
+            rolesByGuild.put(guildId, Collections.unmodifiableList(new ArrayList<>(roles)));
+        }
+    }
+
+    /**
+     * Só altera guilds cujos cargos já são conhecidos; uma lista parcial faria as permissões saírem erradas.
+     */
+    public synchronized void putRole(long guildId, Role role) {
+        List<Role> current = rolesByGuild.get(guildId);
+        if (current == null || !isEnabled(CacheFlag.ROLES)) return;
+        List<Role> updated = new ArrayList<>(current.size() + 1);
+        boolean replaced = false;
+        for (Role existing : current) {
+            if (existing.getIdLong() == role.getIdLong()) {
+                updated.add(role);
+                replaced = true;
+            } else {
+                updated.add(existing);
+            }
+        }
+        if (!replaced) updated.add(role);
+        rolesByGuild.put(guildId, Collections.unmodifiableList(updated));
+    }
+
+    public synchronized void removeRole(long guildId, long roleId) {
+        List<Role> current = rolesByGuild.get(guildId);
+        if (current == null) return;
+        List<Role> updated = new ArrayList<>(current.size());
+        for (Role existing : current) {
+            if (existing.getIdLong() != roleId) updated.add(existing);
+        }
+        rolesByGuild.put(guildId, Collections.unmodifiableList(updated));
+    }
+
+    /**
+     * @return Os cargos da guild (lista imutável), ou null se eles não estão no store.
+     */
+    @Nullable
+    public List<Role> getGuildRoles(long guildId) {
+        return rolesByGuild.get(guildId);
+    }
+
+    /**
+     * Guarda um usuário no cache limitado. Não depende de {@link CacheFlag#USERS}: o orçamento de memória já
+     * limita o cache, e sem ele cada getUserById (ex.: por pacote de voz recebido) iria à API.
+     */
+    public void putUser(User user) {
+        if (user != null) {
+            users.put(user.getIdLong(), user);
+        }
+    }
+
+    @Nullable
+    public User getUser(long userId) {
+        return users.get(userId);
+    }
+
+    /**
+     * @return Acertos, falhas e remoções do cache de usuários, para ajustar o orçamento de memória.
+     */
+    public CacheStats getUserCacheStats() {
+        return users.stats();
+    }
+
+    /**
+     * Estimativa grosseira do que um UserImpl ocupa: cabeçalho e campos, mais as Strings (Latin-1, 1 byte por char).
+     */
+    static int estimateUserWeight(User user) {
+        return 96 + stringWeight(user.getUsername()) + stringWeight(user.getGlobalName())
+                + stringWeight(user.getDiscriminator()) + stringWeight(user.getAvatarId());
+    }
+
+    private static int stringWeight(@Nullable String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    public void putMember(Member member) {
+        putMember(Snowflake.parse(member.getGuildId()), member);
+    }
+
+    private void putMember(long guildId, Member member) {
+        if (isEnabled(CacheFlag.USERS)) {
+            putUser(member.getUser());
+        }
+        if (!isEnabled(CacheFlag.MEMBERS) || guildId == Snowflake.NONE) return;
+        if (offHeapMembers != null) {
+            offHeapMembers.put(guildId, member);
+            return;
+        }
+        membersByGuild.computeIfAbsent(guildId, id -> new ConcurrentLongObjectMap<>()).put(member.getIdLong(), member);
+    }
+
+    public void removeMember(long guildId, long userId) {
+        if (offHeapMembers != null) {
+            offHeapMembers.remove(guildId, userId);
+            return;
+        }
+        ConcurrentLongObjectMap<Member> members = membersByGuild.get(guildId);
+        if (members != null) {
+            members.remove(userId);
+        }
+    }
+
+    @Nullable
+    public Member getMember(long guildId, long userId) {
+        if (offHeapMembers != null) {
+            return offHeapMembers.get(guildId, userId);
+        }
+        ConcurrentLongObjectMap<Member> members = membersByGuild.get(guildId);
+        return members == null ? null : members.get(userId);
+    }
+}
@@ -0,0 +1,28 @@
+package com.ladyluh.nekoffee.cache.entity;
+
+import java.time.Duration;
+
+/**
+ * Limites do cache de usuários do {@link EntityStore}.
+ *
+ * @param memoryBudgetBytes Memória estimada que os usuários guardados podem ocupar.
+ * @param expireAfterWrite  Tempo até um usuário ser buscado de novo; zero desativa a expiração.
+ */
+public record UserCacheConfig(long memoryBudgetBytes, Duration expireAfterWrite) {
+
+    public UserCacheConfig {
+        if (memoryBudgetBytes <= 0) {
+            throw new IllegalArgumentException("memoryBudgetBytes must be positive");
+        }
+        if (expireAfterWrite == null || expireAfterWrite.isNegative()) {
+            throw new IllegalArgumentException("expireAfterWrite must be zero or positive");
+        }
+    }
+
+    /**
+     * 16 MiB (na ordem de 50 mil usuários) e expiração em uma hora, para avatares e nomes não ficarem velhos.
+     */
+    public static UserCacheConfig defaults() {
+        return new UserCacheConfig(16L * 1024 * 1024, Duration.ofHours(1));
+    }
+}
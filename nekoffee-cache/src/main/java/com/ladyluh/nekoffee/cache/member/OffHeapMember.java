@@ -0,0 +1,193 @@
+package com.ladyluh.nekoffee.cache.member;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Guild;
+import com.ladyluh.nekoffee.api.entities.Member;
+import com.ladyluh.nekoffee.api.entities.Role;
+import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * View de um membro lido do {@link OffHeapMemberStore}. Criada a cada leitura e não muda depois disso.
+ */
+final class OffHeapMember implements Member {
+    private final NekoffeeClient client;
+    private final long guildId;
+    private final User user;
+    private final String nickname;
+    private final long[] roleIds;
+    private final OffsetDateTime joinedAt;
+    private final OffsetDateTime premiumSince;
+    private final boolean deafened;
+    private final boolean muted;
+
+    OffHeapMember(NekoffeeClient client, long guildId, User user, String nickname, long[] roleIds,
+                  OffsetDateTime joinedAt, OffsetDateTime premiumSince, boolean deafened, boolean muted) {
+        this.client = client;
+        this.guildId = guildId;
+        this.user = user;
+        this.nickname = nickname;
+        this.roleIds = roleIds;
+        this.joinedAt = joinedAt;
+        this.premiumSince = premiumSince;
+        this.deafened = deafened;
+        this.muted = muted;
+    }
+
+    @Override
+    public String getId() {
+        return user.getId();
+    }
+
+    @Override
+    public long getIdLong() {
+        return user.getIdLong();
+    }
+
+    @Override
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public String getNickname() {
+        return nickname;
+    }
+
+    @Override
+    public String getEffectiveName() {
+        return nickname != null ? nickname : user.getUsername();
+    }
+
+    @Override
+    public List<String> getRoleIds() {
+        List<String> ids = new ArrayList<>(roleIds.length);
+        for (long roleId : roleIds) {
+            ids.add(Snowflake.toString(roleId));
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    @Override
+    public long[] getRoleIdsLong() {
+        return roleIds.clone();
+    }
+
+    private boolean hasRoleId(long roleId) {
+        for (long id : roleIds) {
+            if (id == roleId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public CompletableFuture<List<Role>> getRoles(NekoffeeClient client) {
+        return client.getGuildRoles(getGuildId()).thenApply(guildRoles -> {
+            List<Role> roles = new ArrayList<>(roleIds.length);
+            for (Role role : guildRoles) {
+                if (hasRoleId(role.getIdLong())) roles.add(role);
+            }
+            return roles;
+        });
+    }
+
+    @Override
+    public OffsetDateTime getTimeJoined() {
+        return joinedAt;
+    }
+
+    @Override
+    public OffsetDateTime getTimeBoosted() {
+        return premiumSince;
+    }
+
+    @Override
+    public boolean isDeafened() {
+        return deafened;
+    }
+
+    @Override
+    public boolean isMuted() {
+        return muted;
+    }
+
+    @Override
+    public String getGuildId() {
+        return Snowflake.toString(guildId);
+    }
+
+    @Override
+    public CompletableFuture<Guild> retrieveGuild(NekoffeeClient client) {
+        return client.getGuildById(getGuildId());
+    }
+
+    /**
+     * Membros fora do heap só existem com o cache ligado, então os cargos da guild também estão em memória.
+     */
+    @Override
+    public CompletableFuture<Long> getPermissionsRaw() {
+        long permissions = getPermissionsRaw(null);
+        return CompletableFuture.completedFuture(permissions == PermissionResolver.UNKNOWN ? 0L : permissions);
+    }
+
+    @Override
+    public long getPermissionsRaw(@Nullable Channel channel) {
+        if (client == null) {
+            return PermissionResolver.UNKNOWN;
+        }
+        return client.getPermissionResolver().getPermissions(this, channel);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasPermission(Permission permission) {
+        return CompletableFuture.completedFuture(hasPermission(null, permission));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> hasPermissions(Collection<Permission> permissions) {
+        long raw = getPermissionsRaw(null);
+        long required = Permission.calculateBitmask(permissions);
+        return CompletableFuture.completedFuture(raw != PermissionResolver.UNKNOWN && (raw & required) == required);
+    }
+
+    @Override
+    public boolean hasPermission(@Nullable Channel channel, Permission permission) {
+        long raw = getPermissionsRaw(channel);
+        return raw != PermissionResolver.UNKNOWN && (raw & permission.getRawValue()) == permission.getRawValue();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Member member)) return false;
+        return getIdLong() == member.getIdLong() && getGuildId().equals(member.getGuildId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(getIdLong()) * 31 + Long.hashCode(guildId);
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapMember{" +
+                "userId=" + getId() +
+                ", effectiveName='" + getEffectiveName() + '\'' +
+                ", guildId='" + guildId + '\'' +
+                ", rolesCount=" + roleIds.length +
+                '}';
+    }
+}
@@ -0,0 +1,319 @@
+package com.ladyluh.nekoffee.cache.member;
+
+import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Member;
+import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.LongLongHashMap;
+import com.ladyluh.nekoffee.api.util.LongObjectHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Membros guardados fora do heap, em slabs de {@link ByteBuffer} direto com registros de tamanho fixo.
+ * <p>
+ * Cada guild tem seus slabs e um índice userId -> slot ({@link LongLongHashMap}, endereçamento aberto),
+ * então um milhão de membros vira algumas centenas de buffers em vez de milhões de objetos para o GC.
+ * O primeiro slab começa com {@value #FIRST_SLAB_RECORDS} registros e dobra até {@value #SLAB_RECORDS};
+ * só então vêm os slabs seguintes, todos cheios. Guilds pequenas reservam poucos KiB.
+ * Leituras decodificam o registro num {@link OffHeapMember} novo (datas com precisão de segundos);
+ * quem não cabe no formato fixo (mais de {@value #INLINE_ROLES} cargos, textos maiores que os limites
+ * do Discord) fica no heap.
+ */
+public class OffHeapMemberStore {
+    static final int INLINE_ROLES = 8;
+    private static final int NAME_CHARS = 32;
+    private static final int AVATAR_CHARS = 40;
+    private static final int FIRST_SLAB_RECORDS = 16;
+    private static final int SLAB_RECORDS = 4096;
+
+    private static final int USER_ID = 0;
+    private static final int JOINED_AT = 8;
+    private static final int PREMIUM_SINCE = 16;
+    private static final int FLAGS = 24;
+    private static final int ROLE_COUNT = 25;
+    private static final int DISCRIMINATOR = 26;
+    private static final int NICKNAME = 28;
+    private static final int USERNAME = NICKNAME + stringFieldSize(NAME_CHARS);
+    private static final int GLOBAL_NAME = USERNAME + stringFieldSize(NAME_CHARS);
+    private static final int AVATAR = GLOBAL_NAME + stringFieldSize(NAME_CHARS);
+    private static final int ROLES = align8(AVATAR + stringFieldSize(AVATAR_CHARS));
+    static final int RECORD_SIZE = ROLES + INLINE_ROLES * Long.BYTES;
+
+    static final int FLAG_DEAF = 1;
+    static final int FLAG_MUTE = 1 << 1;
+    static final int FLAG_BOT = 1 << 2;
+    static final int FLAG_SYSTEM = 1 << 3;
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+    private static final short NULL_STRING = -1;
+
+    private final ConcurrentLongObjectMap<MemberTable> guilds = new ConcurrentLongObjectMap<>();
+    private final LongFunction<User> userLookup;
+    private volatile NekoffeeClient client;
+
+    /**
+     * @param userLookup Busca o User completo no cache de usuários; se não houver, a view usa os campos gravados aqui.
+     */
+    public OffHeapMemberStore(LongFunction<User> userLookup) {
+        this.userLookup = userLookup;
+    }
+
+    public void setNekoffeeClient(NekoffeeClient client) {
+        this.client = client;
+    }
+
+    public void put(long guildId, Member member) {
+        guilds.computeIfAbsent(guildId, id -> new MemberTable()).put(member);
+    }
+
+    @Nullable
+    public Member get(long guildId, long userId) {
+        MemberTable table = guilds.get(guildId);
+        return table == null ? null : table.get(guildId, userId);
+    }
+
+    public void remove(long guildId, long userId) {
+        MemberTable table = guilds.get(guildId);
+        if (table != null) {
+            table.remove(userId);
+        }
+    }
+
+    /**
+     * Solta os slabs da guild; a memória volta quando o GC coletar os buffers.
+     */
+    public void removeGuild(long guildId) {
+        guilds.remove(guildId);
+    }
+
+    public int size(long guildId) {
+        MemberTable table = guilds.get(guildId);
+        return table == null ? 0 : table.size();
+    }
+
+    /**
+     * @return Bytes reservados em slabs fora do heap, somando todas as guilds.
+     */
+    public long getOffHeapBytes() {
+        long total = 0;
+        for (MemberTable table : guilds.values()) {
+            total += table.reservedBytes();
+        }
+        return total;
+    }
+
+    private static int stringFieldSize(int maxChars) {
+        return Short.BYTES + maxChars * Character.BYTES;
+    }
+
+    private static int align8(int offset) {
+        return (offset + 7) & ~7;
+    }
+
+    private static boolean fits(@Nullable String value, int maxChars) {
+        return value == null || value.length() <= maxChars;
+    }
+
+    /**
+     * Slabs e índice de uma guild. Todo acesso acontece sob o lock da tabela.
+     */
+    private final class MemberTable {
+        private final List<ByteBuffer> slabs = new ArrayList<>();
+        private final LongLongHashMap slotByUser = new LongLongHashMap();
+        private final LongObjectHashMap<Member> oversized = new LongObjectHashMap<>();
+        private int[] freeSlots = new int[16];
+        private int freeCount;
+        private int nextSlot;
+
+        synchronized void put(Member member) {
+            long userId = member.getIdLong();
+            User user = member.getUser();
+            long[] roleIds = member.getRoleIdsLong();
+            boolean fits = roleIds.length <= INLINE_ROLES && fits(member.getNickname(), NAME_CHARS)
+                    && (user == null || fits(user.getUsername(), NAME_CHARS) && fits(user.getGlobalName(), NAME_CHARS)
+                    && fits(user.getAvatarId(), AVATAR_CHARS));
+            if (!fits) {
+                removeSlot(userId);
+                oversized.put(userId, member);
+                return;
+            }
+            oversized.remove(userId);
+
+            long slot = slotByUser.get(userId, -1L);
+            if (slot < 0) {
+                slot = allocateSlot();
+                slotByUser.put(userId, slot);
+            }
+            write(slabFor((int) slot), offsetOf((int) slot), member, user, roleIds);
+        }
+
+        synchronized Member get(long guildId, long userId) {
+            long slot = slotByUser.get(userId, -1L);
+            if (slot < 0) {
+                return oversized.get(userId);
+            }
+            return read(guildId, slabFor((int) slot), offsetOf((int) slot));
+        }
+
+        synchronized void remove(long userId) {
+            removeSlot(userId);
+            oversized.remove(userId);
+        }
+
+        synchronized int size() {
+            return slotByUser.size() + oversized.size();
+        }
+
+        synchronized long reservedBytes() {
+            long total = 0;
+            for (ByteBuffer slab : slabs) {
+                total += slab.capacity();
+            }
+            return total;
+        }
+
+        private void removeSlot(long userId) {
+            long slot = slotByUser.get(userId, -1L);
+            if (slot < 0) {
+                return;
+            }
+            slotByUser.remove(userId);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = (int) slot;
+        }
+
+        private int allocateSlot() {
+            if (freeCount > 0) {
+                return freeSlots[--freeCount];
+            }
+            int slot = nextSlot++;
+            int index = slot / SLAB_RECORDS;
+            if (index == slabs.size()) {
+                slabs.add(ByteBuffer.allocateDirect((index == 0 ? FIRST_SLAB_RECORDS : SLAB_RECORDS) * RECORD_SIZE));
+            } else if (offsetOf(slot) == slabs.get(index).capacity()) {
+                // Só o primeiro slab fica abaixo do tamanho cheio: dobra copiando os registros.
+                ByteBuffer old = slabs.get(index);
+                ByteBuffer grown = ByteBuffer.allocateDirect(Math.min(old.capacity() * 2, SLAB_RECORDS * RECORD_SIZE));
+                grown.put(old.duplicate().clear());
+                slabs.set(index, grown);
+            }
+            return slot;
+        }
+
+        private ByteBuffer slabFor(int slot) {
+            return slabs.get(slot / SLAB_RECORDS);
+        }
+
+        private int offsetOf(int slot) {
+            return (slot % SLAB_RECORDS) * RECORD_SIZE;
+        }
+    }
+
+    private static void write(ByteBuffer slab, int base, Member member, @Nullable User user, long[] roleIds) {
+        int flags = 0;
+        if (member.isDeafened()) flags |= FLAG_DEAF;
+        if (member.isMuted()) flags |= FLAG_MUTE;
+        if (user != null && user.isBot()) flags |= FLAG_BOT;
+        if (user != null && user.isSystem()) flags |= FLAG_SYSTEM;
+
+        slab.putLong(base + USER_ID, member.getIdLong());
+        slab.putLong(base + JOINED_AT, toEpochSecond(member.getTimeJoined()));
+        slab.putLong(base + PREMIUM_SINCE, toEpochSecond(member.getTimeBoosted()));
+        slab.put(base + FLAGS, (byte) flags);
+        slab.put(base + ROLE_COUNT, (byte) roleIds.length);
+        slab.putShort(base + DISCRIMINATOR, parseDiscriminator(user == null ? null : user.getDiscriminator()));
+        writeString(slab, base + NICKNAME, member.getNickname());
+        writeString(slab, base + USERNAME, user == null ? null : user.getUsername());
+        writeString(slab, base + GLOBAL_NAME, user == null ? null : user.getGlobalName());
+        writeString(slab, base + AVATAR, user == null ? null : user.getAvatarId());
+        for (int i = 0; i < roleIds.length; i++) {
+            slab.putLong(base + ROLES + i * Long.BYTES, roleIds[i]);
+        }
+    }
+
+    private OffHeapMember read(long guildId, ByteBuffer slab, int base) {
+        long userId = slab.getLong(base + USER_ID);
+        int flags = slab.get(base + FLAGS);
+        long[] roleIds = new long[slab.get(base + ROLE_COUNT)];
+        for (int i = 0; i < roleIds.length; i++) {
+            roleIds[i] = slab.getLong(base + ROLES + i * Long.BYTES);
+        }
+
+        User user = userLookup.apply(userId);
+        if (user == null) {
+            short discriminator = slab.getShort(base + DISCRIMINATOR);
+            user = new OffHeapUser(userId, readString(slab, base + USERNAME), readString(slab, base + GLOBAL_NAME),
+                    formatDiscriminator(discriminator), readString(slab, base + AVATAR),
+                    (flags & FLAG_BOT) != 0, (flags & FLAG_SYSTEM) != 0);
+        }
+        return new OffHeapMember(client, guildId, user, readString(slab, base + NICKNAME), roleIds,
+                fromEpochSecond(slab.getLong(base + JOINED_AT)), fromEpochSecond(slab.getLong(base + PREMIUM_SINCE)),
+                (flags & FLAG_DEAF) != 0, (flags & FLAG_MUTE) != 0);
+    }
+
+    private static void writeString(ByteBuffer slab, int offset, @Nullable String value) {
+        if (value == null) {
+            slab.putShort(offset, NULL_STRING);
+            return;
+        }
+        slab.putShort(offset, (short) value.length());
+        for (int i = 0; i < value.length(); i++) {
+            slab.putChar(offset + Short.BYTES + i * Character.BYTES, value.charAt(i));
+        }
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer slab, int offset) {
+        short length = slab.getShort(offset);
+        if (length == NULL_STRING) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = slab.getChar(offset + Short.BYTES + i * Character.BYTES);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * "0" (usuários sem discriminador) vira 0; o formato com quatro dígitos é refeito na leitura.
+     */
+    private static short parseDiscriminator(@Nullable String discriminator) {
+        if (discriminator == null) {
+            return -1;
+        }
+        try {
+            return Short.parseShort(discriminator);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Nullable
+    private static String formatDiscriminator(short discriminator) {
+        if (discriminator < 0) {
+            return null;
+        }
+        return discriminator == 0 ? "0" : String.format("%04d", discriminator);
+    }
+
+    private static long toEpochSecond(@Nullable OffsetDateTime time) {
+        return time == null ? NO_TIMESTAMP : time.toEpochSecond();
+    }
+
+    @Nullable
+    private static OffsetDateTime fromEpochSecond(long epochSecond) {
+        return epochSecond == NO_TIMESTAMP ? null : OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ladyluh.nekoffee.cache.member;
+
+import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+
+/**
+ * User reconstruído a partir de um registro do {@link OffHeapMemberStore}, usado quando o usuário
+ * já saiu do cache de usuários.
+ */
+record OffHeapUser(long id, String username, String globalName, String discriminator, String avatarId,
+                   boolean bot, boolean system) implements User {
+
+    @Override
+    public String getId() {
+        return Snowflake.toString(id);
+    }
+
+    @Override
+    public long getIdLong() {
+        return id;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getDiscriminator() {
+        return discriminator;
+    }
+
+    @Override
+    public String getGlobalName() {
+        return globalName;
+    }
+
+    @Override
+    public String getAsTag() {
+        return "0".equals(discriminator) ? username : username + "#" + discriminator;
+    }
+
+    @Override
+    public String getAvatarId() {
+        return avatarId;
+    }
+
+    @Override
+    public String getEffectiveAvatarUrl() {
+        if (avatarId != null) {
+            String format = avatarId.startsWith("a_") ? "gif" : "png";
+            return String.format("https://cdn.discordapp.com/avatars/%s/%s.%s?size=128", getId(), avatarId, format);
+        }
+        int defaultAvatarIndex = discriminator == null || "0".equals(discriminator)
+                ? (int) ((id >> 22) % 6)
+                : Integer.parseInt(discriminator) % 5;
+        return String.format("https://cdn.discordapp.com/embed/avatars/%d.png", defaultAvatarIndex);
+    }
+
+    @Override
+    public boolean isBot() {
+        return bot;
+    }
+
+    @Override
+    public boolean isSystem() {
+        return system;
+    }
+}
@@ -0,0 +1,242 @@
+package com.ladyluh.nekoffee.cache.permission;
+
+import com.ladyluh.nekoffee.api.entities.Guild;
+import com.ladyluh.nekoffee.api.entities.Member;
+import com.ladyluh.nekoffee.api.entities.PermissionOverwrite;
+import com.ladyluh.nekoffee.api.entities.Role;
+import com.ladyluh.nekoffee.api.entities.TargetType;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.event.Event;
+import com.ladyluh.nekoffee.api.event.channel.ChannelDeleteEvent;
+import com.ladyluh.nekoffee.api.event.channel.ChannelUpdateEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildCreateEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildDeleteEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildUpdateEvent;
+import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberRemoveEvent;
+import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberUpdateEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleCreateEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleDeleteEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleUpdateEvent;
+import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.LongLongHashMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import com.ladyluh.nekoffee.cache.entity.EntityStore;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calcula permissões a partir do {@link EntityStore}, sem rede.
+ * <p>
+ * Por guild é mantido um índice cargo -> permissões; por canal, os overwrites compilados em mapas.
+ * As permissões base de cada membro ficam num cache por (guild, membro) que só responde para o mesmo
+ * índice de guild e a mesma lista de cargos com que foi calculado, então um valor gravado por uma consulta
+ * concorrente a uma invalidação nunca é servido depois dela. Tudo é descartado pelos eventos que alteram
+ * cargos, membros ou canais e reconstruído na próxima consulta.
+ */
+public class PermissionEngine implements PermissionResolver {
+    private static final long ADMINISTRATOR = Permission.ADMINISTRATOR.getRawValue();
+
+    private final EntityStore entityStore;
+    private final ConcurrentLongObjectMap<GuildPermissions> guilds = new ConcurrentLongObjectMap<>();
+    private final ConcurrentLongObjectMap<ChannelOverwrites> channels = new ConcurrentLongObjectMap<>();
+    private final ConcurrentHashMap<MemberKey, MemberBase> members = new ConcurrentHashMap<>();
+
+    public PermissionEngine(EntityStore entityStore) {
+        this.entityStore = entityStore;
+    }
+
+    /**
+     * Invalida o que o evento tornou obsoleto. Deve ser chamado depois de {@link EntityStore#onEvent(Event)}.
+     */
+    public void onEvent(Event event) {
+        if (event instanceof GuildCreateEvent e) {
+            invalidateGuild(e.getGuild().getIdLong());
+        } else if (event instanceof GuildUpdateEvent e) {
+            dropGuildPermissions(e.getGuild().getIdLong());
+        } else if (event instanceof GuildDeleteEvent e) {
+            invalidateGuild(Snowflake.parse(e.getGuildId()));
+        } else if (event instanceof RoleCreateEvent e) {
+            dropGuildPermissions(Snowflake.parse(e.getGuildId()));
+        } else if (event instanceof RoleUpdateEvent e) {
+            dropGuildPermissions(Snowflake.parse(e.getGuildId()));
+        } else if (event instanceof RoleDeleteEvent e) {
+            dropGuildPermissions(Snowflake.parse(e.getGuildId()));
+        } else if (event instanceof GuildMemberUpdateEvent e) {
+            invalidateMember(Snowflake.parse(e.getMember().getGuildId()), e.getMember().getIdLong());
+        } else if (event instanceof GuildMemberRemoveEvent e) {
+            if (e.getUser() != null) {
+                invalidateMember(Snowflake.parse(e.getGuildId()), e.getUser().getIdLong());
+            }
+        } else if (event instanceof ChannelUpdateEvent e) {
+            channels.remove(e.getChannel().getIdLong());
+        } else if (event instanceof ChannelDeleteEvent e) {
+            channels.remove(e.getChannel().getIdLong());
+        }
+    }
+
+    private void invalidateGuild(long guildId) {
+        dropGuildPermissions(guildId);
+        for (long channelId : channels.keys()) {
+            ChannelOverwrites overwrites = channels.get(channelId);
+            if (overwrites != null && overwrites.guildId == guildId) {
+                channels.remove(channelId, overwrites);
+            }
+        }
+    }
+
+    private void dropGuildPermissions(long guildId) {
+        guilds.remove(guildId);
+        members.keySet().removeIf(key -> key.guildId() == guildId);
+    }
+
+    private void invalidateMember(long guildId, long memberId) {
+        members.remove(new MemberKey(guildId, memberId));
+    }
+
+    @Override
+    public long getPermissions(Member member, @Nullable Channel channel) {
+        long guildId = Snowflake.parse(member.getGuildId());
+        GuildPermissions guildPermissions = guildPermissions(guildId);
+        if (guildPermissions == null) {
+            return UNKNOWN;
+        }
+
+        long memberId = member.getIdLong();
+        long[] roleIds = member.getRoleIdsLong();
+        long permissions = basePermissions(guildPermissions, guildId, memberId, roleIds);
+        if (channel == null || permissions == ALL_PERMISSIONS) {
+            return permissions;
+        }
+        return channelOverwrites(guildId, channel).apply(permissions, memberId, roleIds);
+    }
+
+    private long basePermissions(GuildPermissions index, long guildId, long memberId, long[] roleIds) {
+        MemberKey key = new MemberKey(guildId, memberId);
+        MemberBase cached = members.get(key);
+        if (cached != null && cached.index == index && Arrays.equals(cached.roleIds, roleIds)) {
+            return cached.permissions;
+        }
+        long permissions = index.computeBase(memberId, roleIds);
+        // Só grava se o índice ainda é o atual; um índice invalidado durante o cálculo nunca entra no cache.
+        if (guilds.get(guildId) == index) {
+            members.put(key, new MemberBase(index, roleIds.clone(), permissions));
+        }
+        return permissions;
+    }
+
+    @Nullable
+    private GuildPermissions guildPermissions(long guildId) {
+        if (guildId == Snowflake.NONE) {
+            return null;
+        }
+        // Construído sob o lock do segmento: uma invalidação concorrente espera e descarta o índice antigo.
+        return guilds.computeIfAbsent(guildId, id -> {
+            List<Role> roles = entityStore.getGuildRoles(id);
+            if (roles == null) {
+                return null;
+            }
+            Guild guild = entityStore.getGuild(id);
+            long ownerId = guild == null ? Snowflake.NONE : Snowflake.parse(guild.getOwnerId());
+            return new GuildPermissions(id, ownerId, roles);
+        });
+    }
+
+    private ChannelOverwrites channelOverwrites(long guildId, Channel channel) {
+        return channels.computeIfAbsent(channel.getIdLong(), id -> {
+            // A versão do store é a mais recente; o canal recebido pode ter sido buscado antes de um CHANNEL_UPDATE.
+            Channel current = entityStore.getChannel(id);
+            return new ChannelOverwrites(guildId, (current != null ? current : channel).getPermissionOverwrites());
+        });
+    }
+
+    /**
+     * Índice imutável de cargos de uma guild.
+     */
+    private static final class GuildPermissions {
+        private final long ownerId;
+        private final long everyonePermissions;
+        private final LongLongHashMap rolePermissions;
+
+        GuildPermissions(long guildId, long ownerId, List<Role> roles) {
+            this.ownerId = ownerId;
+            this.rolePermissions = new LongLongHashMap();
+            long everyone = 0L;
+            for (Role role : roles) {
+                rolePermissions.put(role.getIdLong(), role.getPermissionsRaw());
+                if (role.getIdLong() == guildId) {
+                    everyone = role.getPermissionsRaw();
+                }
+            }
+            this.everyonePermissions = everyone;
+        }
+
+        long computeBase(long memberId, long[] roleIds) {
+            if (memberId == ownerId) {
+                return ALL_PERMISSIONS;
+            }
+            long permissions = everyonePermissions;
+            for (long roleId : roleIds) {
+                permissions |= rolePermissions.get(roleId, 0L);
+            }
+            return (permissions & ADMINISTRATOR) == ADMINISTRATOR ? ALL_PERMISSIONS : permissions;
+        }
+    }
+
+    private record MemberKey(long guildId, long memberId) {
+    }
+
+    /**
+     * Permissões base de um membro, válidas enquanto o índice da guild e a lista de cargos forem os mesmos.
+     */
+    private record MemberBase(GuildPermissions index, long[] roleIds, long permissions) {
+    }
+
+    /**
+     * Overwrites de um canal separados por alvo, aplicados na ordem do Discord: @everyone, cargos, membro.
+     */
+    private static final class ChannelOverwrites {
+        private final long guildId;
+        private long everyoneAllow;
+        private long everyoneDeny;
+        private final LongLongHashMap roleAllow = new LongLongHashMap();
+        private final LongLongHashMap roleDeny = new LongLongHashMap();
+        private final LongLongHashMap memberAllow = new LongLongHashMap();
+        private final LongLongHashMap memberDeny = new LongLongHashMap();
+
+        ChannelOverwrites(long guildId, List<PermissionOverwrite> overwrites) {
+            this.guildId = guildId;
+            for (PermissionOverwrite overwrite : overwrites) {
+                long targetId = overwrite.getTargetIdLong();
+                if (overwrite.getTargetType() == TargetType.MEMBER) {
+                    memberAllow.put(targetId, overwrite.getAllowRaw());
+                    memberDeny.put(targetId, overwrite.getDenyRaw());
+                } else if (targetId == guildId) {
+                    everyoneAllow = overwrite.getAllowRaw();
+                    everyoneDeny = overwrite.getDenyRaw();
+                } else {
+                    roleAllow.put(targetId, overwrite.getAllowRaw());
+                    roleDeny.put(targetId, overwrite.getDenyRaw());
+                }
+            }
+        }
+
+        long apply(long basePermissions, long memberId, long[] roleIds) {
+            long permissions = (basePermissions & ~everyoneDeny) | everyoneAllow;
+
+            long allow = 0L;
+            long deny = 0L;
+            for (long roleId : roleIds) {
+                allow |= roleAllow.get(roleId, 0L);
+                deny |= roleDeny.get(roleId, 0L);
+            }
+            permissions = (permissions & ~deny) | allow;
+
+            return (permissions & ~memberDeny.get(memberId, 0L)) | memberAllow.get(memberId, 0L);
+        }
+    }
+}
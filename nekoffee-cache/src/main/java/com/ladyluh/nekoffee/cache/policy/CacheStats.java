@@ -0,0 +1,23 @@
+package com.ladyluh.nekoffee.cache.policy;
+
+/**
+ * Contadores de um {@link WTinyLfuCache} num instante.
+ *
+ * @param evictionCount Entradas removidas para respeitar o orçamento de memória.
+ * @param expiredCount  Entradas descartadas por terem passado do tempo de vida.
+ * @param weight        Peso (bytes estimados) ocupado agora.
+ */
+public record CacheStats(long hitCount, long missCount, long evictionCount, long expiredCount,
+                         int size, long weight, long maximumWeight) {
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d (%.1f%% hit), evictions=%d, expired=%d, size=%d, weight=%d/%d bytes",
+                hitCount, missCount, hitRate() * 100, evictionCount, expiredCount, size, weight, maximumWeight);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ladyluh.nekoffee.cache.policy;
+
+/**
+ * Count-Min Sketch de 4 bits usado pela admissão do {@link WTinyLfuCache}.
+ * <p>
+ * Cada long guarda 16 contadores; cada chave incrementa 4 deles e a frequência estimada é o menor.
+ * Depois de {@code 10 * tamanho} incrementos todos os contadores são divididos por dois, para que
+ * popularidade antiga perca peso.
+ */
+final class FrequencySketch {
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int length = Integer.highestOneBit(Math.max(16, Math.min(expectedEntries, 1 << 24)) - 1) << 1;
+        this.table = new long[length];
+        this.mask = length - 1;
+        this.sampleSize = 10 * length;
+    }
+
+    int frequency(long key) {
+        int hash = spread(key);
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            long count = (table[indexOf(hash, i)] >>> counterShift(hash, i)) & 0xF;
+            frequency = Math.min(frequency, (int) count);
+        }
+        return frequency;
+    }
+
+    void increment(long key) {
+        int hash = spread(key);
+        boolean added = false;
+        for (int i = 0; i < 4; i++) {
+            int index = indexOf(hash, i);
+            int shift = counterShift(hash, i);
+            if (((table[index] >>> shift) & 0xF) < MAX_COUNT) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    private static int spread(long key) {
+        long x = key * 0x9E3779B97F4A7C15L;
+        return (int) (x ^ (x >>> 32));
+    }
+
+    private int indexOf(int hash, int i) {
+        long h = (hash + SEEDS[i]) * SEEDS[i];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    /**
+     * Qual dos 16 contadores de 4 bits do long é usado pela i-ésima função de hash.
+     */
+    private static int counterShift(int hash, int i) {
+        return ((hash >>> (i << 3)) & 0xF) << 2;
+    }
+}
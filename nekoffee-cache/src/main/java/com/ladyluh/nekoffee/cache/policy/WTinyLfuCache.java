@@ -0,0 +1,300 @@
+package com.ladyluh.nekoffee.cache.policy;
+
+import com.ladyluh.nekoffee.api.util.LongObjectHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache com chave snowflake limitado por peso (bytes estimados), com política W-TinyLFU:
+ * <ul>
+ *     <li>uma janela LRU pequena (1% do orçamento) recebe as entradas novas;</li>
+ *     <li>quem sai da janela disputa a entrada na região principal (SLRU: probation + protected) com a
+ *     vítima da probation, e fica quem tiver maior frequência no {@link FrequencySketch};</li>
+ *     <li>entradas com mais de {@code expireAfterWrite} são descartadas ao serem lidas ou quando chegam
+ *     ao início das filas.</li>
+ * </ul>
+ * Todas as operações rodam sob um único lock e fazem trabalho O(1) amortizado.
+ */
+public final class WTinyLfuCache<V> {
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    /**
+     * Peso médio presumido por entrada, usado só para dimensionar o sketch.
+     */
+    private static final int ASSUMED_ENTRY_WEIGHT = 256;
+
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    private final long expireAfterWriteNanos;
+    private final ToIntFunction<? super V> weigher;
+
+    private final LongObjectHashMap<Node<V>> data = new LongObjectHashMap<>();
+    private final FrequencySketch sketch;
+    private final AccessQueue<V> window = new AccessQueue<>();
+    private final AccessQueue<V> probation = new AccessQueue<>();
+    private final AccessQueue<V> protectedQueue = new AccessQueue<>();
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long expiredCount;
+
+    /**
+     * @param maximumWeight    Orçamento total, na mesma unidade do weigher.
+     * @param expireAfterWrite Tempo de vida de cada entrada desde a última escrita; zero desativa.
+     * @param weigher          Peso estimado de um valor; valores mais pesados que o orçamento não são guardados.
+     */
+    public WTinyLfuCache(long maximumWeight, Duration expireAfterWrite, ToIntFunction<? super V> weigher) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("maximumWeight must be positive");
+        }
+        this.maximumWeight = maximumWeight;
+        this.windowMaximum = Math.max(1, maximumWeight / 100);
+        this.protectedMaximum = (maximumWeight - windowMaximum) * 80 / 100;
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.weigher = weigher;
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, maximumWeight / ASSUMED_ENTRY_WEIGHT));
+    }
+
+    @Nullable
+    public synchronized V get(long key) {
+        Node<V> node = data.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        if (isExpired(node, System.nanoTime())) {
+            removeNode(node);
+            expiredCount++;
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        sketch.increment(key);
+        onAccess(node);
+        return node.value;
+    }
+
+    public synchronized void put(long key, V value) {
+        int weight = weigher.applyAsInt(value);
+        long now = System.nanoTime();
+        Node<V> node = data.get(key);
+        if (weight > maximumWeight) {
+            if (node != null) removeNode(node);
+            return;
+        }
+        sketch.increment(key);
+        if (node != null) {
+            adjustWeight(node, weight - node.weight);
+            node.value = value;
+            node.weight = weight;
+            node.writeTime = now;
+            onAccess(node);
+        } else {
+            node = new Node<>(key, value, weight, now);
+            data.put(key, node);
+            window.addLast(node);
+            windowWeight += weight;
+        }
+        expireHeads(now);
+        evict();
+    }
+
+    public synchronized void remove(long key) {
+        Node<V> node = data.get(key);
+        if (node != null) {
+            removeNode(node);
+        }
+    }
+
+    public synchronized void clear() {
+        data.clear();
+        window.clear();
+        probation.clear();
+        protectedQueue.clear();
+        windowWeight = probationWeight = protectedWeight = 0;
+    }
+
+    public synchronized int size() {
+        return data.size();
+    }
+
+    public synchronized CacheStats stats() {
+        return new CacheStats(hitCount, missCount, evictionCount, expiredCount, data.size(),
+                windowWeight + probationWeight + protectedWeight, maximumWeight);
+    }
+
+    private boolean isExpired(Node<V> node, long now) {
+        return expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private void onAccess(Node<V> node) {
+        switch (node.queue) {
+            case WINDOW -> window.moveToLast(node);
+            case PROTECTED -> protectedQueue.moveToLast(node);
+            default -> {
+                // Segundo acesso na probation: promove para protected e devolve o excesso à probation.
+                probation.remove(node);
+                probationWeight -= node.weight;
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                protectedWeight += node.weight;
+                while (protectedWeight > protectedMaximum && protectedQueue.first() != node) {
+                    Node<V> demoted = protectedQueue.first();
+                    protectedQueue.remove(demoted);
+                    protectedWeight -= demoted.weight;
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                    probationWeight += demoted.weight;
+                }
+            }
+        }
+    }
+
+    private void adjustWeight(Node<V> node, int delta) {
+        switch (node.queue) {
+            case WINDOW -> windowWeight += delta;
+            case PROBATION -> probationWeight += delta;
+            default -> protectedWeight += delta;
+        }
+    }
+
+    /**
+     * A cada escrita olha só o início de cada fila: entradas expiradas tendem a se acumular ali.
+     */
+    private void expireHeads(long now) {
+        expireHead(window, now);
+        expireHead(probation, now);
+        expireHead(protectedQueue, now);
+    }
+
+    private void expireHead(AccessQueue<V> queue, long now) {
+        Node<V> head = queue.first();
+        if (head != null && isExpired(head, now)) {
+            removeNode(head);
+            expiredCount++;
+        }
+    }
+
+    private void evict() {
+        // Quem passa do tamanho da janela vira candidato na probation.
+        while (windowWeight > windowMaximum && window.first() != null) {
+            Node<V> candidate = window.first();
+            window.remove(candidate);
+            windowWeight -= candidate.weight;
+            candidate.queue = PROBATION;
+            probation.addLast(candidate);
+            probationWeight += candidate.weight;
+        }
+
+        while (windowWeight + probationWeight + protectedWeight > maximumWeight) {
+            Node<V> victim = probation.first();
+            Node<V> candidate = probation.last();
+            if (victim == null) {
+                victim = protectedQueue.first() != null ? protectedQueue.first() : window.first();
+                removeNode(victim);
+            } else if (victim == candidate || sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                removeNode(victim);
+            } else {
+                removeNode(candidate);
+            }
+            evictionCount++;
+        }
+    }
+
+    private void removeNode(Node<V> node) {
+        data.remove(node.key);
+        switch (node.queue) {
+            case WINDOW -> {
+                window.remove(node);
+                windowWeight -= node.weight;
+            }
+            case PROBATION -> {
+                probation.remove(node);
+                probationWeight -= node.weight;
+            }
+            default -> {
+                protectedQueue.remove(node);
+                protectedWeight -= node.weight;
+            }
+        }
+    }
+
+    private static final class Node<V> {
+        final long key;
+        V value;
+        int weight;
+        long writeTime;
+        int queue = WINDOW;
+        Node<V> prev;
+        Node<V> next;
+
+        Node(long key, V value, int weight, long writeTime) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = writeTime;
+        }
+    }
+
+    /**
+     * Lista duplamente ligada intrusiva, do menos para o mais recentemente usado.
+     */
+    private static final class AccessQueue<V> {
+        private Node<V> head;
+        private Node<V> tail;
+
+        Node<V> first() {
+            return head;
+        }
+
+        Node<V> last() {
+            return tail;
+        }
+
+        void addLast(Node<V> node) {
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+        }
+
+        void remove(Node<V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+
+        void moveToLast(Node<V> node) {
+            if (tail != node) {
+                remove(node);
+                addLast(node);
+            }
+        }
+
+        void clear() {
+            head = null;
+            tail = null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ladyluh.nekoffee.cache.member;
+
+import com.ladyluh.nekoffee.api.entities.Member;
+import com.ladyluh.nekoffee.api.entities.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapMemberStoreTest {
+    private static final long GUILD = 41771983423143937L;
+    private static final long OTHER_GUILD = 81384788765712384L;
+    private static final OffsetDateTime JOINED = OffsetDateTime.of(2015, 4, 26, 6, 26, 56, 0, ZoneOffset.UTC);
+
+    private final OffHeapMemberStore store = new OffHeapMemberStore(id -> null);
+
+    private static Member member(long userId, String nickname, long... roleIds) {
+        User user = new OffHeapUser(userId, "user" + userId, "Nome " + userId, "0", "8342729096ea3675442027381ff50dfe", false, false);
+        return new OffHeapMember(null, GUILD, user, nickname, roleIds, JOINED, null, false, true);
+    }
+
+    @Test
+    void putGetAndRemove() {
+        store.put(GUILD, member(1L, "apelido", 10L, 20L));
+        Member read = store.get(GUILD, 1L);
+        assertEquals(1L, read.getIdLong());
+        assertEquals("apelido", read.getNickname());
+        assertArrayEquals(new long[]{10L, 20L}, read.getRoleIdsLong());
+        assertEquals(JOINED, read.getTimeJoined());
+        assertNull(read.getTimeBoosted());
+        assertFalse(read.isDeafened());
+        assertTrue(read.isMuted());
+        assertEquals("user1", read.getUser().getUsername());
+        assertEquals("Nome 1", read.getUser().getGlobalName());
+        assertEquals(String.valueOf(GUILD), read.getGuildId());
+
+        assertNull(store.get(OTHER_GUILD, 1L));
+        store.put(GUILD, member(1L, null));
+        assertNull(store.get(GUILD, 1L).getNickname());
+        assertEquals(0, store.get(GUILD, 1L).getRoleIdsLong().length);
+        assertEquals(1, store.size(GUILD));
+
+        store.remove(GUILD, 1L);
+        assertNull(store.get(GUILD, 1L));
+        assertEquals(0, store.size(GUILD));
+    }
+
+    @Test
+    void removedSlotIsReused() {
+        for (long id = 1; id <= 16; id++) {
+            store.put(GUILD, member(id, "m" + id));
+        }
+        long reserved = store.getOffHeapBytes();
+        store.remove(GUILD, 5L);
+        store.put(GUILD, member(100L, "novo"));
+        assertEquals(reserved, store.getOffHeapBytes(), "o slot livre deveria ser reaproveitado");
+        assertEquals("novo", store.get(GUILD, 100L).getNickname());
+        assertEquals("m6", store.get(GUILD, 6L).getNickname());
+        assertEquals(16, store.size(GUILD));
+    }
+
+    @Test
+    void smallGuildsReserveLittleAndSlabsGrowWithoutLosingRecords() {
+        store.put(GUILD, member(1L, "a"));
+        assertEquals(16L * OffHeapMemberStore.RECORD_SIZE, store.getOffHeapBytes());
+
+        for (long id = 2; id <= 10_000; id++) {
+            store.put(GUILD, member(id, "m" + id, id));
+        }
+        // Primeiro slab cheio (4096) mais dois de 4096.
+        assertEquals(3L * 4096 * OffHeapMemberStore.RECORD_SIZE, store.getOffHeapBytes());
+        assertEquals("a", store.get(GUILD, 1L).getNickname());
+        for (long id = 2; id <= 10_000; id++) {
+            Member read = store.get(GUILD, id);
+            assertEquals("m" + id, read.getNickname());
+            assertArrayEquals(new long[]{id}, read.getRoleIdsLong());
+        }
+    }
+
+    @Test
+    void membersThatDoNotFitStayOnTheHeap() {
+        Member manyRoles = member(1L, "cargos", 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        Member longNickname = member(2L, "x".repeat(33));
+        store.put(GUILD, manyRoles);
+        store.put(GUILD, longNickname);
+        assertSame(manyRoles, store.get(GUILD, 1L));
+        assertSame(longNickname, store.get(GUILD, 2L));
+        assertEquals(0, store.getOffHeapBytes());
+
+        // Voltando a caber, sai do heap; e vice-versa.
+        store.put(GUILD, member(1L, "cabe", 1));
+        assertEquals("cabe", store.get(GUILD, 1L).getNickname());
+        store.put(GUILD, manyRoles);
+        assertSame(manyRoles, store.get(GUILD, 1L));
+        assertEquals(2, store.size(GUILD));
+
+        store.remove(GUILD, 2L);
+        assertNull(store.get(GUILD, 2L));
+    }
+
+    @Test
+    void removeGuildDropsEverything() {
+        store.put(GUILD, member(1L, "a"));
+        store.put(OTHER_GUILD, member(1L, "b"));
+        store.removeGuild(GUILD);
+        assertNull(store.get(GUILD, 1L));
+        assertEquals("b", store.get(OTHER_GUILD, 1L).getNickname());
+        assertEquals(16L * OffHeapMemberStore.RECORD_SIZE, store.getOffHeapBytes());
+    }
+}
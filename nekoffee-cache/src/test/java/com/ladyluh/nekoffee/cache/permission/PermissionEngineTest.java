@@ -0,0 +1,146 @@
+package com.ladyluh.nekoffee.cache.permission;
+
+import com.ladyluh.nekoffee.api.entities.Guild;
+import com.ladyluh.nekoffee.api.entities.Member;
+import com.ladyluh.nekoffee.api.entities.PermissionOverwrite;
+import com.ladyluh.nekoffee.api.entities.Role;
+import com.ladyluh.nekoffee.api.entities.TargetType;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleUpdateEvent;
+import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import com.ladyluh.nekoffee.cache.entity.CacheFlag;
+import com.ladyluh.nekoffee.cache.entity.EntityStore;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PermissionEngineTest {
+    private static final long GUILD = 41771983423143937L;
+    private static final long OWNER = 80351110224678912L;
+    private static final long MEMBER = 80351110224678913L;
+    private static final long ROLE_A = 1001L;
+    private static final long ROLE_B = 1002L;
+    private static final long ADMIN_ROLE = 1003L;
+    private static final long CHANNEL = 157733188964188161L;
+
+    private static final long VIEW = Permission.VIEW_CHANNEL.getRawValue();
+    private static final long SEND = Permission.SEND_MESSAGES.getRawValue();
+    private static final long REACT = Permission.ADD_REACTIONS.getRawValue();
+    private static final long EMBED = Permission.EMBED_LINKS.getRawValue();
+    private static final long ATTACH = Permission.ATTACH_FILES.getRawValue();
+    private static final long MANAGE = Permission.MANAGE_CHANNELS.getRawValue();
+
+    private final EntityStore store = new EntityStore(CacheFlag.defaults());
+    private final PermissionEngine engine = new PermissionEngine(store);
+
+    /**
+     * Implementa a interface só com os getters dados; os métodos default rodam a implementação da interface.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Object> values) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (values.containsKey(method.getName())) {
+                return values.get(method.getName());
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            throw new UnsupportedOperationException(method.getName());
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Role role(long id, long permissions) {
+        return stub(Role.class, Map.of("getIdLong", id, "getPermissionsRaw", permissions));
+    }
+
+    private static Member member(long id, long... roleIds) {
+        return stub(Member.class, Map.of("getIdLong", id, "getGuildId", Snowflake.toString(GUILD),
+                "getRoleIds", Arrays.stream(roleIds).mapToObj(Snowflake::toString).toList()));
+    }
+
+    private static PermissionOverwrite overwrite(long targetId, TargetType type, long allow, long deny) {
+        return stub(PermissionOverwrite.class, Map.of("getTargetIdLong", targetId, "getTargetType", type,
+                "getAllowRaw", allow, "getDenyRaw", deny));
+    }
+
+    private static Channel channel(PermissionOverwrite... overwrites) {
+        return stub(Channel.class, Map.of("getIdLong", CHANNEL, "getPermissionOverwrites", List.of(overwrites)));
+    }
+
+    private void putGuild(Role... roles) {
+        store.putGuild(stub(Guild.class, Map.of("getIdLong", GUILD, "getOwnerId", Snowflake.toString(OWNER),
+                "getRoles", List.of(roles))));
+    }
+
+    @Test
+    void unknownWithoutCachedRoles() {
+        assertEquals(PermissionResolver.UNKNOWN, engine.getPermissions(member(MEMBER), null));
+        assertEquals(PermissionResolver.UNKNOWN, engine.getPermissions(member(MEMBER), channel()));
+    }
+
+    @Test
+    void ownerHasEverything() {
+        putGuild(role(GUILD, 0L));
+        assertEquals(PermissionResolver.ALL_PERMISSIONS, engine.getPermissions(member(OWNER), null));
+        assertEquals(PermissionResolver.ALL_PERMISSIONS,
+                engine.getPermissions(member(OWNER), channel(overwrite(OWNER, TargetType.MEMBER, 0L, VIEW))));
+    }
+
+    @Test
+    void administratorRoleShortCircuitsOverwrites() {
+        putGuild(role(GUILD, VIEW), role(ADMIN_ROLE, Permission.ADMINISTRATOR.getRawValue()));
+        Channel locked = channel(overwrite(GUILD, TargetType.ROLE, 0L, VIEW),
+                overwrite(MEMBER, TargetType.MEMBER, 0L, -1L));
+        assertEquals(PermissionResolver.ALL_PERMISSIONS, engine.getPermissions(member(MEMBER, ADMIN_ROLE), null));
+        assertEquals(PermissionResolver.ALL_PERMISSIONS, engine.getPermissions(member(MEMBER, ADMIN_ROLE), locked));
+        assertEquals(0L, engine.getPermissions(member(MEMBER), locked));
+    }
+
+    @Test
+    void overwritesApplyEveryoneThenRolesThenMember() {
+        putGuild(role(GUILD, VIEW | SEND | REACT), role(ROLE_A, EMBED), role(ROLE_B, 0L));
+        Channel channel = channel(
+                // @everyone: tira SEND e REACT, dá ATTACH.
+                overwrite(GUILD, TargetType.ROLE, ATTACH, SEND | REACT),
+                // Cargos somados: o allow de B vence o deny de A; SEND volta; EMBED sai.
+                overwrite(ROLE_A, TargetType.ROLE, SEND, ATTACH | EMBED),
+                overwrite(ROLE_B, TargetType.ROLE, ATTACH, 0L),
+                // Membro por último: tira SEND de novo e devolve REACT.
+                overwrite(MEMBER, TargetType.MEMBER, REACT, SEND));
+
+        assertEquals(VIEW | SEND | REACT | EMBED, engine.getPermissions(member(MEMBER, ROLE_A, ROLE_B), null));
+        assertEquals(VIEW | ATTACH | REACT, engine.getPermissions(member(MEMBER, ROLE_A, ROLE_B), channel));
+        assertEquals(VIEW | ATTACH | SEND, engine.getPermissions(member(MEMBER + 1, ROLE_A, ROLE_B), channel));
+        assertEquals(VIEW | SEND, engine.getPermissions(member(MEMBER + 1, ROLE_A), channel));
+        assertEquals(VIEW | ATTACH, engine.getPermissions(member(MEMBER + 1), channel));
+    }
+
+    @Test
+    void roleUpdateDropsCachedBasePermissions() {
+        putGuild(role(GUILD, VIEW), role(ROLE_A, SEND));
+        Member member = member(MEMBER, ROLE_A);
+        assertEquals(VIEW | SEND, engine.getPermissions(member, null));
+        assertEquals(VIEW | SEND, engine.getPermissions(member, null));
+
+        RoleUpdateEvent event = new RoleUpdateEvent(null, Snowflake.toString(GUILD), role(ROLE_A, SEND | MANAGE));
+        store.onEvent(event);
+        engine.onEvent(event);
+        assertEquals(VIEW | SEND | MANAGE, engine.getPermissions(member, null));
+    }
+
+    @Test
+    void changedRolesAreNotServedFromTheCache() {
+        putGuild(role(GUILD, VIEW), role(ROLE_A, SEND), role(ROLE_B, MANAGE));
+        assertEquals(VIEW | SEND, engine.getPermissions(member(MEMBER, ROLE_A), null));
+        assertEquals(VIEW | MANAGE, engine.getPermissions(member(MEMBER, ROLE_B), null));
+    }
+}
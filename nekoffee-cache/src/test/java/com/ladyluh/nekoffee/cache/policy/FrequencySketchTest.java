@@ -0,0 +1,57 @@
+package com.ladyluh.nekoffee.cache.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencySketchTest {
+
+    @Test
+    void emptySketchEstimatesZero() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (long key = 1; key <= 1_000; key++) {
+            assertEquals(0, sketch.frequency(key));
+        }
+    }
+
+    @Test
+    void neverUnderestimates() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        SplittableRandom random = new SplittableRandom(3);
+        int[] counts = new int[500];
+        for (int i = 0; i < 2_000; i++) {
+            int key = random.nextInt(counts.length);
+            counts[key]++;
+            sketch.increment(80351110224678912L + key);
+        }
+        for (int key = 0; key < counts.length; key++) {
+            assertTrue(sketch.frequency(80351110224678912L + key) >= Math.min(counts[key], 15), "chave " + key);
+        }
+    }
+
+    @Test
+    void countersSaturateAtFifteen() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 40; i++) {
+            sketch.increment(42L);
+        }
+        assertEquals(15, sketch.frequency(42L));
+    }
+
+    @Test
+    void resetHalvesCounters() {
+        FrequencySketch sketch = new FrequencySketch(1024);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment(42L);
+        }
+        // Chaves distintas até atingir 10 * 1024 incrementos; o reset divide todos os contadores por dois.
+        long key = 1_000_000L;
+        while (sketch.frequency(42L) == 15 && key < 1_100_000L) {
+            sketch.increment(key++);
+        }
+        assertEquals(7, sketch.frequency(42L));
+    }
+}
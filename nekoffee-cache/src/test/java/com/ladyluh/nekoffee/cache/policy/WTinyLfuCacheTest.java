@@ -0,0 +1,128 @@
+package com.ladyluh.nekoffee.cache.policy;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WTinyLfuCacheTest {
+    /**
+     * Entradas de peso 256 com orçamento para 1000: janela de 10, sketch de 1024 posições.
+     */
+    private static final int ENTRY_WEIGHT = 256;
+    private static final int CAPACITY = 1_000;
+
+    private static WTinyLfuCache<String> newCache(Duration expireAfterWrite) {
+        return new WTinyLfuCache<>((long) CAPACITY * ENTRY_WEIGHT, expireAfterWrite, v -> ENTRY_WEIGHT);
+    }
+
+    @Test
+    void getReturnsStoredValueAndCountsHitsAndMisses() {
+        WTinyLfuCache<String> cache = newCache(Duration.ZERO);
+        cache.put(1L, "um");
+        assertEquals("um", cache.get(1L));
+        assertNull(cache.get(2L));
+        cache.put(1L, "outro");
+        assertEquals("outro", cache.get(1L));
+        CacheStats stats = cache.stats();
+        assertEquals(2, stats.hitCount());
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.size());
+        assertEquals(ENTRY_WEIGHT, stats.weight());
+    }
+
+    @Test
+    void evictionKeepsWeightWithinBudget() {
+        WTinyLfuCache<String> cache = newCache(Duration.ZERO);
+        for (long key = 1; key <= 5_000; key++) {
+            cache.put(key, "v");
+            assertTrue(cache.stats().weight() <= (long) CAPACITY * ENTRY_WEIGHT);
+        }
+        CacheStats stats = cache.stats();
+        assertEquals(CAPACITY, stats.size());
+        assertEquals(5_000 - CAPACITY, stats.evictionCount());
+    }
+
+    @Test
+    void oversizedValueIsNotStoredAndReplacesNothing() {
+        WTinyLfuCache<String> cache = new WTinyLfuCache<>(1_000, Duration.ZERO, String::length);
+        cache.put(1L, "pequeno");
+        cache.put(1L, "x".repeat(1_001));
+        assertNull(cache.get(1L));
+        assertEquals(0, cache.stats().weight());
+    }
+
+    @Test
+    void frequentCandidateIsAdmittedOverColdVictim() {
+        WTinyLfuCache<String> cache = newCache(Duration.ZERO);
+        for (long key = 1; key <= 2_000; key++) {
+            cache.put(key, "frio");
+        }
+        long hot = 1_000_000L;
+        long once = 2_000_000L;
+        for (int i = 0; i < 5; i++) {
+            cache.put(hot, "quente");
+        }
+        cache.put(once, "uma vez");
+        // Empurra as duas chaves para fora da janela: viram candidatas contra a vítima da probation.
+        for (long key = 3_000; key < 3_050; key++) {
+            cache.put(key, "frio");
+        }
+        assertNotNull(cache.get(hot));
+        assertNull(cache.get(once));
+    }
+
+    @Test
+    void protectedEntriesSurviveAScan() {
+        WTinyLfuCache<String> cache = newCache(Duration.ZERO);
+        for (long key = 1; key <= 500; key++) {
+            cache.put(key, "quente");
+        }
+        for (long key = 1; key <= 500; key++) {
+            cache.get(key);
+        }
+        for (long key = 10_000; key < 50_000; key++) {
+            cache.put(key, "varredura");
+        }
+        // As 10 últimas ainda estavam na janela quando foram lidas, então não chegaram à região protegida.
+        for (long key = 1; key <= 490; key++) {
+            assertNotNull(cache.get(key), "chave " + key);
+        }
+    }
+
+    @Test
+    void expiredEntryIsDroppedOnRead() throws InterruptedException {
+        WTinyLfuCache<String> cache = newCache(Duration.ofMillis(50));
+        cache.put(1L, "v");
+        Thread.sleep(100);
+        assertNull(cache.get(1L));
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.expiredCount());
+        assertEquals(0, stats.size());
+    }
+
+    @Test
+    void expiredHeadIsDroppedOnWrite() throws InterruptedException {
+        WTinyLfuCache<String> cache = newCache(Duration.ofMillis(50));
+        cache.put(1L, "v");
+        Thread.sleep(100);
+        cache.put(2L, "v");
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.stats().expiredCount());
+        assertEquals("v", cache.get(2L));
+    }
+
+    @Test
+    void rewriteRefreshesExpiry() throws InterruptedException {
+        WTinyLfuCache<String> cache = newCache(Duration.ofMillis(200));
+        cache.put(1L, "v");
+        Thread.sleep(120);
+        cache.put(1L, "v2");
+        Thread.sleep(120);
+        assertEquals("v2", cache.get(1L));
+    }
+}
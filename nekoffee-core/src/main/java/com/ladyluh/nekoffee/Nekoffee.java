@@ -1,12 +1,16 @@
 package com.ladyluh.nekoffee;
 
 import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.cache.entity.CacheFlag;
+import com.ladyluh.nekoffee.cache.entity.UserCacheConfig;
 import com.ladyluh.nekoffee.gateway.client.RestClient;
 import com.ladyluh.nekoffee.gateway.client.impl.OkHttpRestClientImpl;
 import com.ladyluh.nekoffee.json.util.JsonEngine;
 import com.ladyluh.nekoffee.json.util.impl.JacksonJsonEngineImpl;
 import okhttp3.OkHttpClient;
 
+import java.util.Collection;
+
 public final class Nekoffee {
     static OkHttpClient sharedOkHttpClient = new OkHttpClient.Builder().build();
     RestClient restClient = new OkHttpRestClientImpl();
@@ -28,4 +32,36 @@ public final class Nekoffee {
         NekoffeeClientImpl clientImpl = new NekoffeeClientImpl(restClient, jsonEngine, sharedOkHttpClient);
         return new NekoffeeClientImpl(restClient, jsonEngine, sharedOkHttpClient);
     }
+
+    /**
+     * Cria um NekoffeeClient cujos eventos de mensagem carregam entidades preguiçosas: os campos do
+     * payload só são decodificados quando um listener os lê.
+     *
+     * @param lazyEntities true para ativar o modo preguiçoso.
+     * @return uma nova instância de NekoffeeClient.
+     */
+    public static NekoffeeClient createDefault(boolean lazyEntities) {
+        return createDefault(lazyEntities, CacheFlag.defaults());
+    }
+
+    /**
+     * Cria um NekoffeeClient escolhendo quais entidades o Gateway mantém em memória.
+     *
+     * @param lazyEntities true para ativar o modo preguiçoso.
+     * @param cacheFlags   Entidades guardadas no EntityStore; as demais são sempre lidas via API REST.
+     * @return uma nova instância de NekoffeeClient.
+     */
+    public static NekoffeeClient createDefault(boolean lazyEntities, Collection<CacheFlag> cacheFlags) {
+        return createDefault(lazyEntities, cacheFlags, UserCacheConfig.defaults());
+    }
+
+    /**
+     * @param userCacheConfig Orçamento de memória e expiração do cache de usuários compartilhado.
+     * @see #createDefault(boolean, Collection)
+     */
+    public static NekoffeeClient createDefault(boolean lazyEntities, Collection<CacheFlag> cacheFlags, UserCacheConfig userCacheConfig) {
+        JsonEngine jsonEngine = new JacksonJsonEngineImpl();
+        RestClient restClient = new OkHttpRestClientImpl();
+        return new NekoffeeClientImpl(restClient, jsonEngine, sharedOkHttpClient, lazyEntities, cacheFlags, userCacheConfig);
+    }
 }
\ No newline at end of file
@@ -16,8 +16,15 @@ import com.ladyluh.nekoffee.api.payload.channel.CreateGuildChannelPayload;
 import com.ladyluh.nekoffee.api.payload.member.ModifyMemberPayload;
 import com.ladyluh.nekoffee.api.payload.permission.Permission;
 import com.ladyluh.nekoffee.api.payload.permission.PermissionOverwritePayload;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
 import com.ladyluh.nekoffee.api.payload.send.MessageSendPayload;
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
 import com.ladyluh.nekoffee.api.voice.VoiceConnection;
+import com.ladyluh.nekoffee.cache.entity.CacheFlag;
+import com.ladyluh.nekoffee.cache.entity.EntityStore;
+import com.ladyluh.nekoffee.cache.entity.UserCacheConfig;
+import com.ladyluh.nekoffee.cache.permission.PermissionEngine;
 import com.ladyluh.nekoffee.gateway.client.GatewayClient;
 import com.ladyluh.nekoffee.gateway.client.RestClient;
 import com.ladyluh.nekoffee.gateway.client.impl.OkHttpWebSocketGatewayClientImpl;
@@ -51,18 +58,42 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
     private final List<EventListener> eventListeners = new CopyOnWriteArrayList<>();
     private final GatewayClient gatewayClient;
     private final OkHttpClient sharedOkHttpClient;
-    private final Map<String, VoiceConnection> voiceConnections = new ConcurrentHashMap<>();
+    private final ConcurrentLongObjectMap<VoiceConnection> voiceConnections = new ConcurrentLongObjectMap<>();
     private final Map<String, CompletableFuture<VoiceConnection>> pendingVoiceConnections = new ConcurrentHashMap<>();
+    private final EntityStore entityStore;
+    private final PermissionEngine permissionEngine;
 
     private boolean loggedIn = false;
     private User selfUser;
     private String sessionId;
 
     NekoffeeClientImpl(RestClient restClient, JsonEngine jsonEngine, OkHttpClient sharedOkHttpClient) {
+        this(restClient, jsonEngine, sharedOkHttpClient, false, CacheFlag.defaults(), UserCacheConfig.defaults());
+    }
+
+    NekoffeeClientImpl(RestClient restClient, JsonEngine jsonEngine, OkHttpClient sharedOkHttpClient,
+                       boolean lazyEntities, Collection<CacheFlag> cacheFlags, UserCacheConfig userCacheConfig) {
         this.restClient = Objects.requireNonNull(restClient, "RestClient cannot be null");
         this.jsonEngine = Objects.requireNonNull(jsonEngine, "JsonEngine cannot be null");
         this.sharedOkHttpClient = Objects.requireNonNull(sharedOkHttpClient, "Shared OkHttpClient cannot be null");
+        this.entityStore = new EntityStore(Objects.requireNonNull(cacheFlags, "Cache flags cannot be null"),
+                Objects.requireNonNull(userCacheConfig, "User cache config cannot be null"));
+        this.permissionEngine = new PermissionEngine(this.entityStore);
+        this.entityStore.setNekoffeeClient(this);
         this.gatewayClient = new OkHttpWebSocketGatewayClientImpl(this.sharedOkHttpClient, this.jsonEngine, this);
+        this.gatewayClient.setLazyEntities(lazyEntities);
+    }
+
+    /**
+     * @return O store alimentado pelo Gateway, consultado pelos getters antes da API REST.
+     */
+    public EntityStore getEntityStore() {
+        return entityStore;
+    }
+
+    @Override
+    public PermissionResolver getPermissionResolver() {
+        return permissionEngine;
     }
 
     @Override
@@ -119,10 +150,13 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
     public void shutdown() {
         if (!loggedIn) return;
         LOGGER.info("NekoffeeClient shutting down...");
-        voiceConnections.keySet().forEach(this::leaveVoiceChannel);
+        for (long guildId : voiceConnections.keys()) {
+            leaveVoiceChannel(Snowflake.toString(guildId));
+        }
         gatewayClient.disconnect();
         restClient.shutdown();
         loggedIn = false;
+        LOGGER.info("User cache stats: {}", entityStore.getUserCacheStats());
         LOGGER.info("NekoffeeClient shutdown complete.");
     }
 
@@ -136,6 +170,10 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
 
     @Override
     public void dispatch(Event event) {
+        // Antes dos listeners, para que eles já leiam o estado atualizado pelo próprio evento.
+        entityStore.onEvent(event);
+        permissionEngine.onEvent(event);
+
         if (event instanceof ReadyEvent readyEvent) {
             this.selfUser = readyEvent.getSelfUser();
             this.sessionId = readyEvent.getSessionId();
@@ -145,7 +183,8 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         if (event instanceof VoiceServerUpdateEvent vsu) {
             LOGGER.debug("Received VoiceServerUpdate for guild {}. Checking for pending connections.", vsu.getGuildId());
             CompletableFuture<VoiceConnection> pendingFuture = pendingVoiceConnections.get(vsu.getGuildId());
-            VoiceConnection conn = voiceConnections.get(vsu.getGuildId());
+            long voiceGuildId = Snowflake.parse(vsu.getGuildId());
+            VoiceConnection conn = voiceConnections.get(voiceGuildId);
 
             if (pendingFuture != null && conn instanceof VoiceConnectionImpl voiceConn) {
                 LOGGER.info("Found pending voice connection for guild {}. Initiating voice server connection.", vsu.getGuildId());
@@ -155,7 +194,7 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
                             if (throwable != null) {
                                 LOGGER.error("Failed to establish voice connection for guild {}", vsu.getGuildId(), throwable);
                                 pendingFuture.completeExceptionally(throwable);
-                                voiceConnections.remove(vsu.getGuildId());
+                                voiceConnections.remove(voiceGuildId, conn);
                                 conn.disconnect();
                             } else {
                                 LOGGER.info("Voice connection for guild {} fully established.", vsu.getGuildId());
@@ -183,14 +222,16 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         return pendingVoiceConnections.computeIfAbsent(guildId, gid -> {
             LOGGER.info("Initiating join for guild {}, channel {}.", gid, channelId);
 
-            if (voiceConnections.containsKey(gid)) {
+            long guildIdLong = Snowflake.parse(gid);
+            VoiceConnection existing = voiceConnections.get(guildIdLong);
+            if (existing != null) {
                 pendingVoiceConnections.remove(gid);
-                return CompletableFuture.completedFuture(voiceConnections.get(gid));
+                return CompletableFuture.completedFuture(existing);
             }
 
             CompletableFuture<VoiceConnection> connectionFuture = new CompletableFuture<>();
             VoiceConnectionImpl connection = new VoiceConnectionImpl(gid, getSelfUser().getId(), this, jsonEngine, sharedOkHttpClient);
-            voiceConnections.put(gid, connection);
+            voiceConnections.put(guildIdLong, connection);
 
             gatewayClient.sendVoiceStateUpdate(gid, channelId, false, false);
 
@@ -213,7 +254,7 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         LOGGER.info("Leaving voice channel in guild {}.", guildId);
         gatewayClient.sendVoiceStateUpdate(guildId, null, false, false);
 
-        VoiceConnection connection = voiceConnections.remove(guildId);
+        VoiceConnection connection = voiceConnections.remove(Snowflake.parse(guildId));
         if (connection != null) {
 
             return connection.disconnect();
@@ -258,13 +299,13 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         Objects.requireNonNull(payload, "Payload cannot be null");
 
         String url = DISCORD_API_BASE_URL + "/channels/" + channelId;
-        String jsonPayload = jsonEngine.toJsonString(payload);
-        LOGGER.debug("Modifying channel {}: {}", channelId, jsonPayload);
+        byte[] jsonPayload = jsonEngine.toJsonBytes(payload);
+        LOGGER.debug("Modifying channel {}: {}", channelId, payload);
 
         return restClient.patch(url, jsonPayload, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for modifyChannel: {}", responseBody);
-                    return jsonEngine.fromJsonString(responseBody, Channel.class);
+                    LOGGER.debug("Received response for modifyChannel: {} bytes", responseBody.length);
+                    return jsonEngine.fromJsonBytes(responseBody, Channel.class);
                 })
                 .exceptionally(throwable -> {
                     LOGGER.error("Failed to modify channel {}: {}", channelId, throwable.getMessage(), throwable);
@@ -297,8 +338,8 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
                 String.valueOf(allowBitmask),
                 String.valueOf(denyBitmask)
         );
-        String jsonPayload = jsonEngine.toJsonString(payload);
-        LOGGER.debug("Editing permissions for target {} in channel {}: {}", targetId, channelId, jsonPayload);
+        byte[] jsonPayload = jsonEngine.toJsonBytes(payload);
+        LOGGER.debug("Editing permissions for target {} in channel {}: allow={}, deny={}", targetId, channelId, allowBitmask, denyBitmask);
 
         return restClient.put(url, jsonPayload, Collections.emptyMap())
                 .thenAccept(responseBody -> LOGGER.info("Permissions for target {} in channel {} edited successfully.", targetId, channelId))
@@ -323,13 +364,13 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
             payload.setParentId(parentCategoryId);
         }
 
-        String jsonPayload = jsonEngine.toJsonString(payload);
-        LOGGER.debug("Creating guild channel in {}: {}", guildId, jsonPayload);
+        byte[] jsonPayload = jsonEngine.toJsonBytes(payload);
+        LOGGER.debug("Creating guild channel in {}: {}", guildId, payload);
 
         return restClient.post(url, jsonPayload, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for createGuildChannel: {}", responseBody);
-                    Channel createdChannel = jsonEngine.fromJsonString(responseBody, Channel.class);
+                    LOGGER.debug("Received response for createGuildChannel: {} bytes", responseBody.length);
+                    Channel createdChannel = jsonEngine.fromJsonBytes(responseBody, Channel.class);
                     createdChannel.setNekoffeeClient(this);
                     return createdChannel;
                 })
@@ -350,8 +391,8 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
 
         return restClient.delete(url, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for deleteChannel: {}", responseBody);
-                    Channel deletedChannel = jsonEngine.fromJsonString(responseBody, Channel.class);
+                    LOGGER.debug("Received response for deleteChannel: {} bytes", responseBody.length);
+                    Channel deletedChannel = jsonEngine.fromJsonBytes(responseBody, Channel.class);
                     deletedChannel.setNekoffeeClient(this);
                     return deletedChannel;
                 })
@@ -369,7 +410,7 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
 
         String url = DISCORD_API_BASE_URL + "/guilds/" + guildId + "/members/" + userId;
         ModifyMemberPayload payload = new ModifyMemberPayload(voiceChannelId);
-        String jsonPayload = jsonEngine.toJsonString(payload);
+        byte[] jsonPayload = jsonEngine.toJsonBytes(payload);
         LOGGER.debug("Modifying guild member {} in {}. Setting voice channel to: {}", userId, guildId, voiceChannelId);
 
         return restClient.patch(url, jsonPayload, Collections.emptyMap())
@@ -389,13 +430,13 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         Objects.requireNonNull(payload, "Payload cannot be null");
 
         String url = DISCORD_API_BASE_URL + "/guilds/" + guildId + "/channels";
-        String jsonPayload = jsonEngine.toJsonString(payload);
-        LOGGER.debug("Creating guild channel in {}: {}", guildId, jsonPayload);
+        byte[] jsonPayload = jsonEngine.toJsonBytes(payload);
+        LOGGER.debug("Creating guild channel in {}: {}", guildId, payload);
 
         return restClient.post(url, jsonPayload, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for createGuildChannel: {}", responseBody);
-                    return jsonEngine.fromJsonString(responseBody, Channel.class);
+                    LOGGER.debug("Received response for createGuildChannel: {} bytes", responseBody.length);
+                    return jsonEngine.fromJsonBytes(responseBody, Channel.class);
                 })
                 .exceptionally(throwable -> {
                     LOGGER.error("Failed to create guild channel in {}: {}", guildId, throwable.getMessage(), throwable);
@@ -419,14 +460,14 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
 
         String url = DISCORD_API_BASE_URL + "/channels/" + channelId + "/messages";
         Map<String, String> payload = Collections.singletonMap("content", content);
-        String jsonPayload = jsonEngine.toJsonString(payload);
+        byte[] jsonPayload = jsonEngine.toJsonBytes(payload);
 
-        LOGGER.debug("Sending message to channel {}: {}", channelId, jsonPayload);
+        LOGGER.debug("Sending message to channel {}: {}", channelId, content);
 
         return restClient.post(url, jsonPayload, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for sendMessage: {}", responseBody);
-                    return (Message) jsonEngine.fromJsonString(responseBody, MessageImpl.class);
+                    LOGGER.debug("Received response for sendMessage: {} bytes", responseBody.length);
+                    return (Message) jsonEngine.fromJsonBytes(responseBody, MessageImpl.class);
                 })
                 .exceptionally(throwable -> {
                     LOGGER.error("Failed to send message to channel {}: {}", channelId, throwable.getMessage(), throwable);
@@ -448,14 +489,14 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         Objects.requireNonNull(messageData, "MessageData (from API module) cannot be null");
 
         String url = DISCORD_API_BASE_URL + "/channels/" + channelId + "/messages";
-        String jsonPayload = jsonEngine.toJsonString(messageData);
+        byte[] jsonPayload = jsonEngine.toJsonBytes(messageData);
 
-        LOGGER.debug("Sending message (from API payload) to channel {}: {}", channelId, jsonPayload);
+        LOGGER.debug("Sending message (from API payload) to channel {}.", channelId);
 
         return restClient.post(url, jsonPayload, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for sendMessage (from API payload): {}", responseBody);
-                    return (Message) jsonEngine.fromJsonString(responseBody, MessageImpl.class);
+                    LOGGER.debug("Received response for sendMessage (from API payload): {} bytes", responseBody.length);
+                    return (Message) jsonEngine.fromJsonBytes(responseBody, MessageImpl.class);
                 })
                 .exceptionally(throwable -> {
                     LOGGER.error("Failed to send message (from API payload) to channel {}: {}", channelId, throwable.getMessage(), throwable);
@@ -474,7 +515,7 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         String url = DISCORD_API_BASE_URL + "/channels/" + channelId + "/messages";
 
         return restClient.postMultipart(url, body, Collections.emptyMap())
-                .thenApply(responseBody -> jsonEngine.fromJsonString(responseBody, Message.class))
+                .thenApply(responseBody -> jsonEngine.fromJsonBytes(responseBody, Message.class))
                 .exceptionally(throwable -> {
                     LOGGER.error("Failed to send multipart message to channel {}: {}", channelId, throwable.getMessage(), throwable);
                     throw new NekoffeeException("Failed to send multipart message", throwable);
@@ -498,13 +539,20 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         }
         Objects.requireNonNull(userId, "User ID cannot be null");
 
+        User cachedUser = entityStore.getUser(Snowflake.parse(userId));
+        if (cachedUser != null) {
+            return CompletableFuture.completedFuture(cachedUser);
+        }
+
         String url = DISCORD_API_BASE_URL + "/users/" + userId;
         LOGGER.debug("Fetching user by ID: {}", userId);
 
         return restClient.get(url, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for getUserById ({}): {}", userId, responseBody);
-                    return (User) jsonEngine.fromJsonString(responseBody, UserImpl.class);
+                    LOGGER.debug("Received response for getUserById ({}): {} bytes", userId, responseBody.length);
+                    User user = jsonEngine.fromJsonBytes(responseBody, UserImpl.class);
+                    entityStore.putUser(user);
+                    return user;
                 })
                 .exceptionally(throwable -> {
                     LOGGER.error("Failed to get user by ID {}: {}", userId, throwable.getMessage(), throwable);
@@ -519,14 +567,20 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         }
         Objects.requireNonNull(channelId, "Channel ID cannot be null");
 
+        Channel cachedChannel = entityStore.getChannel(Snowflake.parse(channelId));
+        if (cachedChannel != null) {
+            return CompletableFuture.completedFuture(cachedChannel);
+        }
+
         String url = DISCORD_API_BASE_URL + "/channels/" + channelId;
         LOGGER.debug("Fetching channel by ID: {}", channelId);
 
         return restClient.get(url, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for getChannelById ({}): {}", channelId, responseBody);
-                    Channel fetchedChannel = jsonEngine.fromJsonString(responseBody, Channel.class);
+                    LOGGER.debug("Received response for getChannelById ({}): {} bytes", channelId, responseBody.length);
+                    Channel fetchedChannel = jsonEngine.fromJsonBytes(responseBody, Channel.class);
                     fetchedChannel.setNekoffeeClient(this);
+                    entityStore.putChannel(fetchedChannel);
                     return fetchedChannel;
                 })
                 .exceptionally(throwable -> {
@@ -542,13 +596,18 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         }
         Objects.requireNonNull(guildId, "Guild ID cannot be null");
 
+        Guild cachedGuild = entityStore.getGuild(Snowflake.parse(guildId));
+        if (cachedGuild != null) {
+            return CompletableFuture.completedFuture(cachedGuild);
+        }
+
         String url = DISCORD_API_BASE_URL + "/guilds/" + guildId;
         LOGGER.debug("Fetching guild by ID: {}", guildId);
 
         return restClient.get(url, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for getGuildById ({}): {}", guildId, responseBody);
-                    GuildImpl guild = jsonEngine.fromJsonString(responseBody, GuildImpl.class);
+                    LOGGER.debug("Received response for getGuildById ({}): {} bytes", guildId, responseBody.length);
+                    GuildImpl guild = jsonEngine.fromJsonBytes(responseBody, GuildImpl.class);
 
                     if (guild.getRoles() != null) {
                         guild.getRoles().forEach(role -> {
@@ -557,6 +616,7 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
                             }
                         });
                     }
+                    entityStore.putGuild(guild);
                     return (Guild) guild;
                 })
                 .exceptionally(throwable -> {
@@ -572,16 +632,23 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         }
         Objects.requireNonNull(guildId, "Guild ID cannot be null");
 
+        List<Role> cachedRoles = entityStore.getGuildRoles(Snowflake.parse(guildId));
+        if (cachedRoles != null) {
+            return CompletableFuture.completedFuture(cachedRoles);
+        }
+
         String url = DISCORD_API_BASE_URL + "/guilds/" + guildId + "/roles";
         LOGGER.debug("Fetching roles for guild ID: {}", guildId);
 
         return restClient.get(url, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for getGuildRoles ({}): {}", guildId, responseBody);
-                    List<RoleImpl> roleImpls = jsonEngine.fromJsonString(responseBody, new TypeReference<>() {
+                    LOGGER.debug("Received response for getGuildRoles ({}): {} bytes", guildId, responseBody.length);
+                    List<RoleImpl> roleImpls = jsonEngine.fromJsonBytes(responseBody, new TypeReference<>() {
                     });
                     roleImpls.forEach(role -> role.setGuildId(guildId));
-                    return (List<Role>) new ArrayList<Role>(roleImpls);
+                    List<Role> roles = new ArrayList<>(roleImpls);
+                    entityStore.putGuildRoles(Snowflake.parse(guildId), roles);
+                    return roles;
                 })
                 .exceptionally(throwable -> {
                     LOGGER.error("Failed to get roles for guild ID {}: {}", guildId, throwable.getMessage(), throwable);
@@ -597,15 +664,21 @@ public class NekoffeeClientImpl implements NekoffeeClient, EventDispatcher {
         Objects.requireNonNull(guildId, "Guild ID cannot be null");
         Objects.requireNonNull(userId, "User ID cannot be null");
 
+        Member cachedMember = entityStore.getMember(Snowflake.parse(guildId), Snowflake.parse(userId));
+        if (cachedMember != null) {
+            return CompletableFuture.completedFuture(cachedMember);
+        }
+
         String url = DISCORD_API_BASE_URL + "/guilds/" + guildId + "/members/" + userId;
         LOGGER.debug("Fetching member for guild {} and user {}:", guildId, userId);
 
         return restClient.get(url, Collections.emptyMap())
                 .thenApply(responseBody -> {
-                    LOGGER.debug("Received response for getGuildMember (guild: {}, user: {}): {}", guildId, userId, responseBody);
-                    MemberImpl member = jsonEngine.fromJsonString(responseBody, MemberImpl.class);
+                    LOGGER.debug("Received response for getGuildMember (guild: {}, user: {}): {} bytes", guildId, userId, responseBody.length);
+                    MemberImpl member = jsonEngine.fromJsonBytes(responseBody, MemberImpl.class);
                     member.setGuildId(guildId);
                     member.setNekoffeeClient(this);
+                    entityStore.putMember(member);
                     return (Member) member;
                 })
                 .exceptionally(throwable -> {
@@ -22,6 +22,14 @@ public interface GatewayClient {
      */
     void setIntents(Collection<GatewayIntent> intents);
 
+    /**
+     * Ativa o modo de entidades preguiçosas: eventos de mensagem passam a carregar uma visão sobre o
+     * payload bruto, decodificando cada campo só no primeiro acesso.
+     *
+     * @param lazyEntities true para entregar entidades preguiçosas nos eventos suportados.
+     */
+    void setLazyEntities(boolean lazyEntities);
+
     void sendVoiceStateUpdate(String guildId, @Nullable String channelId, boolean selfMute, boolean selfDeaf);
 
     /**
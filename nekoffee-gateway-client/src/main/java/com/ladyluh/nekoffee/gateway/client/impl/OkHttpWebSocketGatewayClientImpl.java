@@ -2,13 +2,24 @@ package com.ladyluh.nekoffee.gateway.client.impl;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Message;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
 import com.ladyluh.nekoffee.api.event.Event;
+import com.ladyluh.nekoffee.api.event.channel.ChannelCreateEvent;
+import com.ladyluh.nekoffee.api.event.channel.ChannelDeleteEvent;
+import com.ladyluh.nekoffee.api.event.channel.ChannelUpdateEvent;
 import com.ladyluh.nekoffee.api.event.guild.GuildCreateEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildDeleteEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildUpdateEvent;
 import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberAddEvent;
 import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberRemoveEvent;
 import com.ladyluh.nekoffee.api.event.guild.member.GuildMemberUpdateEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleCreateEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleDeleteEvent;
+import com.ladyluh.nekoffee.api.event.guild.role.RoleUpdateEvent;
 import com.ladyluh.nekoffee.api.event.message.MessageDeleteEvent;
 import com.ladyluh.nekoffee.api.event.message.MessageUpdateEvent;
 import com.ladyluh.nekoffee.api.event.voice.VoiceServerUpdateEvent;
@@ -18,11 +29,14 @@ import com.ladyluh.nekoffee.api.gateway.EventDispatcher;
 import com.ladyluh.nekoffee.api.gateway.GatewayIntent;
 import com.ladyluh.nekoffee.gateway.client.GatewayClient;
 import com.ladyluh.nekoffee.json.util.JsonEngine;
+import com.ladyluh.nekoffee.model.channel.AbstractChannelImpl;
 import com.ladyluh.nekoffee.model.gateway.*;
 import com.ladyluh.nekoffee.model.guild.GuildImpl;
 import com.ladyluh.nekoffee.model.member.MemberImpl;
+import com.ladyluh.nekoffee.model.message.LazyMessage;
 import com.ladyluh.nekoffee.model.message.MessageImpl;
 import com.ladyluh.nekoffee.model.role.RoleImpl;
+import com.ladyluh.nekoffee.model.user.UserImpl;
 import com.ladyluh.nekoffee.model.voice.VoiceStateImpl;
 import okhttp3.*;
 import okio.ByteString;
@@ -51,10 +65,12 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
     private final AtomicInteger sequence = new AtomicInteger(-1);
     private final AtomicBoolean receivedHeartbeatAck = new AtomicBoolean(true);
     private final AtomicReference<GatewayState> state = new AtomicReference<>(GatewayState.DISCONNECTED);
+    private final OutboundPayloadWriter payloadWriter = new OutboundPayloadWriter();
 
     private WebSocket webSocket;
     private String botToken;
     private int intentsBitmask;
+    private volatile boolean lazyEntities;
     private ScheduledExecutorService heartbeatExecutor;
     private ScheduledFuture<?> heartbeatTask;
 
@@ -80,6 +96,38 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
         this.intentsBitmask = GatewayIntent.calculateBitmask(intents);
     }
 
+    @Override
+    public void setLazyEntities(boolean lazyEntities) {
+        this.lazyEntities = lazyEntities;
+    }
+
+    private GuildImpl readGuild(JsonNode eventDataNode) {
+        GuildImpl guild = jsonEngine.fromJsonTree(eventDataNode, GuildImpl.class);
+        guild.getRoles().forEach(role -> {
+            if (role instanceof RoleImpl r) r.setGuildId(guild.getId());
+        });
+        return guild;
+    }
+
+    private Channel readChannel(JsonNode eventDataNode, NekoffeeClient clientInstance) {
+        Channel channel = jsonEngine.fromJsonTree(eventDataNode, Channel.class);
+        channel.setNekoffeeClient(clientInstance);
+        return channel;
+    }
+
+    private RoleImpl readRole(JsonNode roleNode, String guildId) {
+        RoleImpl role = jsonEngine.fromJsonTree(roleNode, RoleImpl.class);
+        role.setGuildId(guildId);
+        return role;
+    }
+
+    private Message readMessage(JsonNode eventDataNode) {
+        if (lazyEntities) {
+            return new LazyMessage(eventDataNode, authorNode -> jsonEngine.fromJsonTree(authorNode, UserImpl.class));
+        }
+        return jsonEngine.fromJsonTree(eventDataNode, MessageImpl.class);
+    }
+
     @Override
     public synchronized CompletableFuture<Void> connect() {
         if (state.get() != GatewayState.DISCONNECTED) {
@@ -186,6 +234,10 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
 
     @Override
     public void sendPresenceUpdate(Object payloadData) {
+        if (payloadData instanceof PresenceUpdateSendPayload presence) {
+            send(payloadWriter.presenceUpdate(presence));
+            return;
+        }
         GatewaySendPayload gatewayPayload = new GatewaySendPayload(3, payloadData);
         send(jsonEngine.toJsonString(gatewayPayload));
     }
@@ -193,20 +245,13 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
     private void sendIdentify() {
         LOGGER.info("Sending Identify payload...");
         state.set(GatewayState.IDENTIFYING);
-        IdentifyPayload identifyData = new IdentifyPayload();
-        identifyData.token = this.botToken;
-        identifyData.intents = this.intentsBitmask;
-        identifyData.properties = new IdentifyProperties();
-        GatewaySendPayload payload = new GatewaySendPayload(2, identifyData);
-        send(jsonEngine.toJsonString(payload));
+        send(payloadWriter.identify(this.botToken, this.intentsBitmask, System.getProperty("os.name"), "Nekoffee", "Nekoffee"));
     }
 
     private void sendResume() {
         LOGGER.info("Sending Resume payload for session ID: {}", sessionId);
         state.set(GatewayState.RESUMING);
-        ResumePayload resumeData = new ResumePayload(this.botToken, this.sessionId, this.sequence.get());
-        GatewaySendPayload payload = new GatewaySendPayload(6, resumeData);
-        send(jsonEngine.toJsonString(payload));
+        send(payloadWriter.resume(this.botToken, this.sessionId, this.sequence.get()));
     }
 
     private void sendHeartbeat() {
@@ -217,8 +262,7 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
         }
         receivedHeartbeatAck.set(false);
         int sequenceValue = sequence.get();
-        GatewaySendPayload payload = new GatewaySendPayload(1, sequenceValue == -1 ? null : sequenceValue);
-        send(jsonEngine.toJsonString(payload));
+        send(payloadWriter.heartbeat(sequenceValue));
         LOGGER.trace("Heartbeat sent (s: {})", sequenceValue);
     }
 
@@ -236,18 +280,13 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
 
     @Override
     public void sendVoiceStateUpdate(String guildId, @Nullable String channelId, boolean selfMute, boolean selfDeaf) {
-        VoiceStateUpdatePayload data = new VoiceStateUpdatePayload(guildId, channelId, selfMute, selfDeaf);
-        GatewaySendPayload payload = new GatewaySendPayload(4, data);
-        send(jsonEngine.toJsonString(payload));
+        send(payloadWriter.voiceStateUpdate(guildId, channelId, selfMute, selfDeaf, null));
     }
 
     @Override
     public void playSoundboardSound(String guildId, String channelId, String soundId) {
-        VoiceStateUpdatePayload data = new VoiceStateUpdatePayload(guildId, channelId, false, false);
-        data.setSoundboardSoundId(soundId);
-        GatewaySendPayload payload = new GatewaySendPayload(4, data);
         LOGGER.info("Sending play soundboard sound request for sound ID {}", soundId);
-        send(jsonEngine.toJsonString(payload));
+        send(payloadWriter.voiceStateUpdate(guildId, channelId, false, false, soundId));
     }
 
     private enum GatewayState {
@@ -312,24 +351,6 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
         public int heartbeatInterval;
     }
 
-    private static class IdentifyProperties {
-        @JsonProperty("os")
-        public String os = System.getProperty("os.name");
-        @JsonProperty("browser")
-        public String browser = "Nekoffee";
-        @JsonProperty("device")
-        public String device = "Nekoffee";
-    }
-
-    private static class IdentifyPayload {
-        @JsonProperty("token")
-        public String token;
-        @JsonProperty("intents")
-        public int intents;
-        @JsonProperty("properties")
-        public IdentifyProperties properties;
-    }
-
     private class NekoffeeWebSocketListener extends WebSocketListener {
         @Override
         public void onOpen(@NotNull WebSocket ws, @NotNull Response response) {
@@ -340,59 +361,61 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
         public void onMessage(@NotNull WebSocket ws, @NotNull String text) {
             LOGGER.trace("GATEWAY RECV <- {}", text);
             try {
-                GatewayReceivePayload payload = jsonEngine.fromJsonString(text, GatewayReceivePayload.class);
-                if (payload.s != null) sequence.set(payload.s);
-
-                switch (payload.op) {
-                    case 0 -> handleDispatch(payload.t, payload.d);
-                    case 1 -> {
-                        LOGGER.debug("Gateway requested a heartbeat. Sending one now.");
-                        sendHeartbeat();
-                    }
-                    case 7 -> {
-                        LOGGER.warn("Received Opcode 7 (Reconnect). Attempting to reconnect and resume...");
-                        attemptReconnect(true);
-                    }
-                    case 9 -> {
-                        LOGGER.warn("Received Opcode 9 (Invalid Session). Resumable: {}", payload.d.asBoolean());
-                        attemptReconnect(payload.d.asBoolean());
-                    }
-                    case 10 -> {
-                        LOGGER.info("Received Hello from Gateway.");
-                        receivedHeartbeatAck.set(true);
-                        HelloPayload helloData = jsonEngine.fromJsonString(payload.d.toString(), HelloPayload.class);
-                        startHeartbeat(helloData.heartbeatInterval);
-
-                        if (sessionId != null && (state.get() == GatewayState.CONNECTING || state.get() == GatewayState.RECONNECTING)) {
-                            sendResume();
-                        } else {
-                            sendIdentify();
-                        }
-                    }
-                    case 11 -> {
-                        LOGGER.trace("Heartbeat ACK received.");
-                        receivedHeartbeatAck.set(true);
-                    }
-                    default -> LOGGER.warn("Received unhandled opcode: {}", payload.op);
-                }
+                handlePayload(jsonEngine.fromJsonString(text, GatewayReceivePayload.class));
             } catch (Exception e) {
                 LOGGER.error("Error processing message from Gateway: {}", text, e);
             }
         }
 
+        private void handlePayload(GatewayReceivePayload payload) {
+            if (payload.s != null) sequence.set(payload.s);
+
+            switch (payload.op) {
+                case 0 -> handleDispatch(payload.t, payload.d);
+                case 1 -> {
+                    LOGGER.debug("Gateway requested a heartbeat. Sending one now.");
+                    sendHeartbeat();
+                }
+                case 7 -> {
+                    LOGGER.warn("Received Opcode 7 (Reconnect). Attempting to reconnect and resume...");
+                    attemptReconnect(true);
+                }
+                case 9 -> {
+                    LOGGER.warn("Received Opcode 9 (Invalid Session). Resumable: {}", payload.d.asBoolean());
+                    attemptReconnect(payload.d.asBoolean());
+                }
+                case 10 -> {
+                    LOGGER.info("Received Hello from Gateway.");
+                    receivedHeartbeatAck.set(true);
+                    HelloPayload helloData = jsonEngine.fromJsonTree(payload.d, HelloPayload.class);
+                    startHeartbeat(helloData.heartbeatInterval);
+
+                    if (sessionId != null && (state.get() == GatewayState.CONNECTING || state.get() == GatewayState.RECONNECTING)) {
+                        sendResume();
+                    } else {
+                        sendIdentify();
+                    }
+                }
+                case 11 -> {
+                    LOGGER.trace("Heartbeat ACK received.");
+                    receivedHeartbeatAck.set(true);
+                }
+                default -> LOGGER.warn("Received unhandled opcode: {}", payload.op);
+            }
+        }
+
         private void handleDispatch(String eventType, JsonNode eventDataNode) {
             if (eventDataNode == null) {
                 LOGGER.warn("Received DISPATCH event {} with null data.", eventType);
                 return;
             }
-            String eventDataJson = eventDataNode.toString();
             NekoffeeClient clientInstance = (NekoffeeClient) eventDispatcher;
 
             try {
                 Event event = null;
                 switch (eventType) {
                     case "READY" -> {
-                        ReadyPayloadData readyData = jsonEngine.fromJsonString(eventDataJson, ReadyPayloadData.class);
+                        ReadyPayloadData readyData = jsonEngine.fromJsonTree(eventDataNode, ReadyPayloadData.class);
                         LOGGER.info("Gateway READY received! Session ID: {}", readyData.getSessionId());
                         state.set(GatewayState.CONNECTED);
                         sessionId = readyData.getSessionId();
@@ -410,43 +433,75 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
                         }
                     }
                     case "MESSAGE_CREATE" -> {
-                        event = new MessageCreateEvent(clientInstance, jsonEngine.fromJsonString(eventDataJson, MessageImpl.class));
+                        event = new MessageCreateEvent(clientInstance, readMessage(eventDataNode));
                     }
                     case "MESSAGE_UPDATE" -> {
-                        event = new MessageUpdateEvent(clientInstance, jsonEngine.fromJsonString(eventDataJson, MessageImpl.class));
+                        event = new MessageUpdateEvent(clientInstance, readMessage(eventDataNode));
                     }
                     case "MESSAGE_DELETE" -> {
-                        MessageDeletePayloadData deleteData = jsonEngine.fromJsonString(eventDataJson, MessageDeletePayloadData.class);
+                        MessageDeletePayloadData deleteData = jsonEngine.fromJsonTree(eventDataNode, MessageDeletePayloadData.class);
                         event = new MessageDeleteEvent(clientInstance, deleteData.getId(), deleteData.getChannelId(), deleteData.getGuildId());
                     }
                     case "GUILD_CREATE" -> {
-                        GuildImpl guild = jsonEngine.fromJsonString(eventDataJson, GuildImpl.class);
-                        guild.getRoles().forEach(role -> {
-                            if (role instanceof RoleImpl r) r.setGuildId(guild.getId());
-                        });
+                        GuildImpl guild = readGuild(eventDataNode);
                         guild.getVoiceStates().forEach(vs -> {
                             if (vs instanceof VoiceStateImpl v) v.setGuildId(guild.getId());
                         });
+                        guild.getMembers().forEach(member -> {
+                            if (member instanceof MemberImpl m) {
+                                m.setGuildId(guild.getId());
+                                m.setNekoffeeClient(clientInstance);
+                            }
+                        });
+                        JsonNode channelsNode = eventDataNode.get("channels");
+                        if (channelsNode != null && channelsNode.isArray()) {
+                            List<Channel> channels = jsonEngine.fromJsonTree(channelsNode, new TypeReference<List<Channel>>() {
+                            });
+                            channels.forEach(channel -> {
+                                if (channel instanceof AbstractChannelImpl c) c.setGuildId(guild.getId());
+                                channel.setNekoffeeClient(clientInstance);
+                            });
+                            guild.setChannels(channels);
+                        }
                         event = new GuildCreateEvent(clientInstance, guild);
                         LOGGER.info("Dispatched GuildCreateEvent for guild: {}", guild.getName());
                     }
+                    case "GUILD_UPDATE" -> event = new GuildUpdateEvent(clientInstance, readGuild(eventDataNode));
+                    case "GUILD_DELETE" -> {
+                        JsonNode unavailableNode = eventDataNode.get("unavailable");
+                        event = new GuildDeleteEvent(clientInstance, eventDataNode.get("id").asText(),
+                                unavailableNode != null && unavailableNode.asBoolean());
+                    }
+                    case "CHANNEL_CREATE" -> event = new ChannelCreateEvent(clientInstance, readChannel(eventDataNode, clientInstance));
+                    case "CHANNEL_UPDATE" -> event = new ChannelUpdateEvent(clientInstance, readChannel(eventDataNode, clientInstance));
+                    case "CHANNEL_DELETE" -> event = new ChannelDeleteEvent(clientInstance, readChannel(eventDataNode, clientInstance));
+                    case "GUILD_ROLE_CREATE" -> {
+                        String guildId = eventDataNode.get("guild_id").asText();
+                        event = new RoleCreateEvent(clientInstance, guildId, readRole(eventDataNode.get("role"), guildId));
+                    }
+                    case "GUILD_ROLE_UPDATE" -> {
+                        String guildId = eventDataNode.get("guild_id").asText();
+                        event = new RoleUpdateEvent(clientInstance, guildId, readRole(eventDataNode.get("role"), guildId));
+                    }
+                    case "GUILD_ROLE_DELETE" -> event = new RoleDeleteEvent(clientInstance,
+                            eventDataNode.get("guild_id").asText(), eventDataNode.get("role_id").asText());
                     case "GUILD_MEMBER_ADD" -> {
-                        MemberImpl memberAdded = jsonEngine.fromJsonString(eventDataJson, MemberImpl.class);
+                        MemberImpl memberAdded = jsonEngine.fromJsonTree(eventDataNode, MemberImpl.class);
                         memberAdded.setNekoffeeClient(clientInstance);
                         event = new GuildMemberAddEvent(clientInstance, memberAdded);
                     }
                     case "GUILD_MEMBER_UPDATE" -> {
-                        MemberImpl updatedMember = jsonEngine.fromJsonString(eventDataJson, MemberImpl.class);
+                        MemberImpl updatedMember = jsonEngine.fromJsonTree(eventDataNode, MemberImpl.class);
                         updatedMember.setNekoffeeClient(clientInstance);
                         event = new GuildMemberUpdateEvent(clientInstance, updatedMember);
                     }
                     case "GUILD_MEMBER_REMOVE" -> {
-                        GuildMemberRemovePayloadData removeData = jsonEngine.fromJsonString(eventDataJson, GuildMemberRemovePayloadData.class);
+                        GuildMemberRemovePayloadData removeData = jsonEngine.fromJsonTree(eventDataNode, GuildMemberRemovePayloadData.class);
                         event = new GuildMemberRemoveEvent(clientInstance, removeData.getGuildId(), removeData.getUser());
                     }
                     case "VOICE_STATE_UPDATE" -> {
-                        VoiceStatePayloadData vsData = jsonEngine.fromJsonString(eventDataJson, VoiceStatePayloadData.class);
-                        event = new VoiceStateUpdateEvent(clientInstance, vsData.getGuildId(), vsData.getChannelId(), vsData.getUserId(), vsData.isMute() || vsData.isSelfMute(), vsData.isDeaf() || vsData.isSelfDeaf());
+                        VoiceStateImpl voiceState = jsonEngine.fromJsonTree(eventDataNode, VoiceStateImpl.class);
+                        event = new VoiceStateUpdateEvent(clientInstance, voiceState);
                     }
                     case "VOICE_SERVER_UPDATE" -> {
                         JsonNode guildIdNode = eventDataNode.get("guild_id");
@@ -462,13 +517,18 @@ public class OkHttpWebSocketGatewayClientImpl implements GatewayClient {
                     eventDispatcher.dispatch(event);
                 }
             } catch (Exception e) {
-                LOGGER.error("Error handling DISPATCH event {} with data: {}", eventType, eventDataJson, e);
+                LOGGER.error("Error handling DISPATCH event {} with data: {}", eventType, eventDataNode, e);
             }
         }
 
         @Override
         public void onMessage(@NotNull WebSocket ws, @NotNull ByteString bytes) {
-            LOGGER.warn("Received binary message, which is not expected.");
+            // Sem compressão de transporte, frames binários carregam o mesmo JSON em UTF-8.
+            try {
+                handlePayload(jsonEngine.fromJsonBytes(bytes.toByteArray(), GatewayReceivePayload.class));
+            } catch (Exception e) {
+                LOGGER.error("Error processing binary message from Gateway ({} bytes).", bytes.size(), e);
+            }
         }
 
         @Override
@@ -0,0 +1,125 @@
+package com.ladyluh.nekoffee.gateway.client.impl;
+
+import com.ladyluh.nekoffee.json.util.JsonTextWriter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Escreve os payloads de formato fixo enviados ao Gateway sem passar pelo ObjectMapper.
+ * Todos compartilham um único buffer; os métodos são sincronizados porque identify/resume saem da thread
+ * do WebSocket, o heartbeat da thread própria e voice state/presence de quem chamar o cliente.
+ */
+final class OutboundPayloadWriter {
+    private static final String HEARTBEAT_WITHOUT_SEQUENCE = "{\"op\":1,\"d\":null}";
+
+    private final JsonTextWriter writer = new JsonTextWriter(512);
+    /**
+     * O Gateway costuma ficar vários heartbeats sem eventos novos; reaproveita o último frame enquanto o "s" não mudar.
+     */
+    private volatile HeartbeatFrame lastHeartbeat = new HeartbeatFrame(-1, HEARTBEAT_WITHOUT_SEQUENCE);
+
+    /**
+     * @param sequence O último "s" recebido, ou -1 se nenhum evento chegou ainda (enviado como null).
+     */
+    String heartbeat(int sequence) {
+        if (sequence == -1) {
+            return HEARTBEAT_WITHOUT_SEQUENCE;
+        }
+        HeartbeatFrame cached = lastHeartbeat;
+        if (cached.sequence == sequence) {
+            return cached.json;
+        }
+        String json;
+        synchronized (this) {
+            json = writer.reset()
+                    .beginObject()
+                    .name("op").value(1)
+                    .name("d").value(sequence)
+                    .endObject()
+                    .toString();
+        }
+        lastHeartbeat = new HeartbeatFrame(sequence, json);
+        return json;
+    }
+
+    synchronized String identify(String token, int intents, String os, String browser, String device) {
+        return writer.reset()
+                .beginObject()
+                .name("op").value(2)
+                .name("d").beginObject()
+                .name("token").value(token)
+                .name("intents").value(intents)
+                .name("properties").beginObject()
+                .name("os").value(os)
+                .name("browser").value(browser)
+                .name("device").value(device)
+                .endObject()
+                .endObject()
+                .endObject()
+                .toString();
+    }
+
+    synchronized String resume(String token, String sessionId, int sequence) {
+        return writer.reset()
+                .beginObject()
+                .name("op").value(6)
+                .name("d").beginObject()
+                .name("token").value(token)
+                .name("session_id").value(sessionId)
+                .name("seq").value(sequence)
+                .endObject()
+                .endObject()
+                .toString();
+    }
+
+    /**
+     * channel_id é sempre escrito, mesmo nulo: é assim que o Gateway entende a saída do canal de voz.
+     */
+    synchronized String voiceStateUpdate(String guildId, @Nullable String channelId, boolean selfMute, boolean selfDeaf,
+                                         @Nullable String soundboardSoundId) {
+        writer.reset()
+                .beginObject()
+                .name("op").value(4)
+                .name("d").beginObject()
+                .name("guild_id").value(guildId)
+                .name("channel_id").value(channelId)
+                .name("self_mute").value(selfMute)
+                .name("self_deaf").value(selfDeaf);
+        if (soundboardSoundId != null) {
+            writer.name("soundboard_sound_id").value(soundboardSoundId);
+        }
+        return writer.endObject()
+                .endObject()
+                .toString();
+    }
+
+    synchronized String presenceUpdate(OkHttpWebSocketGatewayClientImpl.PresenceUpdateSendPayload presence) {
+        writer.reset()
+                .beginObject()
+                .name("op").value(3)
+                .name("d").beginObject()
+                .name("activities").beginArray();
+        if (presence.activities() != null) {
+            for (OkHttpWebSocketGatewayClientImpl.ActivitySendPayload activity : presence.activities()) {
+                writer.beginObject()
+                        .name("name").value(activity.name)
+                        .name("type").value(activity.type);
+                if (activity.url != null) {
+                    writer.name("url").value(activity.url);
+                }
+                writer.endObject();
+            }
+        }
+        writer.endArray()
+                .name("afk").value(presence.afk())
+                .name("since").value(presence.since());
+        if (presence.status() != null) {
+            writer.name("status").value(presence.status());
+        }
+        return writer.endObject()
+                .endObject()
+                .toString();
+    }
+
+    private record HeartbeatFrame(int sequence, String json) {
+    }
+}
@@ -5,14 +5,18 @@ import okhttp3.MultipartBody;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Cliente REST de baixo nível. Corpos de requisição e resposta trafegam como bytes UTF-8
+ * para que o JsonEngine (de)serialize sem Strings intermediárias.
+ */
 public interface RestClient {
 
     void setBotToken(String botToken);
-    CompletableFuture<String> get(String url, Map<String, String> headers);
-    CompletableFuture<String> patch(String url, String jsonPayload, Map<String, String> headers);
-    CompletableFuture<String> post(String url, String jsonPayload, Map<String, String> headers);
-    CompletableFuture<String> postMultipart(String url, MultipartBody body, Map<String, String> headers);
-    CompletableFuture<String> put(String url, String jsonPayload, Map<String, String> headers);
-    CompletableFuture<String> delete(String url, Map<String, String> headers);
+    CompletableFuture<byte[]> get(String url, Map<String, String> headers);
+    CompletableFuture<byte[]> patch(String url, byte[] jsonPayload, Map<String, String> headers);
+    CompletableFuture<byte[]> post(String url, byte[] jsonPayload, Map<String, String> headers);
+    CompletableFuture<byte[]> postMultipart(String url, MultipartBody body, Map<String, String> headers);
+    CompletableFuture<byte[]> put(String url, byte[] jsonPayload, Map<String, String> headers);
+    CompletableFuture<byte[]> delete(String url, Map<String, String> headers);
     void shutdown();
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import okhttp3.*;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -59,7 +60,7 @@ public class OkHttpRestClientImpl implements RestClient {
     }
 
     @Override
-    public CompletableFuture<String> postMultipart(String url, MultipartBody body, Map<String, String> headers) {
+    public CompletableFuture<byte[]> postMultipart(String url, MultipartBody body, Map<String, String> headers) {
         Request request = new Request.Builder()
                 .url(url)
                 .headers(buildHeaders(headers, false)) 
@@ -69,7 +70,7 @@ public class OkHttpRestClientImpl implements RestClient {
     }
 
     @Override
-    public CompletableFuture<String> patch(String url, String jsonPayload, Map<String, String> headers) {
+    public CompletableFuture<byte[]> patch(String url, byte[] jsonPayload, Map<String, String> headers) {
         RequestBody body = RequestBody.create(jsonPayload, JSON);
         Request request = new Request.Builder()
                 .url(url)
@@ -80,7 +81,7 @@ public class OkHttpRestClientImpl implements RestClient {
     }
 
     @Override
-    public CompletableFuture<String> get(String url, Map<String, String> headers) {
+    public CompletableFuture<byte[]> get(String url, Map<String, String> headers) {
         Request request = new Request.Builder()
                 .url(url)
                 .headers(buildHeaders(headers, false))
@@ -90,7 +91,7 @@ public class OkHttpRestClientImpl implements RestClient {
     }
 
     @Override
-    public CompletableFuture<String> post(String url, String jsonPayload, Map<String, String> headers) {
+    public CompletableFuture<byte[]> post(String url, byte[] jsonPayload, Map<String, String> headers) {
         RequestBody body = RequestBody.create(jsonPayload, JSON);
         Request request = new Request.Builder()
                 .url(url)
@@ -100,8 +101,8 @@ public class OkHttpRestClientImpl implements RestClient {
         return executeAsync(request);
     }
 
-    private CompletableFuture<String> executeAsync(Request request) {
-        CompletableFuture<String> future = new CompletableFuture<>();
+    private CompletableFuture<byte[]> executeAsync(Request request) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
         httpClient.newCall(request).enqueue(new Callback() {
             @Override
             public void onFailure(@NotNull Call call, @NotNull IOException e) {
@@ -111,14 +112,14 @@ public class OkHttpRestClientImpl implements RestClient {
             @Override
             public void onResponse(@NotNull Call call, @NotNull Response response) {
                 try (ResponseBody responseBody = response.body()) {
-                    final String bodyString = responseBody != null ? responseBody.string() : null;
+                    final byte[] bodyBytes = responseBody != null ? responseBody.bytes() : null;
                     callbackExecutor.submit(() -> {
                         if (response.isSuccessful()) {
-                            future.complete(bodyString);
+                            future.complete(bodyBytes);
                         } else {
                             String errorMessage = "Request to " + request.url() + " failed with status " + response.code();
-                            if (bodyString != null && !bodyString.isEmpty()) {
-                                errorMessage += "\nResponse: " + bodyString;
+                            if (bodyBytes != null && bodyBytes.length > 0) {
+                                errorMessage += "\nResponse: " + new String(bodyBytes, StandardCharsets.UTF_8);
                             }
                             future.completeExceptionally(new NekoffeeException(errorMessage));
                         }
@@ -132,9 +133,9 @@ public class OkHttpRestClientImpl implements RestClient {
     }
 
     @Override
-    public CompletableFuture<String> put(String url, String jsonPayload, Map<String, String> headers) {
+    public CompletableFuture<byte[]> put(String url, byte[] jsonPayload, Map<String, String> headers) {
         RequestBody body;
-        if (jsonPayload != null && !jsonPayload.isEmpty()) {
+        if (jsonPayload != null && jsonPayload.length > 0) {
             body = RequestBody.create(jsonPayload, JSON);
         } else {
             body = RequestBody.create(new byte[0], null);
@@ -142,14 +143,14 @@ public class OkHttpRestClientImpl implements RestClient {
 
         Request request = new Request.Builder()
                 .url(url)
-                .headers(buildHeaders(headers, jsonPayload != null && !jsonPayload.isEmpty()))
+                .headers(buildHeaders(headers, jsonPayload != null && jsonPayload.length > 0))
                 .put(body)
                 .build();
         return executeAsync(request);
     }
 
     @Override
-    public CompletableFuture<String> delete(String url, Map<String, String> headers) {
+    public CompletableFuture<byte[]> delete(String url, Map<String, String> headers) {
         Request request = new Request.Builder()
                 .url(url)
                 .headers(buildHeaders(headers, false))
@@ -0,0 +1,18 @@
+package com.ladyluh.nekoffee.json.codec;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca uma classe de modelo para que o nekoffee-json-codegen gere, em tempo de compilação,
+ * um {@link JsonCodec} de streaming para ela (classe {@code <Nome>JsonCodec} no mesmo pacote).
+ * <p>
+ * Os nomes de campo vêm de {@code @JsonProperty} ou, na falta dele, do nome do campo em snake_case.
+ * Campos {@code @JsonIgnore}, estáticos e transientes são ignorados. Campos privados precisam de um setter.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateJsonCodec {
+}
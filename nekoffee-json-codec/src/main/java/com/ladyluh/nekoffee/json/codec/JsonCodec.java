@@ -0,0 +1,22 @@
+package com.ladyluh.nekoffee.json.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Decodificador de streaming gerado em tempo de compilação para um tipo de modelo.
+ * Implementações são descobertas via {@link java.util.ServiceLoader}.
+ *
+ * @param <T> O tipo decodificado.
+ */
+public interface JsonCodec<T> {
+
+    Class<T> type();
+
+    /**
+     * Lê um valor a partir do token atual do parser ({@code START_OBJECT}, {@code FIELD_NAME}
+     * ou {@code VALUE_NULL}). Ao retornar, o parser está posicionado no {@code END_OBJECT} do valor.
+     */
+    T read(JsonParser parser) throws IOException;
+}
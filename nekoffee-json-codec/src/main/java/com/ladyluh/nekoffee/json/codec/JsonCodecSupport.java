@@ -0,0 +1,158 @@
+package com.ladyluh.nekoffee.json.codec;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Leitores de valores usados pelos codecs gerados. Seguem as coerções do ObjectMapper padrão
+ * (ex: números aceitos como String e vice-versa, null vira o valor padrão do primitivo).
+ */
+public final class JsonCodecSupport {
+
+    private JsonCodecSupport() {
+    }
+
+    public static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    public static int readInt(JsonParser parser) throws IOException {
+        return parser.currentToken().isScalarValue() ? parser.getValueAsInt() : skipAndDefault(parser, 0);
+    }
+
+    public static long readLong(JsonParser parser) throws IOException {
+        return parser.currentToken().isScalarValue() ? parser.getValueAsLong() : skipAndDefault(parser, 0L);
+    }
+
+    public static double readDouble(JsonParser parser) throws IOException {
+        return parser.currentToken().isScalarValue() ? parser.getValueAsDouble() : skipAndDefault(parser, 0d);
+    }
+
+    public static boolean readBoolean(JsonParser parser) throws IOException {
+        return parser.currentToken().isScalarValue() ? parser.getValueAsBoolean() : skipAndDefault(parser, false);
+    }
+
+    public static Integer readIntBoxed(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : readInt(parser);
+    }
+
+    public static Long readLongBoxed(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : readLong(parser);
+    }
+
+    public static Double readDoubleBoxed(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : readDouble(parser);
+    }
+
+    public static Boolean readBooleanBoxed(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : readBoolean(parser);
+    }
+
+    /**
+     * Como o JavaTimeModule com as opções padrão: aceita texto ISO-8601 ou número de segundos desde a época
+     * (com fração para os nanossegundos), e devolve sempre em UTC.
+     */
+    public static OffsetDateTime readOffsetDateTime(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(parser.getLongValue()), ZoneOffset.UTC);
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            BigDecimal seconds = parser.getDecimalValue();
+            long wholeSeconds = seconds.setScale(0, RoundingMode.FLOOR).longValueExact();
+            int nanos = seconds.subtract(BigDecimal.valueOf(wholeSeconds)).movePointRight(9).intValue();
+            return OffsetDateTime.ofInstant(Instant.ofEpochSecond(wholeSeconds, nanos), ZoneOffset.UTC);
+        }
+        String text = readString(parser);
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        return OffsetDateTime.parse(text.trim()).withOffsetSameInstant(ZoneOffset.UTC);
+    }
+
+    public static List<String> readStringList(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString(parser));
+        }
+        return values;
+    }
+
+    /**
+     * Lê um array de Snowflakes (enviados como strings ou números) direto para {@code long[]}.
+     */
+    public static long[] readLongArray(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        long[] values = new long[8];
+        int size = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = readLong(parser);
+        }
+        return size == values.length ? values : Arrays.copyOf(values, size);
+    }
+
+    public static <T> List<T> readList(JsonParser parser, JsonCodec<T> elementCodec) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        List<T> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(elementCodec.read(parser));
+        }
+        return values;
+    }
+
+    /**
+     * Avança do token inicial do objeto até o primeiro nome de campo (ou {@code END_OBJECT}).
+     *
+     * @return o token corrente, ou {@code null} se o valor for JSON null.
+     */
+    public static JsonToken enterObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.START_OBJECT) {
+            return parser.nextToken();
+        }
+        if (token != JsonToken.FIELD_NAME) {
+            throw new JsonParseException(parser, "Esperado um objeto JSON, encontrado " + token);
+        }
+        return token;
+    }
+
+    private static <T> T skipAndDefault(JsonParser parser, T defaultValue) throws IOException {
+        parser.skipChildren();
+        return defaultValue;
+    }
+}
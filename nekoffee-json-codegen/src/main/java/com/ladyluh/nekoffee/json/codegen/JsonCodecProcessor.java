@@ -0,0 +1,403 @@
+package com.ladyluh.nekoffee.json.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Gera um {@code JsonCodec} de streaming para cada classe anotada com {@code @GenerateJsonCodec}.
+ * <p>
+ * O código gerado instancia o modelo pelo construtor sem argumentos e faz um {@code switch} sobre o
+ * nome do campo, atribuindo diretamente (ou via setter, quando o campo é privado). Nenhuma reflexão
+ * é usada em tempo de execução. Os codecs gerados são registrados em
+ * {@code META-INF/services/com.ladyluh.nekoffee.json.codec.JsonCodec}.
+ */
+@SupportedAnnotationTypes(JsonCodecProcessor.GENERATE_ANNOTATION)
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    static final String GENERATE_ANNOTATION = "com.ladyluh.nekoffee.json.codec.GenerateJsonCodec";
+    private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+    private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+    private static final String CODEC_INTERFACE = "com.ladyluh.nekoffee.json.codec.JsonCodec";
+    private static final String SUPPORT = "JsonCodecSupport";
+
+    private final Set<String> generatedCodecs = new TreeSet<>();
+
+    private Elements elements;
+    private Types types;
+    private Filer filer;
+    private Messager messager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeServiceFile();
+            return false;
+        }
+        TypeElement annotation = elements.getTypeElement(GENERATE_ANNOTATION);
+        if (annotation == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@GenerateJsonCodec só pode ser usado em classes.", element);
+                continue;
+            }
+            try {
+                generateCodec((TypeElement) element);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Falha ao gerar codec: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private void generateCodec(TypeElement type) throws IOException {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Classes abstratas não podem ter codec gerado.", type);
+            return;
+        }
+        if (!hasAccessibleNoArgConstructor(type)) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Codec gerado requer um construtor sem argumentos não privado.", type);
+            return;
+        }
+
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String codecName = codecSimpleName(type);
+        String typeName = sourceName(type);
+
+        Map<String, String> cases = new LinkedHashMap<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT) || hasAnnotation(field, JSON_IGNORE)) {
+                    continue;
+                }
+                String jsonName = jsonNameOf(field);
+                if (cases.containsKey(jsonName)) {
+                    continue;
+                }
+                String reader = readerExpression(field.asType(), field);
+                if (reader == null) {
+                    return;
+                }
+                String assignment = assignment(type, current, field, reader);
+                if (assignment == null) {
+                    return;
+                }
+                cases.put(jsonName, assignment);
+            }
+        }
+
+        StringBuilder src = new StringBuilder();
+        src.append("package ").append(packageName).append(";\n\n")
+                .append("import com.fasterxml.jackson.core.JsonParser;\n")
+                .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                .append("import com.ladyluh.nekoffee.json.codec.JsonCodec;\n")
+                .append("import com.ladyluh.nekoffee.json.codec.JsonCodecSupport;\n\n")
+                .append("import javax.annotation.processing.Generated;\n")
+                .append("import java.io.IOException;\n\n")
+                .append("@Generated(\"").append(JsonCodecProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(codecName).append(" implements JsonCodec<").append(typeName).append("> {\n\n")
+                .append("    public static final ").append(codecName).append(" INSTANCE = new ").append(codecName).append("();\n\n")
+                .append("    @Override\n")
+                .append("    public Class<").append(typeName).append("> type() {\n")
+                .append("        return ").append(typeName).append(".class;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(typeName).append(" read(JsonParser parser) throws IOException {\n")
+                .append("        JsonToken token = JsonCodecSupport.enterObject(parser);\n")
+                .append("        if (token == null) {\n")
+                .append("            return null;\n")
+                .append("        }\n")
+                .append("        ").append(typeName).append(" value = new ").append(typeName).append("();\n")
+                .append("        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {\n")
+                .append("            String field = parser.currentName();\n")
+                .append("            parser.nextToken();\n")
+                .append("            switch (field) {\n");
+        for (Map.Entry<String, String> entry : cases.entrySet()) {
+            src.append("                case \"").append(entry.getKey()).append("\" -> ").append(entry.getValue()).append(";\n");
+        }
+        src.append("                default -> parser.skipChildren();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        return value;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        String qualifiedCodecName = packageName.isEmpty() ? codecName : packageName + "." + codecName;
+        JavaFileObject file = filer.createSourceFile(qualifiedCodecName, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(src.toString());
+        }
+        generatedCodecs.add(qualifiedCodecName);
+    }
+
+    /**
+     * Retorna a expressão que lê o valor do campo a partir do token corrente, ou null (com erro reportado)
+     * se o tipo não for suportado.
+     */
+    private String readerExpression(TypeMirror fieldType, Element field) {
+        switch (fieldType.getKind()) {
+            case INT:
+                return SUPPORT + ".readInt(parser)";
+            case LONG:
+                return SUPPORT + ".readLong(parser)";
+            case BOOLEAN:
+                return SUPPORT + ".readBoolean(parser)";
+            case DOUBLE:
+                return SUPPORT + ".readDouble(parser)";
+            case ARRAY:
+                if (((ArrayType) fieldType).getComponentType().getKind() == TypeKind.LONG) {
+                    return SUPPORT + ".readLongArray(parser)";
+                }
+                return unsupported(fieldType, field);
+            case DECLARED:
+                break;
+            default:
+                return unsupported(fieldType, field);
+        }
+
+        DeclaredType declared = (DeclaredType) fieldType;
+        TypeElement element = (TypeElement) declared.asElement();
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.String":
+                return SUPPORT + ".readString(parser)";
+            case "java.lang.Integer":
+                return SUPPORT + ".readIntBoxed(parser)";
+            case "java.lang.Long":
+                return SUPPORT + ".readLongBoxed(parser)";
+            case "java.lang.Boolean":
+                return SUPPORT + ".readBooleanBoxed(parser)";
+            case "java.lang.Double":
+                return SUPPORT + ".readDoubleBoxed(parser)";
+            case "java.time.OffsetDateTime":
+                return SUPPORT + ".readOffsetDateTime(parser)";
+            case "java.util.List": {
+                if (declared.getTypeArguments().size() != 1) {
+                    return unsupported(fieldType, field);
+                }
+                TypeMirror elementType = declared.getTypeArguments().get(0);
+                if (elementType.getKind() != TypeKind.DECLARED) {
+                    return unsupported(fieldType, field);
+                }
+                TypeElement elementTypeElement = (TypeElement) ((DeclaredType) elementType).asElement();
+                if (elementTypeElement.getQualifiedName().contentEquals("java.lang.String")) {
+                    return SUPPORT + ".readStringList(parser)";
+                }
+                if (hasAnnotation(elementTypeElement, GENERATE_ANNOTATION)) {
+                    return SUPPORT + ".readList(parser, " + codecReference(elementTypeElement) + ")";
+                }
+                return unsupported(fieldType, field);
+            }
+            default:
+                if (hasAnnotation(element, GENERATE_ANNOTATION)) {
+                    return codecReference(element) + ".read(parser)";
+                }
+                return unsupported(fieldType, field);
+        }
+    }
+
+    private String assignment(TypeElement owner, TypeElement declaring, VariableElement field, String reader) {
+        String name = field.getSimpleName().toString();
+        if (isAccessibleFrom(field, declaring, owner)) {
+            return "value." + name + " = " + reader;
+        }
+        String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        for (TypeElement current = owner; current != null; current = superclassOf(current)) {
+            for (ExecutableElement method : ElementFilter.methodsIn(current.getEnclosedElements())) {
+                if (method.getSimpleName().contentEquals(setterName)
+                        && method.getParameters().size() == 1
+                        && types.isSameType(types.erasure(method.getParameters().get(0).asType()), types.erasure(field.asType()))
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && isAccessibleFrom(method, current, owner)) {
+                    return "value." + setterName + "(" + reader + ")";
+                }
+            }
+        }
+        messager.printMessage(Diagnostic.Kind.ERROR,
+                "Campo inacessível para o codec gerado; torne-o package-private ou declare " + setterName + "().", field);
+        return null;
+    }
+
+    /**
+     * O codec é gerado no pacote de {@code owner}: membros privados nunca são acessíveis, e membros
+     * package-private/protected só quando declarados no mesmo pacote.
+     */
+    private boolean isAccessibleFrom(Element member, TypeElement declaring, TypeElement owner) {
+        Set<Modifier> modifiers = member.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) && member.getKind() == ElementKind.FIELD) {
+            return false;
+        }
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return packageOf(declaring).equals(packageOf(owner));
+    }
+
+    private boolean hasAccessibleNoArgConstructor(TypeElement type) {
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String jsonNameOf(VariableElement field) {
+        AnnotationMirror property = findAnnotation(field, JSON_PROPERTY);
+        if (property != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : property.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    String value = entry.getValue().getValue().toString();
+                    if (!value.isEmpty()) {
+                        return value;
+                    }
+                }
+            }
+        }
+        return toSnakeCase(field.getSimpleName().toString());
+    }
+
+    /**
+     * Mesma conversão de PropertyNamingStrategies.SNAKE_CASE, usada pelo ObjectMapper do Nekoffee.
+     */
+    static String toSnakeCase(String name) {
+        StringBuilder result = new StringBuilder(name.length() + 4);
+        boolean previousUpper = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (!previousUpper && result.length() > 0 && result.charAt(result.length() - 1) != '_') {
+                    result.append('_');
+                }
+                result.append(Character.toLowerCase(c));
+                previousUpper = true;
+            } else {
+                result.append(c);
+                previousUpper = false;
+            }
+        }
+        return result.toString();
+    }
+
+    private String unsupported(TypeMirror fieldType, Element field) {
+        messager.printMessage(Diagnostic.Kind.ERROR,
+                "Tipo de campo não suportado pelo codec gerado: " + fieldType + ". Anote o tipo com @GenerateJsonCodec ou use @JsonIgnore.", field);
+        return null;
+    }
+
+    private String codecReference(TypeElement type) {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        return (packageName.isEmpty() ? "" : packageName + ".") + codecSimpleName(type) + ".INSTANCE";
+    }
+
+    /**
+     * {@code ReadyPayloadData.UnavailableGuild} gera {@code ReadyPayloadData_UnavailableGuildJsonCodec}.
+     */
+    private String codecSimpleName(TypeElement type) {
+        List<String> names = new ArrayList<>();
+        for (Element current = type; current instanceof TypeElement; current = current.getEnclosingElement()) {
+            names.add(0, current.getSimpleName().toString());
+        }
+        return String.join("_", names) + "JsonCodec";
+    }
+
+    private String sourceName(TypeElement type) {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String qualified = type.getQualifiedName().toString();
+        return packageName.isEmpty() ? qualified : qualified.substring(packageName.length() + 1);
+    }
+
+    private PackageElement packageOf(Element element) {
+        return elements.getPackageOf(element);
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private boolean hasAnnotation(Element element, String annotationName) {
+        return findAnnotation(element, annotationName) != null;
+    }
+
+    private AnnotationMirror findAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private void writeServiceFile() {
+        if (generatedCodecs.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + CODEC_INTERFACE);
+            try (Writer writer = file.openWriter()) {
+                for (String codec : generatedCodecs) {
+                    writer.write(codec);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Falha ao escrever o registro de codecs: " + e.getMessage());
+        }
+    }
+}
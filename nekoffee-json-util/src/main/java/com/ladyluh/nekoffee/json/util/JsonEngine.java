@@ -1,6 +1,11 @@
 package com.ladyluh.nekoffee.json.util;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 public interface JsonEngine {
     /**
@@ -18,8 +23,46 @@ public interface JsonEngine {
      * @param <T> O tipo do objeto.
      * @return O objeto desserializado.
      */
-    <T> T fromJsonString(String jsonString, TypeReference<T>  typeReference); 
+    <T> T fromJsonString(String jsonString, TypeReference<T>  typeReference);
 
     <T> T fromJsonString(String jsonString, Class<T> clazz);
 
-}
\ No newline at end of file
+    /**
+     * Serializa um objeto diretamente para bytes UTF-8, sem passar por uma String intermediária.
+     * @param object O objeto a ser serializado.
+     * @return O JSON codificado em UTF-8.
+     */
+    byte[] toJsonBytes(Object object);
+
+    /**
+     * Serializa um objeto escrevendo no stream informado. O stream não é fechado.
+     * @param object O objeto a ser serializado.
+     * @param outputStream O destino dos bytes JSON.
+     */
+    void writeJson(Object object, OutputStream outputStream);
+
+    <T> T fromJsonBytes(byte[] json, Class<T> clazz);
+
+    <T> T fromJsonBytes(byte[] json, TypeReference<T> typeReference);
+
+    /**
+     * Desserializa o conteúdo de um stream. O stream não é fechado.
+     */
+    <T> T fromJsonStream(InputStream inputStream, Class<T> clazz);
+
+    <T> T fromJsonStream(InputStream inputStream, TypeReference<T> typeReference);
+
+    /**
+     * Desserializa os bytes restantes do buffer (de position até limit). A posição do buffer não é alterada.
+     */
+    <T> T fromJsonBuffer(ByteBuffer buffer, Class<T> clazz);
+
+    /**
+     * Converte uma árvore já parseada (ex: o campo "d" de um payload do Gateway) para o tipo de destino,
+     * sem serializar a árvore de volta para texto.
+     */
+    <T> T fromJsonTree(JsonNode node, Class<T> clazz);
+
+    <T> T fromJsonTree(JsonNode node, TypeReference<T> typeReference);
+
+}
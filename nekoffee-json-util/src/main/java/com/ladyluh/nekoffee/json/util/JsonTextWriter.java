@@ -0,0 +1,173 @@
+package com.ladyluh.nekoffee.json.util;
+
+/**
+ * Escritor de JSON sem reflexão para payloads de formato fixo (heartbeat, identify, etc.).
+ * O buffer interno é reaproveitado entre payloads via {@link #reset()}; a instância não é thread-safe
+ * e deve ficar confinada a uma thread ou protegida pelo dono.
+ */
+public final class JsonTextWriter {
+    private static final int MAX_DEPTH = 63;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder buffer;
+    /**
+     * Bit n ligado: o container no nível n já tem ao menos um elemento (o próximo precisa de vírgula).
+     */
+    private long hasElements;
+    private int depth;
+    private boolean afterName;
+
+    public JsonTextWriter() {
+        this(256);
+    }
+
+    public JsonTextWriter(int initialCapacity) {
+        this.buffer = new StringBuilder(initialCapacity);
+    }
+
+    /**
+     * Descarta o conteúdo atual mantendo a capacidade já alocada.
+     */
+    public JsonTextWriter reset() {
+        buffer.setLength(0);
+        hasElements = 0L;
+        depth = 0;
+        afterName = false;
+        return this;
+    }
+
+    public JsonTextWriter beginObject() {
+        beforeValue();
+        buffer.append('{');
+        push();
+        return this;
+    }
+
+    public JsonTextWriter endObject() {
+        pop();
+        buffer.append('}');
+        return this;
+    }
+
+    public JsonTextWriter beginArray() {
+        beforeValue();
+        buffer.append('[');
+        push();
+        return this;
+    }
+
+    public JsonTextWriter endArray() {
+        pop();
+        buffer.append(']');
+        return this;
+    }
+
+    public JsonTextWriter name(String name) {
+        beforeElement();
+        appendQuoted(name);
+        buffer.append(':');
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Escreve a String como valor JSON; null vira {@code null}.
+     */
+    public JsonTextWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        appendQuoted(value);
+        return this;
+    }
+
+    public JsonTextWriter value(long value) {
+        beforeValue();
+        buffer.append(value);
+        return this;
+    }
+
+    public JsonTextWriter value(boolean value) {
+        beforeValue();
+        buffer.append(value);
+        return this;
+    }
+
+    /**
+     * Escreve um número opcional; null vira {@code null}.
+     */
+    public JsonTextWriter value(Long value) {
+        return value == null ? nullValue() : value(value.longValue());
+    }
+
+    public JsonTextWriter nullValue() {
+        beforeValue();
+        buffer.append("null");
+        return this;
+    }
+
+    /**
+     * @return O JSON escrito desde o último {@link #reset()}.
+     */
+    @Override
+    public String toString() {
+        return buffer.toString();
+    }
+
+    private void push() {
+        if (depth == MAX_DEPTH) {
+            throw new IllegalStateException("JSON nested deeper than " + MAX_DEPTH + " levels.");
+        }
+        depth++;
+        hasElements &= ~(1L << depth);
+    }
+
+    private void pop() {
+        if (depth == 0) {
+            throw new IllegalStateException("No open JSON container to close.");
+        }
+        depth--;
+    }
+
+    private void beforeValue() {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        beforeElement();
+    }
+
+    private void beforeElement() {
+        long bit = 1L << depth;
+        if ((hasElements & bit) != 0) {
+            buffer.append(',');
+        }
+        hasElements |= bit;
+    }
+
+    private void appendQuoted(String value) {
+        buffer.append('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\') {
+                continue;
+            }
+            buffer.append(value, start, i);
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                case '\b' -> buffer.append("\\b");
+                case '\f' -> buffer.append("\\f");
+                default -> buffer.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+            start = i + 1;
+        }
+        buffer.append(value, start, length).append('"');
+    }
+}
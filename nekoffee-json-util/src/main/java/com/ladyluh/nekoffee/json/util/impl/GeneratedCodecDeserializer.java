@@ -0,0 +1,27 @@
+package com.ladyluh.nekoffee.json.util.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.ladyluh.nekoffee.json.codec.JsonCodec;
+
+import java.io.IOException;
+
+/**
+ * Expõe um {@link JsonCodec} gerado em tempo de compilação como deserializer do Jackson, para que ele
+ * seja usado tanto na leitura direta do tipo quanto quando o tipo aparece aninhado em outro modelo.
+ */
+final class GeneratedCodecDeserializer<T> extends StdDeserializer<T> {
+
+    private final JsonCodec<T> codec;
+
+    GeneratedCodecDeserializer(JsonCodec<T> codec) {
+        super(codec.type());
+        this.codec = codec;
+    }
+
+    @Override
+    public T deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        return codec.read(parser);
+    }
+}
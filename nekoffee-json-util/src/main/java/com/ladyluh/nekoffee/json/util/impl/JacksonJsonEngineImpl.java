@@ -1,59 +1,214 @@
 package com.ladyluh.nekoffee.json.util.impl;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import com.ladyluh.nekoffee.api.entities.Message;
 import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.api.exception.NekoffeeException;
+import com.ladyluh.nekoffee.json.codec.JsonCodec;
 import com.ladyluh.nekoffee.json.util.JsonEngine;
 import com.ladyluh.nekoffee.json.util.mixin.ChannelMixIn;
 import com.ladyluh.nekoffee.json.util.mixin.MessageMixIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JacksonJsonEngineImpl implements JsonEngine {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(JacksonJsonEngineImpl.class);
+
     private final ObjectMapper objectMapper;
 
+    /**
+     * ObjectReader/ObjectWriter são imutáveis e thread-safe; mantê-los por tipo evita a
+     * resolução do (de)serializador no ObjectMapper a cada chamada.
+     */
+    private final ConcurrentHashMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final ObjectWriter nullWriter;
+
     public JacksonJsonEngineImpl() {
         this.objectMapper = new ObjectMapper();
+        // Streams pertencem ao chamador (corpo HTTP, frames do WebSocket); o Jackson não deve fechá-los.
+        this.objectMapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        this.objectMapper.configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false);
         this.objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
         this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.registerModule(new BlackbirdModule());
         this.objectMapper.addMixIn(Channel.class, ChannelMixIn.class);
         this.objectMapper.addMixIn(Message.class, MessageMixIn.class);
-        
+        this.objectMapper.registerModule(generatedCodecsModule());
+
         this.objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        this.nullWriter = objectMapper.writer();
+    }
+
+    /**
+     * Registra os codecs gerados pelo nekoffee-json-codegen; tipos sem codec continuam no binding do Jackson.
+     */
+    private static SimpleModule generatedCodecsModule() {
+        SimpleModule module = new SimpleModule("NekoffeeGeneratedCodecs");
+        int count = 0;
+        for (JsonCodec<?> codec : ServiceLoader.load(JsonCodec.class, JacksonJsonEngineImpl.class.getClassLoader())) {
+            addCodec(module, codec);
+            count++;
+        }
+        LOGGER.debug("Registered {} generated JSON codecs.", count);
+        return module;
+    }
+
+    private static <T> void addCodec(SimpleModule module, JsonCodec<T> codec) {
+        module.addDeserializer(codec.type(), new GeneratedCodecDeserializer<>(codec));
+    }
+
+    private ObjectReader readerFor(Class<?> clazz) {
+        return readers.computeIfAbsent(clazz, type -> objectMapper.readerFor(clazz));
+    }
+
+    private ObjectReader readerFor(TypeReference<?> typeReference) {
+        return readers.computeIfAbsent(typeReference.getType(), type -> objectMapper.readerFor(objectMapper.constructType(type)));
+    }
+
+    private ObjectWriter writerFor(Object object) {
+        if (object == null) {
+            return nullWriter;
+        }
+        return writers.computeIfAbsent(object.getClass(), objectMapper::writerFor);
+    }
+
+    private NekoffeeException deserializationError(String target, Exception e) {
+        LOGGER.error("Jackson Deserialization Exception for {}: {}", target, e.getMessage());
+        return new NekoffeeException("Erro ao desserializar JSON para " + target, e);
     }
 
     @Override
     public String toJsonString(Object object) {
         try {
-            return objectMapper.writeValueAsString(object);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Erro ao serializar objeto para JSON", e);
+            return writerFor(object).writeValueAsString(object);
+        } catch (IOException e) {
+            throw new NekoffeeException("Erro ao serializar objeto para JSON", e);
+        }
+    }
+
+    @Override
+    public byte[] toJsonBytes(Object object) {
+        try {
+            return writerFor(object).writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new NekoffeeException("Erro ao serializar objeto para JSON", e);
+        }
+    }
+
+    @Override
+    public void writeJson(Object object, OutputStream outputStream) {
+        try {
+            writerFor(object).writeValue(outputStream, object);
+        } catch (IOException e) {
+            throw new NekoffeeException("Erro ao serializar objeto para JSON", e);
         }
     }
 
     @Override
     public <T> T fromJsonString(String jsonString, Class<T> clazz) {
         try {
-            return objectMapper.readValue(jsonString, clazz);
-        } catch (JsonProcessingException e) {
-            System.err.println("Jackson Deserialization Exception for class " + clazz.getName() + ": " + e.getMessage());
-            throw new RuntimeException("Erro ao desserializar JSON para objeto: " + clazz.getSimpleName(), e);
+            return readerFor(clazz).readValue(jsonString);
+        } catch (IOException e) {
+            throw deserializationError(clazz.getSimpleName(), e);
         }
     }
 
     @Override
     public <T> T fromJsonString(String jsonString, TypeReference<T> typeReference) {
         try {
-            return objectMapper.readValue(jsonString, typeReference);
-        } catch (JsonProcessingException e) {
-            System.err.println("Jackson Deserialization Exception for TypeReference " + typeReference.getType() + ": " + e.getMessage());
-            throw new RuntimeException("Erro ao desserializar JSON para tipo genérico: " + typeReference.getType(), e);
+            return readerFor(typeReference).readValue(jsonString);
+        } catch (IOException e) {
+            throw deserializationError(typeReference.getType().getTypeName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonBytes(byte[] json, Class<T> clazz) {
+        try {
+            return readerFor(clazz).readValue(json);
+        } catch (IOException e) {
+            throw deserializationError(clazz.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonBytes(byte[] json, TypeReference<T> typeReference) {
+        try {
+            return readerFor(typeReference).readValue(json);
+        } catch (IOException e) {
+            throw deserializationError(typeReference.getType().getTypeName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonStream(InputStream inputStream, Class<T> clazz) {
+        try {
+            return readerFor(clazz).readValue(inputStream);
+        } catch (IOException e) {
+            throw deserializationError(clazz.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonStream(InputStream inputStream, TypeReference<T> typeReference) {
+        try {
+            return readerFor(typeReference).readValue(inputStream);
+        } catch (IOException e) {
+            throw deserializationError(typeReference.getType().getTypeName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonBuffer(ByteBuffer buffer, Class<T> clazz) {
+        try {
+            if (buffer.hasArray()) {
+                return readerFor(clazz).readValue(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            }
+            return readerFor(clazz).readValue(new ByteBufferBackedInputStream(buffer.duplicate()));
+        } catch (IOException e) {
+            throw deserializationError(clazz.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonTree(JsonNode node, Class<T> clazz) {
+        try {
+            return readerFor(clazz).readValue(node);
+        } catch (IOException e) {
+            throw deserializationError(clazz.getSimpleName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJsonTree(JsonNode node, TypeReference<T> typeReference) {
+        try {
+            return readerFor(typeReference).readValue(node);
+        } catch (IOException e) {
+            throw deserializationError(typeReference.getType().getTypeName(), e);
         }
     }
-}
\ No newline at end of file
+}
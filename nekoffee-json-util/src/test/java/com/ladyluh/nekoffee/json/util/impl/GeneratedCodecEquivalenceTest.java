@@ -0,0 +1,233 @@
+package com.ladyluh.nekoffee.json.util.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.ladyluh.nekoffee.api.entities.Message;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.json.codec.JsonCodec;
+import com.ladyluh.nekoffee.json.util.mixin.ChannelMixIn;
+import com.ladyluh.nekoffee.json.util.mixin.MessageMixIn;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Os codecs gerados devem produzir exatamente o mesmo objeto que o binding reflexivo do Jackson
+ * (mesma configuração do {@link JacksonJsonEngineImpl}, sem os codecs registrados).
+ */
+class GeneratedCodecEquivalenceTest {
+
+    private static final String USER = """
+            {"id":"80351110224678912","username":"Nelly","global_name":"Nel","discriminator":"1337",
+             "avatar":"8342729096ea3675442027381ff50dfe","bot":true,"system":false,"flags":64,"banner":null}""";
+
+    private static final String MEMBER = """
+            {"user":%s,"nick":"apelido","roles":["41771983423143936","41771983423143937"],
+             "joined_at":"2015-04-26T06:26:56.936000+00:00","premium_since":null,"deaf":false,"mute":true,
+             "guild_id":"41771983423143937","avatar":null,"flags":0,"communication_disabled_until":null}""".formatted(USER);
+
+    private static final String ROLE = """
+            {"id":"41771983423143936","name":"WE DEM BOYZZ!!!!!!","color":3447003,"hoist":true,"icon":null,
+             "position":1,"permissions":"66321471","managed":false,"mentionable":false,"tags":{"bot_id":"1"}}""";
+
+    private static final String VOICE_STATE = """
+            {"guild_id":"41771983423143937","channel_id":"157733188964188161","user_id":"80351110224678912",
+             "member":%s,"session_id":"90326bd25d71d39b9ef95b299e3872ff","deaf":false,"mute":false,"self_deaf":true,
+             "self_mute":false,"self_stream":null,"self_video":false,"suppress":false,
+             "request_to_speak_timestamp":"2021-03-31T18:45:31.297561+00:00"}""".formatted(MEMBER);
+
+    private static final Map<Class<?>, List<String>> SAMPLES = new HashMap<>();
+
+    static {
+        sample("com.ladyluh.nekoffee.model.user.UserImpl",
+                USER,
+                "{\"id\":80351110224678912,\"username\":\"numérico\",\"bot\":\"true\"}",
+                "{}");
+        sample("com.ladyluh.nekoffee.model.member.MemberImpl",
+                MEMBER,
+                // Fuso diferente de UTC, número de segundos e segundos com fração.
+                "{\"user\":" + USER + ",\"joined_at\":\"2015-04-26T09:26:56.936+03:00\",\"premium_since\":1430029616}",
+                "{\"joined_at\":1430029616.936,\"premium_since\":\"\",\"roles\":[]}",
+                "{\"user\":null,\"roles\":null,\"deaf\":null}");
+        sample("com.ladyluh.nekoffee.model.role.RoleImpl",
+                ROLE,
+                "{\"id\":\"1\",\"position\":\"3\",\"color\":0,\"permissions\":8}");
+        sample("com.ladyluh.nekoffee.model.voice.VoiceStateImpl",
+                VOICE_STATE,
+                "{\"user_id\":\"1\",\"channel_id\":null,\"self_stream\":true}");
+        sample("com.ladyluh.nekoffee.model.guild.GuildImpl",
+                "{\"id\":\"41771983423143937\",\"name\":\"Discord Developers\",\"icon\":null,\"owner_id\":\"80351110224678912\","
+                        + "\"roles\":[" + ROLE + "," + ROLE + "],\"members\":[" + MEMBER + "],\"voice_states\":[" + VOICE_STATE + "],"
+                        + "\"channels\":[{\"id\":\"1\",\"type\":0,\"permission_overwrites\":[]}],\"features\":[\"COMMUNITY\"]}",
+                "{\"id\":\"2\",\"roles\":[],\"members\":null}");
+        sample("com.ladyluh.nekoffee.model.message.MessageImpl",
+                "{\"id\":\"334385199974967042\",\"channel_id\":\"290926798999357250\",\"guild_id\":\"41771983423143937\","
+                        + "\"author\":" + USER + ",\"content\":\"Supa Hot\",\"timestamp\":\"2017-07-11T17:27:07.299000+00:00\","
+                        + "\"embeds\":[{\"title\":\"x\",\"fields\":[{\"name\":\"a\",\"value\":\"b\"}]}],\"mentions\":[],\"tts\":false}",
+                "{\"id\":\"1\",\"content\":\"\",\"author\":null}");
+        sample("com.ladyluh.nekoffee.model.gateway.ReadyPayloadData",
+                "{\"v\":10,\"user\":" + USER + ",\"guilds\":[{\"id\":\"1\",\"unavailable\":true},{\"id\":\"2\",\"unavailable\":false}],"
+                        + "\"session_id\":\"abc\",\"resume_gateway_url\":\"wss://gateway.discord.gg\",\"shard\":[0,1],"
+                        + "\"application\":{\"id\":\"1\",\"flags\":0}}");
+        sample("com.ladyluh.nekoffee.model.gateway.ReadyPayloadData$UnavailableGuild",
+                "{\"id\":\"1\",\"unavailable\":true}");
+        sample("com.ladyluh.nekoffee.model.gateway.GuildMemberRemovePayloadData",
+                "{\"guild_id\":\"41771983423143937\",\"user\":" + USER + "}");
+        sample("com.ladyluh.nekoffee.model.gateway.MessageDeletePayloadData",
+                "{\"id\":\"334385199974967042\",\"channel_id\":\"290926798999357250\",\"guild_id\":\"41771983423143937\"}",
+                "{\"id\":\"1\",\"channel_id\":\"2\"}");
+    }
+
+    private final ObjectMapper reflective = reflectiveMapper();
+
+    private static void sample(String className, String... json) {
+        try {
+            SAMPLES.put(Class.forName(className), List.of(json));
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ObjectMapper reflectiveMapper() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BlackbirdModule());
+        mapper.addMixIn(Channel.class, ChannelMixIn.class);
+        mapper.addMixIn(Message.class, MessageMixIn.class);
+        return mapper;
+    }
+
+    @Test
+    void everyGeneratedCodecHasSamples() {
+        List<Class<?>> missing = new ArrayList<>();
+        for (JsonCodec<?> codec : ServiceLoader.load(JsonCodec.class)) {
+            if (!SAMPLES.containsKey(codec.type())) {
+                missing.add(codec.type());
+            }
+        }
+        assertTrue(missing.isEmpty(), "Codecs sem amostra no teste: " + missing);
+    }
+
+    @Test
+    void generatedCodecsMatchReflectiveBinding() throws Exception {
+        int checked = 0;
+        for (JsonCodec<?> codec : ServiceLoader.load(JsonCodec.class)) {
+            for (String json : SAMPLES.getOrDefault(codec.type(), List.of())) {
+                Object expected = reflective.readValue(json, codec.type());
+                Object actual;
+                try (JsonParser parser = reflective.getFactory().createParser(json)) {
+                    parser.nextToken();
+                    actual = codec.read(parser);
+                }
+                assertSameFields(expected, actual, codec.type().getSimpleName() + " " + json);
+                checked++;
+            }
+        }
+        assertTrue(checked > 0, "Nenhum codec encontrado pelo ServiceLoader");
+    }
+
+    @Test
+    void engineWithCodecsMatchesReflectiveBinding() throws Exception {
+        JacksonJsonEngineImpl engine = new JacksonJsonEngineImpl();
+        for (Map.Entry<Class<?>, List<String>> entry : SAMPLES.entrySet()) {
+            for (String json : entry.getValue()) {
+                assertSameFields(reflective.readValue(json, entry.getKey()), engine.fromJsonString(json, entry.getKey()),
+                        entry.getKey().getSimpleName() + " " + json);
+            }
+        }
+    }
+
+    @Test
+    void offsetDateTimeIsNormalizedToUtc() throws Exception {
+        Class<?> memberType = Class.forName("com.ladyluh.nekoffee.model.member.MemberImpl");
+        JacksonJsonEngineImpl engine = new JacksonJsonEngineImpl();
+        Object member = engine.fromJsonString("{\"joined_at\":\"2015-04-26T09:26:56.936+03:00\",\"premium_since\":1430029616.5}", memberType);
+        assertEquals(OffsetDateTime.of(2015, 4, 26, 6, 26, 56, 936_000_000, ZoneOffset.UTC), fieldValue(member, "joinedAt"));
+        assertEquals(OffsetDateTime.of(2015, 4, 26, 6, 26, 56, 500_000_000, ZoneOffset.UTC), fieldValue(member, "premiumSince"));
+    }
+
+    @Test
+    void nullValueDecodesToNull() throws Exception {
+        for (JsonCodec<?> codec : ServiceLoader.load(JsonCodec.class)) {
+            try (JsonParser parser = reflective.getFactory().createParser("null")) {
+                parser.nextToken();
+                assertNull(codec.read(parser), codec.type().getName());
+            }
+        }
+    }
+
+    private static void assertSameFields(Object expected, Object actual, String path) throws IllegalAccessException {
+        if (expected == null || actual == null) {
+            assertEquals(expected, actual, path);
+            return;
+        }
+        assertEquals(expected.getClass(), actual.getClass(), path);
+        Class<?> type = expected.getClass();
+        if (isValue(type)) {
+            assertEquals(expected, actual, path);
+            return;
+        }
+        if (type.isArray()) {
+            assertEquals(Array.getLength(expected), Array.getLength(actual), path + " (tamanho)");
+            for (int i = 0; i < Array.getLength(expected); i++) {
+                assertSameFields(Array.get(expected, i), Array.get(actual, i), path + "[" + i + "]");
+            }
+            return;
+        }
+        if (expected instanceof List<?> expectedList) {
+            List<?> actualList = (List<?>) actual;
+            assertEquals(expectedList.size(), actualList.size(), path + " (tamanho)");
+            for (int i = 0; i < expectedList.size(); i++) {
+                assertSameFields(expectedList.get(i), actualList.get(i), path + "[" + i + "]");
+            }
+            return;
+        }
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                field.setAccessible(true);
+                assertSameFields(field.get(expected), field.get(actual), path + " ." + field.getName());
+            }
+        }
+    }
+
+    private static boolean isValue(Class<?> type) {
+        return type.isPrimitive() || type.isEnum() || type == String.class || type == Boolean.class
+                || Number.class.isAssignableFrom(type) || type == Character.class || type == OffsetDateTime.class;
+    }
+
+    private static Object fieldValue(Object target, String name) throws IllegalAccessException {
+        for (Class<?> c = target.getClass(); c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.getName().equals(name)) {
+                    field.setAccessible(true);
+                    return field.get(target);
+                }
+            }
+        }
+        fail("Campo " + name + " não encontrado");
+        return null;
+    }
+}
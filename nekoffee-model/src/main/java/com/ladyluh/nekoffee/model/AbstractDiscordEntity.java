@@ -2,30 +2,32 @@ package com.ladyluh.nekoffee.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ladyluh.nekoffee.api.entities.DiscordEntity;
+import com.ladyluh.nekoffee.api.util.Snowflake;
 
 public abstract class AbstractDiscordEntity implements DiscordEntity {
 
+    /**
+     * Snowflake guardado como primitivo; a forma String é derivada só quando pedida.
+     */
     @JsonProperty("id")
-    protected String id;
+    protected long id;
 
     @Override
     public String getId() {
-        return id;
+        return Snowflake.toString(id);
+    }
+
+    /**
+     * Usado pelos codecs gerados, que ficam no pacote de cada subclasse e não enxergam o campo protegido.
+     */
+    public void setId(long id) {
+        this.id = id;
     }
 
     @Override
     public long getIdLong() {
-        if (id == null) {
-            return 0L;
-        }
-        try {
-            return Long.parseLong(id);
-        } catch (NumberFormatException e) {
-
-            System.err.println("Aviso: Falha ao converter ID para long: " + id);
-            return 0L;
-        }
+        return id;
     }
 
 
-}
\ No newline at end of file
+}
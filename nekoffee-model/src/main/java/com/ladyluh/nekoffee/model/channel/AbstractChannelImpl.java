@@ -3,12 +3,15 @@ package com.ladyluh.nekoffee.model.channel;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.PermissionOverwrite;
 import com.ladyluh.nekoffee.api.entities.channel.Channel;
 import com.ladyluh.nekoffee.api.entities.channel.ChannelType;
 import com.ladyluh.nekoffee.model.AbstractDiscordEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 public abstract class AbstractChannelImpl extends AbstractDiscordEntity implements Channel {
@@ -22,6 +25,9 @@ public abstract class AbstractChannelImpl extends AbstractDiscordEntity implemen
     @JsonProperty("guild_id") 
     protected String guildId;
 
+    @JsonProperty("permission_overwrites")
+    protected List<PermissionOverwriteImpl> permissionOverwrites = Collections.emptyList();
+
     @JsonIgnore 
     protected NekoffeeClient nekoffeeClient; 
 
@@ -33,6 +39,16 @@ public abstract class AbstractChannelImpl extends AbstractDiscordEntity implemen
 
     public String getGuildId() { return guildId; } 
 
+    /**
+     * Canais dentro de um GUILD_CREATE não trazem guild_id; o Gateway o preenche a partir da guild.
+     */
+    public void setGuildId(String guildId) { this.guildId = guildId; }
+
+    @Override
+    public List<PermissionOverwrite> getPermissionOverwrites() {
+        return permissionOverwrites == null ? Collections.emptyList() : Collections.unmodifiableList(permissionOverwrites);
+    }
+
     
     @Override
     public void setNekoffeeClient(NekoffeeClient client) {
@@ -0,0 +1,53 @@
+package com.ladyluh.nekoffee.model.channel;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ladyluh.nekoffee.api.entities.PermissionOverwrite;
+import com.ladyluh.nekoffee.api.entities.TargetType;
+
+public class PermissionOverwriteImpl implements PermissionOverwrite {
+
+    @JsonProperty("id")
+    long targetId;
+
+    @JsonProperty("type")
+    int type;
+
+    @JsonProperty("allow")
+    long allow;
+
+    @JsonProperty("deny")
+    long deny;
+
+    public PermissionOverwriteImpl() {
+    }
+
+    @Override
+    public long getTargetIdLong() {
+        return targetId;
+    }
+
+    @Override
+    public TargetType getTargetType() {
+        return type == TargetType.MEMBER.getValue() ? TargetType.MEMBER : TargetType.ROLE;
+    }
+
+    @Override
+    public long getAllowRaw() {
+        return allow;
+    }
+
+    @Override
+    public long getDenyRaw() {
+        return deny;
+    }
+
+    @Override
+    public String toString() {
+        return "PermissionOverwriteImpl{" +
+                "targetId=" + targetId +
+                ", type=" + getTargetType() +
+                ", allow=" + allow +
+                ", deny=" + deny +
+                '}';
+    }
+}
@@ -1,14 +1,16 @@
 package com.ladyluh.nekoffee.model.gateway;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 import com.ladyluh.nekoffee.model.user.UserImpl;
 
+@GenerateJsonCodec
 public class GuildMemberRemovePayloadData {
     @JsonProperty("guild_id")
-    private String guildId;
+    String guildId;
 
     @JsonProperty("user")
-    private UserImpl user;
+    UserImpl user;
 
     public String getGuildId() {
         return guildId;
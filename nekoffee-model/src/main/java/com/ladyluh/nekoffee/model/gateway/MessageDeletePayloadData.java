@@ -1,16 +1,18 @@
 package com.ladyluh.nekoffee.model.gateway;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 
+@GenerateJsonCodec
 public class MessageDeletePayloadData {
     @JsonProperty("id")
-    private String id;
+    String id;
 
     @JsonProperty("channel_id")
-    private String channelId;
+    String channelId;
 
     @JsonProperty("guild_id")
-    private String guildId;
+    String guildId;
 
     public String getId() {
         return id;
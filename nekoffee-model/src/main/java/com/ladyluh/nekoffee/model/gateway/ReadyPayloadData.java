@@ -1,26 +1,28 @@
 package com.ladyluh.nekoffee.model.gateway;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 import com.ladyluh.nekoffee.model.user.UserImpl;
 
 import java.util.List;
 
+@GenerateJsonCodec
 public class ReadyPayloadData {
 
     @JsonProperty("v")
-    private int gatewayVersion;
+    int gatewayVersion;
 
     @JsonProperty("user")
-    private UserImpl selfUser;
+    UserImpl selfUser;
 
     @JsonProperty("guilds")
-    private List<UnavailableGuild> guilds;
+    List<UnavailableGuild> guilds;
 
     @JsonProperty("session_id")
-    private String sessionId;
+    String sessionId;
 
     @JsonProperty("resume_gateway_url")
-    private String resumeGatewayUrl;
+    String resumeGatewayUrl;
 
     public int getGatewayVersion() {
         return gatewayVersion;
@@ -42,11 +44,12 @@ public class ReadyPayloadData {
         return resumeGatewayUrl;
     }
 
+    @GenerateJsonCodec
     public static class UnavailableGuild {
         @JsonProperty("id")
-        private String id;
+        String id;
         @JsonProperty("unavailable")
-        private boolean unavailable;
+        boolean unavailable;
 
         public String getId() {
             return id;
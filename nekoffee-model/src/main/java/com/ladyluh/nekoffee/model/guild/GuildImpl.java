@@ -1,12 +1,17 @@
 package com.ladyluh.nekoffee.model.guild;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ladyluh.nekoffee.api.NekoffeeClient;
 import com.ladyluh.nekoffee.api.entities.Guild;
+import com.ladyluh.nekoffee.api.entities.Member;
 import com.ladyluh.nekoffee.api.entities.Role;
 import com.ladyluh.nekoffee.api.entities.User;
 import com.ladyluh.nekoffee.api.entities.VoiceState;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 import com.ladyluh.nekoffee.model.AbstractDiscordEntity;
+import com.ladyluh.nekoffee.model.member.MemberImpl;
 import com.ladyluh.nekoffee.model.role.RoleImpl;
 import com.ladyluh.nekoffee.model.voice.VoiceStateImpl;
 
@@ -15,22 +20,32 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+@GenerateJsonCodec
 public class GuildImpl extends AbstractDiscordEntity implements Guild {
 
     @JsonProperty("name")
-    private String name;
+    String name;
 
     @JsonProperty("icon")
-    private String iconId;
+    String iconId;
 
     @JsonProperty("owner_id")
-    private String ownerId;
+    String ownerId;
 
     @JsonProperty("roles")
-    private List<RoleImpl> roles = new ArrayList<>();
+    List<RoleImpl> roles = new ArrayList<>();
 
     @JsonProperty("voice_states")
-    private List<VoiceStateImpl> voiceStates = new ArrayList<>();
+    List<VoiceStateImpl> voiceStates = new ArrayList<>();
+
+    @JsonProperty("members")
+    List<MemberImpl> members = new ArrayList<>();
+
+    /**
+     * Canais são polimórficos (ver ChannelMixIn) e ficam fora do codec gerado; o Gateway os preenche via setChannels.
+     */
+    @JsonIgnore
+    List<Channel> channels = new ArrayList<>();
 
     public GuildImpl() {
     }
@@ -97,4 +112,18 @@ public class GuildImpl extends AbstractDiscordEntity implements Guild {
     public List<VoiceState> getVoiceStates() {
         return Collections.unmodifiableList(new ArrayList<>(voiceStates));
     }
+
+    @Override
+    public List<Channel> getChannels() {
+        return Collections.unmodifiableList(channels);
+    }
+
+    public void setChannels(List<Channel> channels) {
+        this.channels = channels != null ? channels : new ArrayList<>();
+    }
+
+    @Override
+    public List<Member> getMembers() {
+        return Collections.unmodifiableList(members);
+    }
 }
\ No newline at end of file
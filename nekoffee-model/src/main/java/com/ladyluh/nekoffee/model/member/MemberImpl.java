@@ -7,9 +7,14 @@ import com.ladyluh.nekoffee.api.entities.Guild;
 import com.ladyluh.nekoffee.api.entities.Member;
 import com.ladyluh.nekoffee.api.entities.Role;
 import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.entities.channel.Channel;
 import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 import com.ladyluh.nekoffee.model.AbstractDiscordEntity;
 import com.ladyluh.nekoffee.model.user.UserImpl;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -18,25 +23,27 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+@GenerateJsonCodec
 public class MemberImpl extends AbstractDiscordEntity implements Member {
     private static final Logger LOGGER = LoggerFactory.getLogger(MemberImpl.class);
+    private static final long[] EMPTY_ROLE_IDS = new long[0];
 
     @JsonProperty("user")
-    private UserImpl user;
+    UserImpl user;
     @JsonProperty("nick")
-    private String nickname;
+    String nickname;
     @JsonProperty("roles")
-    private List<String> roleIds = new ArrayList<>();
+    private long[] roleIds = EMPTY_ROLE_IDS;
     @JsonProperty("joined_at")
-    private OffsetDateTime joinedAt;
+    OffsetDateTime joinedAt;
     @JsonProperty("premium_since")
-    private OffsetDateTime premiumSince;
+    OffsetDateTime premiumSince;
     @JsonProperty("deaf")
-    private boolean deafened;
+    boolean deafened;
     @JsonProperty("mute")
-    private boolean muted;
+    boolean muted;
     @JsonProperty("guild_id")
-    private String guildId;
+    String guildId;
 
     @JsonIgnore
     private NekoffeeClient nekoffeeClient;
@@ -75,7 +82,29 @@ public class MemberImpl extends AbstractDiscordEntity implements Member {
 
     @Override
     public List<String> getRoleIds() {
-        return Collections.unmodifiableList(roleIds);
+        List<String> ids = new ArrayList<>(roleIds.length);
+        for (long roleId : roleIds) {
+            ids.add(Snowflake.toString(roleId));
+        }
+        return Collections.unmodifiableList(ids);
+    }
+
+    @Override
+    public long[] getRoleIdsLong() {
+        return roleIds.clone();
+    }
+
+    public void setRoleIds(long[] roleIds) {
+        this.roleIds = roleIds != null ? roleIds : EMPTY_ROLE_IDS;
+    }
+
+    private boolean hasRoleId(long roleId) {
+        for (long id : roleIds) {
+            if (id == roleId) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -85,7 +114,7 @@ public class MemberImpl extends AbstractDiscordEntity implements Member {
         }
         return client.getGuildRoles(guildId).thenApply(guildRoles ->
                 guildRoles.stream()
-                        .filter(role -> roleIds.contains(role.getId()))
+                        .filter(role -> hasRoleId(role.getIdLong()))
                         .collect(Collectors.toList())
         );
     }
@@ -134,7 +163,7 @@ public class MemberImpl extends AbstractDiscordEntity implements Member {
                 ", effectiveName='" + getEffectiveName() + '\'' +
                 ", nickname='" + nickname + '\'' +
                 ", guildId='" + guildId + '\'' +
-                ", rolesCount=" + roleIds.size() +
+                ", rolesCount=" + roleIds.length +
                 '}';
     }
 
@@ -161,27 +190,30 @@ public class MemberImpl extends AbstractDiscordEntity implements Member {
             return CompletableFuture.completedFuture(0L);
         }
 
+        long cachedPermissions = getPermissionsRaw(null);
+        if (cachedPermissions != PermissionResolver.UNKNOWN) {
+            return CompletableFuture.completedFuture(cachedPermissions);
+        }
+
+        // Cargos fora do cache (cache desativado ou guild ainda não recebida): calcula a partir da API.
         return nekoffeeClient.getGuildRoles(guildId)
                 .thenApply(allGuildRoles -> {
                     long calculatedPermissions = 0L;
-
-                    Optional<Role> everyoneRoleOpt = allGuildRoles.stream()
-                            .filter(role -> role.getId().equals(guildId))
-                            .findFirst();
-
-                    if (everyoneRoleOpt.isPresent()) {
-                        calculatedPermissions |= everyoneRoleOpt.get().getPermissionsRaw();
-                    } else {
-                        LOGGER.warn("Cargo @everyone não encontrado para guild {}. Permissões base podem estar incorretas.", guildId);
+                    long guildIdLong = Snowflake.parse(guildId);
+                    boolean everyoneFound = false;
+
+                    for (Role role : allGuildRoles) {
+                        long roleId = role.getIdLong();
+                        if (roleId == guildIdLong) {
+                            calculatedPermissions |= role.getPermissionsRaw();
+                            everyoneFound = true;
+                        } else if (hasRoleId(roleId)) {
+                            calculatedPermissions |= role.getPermissionsRaw();
+                        }
                     }
 
-                    for (String roleId : roleIds) {
-                        Optional<Role> memberRoleOpt = allGuildRoles.stream()
-                                .filter(role -> role.getId().equals(roleId))
-                                .findFirst();
-                        if (memberRoleOpt.isPresent()) {
-                            calculatedPermissions |= memberRoleOpt.get().getPermissionsRaw();
-                        }
+                    if (!everyoneFound) {
+                        LOGGER.warn("Cargo @everyone não encontrado para guild {}. Permissões base podem estar incorretas.", guildId);
                     }
 
                     if ((calculatedPermissions & Permission.ADMINISTRATOR.getRawValue()) == Permission.ADMINISTRATOR.getRawValue()) {
@@ -196,6 +228,25 @@ public class MemberImpl extends AbstractDiscordEntity implements Member {
                 });
     }
 
+    @Override
+    public long getPermissionsRaw(@Nullable Channel channel) {
+        if (nekoffeeClient == null || guildId == null) {
+            return PermissionResolver.UNKNOWN;
+        }
+        PermissionResolver resolver = nekoffeeClient.getPermissionResolver();
+        return resolver == null ? PermissionResolver.UNKNOWN : resolver.getPermissions(this, channel);
+    }
+
+    @Override
+    public boolean hasPermission(@Nullable Channel channel, Permission permission) {
+        long rawPermissions = getPermissionsRaw(channel);
+        if (rawPermissions == PermissionResolver.UNKNOWN) {
+            LOGGER.warn("Permissões do membro {} na guild {} não estão em cache; negando {}.", getId(), guildId, permission);
+            return false;
+        }
+        return (rawPermissions & permission.getRawValue()) == permission.getRawValue();
+    }
+
     @Override
     public CompletableFuture<Boolean> hasPermission(Permission permission) {
         return getPermissionsRaw().thenApply(rawPermissions -> {
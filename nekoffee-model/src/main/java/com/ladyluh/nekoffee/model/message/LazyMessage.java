@@ -0,0 +1,114 @@
+package com.ladyluh.nekoffee.model.message;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.ladyluh.nekoffee.api.entities.Message;
+import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Visão preguiçosa de uma mensagem do Gateway: guarda a árvore do payload ("d") e só converte
+ * cada campo quando ele é lido pela primeira vez, memorizando o resultado.
+ * <p>
+ * As Strings memorizadas são imutáveis, então uma corrida entre duas threads no máximo decodifica
+ * o mesmo campo duas vezes; o autor é publicado via volatile.
+ */
+public class LazyMessage implements Message {
+
+    /**
+     * Marca campos ainda não lidos; comparado por identidade, já que null é um valor válido (ex: guild_id em DMs).
+     */
+    private static final String UNREAD = new String("");
+
+    private final JsonNode data;
+    private final Function<JsonNode, ? extends User> userDecoder;
+
+    private long id = -1L;
+    private String contentRaw = UNREAD;
+    private String channelId = UNREAD;
+    private String guildId = UNREAD;
+    private volatile User author;
+
+    /**
+     * @param data        O objeto "d" do evento MESSAGE_CREATE/MESSAGE_UPDATE.
+     * @param userDecoder Converte o objeto "author" para um User, chamado no primeiro {@link #getAuthor()}.
+     */
+    public LazyMessage(JsonNode data, Function<JsonNode, ? extends User> userDecoder) {
+        this.data = Objects.requireNonNull(data, "data cannot be null");
+        this.userDecoder = Objects.requireNonNull(userDecoder, "userDecoder cannot be null");
+    }
+
+    private String text(String field) {
+        JsonNode node = data.get(field);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+    @Override
+    public long getIdLong() {
+        long value = id;
+        if (value == -1L) {
+            value = Snowflake.parse(text("id"));
+            id = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String getId() {
+        return Snowflake.toString(getIdLong());
+    }
+
+    @Override
+    public String getGuildId() {
+        String value = guildId;
+        if (value == UNREAD) {
+            value = text("guild_id");
+            guildId = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String getContentRaw() {
+        String value = contentRaw;
+        if (value == UNREAD) {
+            value = text("content");
+            contentRaw = value;
+        }
+        return value;
+    }
+
+    @Override
+    public User getAuthor() {
+        User value = author;
+        if (value == null) {
+            JsonNode authorNode = data.get("author");
+            if (authorNode == null || authorNode.isNull()) {
+                return null;
+            }
+            value = userDecoder.apply(authorNode);
+            author = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String getChannelId() {
+        String value = channelId;
+        if (value == UNREAD) {
+            value = text("channel_id");
+            channelId = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyMessage{" +
+                "id='" + getId() + '\'' +
+                ", channelId='" + getChannelId() + '\'' +
+                '}';
+    }
+}
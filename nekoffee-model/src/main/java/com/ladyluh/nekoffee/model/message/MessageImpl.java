@@ -3,22 +3,24 @@ package com.ladyluh.nekoffee.model.message;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ladyluh.nekoffee.api.entities.Message;
 import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 import com.ladyluh.nekoffee.model.AbstractDiscordEntity;
 import com.ladyluh.nekoffee.model.user.UserImpl;
 
+@GenerateJsonCodec
 public class MessageImpl extends AbstractDiscordEntity implements Message {
 
     @JsonProperty("content")
-    private String contentRaw;
+    String contentRaw;
 
     @JsonProperty("author")
-    private UserImpl author;
+    UserImpl author;
 
     @JsonProperty("channel_id")
-    private String channelId;
+    String channelId;
 
     @JsonProperty("guild_id")
-    private String guildId;
+    String guildId;
 
     public MessageImpl() {
     }
@@ -5,34 +5,35 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ladyluh.nekoffee.api.NekoffeeClient;
 import com.ladyluh.nekoffee.api.entities.Guild;
 import com.ladyluh.nekoffee.api.entities.Role;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 import com.ladyluh.nekoffee.model.AbstractDiscordEntity;
 
 import java.awt.*;
-import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 
+@GenerateJsonCodec
 public class RoleImpl extends AbstractDiscordEntity implements Role {
 
     @JsonProperty("name")
-    private String name;
+    String name;
 
     @JsonProperty("color")
-    private int rgbColorValue;
+    int rgbColorValue;
 
     @JsonProperty("hoist")
-    private boolean hoisted;
+    boolean hoisted;
 
     @JsonProperty("position")
-    private int position;
+    int position;
 
     @JsonProperty("permissions")
-    private String permissionsString;
+    String permissionsString;
 
     @JsonProperty("managed")
-    private boolean managed;
+    boolean managed;
 
     @JsonProperty("mentionable")
-    private boolean mentionable;
+    boolean mentionable;
 
     @JsonIgnore
     private String guildId;
@@ -113,7 +114,7 @@ public class RoleImpl extends AbstractDiscordEntity implements Role {
         if (this.getPosition() != other.getPosition()) {
             return Integer.compare(other.getPosition(), this.getPosition());
         }
-        return this.getId().compareTo(other.getId());
+        return Long.compare(this.getIdLong(), other.getIdLong());
     }
 
     @Override
@@ -121,12 +122,12 @@ public class RoleImpl extends AbstractDiscordEntity implements Role {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         RoleImpl role = (RoleImpl) o;
-        return Objects.equals(id, role.id);
+        return id == role.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 
     @Override
@@ -2,27 +2,29 @@ package com.ladyluh.nekoffee.model.user;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 import com.ladyluh.nekoffee.model.AbstractDiscordEntity;
 
+@GenerateJsonCodec
 public class UserImpl extends AbstractDiscordEntity implements User {
 
     @JsonProperty("username")
-    private String username;
+    String username;
 
     @JsonProperty("global_name")
-    private String global_name;
+    String global_name;
 
     @JsonProperty("discriminator")
-    private String discriminator;
+    String discriminator;
 
     @JsonProperty("avatar")
-    private String avatarId;
+    String avatarId;
 
     @JsonProperty("bot")
-    private boolean bot;
+    boolean bot;
 
     @JsonProperty("system")
-    private boolean system;
+    boolean system;
 
     public UserImpl() {
     }
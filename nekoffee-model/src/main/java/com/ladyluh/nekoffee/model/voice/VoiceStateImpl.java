@@ -2,33 +2,35 @@ package com.ladyluh.nekoffee.model.voice;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.ladyluh.nekoffee.api.entities.VoiceState;
+import com.ladyluh.nekoffee.json.codec.GenerateJsonCodec;
 
+@GenerateJsonCodec
 public class VoiceStateImpl implements VoiceState {
     @JsonProperty("guild_id")
-    private String guildId;
+    String guildId;
 
     @JsonProperty("channel_id")
-    private String channelId;
+    String channelId;
     @JsonProperty("user_id")
-    private String userId;
+    String userId;
     @JsonProperty("session_id")
-    private String sessionId;
+    String sessionId;
     @JsonProperty("deaf")
-    private boolean deaf;
+    boolean deaf;
     @JsonProperty("mute")
-    private boolean mute;
+    boolean mute;
     @JsonProperty("self_deaf")
-    private boolean selfDeaf;
+    boolean selfDeaf;
     @JsonProperty("self_mute")
-    private boolean selfMute;
+    boolean selfMute;
     @JsonProperty("self_stream")
-    private Boolean selfStream;
+    Boolean selfStream;
     @JsonProperty("self_video")
-    private boolean selfVideo;
+    boolean selfVideo;
     @JsonProperty("suppress")
-    private boolean suppress;
+    boolean suppress;
     @JsonProperty("request_to_speak_timestamp")
-    private String requestToSpeakTimestamp;
+    String requestToSpeakTimestamp;
 
     public VoiceStateImpl() {
     }
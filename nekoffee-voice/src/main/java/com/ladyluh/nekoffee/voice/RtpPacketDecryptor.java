@@ -0,0 +1,41 @@
+package com.ladyluh.nekoffee.voice;
+
+import com.iwebpp.crypto.TweetNaclFast;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Abre pacotes RTP no modo xsalsa20_poly1305_suffix: cabeçalho de 12 bytes, áudio cifrado e o nonce
+ * de 24 bytes no final do pacote. A SecretBox é criada uma vez por chave de sessão.
+ */
+public final class RtpPacketDecryptor {
+    public static final int RTP_HEADER_SIZE = 12;
+    public static final int NONCE_SIZE = 24;
+
+    private final TweetNaclFast.SecretBox secretBox;
+
+    public RtpPacketDecryptor(byte[] secretKey) {
+        this.secretBox = new TweetNaclFast.SecretBox(secretKey);
+    }
+
+    /**
+     * Decifra o pacote entre position 0 e limit. A posição do buffer é alterada.
+     *
+     * @param rtpPacket O pacote RTP completo, como recebido pelo socket UDP.
+     * @return O payload decifrado (ainda com a extensão de cabeçalho RTP), ou null se o pacote for inválido.
+     */
+    public byte[] open(ByteBuffer rtpPacket) {
+        int packetLimit = rtpPacket.limit();
+        int encryptedAudioLength = packetLimit - RTP_HEADER_SIZE - NONCE_SIZE;
+        if (encryptedAudioLength <= 0) return null;
+
+        final byte[] nonce = new byte[NONCE_SIZE];
+        rtpPacket.get(packetLimit - NONCE_SIZE, nonce, 0, NONCE_SIZE);
+
+        final byte[] encryptedAudio = new byte[encryptedAudioLength];
+        rtpPacket.position(RTP_HEADER_SIZE);
+        rtpPacket.get(encryptedAudio, 0, encryptedAudioLength);
+
+        return secretBox.open(encryptedAudio, nonce);
+    }
+}
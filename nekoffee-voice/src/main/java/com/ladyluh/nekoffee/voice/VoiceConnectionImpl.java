@@ -2,11 +2,13 @@ package com.ladyluh.nekoffee.voice;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
-import com.iwebpp.crypto.TweetNaclFast;
 import com.ladyluh.nekoffee.api.NekoffeeClient;
 import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.util.LongObjectHashMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
 import com.ladyluh.nekoffee.api.voice.VoiceConnection;
 import com.ladyluh.nekoffee.json.util.JsonEngine;
+import com.ladyluh.nekoffee.json.util.JsonTextWriter;
 import com.ladyluh.nekoffee.opus.OpusDecoder;
 import okhttp3.*;
 import org.bitlet.weupnp.GatewayDevice;
@@ -30,21 +32,24 @@ public class VoiceConnectionImpl implements VoiceConnection {
     private static final Logger LOGGER = LoggerFactory.getLogger(VoiceConnectionImpl.class);
     private final String guildId;
     private final String userId;
+    private final long userIdLong;
     private final NekoffeeClient client;
     private final JsonEngine jsonEngine;
     private final OkHttpClient httpClient;
     private final ExecutorService voiceExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "Nekoffee-Voice-Thread"));
     private final CountDownLatch secretKeyLatch = new CountDownLatch(1);
     private final Map<Integer, OpusDecoder> opusDecoders = new ConcurrentHashMap<>();
-    private final Map<Integer, String> ssrcToUserMap = new ConcurrentHashMap<>();
-    private final Map<String, User> userIdToUserCache = new ConcurrentHashMap<>();
+    /**
+     * SSRC -> falante. Lido a cada pacote RTP e alterado raramente (READY/SPEAKING), então é copy-on-write.
+     */
+    private volatile LongObjectHashMap<Speaker> ssrcToSpeaker = new LongObjectHashMap<>();
     private final AtomicBoolean running = new AtomicBoolean(false);
     private String encryptionMode;
     private WebSocket voiceWebSocket;
     private DatagramSocket udpSocket;
     private InetSocketAddress discordUdpAddress;
     private int ssrc;
-    private volatile byte[] secretKey;
+    private volatile RtpPacketDecryptor decryptor;
     private GatewayDevice activeGateway;
     private int mappedPort = -1;
     private NekoffeeClient.AudioReceiveHandler receiveHandler;
@@ -53,6 +58,7 @@ public class VoiceConnectionImpl implements VoiceConnection {
     public VoiceConnectionImpl(String guildId, String userId, NekoffeeClient client, JsonEngine jsonEngine, OkHttpClient httpClient) {
         this.guildId = guildId;
         this.userId = userId;
+        this.userIdLong = Snowflake.parse(userId);
         this.client = client;
         this.jsonEngine = jsonEngine;
         this.httpClient = httpClient;
@@ -127,8 +133,7 @@ public class VoiceConnectionImpl implements VoiceConnection {
 
             opusDecoders.values().forEach(OpusDecoder::close);
             opusDecoders.clear();
-            ssrcToUserMap.clear();
-            userIdToUserCache.clear();
+            ssrcToSpeaker = new LongObjectHashMap<>();
 
             LOGGER.info("Voice connection for guild {} fully disconnected.", guildId);
         }, voiceExecutor).whenComplete((res, err) -> {
@@ -214,6 +219,43 @@ public class VoiceConnectionImpl implements VoiceConnection {
         return future;
     }
 
+    /**
+     * Associa o SSRC ao usuário e resolve o {@link User} uma única vez, fora da thread de recepção.
+     * Pacotes que chegam antes da resposta são descartados. Se a busca falhar, a associação é desfeita
+     * e o próximo READY/SPEAKING do SSRC tenta de novo.
+     */
+    private synchronized void mapSsrc(int ssrc, String userId) {
+        long userIdLong = Snowflake.parse(userId);
+        if (userIdLong == Snowflake.NONE) return;
+        long key = Integer.toUnsignedLong(ssrc);
+        Speaker current = ssrcToSpeaker.get(key);
+        if (current != null && current.userId == userIdLong) return;
+
+        Speaker speaker = new Speaker(userIdLong);
+        LongObjectHashMap<Speaker> updated = new LongObjectHashMap<>(ssrcToSpeaker.size() + 1);
+        ssrcToSpeaker.forEach(updated::put);
+        updated.put(key, speaker);
+        ssrcToSpeaker = updated;
+
+        if (userIdLong == this.userIdLong) return;
+        client.getUserById(userId).whenComplete((user, error) -> {
+            if (error != null) {
+                LOGGER.error("Failed to fetch user object for ID {}", userId, error);
+                unmapSsrc(key, speaker);
+            } else {
+                speaker.user = user;
+            }
+        });
+    }
+
+    private synchronized void unmapSsrc(long key, Speaker speaker) {
+        if (ssrcToSpeaker.get(key) != speaker) return;
+        LongObjectHashMap<Speaker> updated = new LongObjectHashMap<>(ssrcToSpeaker.size());
+        ssrcToSpeaker.forEach(updated::put);
+        updated.remove(key);
+        ssrcToSpeaker = updated;
+    }
+
     private void startUdpListener() {
         running.set(true);
 
@@ -258,42 +300,23 @@ public class VoiceConnectionImpl implements VoiceConnection {
         }
 
         int ssrc = rtpPacket.getInt(8);
-        String userId = ssrcToUserMap.get(ssrc);
+        Speaker speaker = ssrcToSpeaker.get(Integer.toUnsignedLong(ssrc));
 
-        if (userId == null || userId.equals(this.userId) || receiveHandler == null) {
+        if (speaker == null || speaker.userId == this.userIdLong || receiveHandler == null) {
             return;
         }
 
-        User user = userIdToUserCache.computeIfAbsent(userId, id -> {
-            try {
-                return client.getUserById(id).join();
-            } catch (Exception e) {
-                LOGGER.error("Failed to fetch user object for ID {}", id, e);
-                return null;
-            }
-        });
+        User user = speaker.user;
+        if (user == null) {
+            return;
+        }
 
-        if (user == null || !receiveHandler.canReceiveUser(user)) {
+        if (!receiveHandler.canReceiveUser(user)) {
             return;
         }
 
         rtpPacket.position(0);
-        int packetLimit = rtpPacket.limit();
-
-        if (packetLimit < 24) return;
-
-        final byte[] nonce = new byte[24];
-        rtpPacket.get(packetLimit - 24, nonce, 0, 24);
-
-        int encryptedAudioLength = packetLimit - 12 - 24;
-        if (encryptedAudioLength <= 0) return;
-
-        final byte[] encryptedAudio = new byte[encryptedAudioLength];
-        rtpPacket.position(12);
-        rtpPacket.get(encryptedAudio, 0, encryptedAudioLength);
-
-        TweetNaclFast.SecretBox cryptoBox = new TweetNaclFast.SecretBox(this.secretKey);
-        byte[] opusAudio = cryptoBox.open(encryptedAudio, nonce);
+        byte[] opusAudio = decryptor.open(rtpPacket);
 
         if (opusAudio == null) {
             LOGGER.warn("Failed to decrypt audio packet for SSRC {}. Dropping packet.", ssrc);
@@ -329,7 +352,16 @@ public class VoiceConnectionImpl implements VoiceConnection {
         this.encryptionMode = encryptionMode;
     }
 
-    private record HeartbeatPayload(int op, long d) {
+    /**
+     * Usuário por trás de um SSRC; {@code user} fica nulo até a busca assíncrona responder.
+     */
+    private static final class Speaker {
+        final long userId;
+        volatile User user;
+
+        Speaker(long userId) {
+            this.userId = userId;
+        }
     }
 
     private record IdentifyPayload(int op, IdentifyData d) {
@@ -367,6 +399,10 @@ public class VoiceConnectionImpl implements VoiceConnection {
         private final String token;
         private final CompletableFuture<Void> connectionFuture;
         private final ScheduledExecutorService heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "Nekoffee-Voice-Heartbeat"));
+        /**
+         * Usado apenas pela thread do heartbeatExecutor.
+         */
+        private final JsonTextWriter heartbeatWriter = new JsonTextWriter(32);
 
         public VoiceGatewayHandler(String sessionId, String token, CompletableFuture<Void> future) {
             this.sessionId = sessionId;
@@ -403,7 +439,7 @@ public class VoiceConnectionImpl implements VoiceConnection {
                             if (ssrcMapping.has("user_id") && ssrcMapping.has("ssrc")) {
                                 String ssrcUserId = ssrcMapping.get("user_id").asText();
                                 int userSsrc = ssrcMapping.get("ssrc").asInt();
-                                ssrcToUserMap.put(userSsrc, ssrcUserId);
+                                mapSsrc(userSsrc, ssrcUserId);
                                 LOGGER.info("  -> Mapped SSRC {} to User ID {} from READY payload.", userSsrc, ssrcUserId);
                             }
                         }
@@ -438,7 +474,7 @@ public class VoiceConnectionImpl implements VoiceConnection {
                         for (int i = 0; i < keyNode.size(); i++) {
                             keyBytes[i] = (byte) keyNode.get(i).asInt();
                         }
-                        VoiceConnectionImpl.this.secretKey = keyBytes;
+                        VoiceConnectionImpl.this.decryptor = new RtpPacketDecryptor(keyBytes);
                         VoiceConnectionImpl.this.encryptionMode = data.get("mode").asText();
 
                         VoiceConnectionImpl.this.secretKeyLatch.countDown();
@@ -456,7 +492,7 @@ public class VoiceConnectionImpl implements VoiceConnection {
                     int speakingSsrc = data.get("ssrc").asInt();
                     boolean speaking = data.has("speaking") && data.get("speaking").asBoolean();
 
-                    ssrcToUserMap.put(speakingSsrc, speakingUserId);
+                    mapSsrc(speakingSsrc, speakingUserId);
 
                     LOGGER.info("Speaking Update received (Opcode 5): User {} (SSRC {}) has updated speaking state (Speaking={}). Map updated.", speakingUserId, speakingSsrc, speaking);
                     break;
@@ -465,8 +501,12 @@ public class VoiceConnectionImpl implements VoiceConnection {
                     LOGGER.info("Voice Hello received (Opcode 8). Starting heartbeat.");
                     int interval = data.get("heartbeat_interval").asInt();
                     heartbeatExecutor.scheduleAtFixedRate(() -> {
-                        var heartbeat = new HeartbeatPayload(3, System.currentTimeMillis());
-                        webSocket.send(jsonEngine.toJsonString(heartbeat));
+                        webSocket.send(heartbeatWriter.reset()
+                                .beginObject()
+                                .name("op").value(3)
+                                .name("d").value(System.currentTimeMillis())
+                                .endObject()
+                                .toString());
                     }, 0, interval, TimeUnit.MILLISECONDS);
                     break;
 
@@ -0,0 +1,11 @@
+package com.ladyluh.nekoffee.cache;
+
+import com.ladyluh.nekoffee.api.util.Snowflake;
+
+/**
+ * Cópia do conteúdo de uma mensagem guardada pelo {@link MessageCache}.
+ *
+ * @param authorId {@link Snowflake#NONE} quando o payload não trouxe o autor.
+ */
+public record CachedMessage(long messageId, long channelId, long authorId, String content) {
+}
@@ -0,0 +1,74 @@
+package com.ladyluh.nekoffee.cache;
+
+import com.ladyluh.nekoffee.api.entities.VoiceState;
+import com.ladyluh.nekoffee.api.event.voice.VoiceStateUpdateEvent;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+
+/**
+ * Estado de voz de um usuário numa guild, imutável. As flags ficam num único int.
+ */
+public record CachedVoiceState(long guildId, long channelId, long userId, String sessionId, int flags) {
+    public static final int MUTE = 1;
+    public static final int DEAF = 1 << 1;
+    public static final int SELF_MUTE = 1 << 2;
+    public static final int SELF_DEAF = 1 << 3;
+    public static final int SELF_STREAM = 1 << 4;
+    public static final int SELF_VIDEO = 1 << 5;
+    public static final int SUPPRESS = 1 << 6;
+
+    static CachedVoiceState of(long guildId, VoiceState voiceState) {
+        int flags = 0;
+        if (voiceState.isMute()) flags |= MUTE;
+        if (voiceState.isDeaf()) flags |= DEAF;
+        if (voiceState.isSelfMute()) flags |= SELF_MUTE;
+        if (voiceState.isSelfDeaf()) flags |= SELF_DEAF;
+        if (Boolean.TRUE.equals(voiceState.isSelfStream())) flags |= SELF_STREAM;
+        if (voiceState.isSelfVideo()) flags |= SELF_VIDEO;
+        if (voiceState.isSuppress()) flags |= SUPPRESS;
+        return new CachedVoiceState(guildId, Snowflake.parse(voiceState.getChannelId()),
+                Snowflake.parse(voiceState.getUserId()), voiceState.getSessionId(), flags);
+    }
+
+    /**
+     * Eventos sem o estado completo só informam mudo/surdo combinados (servidor ou próprio usuário).
+     */
+    static CachedVoiceState of(long guildId, long userId, long channelId, VoiceStateUpdateEvent event) {
+        if (event.getVoiceState() != null) {
+            return of(guildId, event.getVoiceState());
+        }
+        int flags = 0;
+        if (event.isMuted()) flags |= MUTE;
+        if (event.isDeafened()) flags |= DEAF;
+        return new CachedVoiceState(guildId, channelId, userId, null, flags);
+    }
+
+    public boolean hasFlag(int flag) {
+        return (flags & flag) != 0;
+    }
+
+    /**
+     * @return true se o usuário está mudo pelo servidor ou por conta própria.
+     */
+    public boolean isMuted() {
+        return hasFlag(MUTE | SELF_MUTE);
+    }
+
+    /**
+     * @return true se o usuário está surdo pelo servidor ou por conta própria.
+     */
+    public boolean isDeafened() {
+        return hasFlag(DEAF | SELF_DEAF);
+    }
+
+    public boolean isStreaming() {
+        return hasFlag(SELF_STREAM);
+    }
+
+    public boolean isVideoOn() {
+        return hasFlag(SELF_VIDEO);
+    }
+
+    public boolean isSuppressed() {
+        return hasFlag(SUPPRESS);
+    }
+}
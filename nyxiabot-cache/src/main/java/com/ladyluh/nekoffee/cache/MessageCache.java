@@ -0,0 +1,304 @@
+package com.ladyluh.nekoffee.cache;
+
+import com.ladyluh.nekoffee.api.entities.Message;
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache das mensagens recentes de cada canal, para logar edições e exclusões sem buscar nada via REST.
+ * <p>
+ * Cada canal tem um ring buffer com no máximo {@code maxMessagesPerChannel} mensagens e
+ * {@code maxBytesPerChannel} bytes; a mensagem mais antiga sai primeiro. O conteúdo fica em UTF-8
+ * e os IDs em longs. Todos os canais somam num contador global: passou de {@code maxTotalBytes},
+ * os canais sem escrita há mais tempo são esvaziados até voltar a 90% do orçamento. Canais apagados
+ * e guilds de onde o bot saiu são esquecidos por {@link #removeChannel(long)} e {@link #removeGuild(long)}.
+ */
+public class MessageCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageCache.class);
+
+    /**
+     * Custo presumido de cada mensagem além do conteúdo: IDs, slot no ring e cabeçalho do byte[].
+     */
+    private static final int ENTRY_OVERHEAD = 48;
+
+    private final int maxMessagesPerChannel;
+    private final long maxBytesPerChannel;
+    private final long maxTotalBytes;
+    private final ConcurrentLongObjectMap<ChannelRing> channels = new ConcurrentLongObjectMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    public MessageCache(int maxMessagesPerChannel, long maxBytesPerChannel, long maxTotalBytes) {
+        if (maxMessagesPerChannel <= 0 || maxBytesPerChannel <= 0 || maxTotalBytes <= 0) {
+            throw new IllegalArgumentException("Message cache limits must be positive");
+        }
+        this.maxMessagesPerChannel = maxMessagesPerChannel;
+        this.maxBytesPerChannel = maxBytesPerChannel;
+        this.maxTotalBytes = maxTotalBytes;
+    }
+
+    /**
+     * Guarda uma mensagem recebida por MESSAGE_CREATE. Mensagens sem conteúdo não ocupam espaço.
+     */
+    public void onMessageCreate(Message message) {
+        long channelId = Snowflake.parse(message.getChannelId());
+        String content = message.getContentRaw();
+        if (channelId == Snowflake.NONE || content == null || content.isEmpty()) {
+            return;
+        }
+        long authorId = message.getAuthor() == null ? Snowflake.NONE : message.getAuthor().getIdLong();
+        long guildId = Snowflake.parse(message.getGuildId());
+        ChannelRing ring = channels.computeIfAbsent(channelId, id -> new ChannelRing(id, guildId, maxMessagesPerChannel));
+        ring.add(message.getIdLong(), authorId, content.getBytes(StandardCharsets.UTF_8));
+        enforceGlobalBudget();
+    }
+
+    /**
+     * Aplica um MESSAGE_UPDATE. Atualizações sem conteúdo (só embeds) não mudam o que está guardado.
+     *
+     * @return A versão anterior da mensagem, ou null se ela não estava no cache.
+     */
+    @Nullable
+    public CachedMessage onMessageUpdate(Message message) {
+        long channelId = Snowflake.parse(message.getChannelId());
+        ChannelRing ring = channels.get(channelId);
+        CachedMessage previous = ring == null ? null : ring.get(message.getIdLong());
+        String content = message.getContentRaw();
+        if (content != null && !content.isEmpty() && (previous == null || !content.equals(previous.content()))) {
+            long authorId = previous != null ? previous.authorId()
+                    : message.getAuthor() == null ? Snowflake.NONE : message.getAuthor().getIdLong();
+            if (ring == null) {
+                long guildId = Snowflake.parse(message.getGuildId());
+                ring = channels.computeIfAbsent(channelId, id -> new ChannelRing(id, guildId, maxMessagesPerChannel));
+            }
+            ring.put(message.getIdLong(), authorId, content.getBytes(StandardCharsets.UTF_8));
+            enforceGlobalBudget();
+        }
+        return previous;
+    }
+
+    /**
+     * Remove a mensagem apagada do cache.
+     *
+     * @return O último conteúdo conhecido, ou null se ela não estava no cache.
+     */
+    @Nullable
+    public CachedMessage onMessageDelete(long channelId, long messageId) {
+        ChannelRing ring = channels.get(channelId);
+        return ring == null ? null : ring.remove(messageId);
+    }
+
+    @Nullable
+    public CachedMessage get(long channelId, long messageId) {
+        ChannelRing ring = channels.get(channelId);
+        return ring == null ? null : ring.get(messageId);
+    }
+
+    /**
+     * Esquece o canal inteiro (canal apagado).
+     */
+    public void removeChannel(long channelId) {
+        ChannelRing ring = channels.remove(channelId);
+        if (ring != null) {
+            ring.detach();
+        }
+    }
+
+    /**
+     * Esquece todos os canais da guild (bot removido dela).
+     */
+    public void removeGuild(long guildId) {
+        if (guildId == Snowflake.NONE) {
+            return;
+        }
+        for (ChannelRing ring : channels.values()) {
+            if (ring.guildId == guildId && channels.remove(ring.channelId, ring)) {
+                ring.detach();
+            }
+        }
+    }
+
+    /**
+     * @return Bytes estimados em uso, somando todos os canais.
+     */
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    private void enforceGlobalBudget() {
+        if (totalBytes.get() <= maxTotalBytes) {
+            return;
+        }
+        // Uma thread esvazia por vez; quem esperava no lock encontra o orçamento já cumprido e sai do laço.
+        synchronized (totalBytes) {
+            long target = maxTotalBytes - maxTotalBytes / 10;
+            if (totalBytes.get() <= target) {
+                return;
+            }
+            // Uma passada ordenada: lastWrite é copiado antes, para que escritas durante a ordenação não mudem a ordem.
+            List<ChannelRing> rings = channels.values();
+            EvictionCandidate[] candidates = new EvictionCandidate[rings.size()];
+            for (int i = 0; i < candidates.length; i++) {
+                ChannelRing ring = rings.get(i);
+                candidates[i] = new EvictionCandidate(ring.lastWrite, ring);
+            }
+            Arrays.sort(candidates, Comparator.comparingLong(EvictionCandidate::lastWrite));
+            int evicted = 0;
+            for (int i = 0; i < candidates.length && totalBytes.get() > target; i++) {
+                ChannelRing ring = candidates[i].ring();
+                if (channels.remove(ring.channelId, ring)) {
+                    ring.detach();
+                    evicted++;
+                }
+            }
+            LOGGER.debug("MessageCache: {} canais esvaziados para caber no orçamento de {} bytes.", evicted, maxTotalBytes);
+        }
+    }
+
+    private record EvictionCandidate(long lastWrite, ChannelRing ring) {
+    }
+
+    private static int weightOf(byte[] content) {
+        return ENTRY_OVERHEAD + content.length;
+    }
+
+    /**
+     * Ring buffer de um canal, em arrays paralelos. Todo acesso acontece sob o lock do ring.
+     */
+    private final class ChannelRing {
+        private final long channelId;
+        private final long guildId;
+        private final long[] messageIds;
+        private final long[] authorIds;
+        private final byte[][] contents;
+        /**
+         * Próximo slot a ser escrito; também é o slot da mensagem mais antiga quando o ring está cheio.
+         */
+        private int head;
+        private long bytes;
+        private volatile long lastWrite;
+        /**
+         * true depois de sair do mapa; escritas atrasadas são descartadas para não contar bytes de um ring órfão.
+         */
+        private boolean detached;
+
+        ChannelRing(long channelId, long guildId, int capacity) {
+            this.channelId = channelId;
+            this.guildId = guildId;
+            this.messageIds = new long[capacity];
+            this.authorIds = new long[capacity];
+            this.contents = new byte[capacity][];
+        }
+
+        synchronized void add(long messageId, long authorId, byte[] content) {
+            if (detached || weightOf(content) > maxBytesPerChannel) {
+                return;
+            }
+            release(head);
+            write(head, messageId, authorId, content);
+            head = (head + 1) % messageIds.length;
+            trimToByteLimit();
+        }
+
+        /**
+         * Substitui o conteúdo se a mensagem já está no ring; senão entra como a mais recente.
+         */
+        synchronized void put(long messageId, long authorId, byte[] content) {
+            if (detached) {
+                return;
+            }
+            int slot = indexOf(messageId);
+            if (slot < 0) {
+                add(messageId, authorId, content);
+                return;
+            }
+            if (weightOf(content) > maxBytesPerChannel) {
+                release(slot);
+                return;
+            }
+            release(slot);
+            write(slot, messageId, authorId, content);
+            trimToByteLimit();
+        }
+
+        @Nullable
+        synchronized CachedMessage get(long messageId) {
+            int slot = indexOf(messageId);
+            return slot < 0 ? null : decode(slot);
+        }
+
+        @Nullable
+        synchronized CachedMessage remove(long messageId) {
+            int slot = indexOf(messageId);
+            if (slot < 0) {
+                return null;
+            }
+            CachedMessage message = decode(slot);
+            release(slot);
+            return message;
+        }
+
+        synchronized void detach() {
+            detached = true;
+            for (int slot = 0; slot < contents.length; slot++) {
+                release(slot);
+            }
+        }
+
+        private void write(int slot, long messageId, long authorId, byte[] content) {
+            messageIds[slot] = messageId;
+            authorIds[slot] = authorId;
+            contents[slot] = content;
+            bytes += weightOf(content);
+            totalBytes.addAndGet(weightOf(content));
+            lastWrite = System.nanoTime();
+        }
+
+        private void release(int slot) {
+            byte[] content = contents[slot];
+            if (content == null) {
+                return;
+            }
+            bytes -= weightOf(content);
+            totalBytes.addAndGet(-weightOf(content));
+            contents[slot] = null;
+            messageIds[slot] = Snowflake.NONE;
+            authorIds[slot] = Snowflake.NONE;
+        }
+
+        /**
+         * Descarta a partir da mais antiga até caber em {@code maxBytesPerChannel}.
+         */
+        private void trimToByteLimit() {
+            for (int i = 0; bytes > maxBytesPerChannel && i < contents.length; i++) {
+                release((head + i) % contents.length);
+            }
+        }
+
+        /**
+         * Busca da mais recente para a mais antiga: edições e exclusões costumam ser de mensagens novas.
+         */
+        private int indexOf(long messageId) {
+            for (int i = 1; i <= messageIds.length; i++) {
+                int slot = Math.floorMod(head - i, messageIds.length);
+                if (messageIds[slot] == messageId && contents[slot] != null) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private CachedMessage decode(int slot) {
+            return new CachedMessage(messageIds[slot], channelId, authorIds[slot],
+                    new String(contents[slot], StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.ladyluh.nekoffee.cache;
+
+import java.util.Arrays;
+
+/**
+ * Membros de um canal de voz num instante. Imutável: cada alteração publica um snapshot novo,
+ * então leitores podem guardá-lo e percorrê-lo sem lock.
+ */
+public final class VoiceChannelSnapshot {
+    static final VoiceChannelSnapshot EMPTY = new VoiceChannelSnapshot(new long[0]);
+
+    /**
+     * Ordenado, para contains por busca binária e inserção/remoção por cópia.
+     */
+    private final long[] memberIds;
+
+    private VoiceChannelSnapshot(long[] memberIds) {
+        this.memberIds = memberIds;
+    }
+
+    VoiceChannelSnapshot with(long userId) {
+        int index = Arrays.binarySearch(memberIds, userId);
+        if (index >= 0) {
+            return this;
+        }
+        int insertAt = -index - 1;
+        long[] updated = new long[memberIds.length + 1];
+        System.arraycopy(memberIds, 0, updated, 0, insertAt);
+        updated[insertAt] = userId;
+        System.arraycopy(memberIds, insertAt, updated, insertAt + 1, memberIds.length - insertAt);
+        return new VoiceChannelSnapshot(updated);
+    }
+
+    VoiceChannelSnapshot without(long userId) {
+        int index = Arrays.binarySearch(memberIds, userId);
+        if (index < 0) {
+            return this;
+        }
+        if (memberIds.length == 1) {
+            return EMPTY;
+        }
+        long[] updated = new long[memberIds.length - 1];
+        System.arraycopy(memberIds, 0, updated, 0, index);
+        System.arraycopy(memberIds, index + 1, updated, index, memberIds.length - index - 1);
+        return new VoiceChannelSnapshot(updated);
+    }
+
+    public int size() {
+        return memberIds.length;
+    }
+
+    public boolean isEmpty() {
+        return memberIds.length == 0;
+    }
+
+    public boolean contains(long userId) {
+        return Arrays.binarySearch(memberIds, userId) >= 0;
+    }
+
+    public long getMemberId(int index) {
+        return memberIds[index];
+    }
+
+    /**
+     * @return Cópia dos IDs, em ordem crescente.
+     */
+    public long[] toArray() {
+        return memberIds.clone();
+    }
+}
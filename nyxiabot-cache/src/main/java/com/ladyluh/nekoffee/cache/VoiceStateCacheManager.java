@@ -2,101 +2,232 @@ package com.ladyluh.nekoffee.cache;
 
 import com.ladyluh.nekoffee.api.event.guild.GuildCreateEvent;
 import com.ladyluh.nekoffee.api.event.voice.VoiceStateUpdateEvent;
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.LongObjectHashMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Map;
-import java.util.Optional;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiConsumer;
 
 public class VoiceStateCacheManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(VoiceStateCacheManager.class);
 
-    public final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentSkipListSet<String>>> guildVoiceChannelMembers;
+    private final ConcurrentLongObjectMap<GuildVoiceStates> guildVoiceStates;
 
     public VoiceStateCacheManager() {
-        this.guildVoiceChannelMembers = new ConcurrentHashMap<>();
+        this.guildVoiceStates = new ConcurrentLongObjectMap<>();
         LOGGER.info("VoiceStateCacheManager: Cache de estados de voz inicializado.");
     }
 
+    private GuildVoiceStates statesOf(long guildId) {
+        return guildVoiceStates.computeIfAbsent(guildId, k -> new GuildVoiceStates());
+    }
+
     /**
      * Populates the cache with voice states from a GUILD_CREATE event.
      * This is called on bot startup for each guild.
      */
     public void onGuildCreate(GuildCreateEvent event) {
-        String guildId = event.getGuild().getId();
+        long guildId = event.getGuild().getIdLong();
         LOGGER.info("VoiceStateCacheManager: Recebido GuildCreateEvent para Guild {}. Populando cache...", guildId);
 
-        ConcurrentHashMap<String, ConcurrentSkipListSet<String>> guildChannelsMap =
-                guildVoiceChannelMembers.computeIfAbsent(guildId, k -> new ConcurrentHashMap<>());
-
-        guildChannelsMap.clear();
-
-        event.getGuild().getVoiceStates().forEach(voiceState -> {
-            String channelId = voiceState.getChannelId();
-            String userId = voiceState.getUserId();
-            if (channelId != null && userId != null) {
-                guildChannelsMap.computeIfAbsent(channelId, k -> new ConcurrentSkipListSet<>()).add(userId);
-                LOGGER.debug("Cache (init): Usuário {} adicionado ao canal {}.", userId, channelId);
-            }
-        });
-        LOGGER.info("VoiceStateCacheManager: Cache populado para Guild {}. Total de canais de voz rastreados: {}", guildId, guildChannelsMap.size());
+        GuildVoiceStates states = statesOf(guildId);
+        synchronized (states) {
+            states.clear();
+            states.live = true;
+            event.getGuild().getVoiceStates().forEach(voiceState -> {
+                CachedVoiceState cached = CachedVoiceState.of(guildId, voiceState);
+                if (cached.channelId() != Snowflake.NONE && cached.userId() != Snowflake.NONE) {
+                    states.update(cached.userId(), cached);
+                    LOGGER.debug("Cache (init): Usuário {} adicionado ao canal {}.", cached.userId(), cached.channelId());
+                }
+            });
+            LOGGER.info("VoiceStateCacheManager: Cache populado para Guild {}. Total de canais de voz rastreados: {}", guildId, states.channelCount());
+        }
     }
 
     /**
      * Updates the cache based on a VOICE_STATE_UPDATE event.
      */
     public void onVoiceStateUpdate(VoiceStateUpdateEvent event) {
-        String guildId = event.getGuildId();
-        String userId = event.getUserId();
-        String newChannelId = event.getChannelId();
+        long guildId = Snowflake.parse(event.getGuildId());
+        long userId = Snowflake.parse(event.getUserId());
+        long newChannelId = Snowflake.parse(event.getChannelId());
 
-        if (guildId == null || userId == null) return;
+        if (guildId == Snowflake.NONE || userId == Snowflake.NONE) return;
 
-        ConcurrentHashMap<String, ConcurrentSkipListSet<String>> guildChannelsMap =
-                guildVoiceChannelMembers.computeIfAbsent(guildId, k -> new ConcurrentHashMap<>());
+        CachedVoiceState newState = newChannelId == Snowflake.NONE ? null
+                : CachedVoiceState.of(guildId, userId, newChannelId, event);
+        CachedVoiceState previous = statesOf(guildId).update(userId, newState);
 
-        guildChannelsMap.forEach((channelIdInMap, usersInChannel) -> {
-            if (usersInChannel.remove(userId)) {
-                LOGGER.debug("Cache (update): Usuário {} removido do canal antigo {}.", userId, channelIdInMap);
-                if (usersInChannel.isEmpty()) {
-                    guildChannelsMap.remove(channelIdInMap);
-                    LOGGER.debug("Cache (update): Canal antigo {} agora está vazio e foi removido do cache.", channelIdInMap);
-                }
+        if (LOGGER.isDebugEnabled()) {
+            long oldChannelId = previous == null ? Snowflake.NONE : previous.channelId();
+            if (oldChannelId != newChannelId) {
+                LOGGER.debug("Cache (update): Usuário {} movido do canal {} para {}.", userId, oldChannelId, newChannelId);
             }
-        });
-
-        if (newChannelId != null) {
-            guildChannelsMap.computeIfAbsent(newChannelId, k -> new ConcurrentSkipListSet<>()).add(userId);
-            LOGGER.debug("Cache (update): Usuário {} adicionado ao novo canal {}.", userId, newChannelId);
         }
     }
 
+    /**
+     * @return O estado de voz do usuário na guild, ou null se ele não estiver em nenhum canal.
+     */
+    @Nullable
+    public CachedVoiceState getVoiceState(long guildId, long userId) {
+        GuildVoiceStates states = guildVoiceStates.get(guildId);
+        return states == null ? null : states.get(userId);
+    }
+
+    /**
+     * @return O snapshot imutável dos membros do canal; vazio se o canal não tem ninguém.
+     */
+    public VoiceChannelSnapshot getVoiceChannel(long guildId, long channelId) {
+        GuildVoiceStates states = guildVoiceStates.get(guildId);
+        return states == null ? VoiceChannelSnapshot.EMPTY : states.channel(channelId);
+    }
+
+    /**
+     * @return Os IDs dos membros no canal; o array é uma cópia e pode ser usado livremente.
+     */
+    public long[] getMemberIdsInVoiceChannel(long guildId, long channelId) {
+        return getVoiceChannel(guildId, channelId).toArray();
+    }
+
     public Set<String> getMembersInVoiceChannel(String guildId, String channelId) {
-        return Optional.ofNullable(guildVoiceChannelMembers.get(guildId))
-                .map(channels -> channels.get(channelId))
-                .orElse(new ConcurrentSkipListSet<>());
+        VoiceChannelSnapshot snapshot = getVoiceChannel(Snowflake.parse(guildId), Snowflake.parse(channelId));
+        if (snapshot.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> members = new HashSet<>(snapshot.size() * 2);
+        for (int i = 0; i < snapshot.size(); i++) {
+            members.add(Snowflake.toString(snapshot.getMemberId(i)));
+        }
+        return Collections.unmodifiableSet(members);
     }
 
-    public boolean isVoiceChannelEmpty(String guildId, String channelId) {
-        Set<String> membersInChannel = getMembersInVoiceChannel(guildId, channelId);
+    public boolean isVoiceChannelEmpty(long guildId, long channelId) {
+        int memberCount = getVoiceChannel(guildId, channelId).size();
         LOGGER.debug("isVoiceChannelEmpty check: Canal {} na guild {} tem {} membros no cache. Vazio? {}",
-                channelId, guildId, membersInChannel.size(), membersInChannel.isEmpty());
-        return membersInChannel.isEmpty();
+                channelId, guildId, memberCount, memberCount == 0);
+        return memberCount == 0;
+    }
+
+    public boolean isVoiceChannelEmpty(String guildId, String channelId) {
+        return isVoiceChannelEmpty(Snowflake.parse(guildId), Snowflake.parse(channelId));
+    }
+
+    /**
+     * @return O canal de voz do usuário, ou {@link Snowflake#NONE} se ele não estiver em nenhum.
+     */
+    public long getUserVoiceChannelId(long guildId, long userId) {
+        CachedVoiceState state = getVoiceState(guildId, userId);
+        return state == null ? Snowflake.NONE : state.channelId();
     }
 
     public String getUserVoiceChannelId(String guildId, String userId) {
-        return Optional.ofNullable(guildVoiceChannelMembers.get(guildId))
-                .flatMap(channels -> {
-                    for (Map.Entry<String, ConcurrentSkipListSet<String>> entry : channels.entrySet()) {
-                        if (entry.getValue().contains(userId)) {
-                            return Optional.of(entry.getKey());
-                        }
-                    }
-                    return Optional.empty();
-                })
-                .orElse(null);
+        return Snowflake.toString(getUserVoiceChannelId(Snowflake.parse(guildId), Snowflake.parse(userId)));
+    }
+
+    /**
+     * Preenche uma guild com estados lidos de um snapshot em disco. Guilds que já receberam
+     * GUILD_CREATE são ignoradas: o estado do gateway sempre vence o snapshot.
+     *
+     * @return true se os estados foram aplicados.
+     */
+    boolean restore(long guildId, List<CachedVoiceState> states) {
+        GuildVoiceStates guild = statesOf(guildId);
+        synchronized (guild) {
+            if (guild.live) {
+                return false;
+            }
+            guild.clear();
+            for (CachedVoiceState state : states) {
+                guild.update(state.userId(), state);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Copia os estados das guilds confirmadas pelo gateway. Guilds que só vieram de um snapshot
+     * anterior ficam de fora, para que um estado velho não seja regravado indefinidamente.
+     */
+    void forEachLiveGuild(BiConsumer<Long, List<CachedVoiceState>> consumer) {
+        for (long guildId : guildVoiceStates.keys()) {
+            GuildVoiceStates states = guildVoiceStates.get(guildId);
+            if (states == null) continue;
+            List<CachedVoiceState> copy;
+            synchronized (states) {
+                if (!states.live) continue;
+                copy = states.states();
+            }
+            consumer.accept(guildId, copy);
+        }
+    }
+
+    /**
+     * Estados de voz de uma guild: usuário -> estado e canal -> snapshot dos membros.
+     * Os dois índices mudam juntos sob o lock da guild, então nunca discordam entre si.
+     */
+    private static final class GuildVoiceStates {
+        private final LongObjectHashMap<CachedVoiceState> byUser = new LongObjectHashMap<>();
+        private final LongObjectHashMap<VoiceChannelSnapshot> byChannel = new LongObjectHashMap<>();
+        /**
+         * false enquanto a guild só tem dados de snapshot; vira true no primeiro GUILD_CREATE.
+         */
+        private boolean live;
+
+        synchronized void clear() {
+            byUser.clear();
+            byChannel.clear();
+        }
+
+        /**
+         * Grava o novo estado do usuário (null quando ele saiu da voz) e move-o entre os canais.
+         *
+         * @return O estado anterior, ou null.
+         */
+        synchronized CachedVoiceState update(long userId, @Nullable CachedVoiceState newState) {
+            CachedVoiceState previous = newState == null ? byUser.remove(userId) : byUser.put(userId, newState);
+            long oldChannelId = previous == null ? Snowflake.NONE : previous.channelId();
+            long newChannelId = newState == null ? Snowflake.NONE : newState.channelId();
+            if (oldChannelId == newChannelId) {
+                return previous;
+            }
+            if (oldChannelId != Snowflake.NONE) {
+                VoiceChannelSnapshot remaining = channel(oldChannelId).without(userId);
+                if (remaining.isEmpty()) {
+                    byChannel.remove(oldChannelId);
+                } else {
+                    byChannel.put(oldChannelId, remaining);
+                }
+            }
+            if (newChannelId != Snowflake.NONE) {
+                byChannel.put(newChannelId, channel(newChannelId).with(userId));
+            }
+            return previous;
+        }
+
+        synchronized CachedVoiceState get(long userId) {
+            return byUser.get(userId);
+        }
+
+        synchronized VoiceChannelSnapshot channel(long channelId) {
+            VoiceChannelSnapshot snapshot = byChannel.get(channelId);
+            return snapshot == null ? VoiceChannelSnapshot.EMPTY : snapshot;
+        }
+
+        synchronized List<CachedVoiceState> states() {
+            return byUser.values();
+        }
+
+        synchronized int channelCount() {
+            return byChannel.size();
+        }
     }
-}
\ No newline at end of file
+}
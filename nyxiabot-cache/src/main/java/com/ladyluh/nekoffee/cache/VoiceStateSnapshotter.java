@@ -0,0 +1,234 @@
+package com.ladyluh.nekoffee.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Grava e lê snapshots binários do {@link VoiceStateCacheManager} em arquivos mapeados em memória.
+ * <p>
+ * Carregado antes do login, o snapshot cobre a janela em que as guilds ainda não mandaram GUILD_CREATE;
+ * cada GUILD_CREATE substitui os dados restaurados da guild. Formato (big-endian):
+ * <pre>
+ * int magic 'NYVS' | short versão | long criadoEm (epoch ms) | int guilds
+ *   por guild:  long guildId | int estados
+ *   por estado: long channelId | long userId | int flags | short bytesSessão (-1 = null) | UTF-8
+ * int CRC32 de tudo que vem antes
+ * </pre>
+ * A escrita vai para um arquivo temporário que substitui o anterior com um move atômico,
+ * então uma queda no meio da gravação nunca deixa um snapshot pela metade.
+ */
+public class VoiceStateSnapshotter implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VoiceStateSnapshotter.class);
+
+    private static final int MAGIC = 0x4E595653;
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int GUILD_HEADER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int STATE_FIXED_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES + Short.BYTES;
+
+    private final VoiceStateCacheManager cacheManager;
+    private final Path path;
+    private final Duration maxAge;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param maxAge Snapshots mais antigos que isso são ignorados na carga; depois de muito tempo
+     *               fora do ar, ninguém mais está nos canais em que estava.
+     */
+    public VoiceStateSnapshotter(VoiceStateCacheManager cacheManager, Path path, Duration maxAge) {
+        this.cacheManager = cacheManager;
+        this.path = path;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Restaura o snapshot, se existir, for íntegro e recente. Falhas só geram log: o gateway repopula tudo.
+     *
+     * @return Quantidade de guilds restauradas.
+     */
+    public int load() {
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + Integer.BYTES || size > Integer.MAX_VALUE) {
+                LOGGER.warn("Snapshot de voz {} com tamanho inválido ({} bytes). Ignorando.", path, size);
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int bodySize = (int) size - Integer.BYTES;
+            if (checksum(buffer, bodySize) != buffer.getInt(bodySize)) {
+                LOGGER.warn("Snapshot de voz {} corrompido (CRC não confere). Ignorando.", path);
+                return 0;
+            }
+            buffer.limit(bodySize);
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                LOGGER.warn("Snapshot de voz {} em formato desconhecido. Ignorando.", path);
+                return 0;
+            }
+            long ageMillis = System.currentTimeMillis() - buffer.getLong();
+            if (ageMillis > maxAge.toMillis()) {
+                LOGGER.info("Snapshot de voz {} tem {}s, mais que o limite de {}s. Ignorando.",
+                        path, ageMillis / 1000, maxAge.toSeconds());
+                return 0;
+            }
+            return readGuilds(buffer);
+        } catch (IOException | BufferUnderflowException e) {
+            LOGGER.warn("Falha ao ler o snapshot de voz {}. Ignorando.", path, e);
+            return 0;
+        }
+    }
+
+    private int readGuilds(ByteBuffer buffer) {
+        int guildCount = buffer.getInt();
+        int restored = 0;
+        int stateTotal = 0;
+        for (int g = 0; g < guildCount; g++) {
+            long guildId = buffer.getLong();
+            int stateCount = buffer.getInt();
+            List<CachedVoiceState> states = new ArrayList<>(stateCount);
+            for (int i = 0; i < stateCount; i++) {
+                long channelId = buffer.getLong();
+                long userId = buffer.getLong();
+                int flags = buffer.getInt();
+                String sessionId = readString(buffer);
+                states.add(new CachedVoiceState(guildId, channelId, userId, sessionId, flags));
+            }
+            if (cacheManager.restore(guildId, states)) {
+                restored++;
+                stateTotal += stateCount;
+            }
+        }
+        LOGGER.info("Snapshot de voz carregado de {}: {} guilds, {} estados.", path, restored, stateTotal);
+        return restored;
+    }
+
+    /**
+     * Grava o estado atual das guilds já confirmadas pelo gateway.
+     */
+    public synchronized void write() throws IOException {
+        List<Long> guildIds = new ArrayList<>();
+        List<List<CachedVoiceState>> guildStates = new ArrayList<>();
+        List<byte[]> sessionIds = new ArrayList<>();
+        long size = HEADER_SIZE + Integer.BYTES;
+        cacheManager.forEachLiveGuild((guildId, states) -> {
+            guildIds.add(guildId);
+            guildStates.add(states);
+        });
+        for (List<CachedVoiceState> states : guildStates) {
+            size += GUILD_HEADER_SIZE + (long) states.size() * STATE_FIXED_SIZE;
+            for (CachedVoiceState state : states) {
+                byte[] sessionId = state.sessionId() == null ? null : state.sessionId().getBytes(StandardCharsets.UTF_8);
+                sessionIds.add(sessionId);
+                if (sessionId != null) size += sessionId.length;
+            }
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot de voz grande demais: " + size + " bytes");
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putShort(VERSION).putLong(System.currentTimeMillis()).putInt(guildIds.size());
+            int session = 0;
+            for (int g = 0; g < guildIds.size(); g++) {
+                List<CachedVoiceState> states = guildStates.get(g);
+                buffer.putLong(guildIds.get(g)).putInt(states.size());
+                for (CachedVoiceState state : states) {
+                    buffer.putLong(state.channelId()).putLong(state.userId()).putInt(state.flags());
+                    writeString(buffer, sessionIds.get(session++));
+                }
+            }
+            int bodySize = buffer.position();
+            buffer.putInt(checksum(buffer, bodySize));
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.debug("Snapshot de voz gravado em {}: {} guilds, {} bytes.", path, guildIds.size(), size);
+    }
+
+    /**
+     * Grava um snapshot a cada {@code period} numa thread própria.
+     */
+    public synchronized void schedule(Duration period) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Nekoffee-Voice-Snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodMillis = period.toMillis();
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                write();
+            } catch (Exception e) {
+                LOGGER.error("Falha ao gravar o snapshot de voz em {}", path, e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Para a gravação periódica e grava um último snapshot.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        }
+        try {
+            write();
+        } catch (IOException e) {
+            LOGGER.error("Falha ao gravar o snapshot de voz final em {}", path, e);
+        }
+    }
+
+    private static int checksum(ByteBuffer buffer, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, length));
+        return (int) crc.getValue();
+    }
+
+    private static void writeString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) value.length).put(value);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,5 +1,6 @@
 package com.ladyluh.nekoffee.commands;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -14,5 +15,13 @@ public interface Command {
 
     boolean isGuildOnly();
 
+    /**
+     * Intervalo mínimo entre duas execuções do comando pelo mesmo usuário; {@link Duration#ZERO} para nenhum.
+     * Invocações dentro do intervalo são descartadas sem resposta.
+     */
+    default Duration getCooldown() {
+        return Duration.ZERO;
+    }
+
     CompletableFuture<Void> execute(CommandContext ctx);
 }
\ No newline at end of file
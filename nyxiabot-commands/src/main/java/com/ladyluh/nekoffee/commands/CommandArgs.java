@@ -0,0 +1,242 @@
+package com.ladyluh.nekoffee.commands;
+
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.RandomAccess;
+
+/**
+ * Argumentos de um comando como uma visão sobre o conteúdo da mensagem. Os limites dos argumentos só são
+ * calculados no primeiro acesso (numa varredura, separando por espaços em branco) e cada argumento só vira
+ * {@link String} quando é lido.
+ * <p>
+ * Os parsers tipados ({@link #getInt}, {@link #getUserId}, {@link #getChannelId}, {@link #getRoleId} e
+ * {@link #getDuration}) retornam vazio quando o argumento não existe ou não está no formato esperado.
+ */
+public final class CommandArgs extends AbstractList<String> implements RandomAccess {
+    private static final int MAX_SNOWFLAKE_DIGITS = 20;
+
+    private final String content;
+    private final int from;
+    private volatile Tokens tokens;
+
+    /**
+     * @param from Onde os argumentos começam em {@code content} (logo depois do nome do comando).
+     */
+    CommandArgs(String content, int from) {
+        this.content = content;
+        this.from = from;
+    }
+
+    @Override
+    public String get(int index) {
+        Tokens t = tokens();
+        if (index < 0 || index >= t.count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + t.count);
+        }
+        String value = t.values[index];
+        if (value == null) {
+            value = content.substring(t.bounds[2 * index], t.bounds[2 * index + 1]);
+            t.values[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return tokens().count;
+    }
+
+    /**
+     * O texto original do argumento {@code index} até o fim, com os espaços de dentro preservados.
+     * Vazio quando não há argumento nessa posição.
+     */
+    public String getRest(int index) {
+        Tokens t = tokens();
+        if (index < 0 || index >= t.count) {
+            return "";
+        }
+        return content.substring(t.bounds[2 * index], t.bounds[2 * t.count - 1]);
+    }
+
+    public OptionalInt getInt(int index) {
+        return index < size() ? parseInt(get(index)) : OptionalInt.empty();
+    }
+
+    /**
+     * ID de uma menção de usuário ({@code <@id>} ou {@code <@!id>}).
+     */
+    public Optional<String> getUserId(int index) {
+        return index < size() ? parseUserMention(get(index)) : Optional.empty();
+    }
+
+    /**
+     * ID de uma menção de canal ({@code <#id>}).
+     */
+    public Optional<String> getChannelId(int index) {
+        return index < size() ? parseChannelMention(get(index)) : Optional.empty();
+    }
+
+    /**
+     * ID de uma menção de cargo ({@code <@&id>}).
+     */
+    public Optional<String> getRoleId(int index) {
+        return index < size() ? parseRoleMention(get(index)) : Optional.empty();
+    }
+
+    /**
+     * Duração no formato {@code 30s}, {@code 5m}, {@code 1h30m}, {@code 2d} ou {@code 1w}.
+     */
+    public Optional<Duration> getDuration(int index) {
+        return index < size() ? parseDuration(get(index)) : Optional.empty();
+    }
+
+    /**
+     * Inteiro decimal com sinal opcional, sem estourar {@code int}.
+     */
+    public static OptionalInt parseInt(String value) {
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i = 1;
+        }
+        if (i == length) {
+            return OptionalInt.empty();
+        }
+        long result = 0;
+        for (; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return OptionalInt.empty();
+            }
+            result = result * 10 + digit;
+            if (result > (long) Integer.MAX_VALUE + 1) {
+                return OptionalInt.empty();
+            }
+        }
+        result = negative ? -result : result;
+        return result > Integer.MAX_VALUE ? OptionalInt.empty() : OptionalInt.of((int) result);
+    }
+
+    public static Optional<String> parseUserMention(String value) {
+        if (!value.startsWith("<@")) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(mentionId(value, value.startsWith("<@!") ? 3 : 2));
+    }
+
+    public static Optional<String> parseChannelMention(String value) {
+        return value.startsWith("<#") ? Optional.ofNullable(mentionId(value, 2)) : Optional.empty();
+    }
+
+    public static Optional<String> parseRoleMention(String value) {
+        return value.startsWith("<@&") ? Optional.ofNullable(mentionId(value, 3)) : Optional.empty();
+    }
+
+    public static Optional<Duration> parseDuration(String value) {
+        int length = value.length();
+        if (length == 0) {
+            return Optional.empty();
+        }
+        long totalSeconds = 0;
+        long amount = 0;
+        boolean hasDigits = false;
+        try {
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    amount = Math.addExact(Math.multiplyExact(amount, 10), c - '0');
+                    hasDigits = true;
+                    continue;
+                }
+                long unitSeconds = switch (Character.toLowerCase(c)) {
+                    case 's' -> 1;
+                    case 'm' -> 60;
+                    case 'h' -> 3600;
+                    case 'd' -> 86_400;
+                    case 'w' -> 604_800;
+                    default -> 0;
+                };
+                if (unitSeconds == 0 || !hasDigits) {
+                    return Optional.empty();
+                }
+                totalSeconds = Math.addExact(totalSeconds, Math.multiplyExact(amount, unitSeconds));
+                amount = 0;
+                hasDigits = false;
+            }
+        } catch (ArithmeticException e) {
+            return Optional.empty();
+        }
+        // Número sem unidade no final é ambíguo.
+        return hasDigits ? Optional.empty() : Optional.of(Duration.ofSeconds(totalSeconds));
+    }
+
+    /**
+     * Os dígitos entre {@code idStart} e o {@code >} final, ou null se não for só isso.
+     */
+    private static String mentionId(String value, int idStart) {
+        int end = value.length() - 1;
+        if (end <= idStart || end - idStart > MAX_SNOWFLAKE_DIGITS || value.charAt(end) != '>') {
+            return null;
+        }
+        for (int i = idStart; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+        }
+        return value.substring(idStart, end);
+    }
+
+    private Tokens tokens() {
+        Tokens t = tokens;
+        if (t == null) {
+            t = tokenize();
+            tokens = t;
+        }
+        return t;
+    }
+
+    private Tokens tokenize() {
+        int[] bounds = new int[8];
+        int count = 0;
+        int length = content.length();
+        int i = from;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(content.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                break;
+            }
+            int start = i;
+            while (i < length && !Character.isWhitespace(content.charAt(i))) {
+                i++;
+            }
+            if (2 * count + 2 > bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[2 * count] = start;
+            bounds[2 * count + 1] = i;
+            count++;
+        }
+        return new Tokens(bounds, count);
+    }
+
+    private static final class Tokens {
+        private final int[] bounds;
+        private final int count;
+        // Corrida benigna: no pior caso duas threads criam a mesma substring.
+        private final String[] values;
+
+        private Tokens(int[] bounds, int count) {
+            this.bounds = bounds;
+            this.count = count;
+            this.values = new String[count];
+        }
+    }
+}
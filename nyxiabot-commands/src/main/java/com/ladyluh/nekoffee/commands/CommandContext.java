@@ -1,13 +1,15 @@
 package com.ladyluh.nekoffee.commands;
 
 import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.entities.Member;
 import com.ladyluh.nekoffee.api.entities.User;
+import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.api.payload.permission.PermissionResolver;
 import com.ladyluh.nekoffee.cache.VoiceStateCacheManager;
 import com.ladyluh.nekoffee.config.ConfigManager;
 import com.ladyluh.nekoffee.database.DatabaseManager;
 import com.ladyluh.nekoffee.model.gateway.MessageCreateEvent;
 
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public class CommandContext {
@@ -16,10 +18,10 @@ public class CommandContext {
     private final DatabaseManager dbManager;
     private final VoiceStateCacheManager voiceStateCacheManager;
     private final MessageCreateEvent event;
-    private final List<String> args;
+    private final CommandArgs args;
     private final String commandName;
 
-    public CommandContext(NekoffeeClient client, ConfigManager config, DatabaseManager dbManager, VoiceStateCacheManager voiceStateCacheManager, MessageCreateEvent event, String commandName, List<String> args) {
+    public CommandContext(NekoffeeClient client, ConfigManager config, DatabaseManager dbManager, VoiceStateCacheManager voiceStateCacheManager, MessageCreateEvent event, String commandName, CommandArgs args) {
         this.client = client;
         this.config = config;
         this.dbManager = dbManager;
@@ -49,7 +51,7 @@ public class CommandContext {
         return event;
     }
 
-    public List<String> getArgs() {
+    public CommandArgs getArgs() {
         return args;
     }
 
@@ -81,4 +83,15 @@ public class CommandContext {
         return client.sendMessage(getChannelId(), message).thenAccept(m -> {
         });
     }
+
+    /**
+     * Verifica uma permissão de guild do membro. Usa o resolvedor síncrono quando os cargos estão em cache
+     * e cai para a consulta assíncrona à API quando o resultado seria {@link PermissionResolver#UNKNOWN}.
+     */
+    public CompletableFuture<Boolean> hasPermission(Member member, Permission permission) {
+        if (member.getPermissionsRaw(null) == PermissionResolver.UNKNOWN) {
+            return member.hasPermission(permission);
+        }
+        return CompletableFuture.completedFuture(member.hasPermission(null, permission));
+    }
 }
\ No newline at end of file
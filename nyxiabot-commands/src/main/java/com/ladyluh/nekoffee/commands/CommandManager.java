@@ -1,59 +1,138 @@
 package com.ladyluh.nekoffee.commands;
 
 import com.ladyluh.nekoffee.api.NekoffeeClient;
+import com.ladyluh.nekoffee.api.util.Snowflake;
 import com.ladyluh.nekoffee.cache.VoiceStateCacheManager;
 import com.ladyluh.nekoffee.commands.impl.*;
 import com.ladyluh.nekoffee.config.ConfigManager;
 import com.ladyluh.nekoffee.database.DatabaseManager;
 import com.ladyluh.nekoffee.model.gateway.MessageCreateEvent;
 import com.ladyluh.nekoffee.services.AudioRecordingService;
+import com.ladyluh.nekoffee.services.BulkTransferService;
+import com.ladyluh.nekoffee.services.XPEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.List;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 public class CommandManager {
     public static final Logger LOGGER = LoggerFactory.getLogger(CommandManager.class);
-    private final Map<String, Command> commands = new HashMap<>();
+    public static final String COMMAND_PREFIX = "!";
+    // Balde global por usuário: rajada de 5 comandos, um a mais a cada 3 s.
+    private static final int USER_BURST = 5;
+    private static final long USER_REFILL_MILLIS = 3_000;
+    private static final int RATE_LIMIT_CAPACITY = 4096;
+    private static final int COOLDOWN_CAPACITY = 1024;
+    private final CommandTrie commands = new CommandTrie();
+    private final RateLimiter userRateLimiter = new RateLimiter(RATE_LIMIT_CAPACITY, USER_REFILL_MILLIS, USER_BURST);
+    private final Map<Command, RateLimiter> cooldowns = new IdentityHashMap<>();
     private final NekoffeeClient client;
     private final ConfigManager config;
     private final DatabaseManager dbManager;
     private final AudioRecordingService audioRecordingService;
     private final VoiceStateCacheManager voiceStateCacheManager;
+    private final XPEngine xpEngine;
+    private final BulkTransferService bulkTransferService;
 
-    public CommandManager(NekoffeeClient client, ConfigManager config, DatabaseManager dbManager, AudioRecordingService audioRecordingService, VoiceStateCacheManager voiceStateCacheManager) {
+    public CommandManager(NekoffeeClient client, ConfigManager config, DatabaseManager dbManager, AudioRecordingService audioRecordingService, VoiceStateCacheManager voiceStateCacheManager, XPEngine xpEngine, BulkTransferService bulkTransferService) {
         this.client = client;
         this.config = config;
         this.dbManager = dbManager;
         this.audioRecordingService = audioRecordingService;
         this.voiceStateCacheManager = voiceStateCacheManager;
+        this.xpEngine = xpEngine;
+        this.bulkTransferService = bulkTransferService;
         registerCommands();
     }
 
     private void registerCommands() {
         addCommand(new PingCommand());
         addCommand(new TestCommand());
-        addCommand(new XPCommand(dbManager));
+        addCommand(new XPCommand(xpEngine));
         addCommand(new TempChannelCommand(dbManager));
         addCommand(new ConfigCommand(dbManager));
         addCommand(new RecordCommand(audioRecordingService));
+        addCommand(new DataCommand(bulkTransferService));
     }
 
     private void addCommand(Command command) {
-        commands.put(command.getName().toLowerCase(), command);
+        registerName(command.getName(), command);
         for (String alias : command.getAliases()) {
-            commands.put(alias.toLowerCase(), command);
+            registerName(alias, command);
+        }
+        if (command.getCooldown().isPositive()) {
+            cooldowns.put(command, new RateLimiter(COOLDOWN_CAPACITY, command.getCooldown().toMillis(), 1));
         }
         LOGGER.info("Comando '{}' e aliases {} registrados.", command.getName(), command.getAliases());
     }
 
-    public void handleCommand(String commandName, List<String> args, MessageCreateEvent event) {
-        Command command = commands.get(commandName.toLowerCase());
+    private void registerName(String name, Command command) {
+        Command previous = commands.put(name, command);
+        if (previous != null && previous != command) {
+            LOGGER.warn("O nome '{}' do comando '{}' substituiu o do comando '{}'.", name, command.getName(), previous.getName());
+        }
+    }
+
+    /**
+     * Confere o balde global do autor e o cooldown do comando. A recusa é descartada em silêncio: não toca no
+     * banco nem na API, para o spam não custar nada além dessas operações atômicas.
+     */
+    private boolean acquire(Command command, MessageCreateEvent event) {
+        if (acquire(cooldowns.get(command), userRateLimiter, Snowflake.parse(event.getAuthor().getId()))) {
+            return true;
+        }
+        LOGGER.debug("Comando '{}' de {} descartado: em cooldown ou no limite global de comandos.", command.getName(), event.getAuthor().getId());
+        return false;
+    }
+
+    /**
+     * Os dois limites são conferidos antes de qualquer token ser gasto: uma chamada recusada por um não consome
+     * o outro, e o autor não fica preso num cooldown de um comando que nem rodou.
+     *
+     * @param cooldown O cooldown do comando, ou null se ele não tem.
+     */
+    static boolean acquire(RateLimiter cooldown, RateLimiter global, long userId) {
+        if (cooldown != null && !cooldown.canAcquire(userId)) {
+            return false;
+        }
+        if (!global.tryAcquire(userId)) {
+            return false;
+        }
+        // Só falha se outra mensagem do mesmo autor levou o cooldown entre a conferência e aqui.
+        return cooldown == null || cooldown.tryAcquire(userId);
+    }
+
+    /**
+     * Reconhece e executa o comando de uma mensagem. O prefixo e o nome são comparados direto no conteúdo,
+     * numa única passada; mensagens que não são comandos saem sem alocar nada.
+     */
+    public void handleMessage(MessageCreateEvent event) {
+        String content = event.getContentRaw();
+        if (content == null || !content.startsWith(COMMAND_PREFIX)) {
+            return;
+        }
+        int length = content.length();
+        int nameStart = COMMAND_PREFIX.length();
+        while (nameStart < length && Character.isWhitespace(content.charAt(nameStart))) {
+            nameStart++;
+        }
+        int nameEnd = nameStart;
+        while (nameEnd < length && !Character.isWhitespace(content.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == nameStart) {
+            return;
+        }
+        Command command = commands.find(content, nameStart, nameEnd);
         if (command == null) {
             return;
         }
+        if (!acquire(command, event)) {
+            return;
+        }
+        String commandName = content.substring(nameStart, nameEnd).toLowerCase();
+        CommandArgs args = new CommandArgs(content, nameEnd);
 
         if (command.isGuildOnly() && event.getMessage().getGuildId() == null) {
             client.sendMessage(event.getChannelId(), "Este comando só pode ser usado em um servidor.");
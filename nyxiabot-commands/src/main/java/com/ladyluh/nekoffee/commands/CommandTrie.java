@@ -0,0 +1,63 @@
+package com.ladyluh.nekoffee.commands;
+
+import java.util.Arrays;
+
+/**
+ * Nomes e aliases dos comandos numa trie de caracteres, comparados sem diferenciar maiúsculas direto no
+ * conteúdo da mensagem (sem recortar nem converter a string).
+ */
+final class CommandTrie {
+    private final Node root = new Node();
+
+    /**
+     * @return o comando que já usava esse nome, ou null.
+     */
+    Command put(String name, Command command) {
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            node = node.childOrCreate(Character.toLowerCase(name.charAt(i)));
+        }
+        Command previous = node.command;
+        node.command = command;
+        return previous;
+    }
+
+    /**
+     * Procura o nome que ocupa exatamente {@code content[from, to)}.
+     */
+    Command find(CharSequence content, int from, int to) {
+        Node node = root;
+        for (int i = from; i < to && node != null; i++) {
+            node = node.child(Character.toLowerCase(content.charAt(i)));
+        }
+        return node == null ? null : node.command;
+    }
+
+    private static final class Node {
+        // Poucos filhos por nó: busca linear em arrays paralelos é mais barata que um mapa.
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private Command command;
+
+        Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.ladyluh.nekoffee.commands;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limite de taxa por chave (ID de usuário) sem locks: um balde de tokens no formato GCRA, em que o estado de
+ * cada chave é um único {@code long} (o instante teórico em que o balde volta a ficar cheio) atualizado por CAS.
+ * <p>
+ * As chaves ficam numa tabela de tamanho fixo, com endereçamento aberto em poucas posições. Cada célula guarda
+ * uma etiqueta da chave junto com o instante, e a célula expira sozinha quando esse instante passa: a partir
+ * daí qualquer outra chave pode tomá-la, sem varredura nem thread de limpeza. Se todas as posições de uma chave
+ * estiverem ocupadas por chaves ativas, a chamada é liberada (nunca bloqueia por falta de espaço). Duas chaves
+ * com a mesma etiqueta nas mesmas posições dividem o balde; com 23 bits de etiqueta isso é raro e só aperta o limite.
+ */
+final class RateLimiter {
+    private static final int PROBES = 4;
+    private static final int TAG_SHIFT = 40;
+    private static final long TIME_MASK = (1L << TAG_SHIFT) - 1;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private final long intervalMillis;
+    private final long burstToleranceMillis;
+    private final long epochNanos = System.nanoTime();
+
+    /**
+     * @param capacity       Células da tabela (arredondado para potência de dois).
+     * @param intervalMillis Tempo para repor um token.
+     * @param burst          Tokens do balde cheio; 1 faz do limitador um simples cooldown.
+     */
+    RateLimiter(int capacity, long intervalMillis, int burst) {
+        if (intervalMillis <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("intervalMillis and burst must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(PROBES, capacity - 1) << 1);
+        this.cells = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.intervalMillis = intervalMillis;
+        this.burstToleranceMillis = (burst - 1) * intervalMillis;
+    }
+
+    /**
+     * Consome um token da chave.
+     *
+     * @return false se o balde da chave está vazio (nada é consumido nesse caso).
+     */
+    boolean tryAcquire(long key) {
+        long h = hash(key);
+        int index = indexOf(h);
+        long tag = tagOf(h);
+        while (true) {
+            long now = now();
+            int slot = findSlot(index, tag, now);
+            if (slot < 0) {
+                return true;
+            }
+            long cell = cells.get(slot);
+            boolean own = cell >>> TAG_SHIFT == tag;
+            if (!own && (cell & TIME_MASK) > now) {
+                // Outra chave tomou a célula entre a busca e a leitura.
+                continue;
+            }
+            long tat = own ? Math.max(cell & TIME_MASK, now) : now;
+            if (tat - now > burstToleranceMillis) {
+                return false;
+            }
+            if (cells.compareAndSet(slot, cell, (tag << TAG_SHIFT) | (tat + intervalMillis))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Diz se {@link #tryAcquire(long)} passaria agora, sem consumir nada. Serve para conferir vários limitadores
+     * antes de gastar o token de qualquer um; uma chamada concorrente da mesma chave ainda pode vencer no meio.
+     */
+    boolean canAcquire(long key) {
+        long h = hash(key);
+        long tag = tagOf(h);
+        long now = now();
+        int slot = findSlot(indexOf(h), tag, now);
+        if (slot < 0) {
+            return true;
+        }
+        long cell = cells.get(slot);
+        return cell >>> TAG_SHIFT != tag || (cell & TIME_MASK) - now <= burstToleranceMillis;
+    }
+
+    private static long hash(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int indexOf(long hash) {
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Etiqueta de 24 bits nunca zero, para a célula vazia (0) não casar com nenhuma chave.
+     */
+    private static long tagOf(long hash) {
+        return (hash >>> TAG_SHIFT) | 1;
+    }
+
+    /**
+     * Agora em ms, sempre > 0, para o instante 0 das células vazias já estar no passado.
+     */
+    private long now() {
+        return (System.nanoTime() - epochNanos) / 1_000_000 + 1;
+    }
+
+    /**
+     * A célula da própria chave, se existir; senão a primeira livre ou expirada; -1 se nenhuma serve.
+     */
+    private int findSlot(int index, long tag, long now) {
+        int free = -1;
+        for (int p = 0; p < PROBES; p++) {
+            int slot = (index + p) & mask;
+            long cell = cells.get(slot);
+            if (cell >>> TAG_SHIFT == tag) {
+                return slot;
+            }
+            if (free < 0 && (cell & TIME_MASK) <= now) {
+                free = slot;
+            }
+        }
+        return free;
+    }
+}
@@ -4,6 +4,7 @@ import com.ladyluh.nekoffee.api.payload.permission.Permission;
 import com.ladyluh.nekoffee.builder.EmbedBuilder;
 import com.ladyluh.nekoffee.builder.MessageBuilder;
 import com.ladyluh.nekoffee.commands.Command;
+import com.ladyluh.nekoffee.commands.CommandArgs;
 import com.ladyluh.nekoffee.commands.CommandContext;
 import com.ladyluh.nekoffee.database.DatabaseManager;
 import com.ladyluh.nekoffee.database.GuildConfig;
@@ -14,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.awt.Color;
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -54,6 +56,11 @@ public class ConfigCommand implements Command {
         return true;
     }
 
+    @Override
+    public Duration getCooldown() {
+        return Duration.ofSeconds(2);
+    }
+
     public CompletableFuture<Void> execute(CommandContext ctx) {
         String guildId = ctx.getGuildId();
         if (guildId == null) {
@@ -65,24 +72,23 @@ public class ConfigCommand implements Command {
                     if (member == null) {
                         return ctx.reply("Não consegui verificar suas permissões neste servidor.");
                     }
-                    return member.hasPermission(Permission.ADMINISTRATOR)
-                            .thenCompose(hasAdminPerm -> { 
-                                if (!hasAdminPerm) {
-                                    return ctx.reply("Você não tem permissão para usar este comando. (Requer permissão de ADMINISTRADOR)");
-                                }
-
-                                if (ctx.getArgs().isEmpty()) {
-                                    return showHelp(ctx);
-                                }
-                                String subCommand = ctx.getArgs().getFirst().toLowerCase();
-                                List<String> cmdArgs = ctx.getArgs().subList(1, ctx.getArgs().size());
-
-                                return switch (subCommand) {
-                                    case "show" -> showConfig(ctx, cmdArgs);
-                                    case "set" -> setConfig(ctx, cmdArgs);
-                                    default -> showHelp(ctx);
-                                };
-                            });
+                    return ctx.hasPermission(member, Permission.ADMINISTRATOR).thenCompose(allowed -> {
+                        if (!allowed) {
+                            return ctx.reply("Você não tem permissão para usar este comando. (Requer permissão de ADMINISTRADOR)");
+                        }
+
+                        if (ctx.getArgs().isEmpty()) {
+                            return showHelp(ctx);
+                        }
+                        String subCommand = ctx.getArgs().getFirst().toLowerCase();
+                        List<String> cmdArgs = ctx.getArgs().subList(1, ctx.getArgs().size());
+
+                        return switch (subCommand) {
+                            case "show" -> showConfig(ctx, cmdArgs);
+                            case "set" -> setConfig(ctx, cmdArgs);
+                            default -> showHelp(ctx);
+                        };
+                    });
                 });
     }
 
@@ -215,14 +221,10 @@ public class ConfigCommand implements Command {
         Class<?> fieldType = targetField.getType();
 
 
-        String processedValue = rawValue;
-        if (rawValue.matches("<#[0-9]+>")) {
-            processedValue = rawValue.substring(2, rawValue.length() - 1);
-        } else if (rawValue.matches("<@&[0-9]+>")) {
-            processedValue = rawValue.substring(3, rawValue.length() - 1);
-        } else if (rawValue.matches("<@!?[0-9]+>")) {
-            processedValue = rawValue.replaceAll("[<@!>]", "").replaceAll(">", "");
-        }
+        String processedValue = CommandArgs.parseChannelMention(rawValue)
+                .or(() -> CommandArgs.parseRoleMention(rawValue))
+                .or(() -> CommandArgs.parseUserMention(rawValue))
+                .orElse(rawValue);
 
 
         if (processedValue.isEmpty() || processedValue.equalsIgnoreCase("null")) {
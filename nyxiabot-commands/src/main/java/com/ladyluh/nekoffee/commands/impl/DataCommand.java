@@ -0,0 +1,218 @@
+package com.ladyluh.nekoffee.commands.impl;
+
+import com.ladyluh.nekoffee.api.payload.permission.Permission;
+import com.ladyluh.nekoffee.commands.Command;
+import com.ladyluh.nekoffee.commands.CommandContext;
+import com.ladyluh.nekoffee.json.util.JsonTextWriter;
+import com.ladyluh.nekoffee.services.BulkDataset;
+import com.ladyluh.nekoffee.services.BulkFormat;
+import com.ladyluh.nekoffee.services.BulkResult;
+import com.ladyluh.nekoffee.services.BulkTransferService;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Importação e exportação em massa dos dados do servidor. Os arquivos ficam no disco do bot:
+ * a importação lê da pasta do servidor, {@code data/imports/<id do servidor>/}, e a exportação escreve em
+ * {@code data/exports/} e anexa o arquivo na resposta quando ele cabe no limite de upload. Exportações
+ * anexadas são apagadas em seguida; as grandes demais ficam por {@link #EXPORT_RETENTION}.
+ */
+public class DataCommand implements Command {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataCommand.class);
+    private static final Path IMPORT_DIR = Path.of("data", "imports");
+    private static final Path EXPORT_DIR = Path.of("data", "exports");
+    private static final long MAX_UPLOAD_BYTES = 8L * 1024 * 1024;
+    private static final Duration EXPORT_RETENTION = Duration.ofHours(24);
+    private static final long PROGRESS_REPORT_MILLIS = 15_000;
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final BulkTransferService bulkTransferService;
+
+    public DataCommand(BulkTransferService bulkTransferService) {
+        this.bulkTransferService = bulkTransferService;
+    }
+
+    @Override
+    public String getName() {
+        return "dados";
+    }
+
+    @Override
+    public List<String> getAliases() {
+        return List.of("data");
+    }
+
+    @Override
+    public String getDescription() {
+        return "Importa ou exporta em massa o XP, a configuração e as preferências do servidor (CSV ou NDJSON).";
+    }
+
+    @Override
+    public String getUsage() {
+        return "dados <exportar <xp/config/preferencias> [csv/ndjson] | importar <xp/config/preferencias> <arquivo>>";
+    }
+
+    @Override
+    public boolean isGuildOnly() {
+        return true;
+    }
+
+    @Override
+    public Duration getCooldown() {
+        return Duration.ofSeconds(30);
+    }
+
+    @Override
+    public CompletableFuture<Void> execute(CommandContext ctx) {
+        return ctx.getClient().getGuildMember(ctx.getGuildId(), ctx.getAuthor().getId())
+                .thenCompose(member -> {
+                    if (member == null) {
+                        return ctx.reply("Não consegui verificar suas permissões neste servidor.");
+                    }
+                    return ctx.hasPermission(member, Permission.ADMINISTRATOR).thenCompose(allowed -> {
+                        if (!allowed) {
+                            return ctx.reply("Você não tem permissão para usar este comando. (Requer permissão de ADMINISTRADOR)");
+                        }
+                        List<String> args = ctx.getArgs();
+                        if (args.size() < 2) {
+                            return ctx.reply("Uso: `!" + getUsage() + "`");
+                        }
+                        BulkDataset dataset = BulkDataset.fromName(args.get(1)).orElse(null);
+                        if (dataset == null) {
+                            return ctx.reply("Dados desconhecidos: `" + args.get(1) + "`. Use `xp`, `config` ou `preferencias`.");
+                        }
+                        return switch (args.getFirst().toLowerCase()) {
+                            case "exportar", "export" -> handleExport(ctx, dataset, args.size() > 2 ? args.get(2) : "csv");
+                            case "importar", "import" -> args.size() > 2
+                                    ? handleImport(ctx, dataset, args.get(2))
+                                    : ctx.reply("Informe o arquivo em `data/imports/" + ctx.getGuildId() + "/`: `!dados importar "
+                                    + dataset.getName() + " <arquivo>`");
+                            default -> ctx.reply("Uso: `!" + getUsage() + "`");
+                        };
+                    });
+                });
+    }
+
+    private CompletableFuture<Void> handleExport(CommandContext ctx, BulkDataset dataset, String formatName) {
+        BulkFormat format = BulkFormat.fromName(formatName).orElse(null);
+        if (format == null) {
+            return ctx.reply("Formato desconhecido: `" + formatName + "`. Use `csv` ou `ndjson`.");
+        }
+        String fileName = ctx.getGuildId() + "-" + dataset.getName() + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + "." + format.getExtension();
+        Path file = EXPORT_DIR.resolve(fileName);
+        pruneExports();
+        return ctx.reply("📤 Exportando `" + dataset.getName() + "`...")
+                .thenCompose(v -> bulkTransferService.exportGuild(dataset, ctx.getGuildId(), format, file, progressReporter(ctx, "exportadas")))
+                .thenCompose(result -> sendExport(ctx, result));
+    }
+
+    private CompletableFuture<Void> sendExport(CommandContext ctx, BulkResult result) {
+        String summary = "✅ Exportação concluída: " + result.rows() + " linhas.";
+        String kept = summary + " O arquivo fica em `" + result.file() + "` por " + EXPORT_RETENTION.toHours() + " horas";
+        long size;
+        try {
+            size = Files.size(result.file());
+        } catch (IOException e) {
+            LOGGER.warn("Não foi possível ler o tamanho de {}.", result.file(), e);
+            return ctx.reply(kept + ".");
+        }
+        if (size > MAX_UPLOAD_BYTES) {
+            return ctx.reply(kept + "; é grande demais para anexar, pegue-o no servidor do bot.");
+        }
+        // O corpo lê o arquivo direto do disco na hora do envio.
+        MultipartBody body = new MultipartBody.Builder()
+                .setType(MultipartBody.FORM)
+                .addFormDataPart("payload_json", new JsonTextWriter().beginObject().name("content").value(summary).endObject().toString())
+                .addFormDataPart("files[0]", result.file().getFileName().toString(),
+                        RequestBody.create(result.file().toFile(), MediaType.parse("text/plain; charset=utf-8")))
+                .build();
+        return ctx.getClient().sendMessage(ctx.getChannelId(), body).thenAccept(m -> deleteExport(result.file()));
+    }
+
+    /**
+     * Apaga as exportações mais velhas que {@link #EXPORT_RETENTION}, de qualquer servidor.
+     */
+    private static void pruneExports() {
+        if (!Files.isDirectory(EXPORT_DIR)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(EXPORT_RETENTION);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(EXPORT_DIR)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    deleteExport(file);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Não foi possível limpar as exportações antigas em {}.", EXPORT_DIR, e);
+        }
+    }
+
+    private static void deleteExport(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Não foi possível apagar a exportação {}.", file, e);
+        }
+    }
+
+    private CompletableFuture<Void> handleImport(CommandContext ctx, BulkDataset dataset, String fileName) {
+        // Só nomes de arquivo: nada de caminhos para fora da pasta de importação.
+        if (fileName.contains("/") || fileName.contains("\\") || fileName.startsWith(".")) {
+            return ctx.reply("Nome de arquivo inválido: `" + fileName + "`.");
+        }
+        // Cada servidor só enxerga a própria pasta, então um admin não importa o arquivo de outro servidor.
+        Path file = IMPORT_DIR.resolve(ctx.getGuildId()).resolve(fileName);
+        if (!Files.isRegularFile(file)) {
+            return ctx.reply("Arquivo não encontrado em `data/imports/" + ctx.getGuildId() + "/`: `" + fileName + "`.");
+        }
+        if (BulkFormat.fromFileName(fileName).isEmpty()) {
+            return ctx.reply("Formato desconhecido: use um arquivo `.csv`, `.ndjson` ou `.jsonl`.");
+        }
+        return ctx.reply("📥 Importando `" + fileName + "` para `" + dataset.getName() + "`...")
+                .thenCompose(v -> bulkTransferService.importGuild(dataset, ctx.getGuildId(), file, progressReporter(ctx, "gravadas")))
+                .thenCompose(result -> {
+                    StringBuilder message = new StringBuilder("✅ Importação concluída: ")
+                            .append(result.rows()).append(" linhas gravadas, ")
+                            .append(result.skipped()).append(" puladas.");
+                    if (!result.errors().isEmpty()) {
+                        message.append("\n```\n").append(String.join("\n", result.errors()));
+                        if (result.skipped() > result.errors().size()) {
+                            message.append("\n...");
+                        }
+                        message.append("\n```");
+                    }
+                    return ctx.reply(message.toString());
+                });
+    }
+
+    /**
+     * Manda o total no canal no máximo a cada {@link #PROGRESS_REPORT_MILLIS}.
+     */
+    private static LongConsumer progressReporter(CommandContext ctx, String verb) {
+        AtomicLong lastReport = new AtomicLong(System.currentTimeMillis());
+        return rows -> {
+            long now = System.currentTimeMillis();
+            long last = lastReport.get();
+            if (now - last >= PROGRESS_REPORT_MILLIS && lastReport.compareAndSet(last, now)) {
+                ctx.reply("⏳ " + rows + " linhas " + verb + " até agora...");
+            }
+        };
+    }
+}
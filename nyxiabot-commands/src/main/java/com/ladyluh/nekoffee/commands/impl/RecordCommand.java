@@ -5,6 +5,7 @@ import com.ladyluh.nekoffee.commands.Command;
 import com.ladyluh.nekoffee.commands.CommandContext;
 import com.ladyluh.nekoffee.services.AudioRecordingService;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
@@ -40,6 +41,11 @@ public class RecordCommand implements Command {
         return true;
     }
 
+    @Override
+    public Duration getCooldown() {
+        return Duration.ofSeconds(10);
+    }
+
     @Override
     public CompletableFuture<Void> execute(CommandContext ctx) {
         if (ctx.getArgs().isEmpty() || ctx.getArgs().getFirst().isBlank()) {
@@ -51,26 +57,25 @@ public class RecordCommand implements Command {
                     if (member == null) {
                         return ctx.reply("Não foi possível encontrar suas informações neste servidor.");
                     }
-                    return member.hasPermission(Permission.MANAGE_CHANNELS)
-                            .thenCompose(hasPerms -> {
-                                if (!hasPerms) {
-                                    return ctx.reply("❌ Você precisa da permissão de 'Gerenciar Canais' para usar este comando.");
-                                }
-
-                                String voiceChannelId = ctx.getVoiceStateCacheManager().getUserVoiceChannelId(ctx.getGuildId(), member.getId());
-                                if (voiceChannelId == null) {
-                                    return ctx.reply("❌ Você precisa estar em um canal de voz para usar este comando.");
-                                }
-
-                                String subCommand = ctx.getArgs().getFirst().toLowerCase();
-                                if ("start".equals(subCommand)) {
-                                    return handleStart(ctx, voiceChannelId);
-                                } else if ("stop".equals(subCommand)) {
-                                    return handleStop(ctx, voiceChannelId);
-                                } else {
-                                    return ctx.reply("Subcomando inválido. Use `start` ou `stop`.");
-                                }
-                            });
+                    return ctx.hasPermission(member, Permission.MANAGE_CHANNELS).thenCompose(allowed -> {
+                        if (!allowed) {
+                            return ctx.reply("❌ Você precisa da permissão de 'Gerenciar Canais' para usar este comando.");
+                        }
+
+                        String voiceChannelId = ctx.getVoiceStateCacheManager().getUserVoiceChannelId(ctx.getGuildId(), member.getId());
+                        if (voiceChannelId == null) {
+                            return ctx.reply("❌ Você precisa estar em um canal de voz para usar este comando.");
+                        }
+
+                        String subCommand = ctx.getArgs().getFirst().toLowerCase();
+                        if ("start".equals(subCommand)) {
+                            return handleStart(ctx, voiceChannelId);
+                        } else if ("stop".equals(subCommand)) {
+                            return handleStop(ctx, voiceChannelId);
+                        } else {
+                            return ctx.reply("Subcomando inválido. Use `start` ou `stop`.");
+                        }
+                    });
                 });
     }
 
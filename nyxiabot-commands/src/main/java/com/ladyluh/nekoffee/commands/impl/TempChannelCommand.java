@@ -9,6 +9,7 @@ import com.ladyluh.nekoffee.database.DatabaseManager;
 import com.ladyluh.nekoffee.database.TemporaryChannelRecord;
 import com.ladyluh.nekoffee.database.UserChannelPreference;
 
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
@@ -46,6 +47,11 @@ public class TempChannelCommand implements Command {
         return true;
     }
 
+    @Override
+    public Duration getCooldown() {
+        return Duration.ofSeconds(3);
+    }
+
     @Override
     public CompletableFuture<Void> execute(CommandContext ctx) {
         if (ctx.getArgs().isEmpty()) {
@@ -56,19 +62,13 @@ public class TempChannelCommand implements Command {
         String authorId = ctx.getAuthor().getId();
         String subCommand = ctx.getArgs().getFirst().toLowerCase();
 
-        CompletableFuture<Optional<TemporaryChannelRecord>> tempChannelFuture = dbManager.getTemporaryChannelByOwner(guildId, authorId);
-        CompletableFuture<Optional<UserChannelPreference>> prefsFuture = dbManager.getUserChannelPreference(guildId, authorId);
-
-        return CompletableFuture.allOf(tempChannelFuture, prefsFuture)
-                .thenCompose(v -> {
-                    Optional<TemporaryChannelRecord> userTempChannelOpt = tempChannelFuture.join();
-                    Optional<UserChannelPreference> userPrefsOpt = prefsFuture.join();
-
+        return dbManager.getTemporaryChannelByOwner(guildId, authorId)
+                .thenCompose(userTempChannelOpt -> {
                     if ("limite".equals(subCommand) || "nome".equals(subCommand)) {
-                        return handlePreferenceCommand(ctx, userTempChannelOpt, userPrefsOpt, subCommand);
+                        return handlePreferenceCommand(ctx, userTempChannelOpt, subCommand);
                     }
                     if ("autoownage".equals(subCommand) || "ao".equals(subCommand)) {
-                        return handleAutoOwnerCommand(ctx, userPrefsOpt);
+                        return handleAutoOwnerCommand(ctx);
                     }
 
                     if (userTempChannelOpt.isEmpty()) {
@@ -78,8 +78,7 @@ public class TempChannelCommand implements Command {
                     String tempChannelId = userTempChannelOpt.get().channelId;
 
                     return switch (subCommand) {
-                        case "trancar", "destrancar" ->
-                                handleLockUnlockCommand(ctx, tempChannelId, subCommand, userPrefsOpt);
+                        case "trancar", "destrancar" -> handleLockUnlockCommand(ctx, tempChannelId, subCommand);
                         case "permitir", "proibir" -> handlePermissionCommand(ctx, tempChannelId, subCommand);
                         default ->
                                 ctx.reply("Subcomando de sala desconhecido. Use: `limite`, `nome`, `trancar`, `destrancar`, `permitir`, `proibir`, `autoownage`.");
@@ -87,25 +86,17 @@ public class TempChannelCommand implements Command {
                 });
     }
 
-    private CompletableFuture<Void> handleAutoOwnerCommand(CommandContext ctx, Optional<UserChannelPreference> userPrefsOpt) {
-        String guildId = ctx.getGuildId();
-        String authorId = ctx.getAuthor().getId();
-        UserChannelPreference prefs = userPrefsOpt.orElse(new UserChannelPreference(guildId, authorId));
-
-        int newStatus = (prefs.autoOwnerSwitching == null || prefs.autoOwnerSwitching == 0) ? 1 : 0;
-        prefs.autoOwnerSwitching = newStatus;
-
-        return dbManager.updateUserChannelPreference(guildId, authorId, prefs.preferredUserLimit, prefs.preferredName, prefs.defaultLocked, prefs.autoOwnerSwitching)
-                .thenCompose(v -> {
-                    String statusMessage = newStatus == 1 ? "ATIVADA" : "DESATIVADA";
+    private CompletableFuture<Void> handleAutoOwnerCommand(CommandContext ctx) {
+        return dbManager.toggleAutoOwnerSwitching(ctx.getGuildId(), ctx.getAuthor().getId())
+                .thenCompose(prefs -> {
+                    String statusMessage = Integer.valueOf(1).equals(prefs.autoOwnerSwitching) ? "ATIVADA" : "DESATIVADA";
                     return ctx.reply("✅ A transferência automática de posse de sala foi **" + statusMessage + "** para seus futuros canais.");
                 });
     }
 
-    private CompletableFuture<Void> handlePreferenceCommand(CommandContext ctx, Optional<TemporaryChannelRecord> userTempChannelOpt, Optional<UserChannelPreference> userPrefsOpt, String subCommand) {
+    private CompletableFuture<Void> handlePreferenceCommand(CommandContext ctx, Optional<TemporaryChannelRecord> userTempChannelOpt, String subCommand) {
         String guildId = ctx.getGuildId();
         String authorId = ctx.getAuthor().getId();
-        UserChannelPreference prefs = userPrefsOpt.orElse(new UserChannelPreference(guildId, authorId));
 
         switch (subCommand) {
             case "limite":
@@ -118,8 +109,7 @@ public class TempChannelCommand implements Command {
                         return ctx.reply("O limite deve ser entre 0 (ilimitado) e 99.");
                     }
 
-                    prefs.preferredUserLimit = (limit);
-                    CompletableFuture<Void> dbUpdate = dbManager.updateUserChannelPreference(guildId, authorId, prefs.preferredUserLimit, prefs.preferredName, prefs.defaultLocked, prefs.autoOwnerSwitching)
+                    CompletableFuture<Void> dbUpdate = dbManager.setPreferredUserLimit(guildId, authorId, limit)
                             .thenCompose(v -> ctx.reply("Preferência de limite para seus futuros canais definida para " + (limit == 0 ? "ilimitado" : limit) + "."));
 
                     if (userTempChannelOpt.isPresent()) {
@@ -138,13 +128,12 @@ public class TempChannelCommand implements Command {
                 if (ctx.getArgs().size() < 2) {
                     return ctx.reply("Uso: `!sala nome <template>` (Use %username% para seu nome)");
                 }
-                String nameTemplate = String.join(" ", ctx.getArgs().subList(1, ctx.getArgs().size())).trim();
+                String nameTemplate = ctx.getArgs().getRest(1);
                 if (nameTemplate.isEmpty() || nameTemplate.length() > 80) {
                     return ctx.reply("O template do nome deve ter entre 1 e 80 caracteres.");
                 }
 
-                prefs.preferredName = nameTemplate;
-                CompletableFuture<Void> dbNameUpdate = dbManager.updateUserChannelPreference(guildId, authorId, prefs.preferredUserLimit, prefs.preferredName, prefs.defaultLocked, prefs.autoOwnerSwitching)
+                CompletableFuture<Void> dbNameUpdate = dbManager.setPreferredNameTemplate(guildId, authorId, nameTemplate)
                         .thenCompose(v -> ctx.reply("Template de nome para seus futuros canais temporários definido para: '" + nameTemplate + "'."));
 
                 if (userTempChannelOpt.isPresent()) {
@@ -163,7 +152,7 @@ public class TempChannelCommand implements Command {
         }
     }
 
-    private CompletableFuture<Void> handleLockUnlockCommand(CommandContext ctx, String tempChannelId, String subCommand, Optional<UserChannelPreference> userPrefsOpt) {
+    private CompletableFuture<Void> handleLockUnlockCommand(CommandContext ctx, String tempChannelId, String subCommand) {
         String guildId = ctx.getGuildId();
         String authorId = ctx.getAuthor().getId();
 
@@ -171,9 +160,7 @@ public class TempChannelCommand implements Command {
         EnumSet<Permission> allowEveryone = lock ? EnumSet.noneOf(Permission.class) : EnumSet.of(Permission.CONNECT);
         EnumSet<Permission> denyEveryone = lock ? EnumSet.of(Permission.CONNECT) : EnumSet.noneOf(Permission.class);
 
-        UserChannelPreference prefs = userPrefsOpt.orElse(new UserChannelPreference(guildId, authorId));
-        prefs.defaultLocked = lock ? 1 : 0;
-        CompletableFuture<Void> updatePrefsFuture = dbManager.updateUserChannelPreference(guildId, authorId, prefs.preferredUserLimit, prefs.preferredName, prefs.defaultLocked, prefs.autoOwnerSwitching);
+        CompletableFuture<UserChannelPreference> updatePrefsFuture = dbManager.setDefaultLocked(guildId, authorId, lock ? 1 : 0);
 
         CompletableFuture<Void> modifyEveryonePerms = ctx.getClient().editChannelPermissions(
                 tempChannelId, guildId, TargetType.ROLE,
@@ -195,14 +182,16 @@ public class TempChannelCommand implements Command {
             return ctx.reply("Uso: `!sala " + subCommand + " <@menção_do_usuário ou @menção_do_cargo>`");
         }
         String mention = ctx.getArgs().get(1);
+        Optional<String> roleId = ctx.getArgs().getRoleId(1);
+        Optional<String> userId = ctx.getArgs().getUserId(1);
         String targetId;
         TargetType targetType;
 
-        if (mention.startsWith("<@&") && mention.endsWith(">")) {
-            targetId = mention.substring(3, mention.length() - 1);
+        if (roleId.isPresent()) {
+            targetId = roleId.get();
             targetType = TargetType.ROLE;
-        } else if (mention.startsWith("<@") && mention.endsWith(">")) {
-            targetId = mention.replaceAll("<@!?", "").replaceAll(">", "");
+        } else if (userId.isPresent()) {
+            targetId = userId.get();
             targetType = TargetType.MEMBER;
         } else {
             return ctx.reply("Por favor, mencione um usuário ou cargo válido.");
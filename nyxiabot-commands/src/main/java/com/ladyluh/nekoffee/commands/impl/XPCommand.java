@@ -5,20 +5,27 @@ import com.ladyluh.nekoffee.builder.EmbedBuilder;
 import com.ladyluh.nekoffee.builder.MessageBuilder;
 import com.ladyluh.nekoffee.commands.Command;
 import com.ladyluh.nekoffee.commands.CommandContext;
-import com.ladyluh.nekoffee.database.DatabaseManager;
-import com.ladyluh.nekoffee.database.UserXP;
+import com.ladyluh.nekoffee.services.XPEngine;
+import com.ladyluh.nekoffee.services.XPRank;
+import com.ladyluh.nekoffee.services.XPWindow;
+import com.ladyluh.nekoffee.services.XPWindowRank;
 
 import java.awt.*;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.util.List;
-import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class XPCommand implements Command {
-    private final DatabaseManager dbManager;
+    private static final int LEADERBOARD_PAGE_SIZE = 10;
+    private final XPEngine xpEngine;
 
-    public XPCommand(DatabaseManager dbManager) {
-        this.dbManager = dbManager;
+    public XPCommand(XPEngine xpEngine) {
+        this.xpEngine = xpEngine;
     }
 
     @Override
@@ -38,7 +45,7 @@ public class XPCommand implements Command {
 
     @Override
     public String getUsage() {
-        return "xp [@membro] / xp top";
+        return "xp [@membro] / xp top [dia|semana|mês] [página] / xp perto";
     }
 
     @Override
@@ -46,33 +53,54 @@ public class XPCommand implements Command {
         return true;
     }
 
+    @Override
+    public Duration getCooldown() {
+        return Duration.ofSeconds(3);
+    }
+
     @Override
     public CompletableFuture<Void> execute(CommandContext ctx) {
-        if (Objects.equals(ctx.getArgs().getFirst(), "")) {
+        if (ctx.getArgs().isEmpty()) {
             return handleXPStatus(ctx, ctx.getAuthor());
         } else if (ctx.getArgs().getFirst().equalsIgnoreCase("top")) {
-            return handleXPLeaderboard(ctx);
-        } else if (ctx.getArgs().getFirst().matches("<@!?[0-9]+>")) {
-            String mentionedUserId = ctx.getArgs().getFirst().replaceAll("[<@!>]", "");
-            return ctx.getClient().getUserById(mentionedUserId)
-                    .thenCompose(user -> {
-                        if (user == null) {
-                            return ctx.reply("Não consegui encontrar esse usuário.");
-                        }
-                        return handleXPStatus(ctx, user);
-                    });
-        } else {
-            return ctx.reply("Uso inválido. Use `!xp [@membro]` ou `!xp top`.");
+            int pageArg = 1;
+            XPWindow window = ctx.getArgs().size() > 1 ? parseWindow(ctx.getArgs().get(1)) : null;
+            if (window != null) {
+                pageArg = 2;
+            }
+            int page = 1;
+            if (ctx.getArgs().size() > pageArg) {
+                OptionalInt pageOpt = ctx.getArgs().getInt(pageArg);
+                if (pageOpt.isEmpty()) {
+                    return ctx.reply("Página inválida. Use `!xp top [dia|semana|mês] [página]`.");
+                }
+                page = Math.max(1, pageOpt.getAsInt());
+            }
+            return window == null ? handleXPLeaderboard(ctx, page) : handleXPWindowLeaderboard(ctx, window, page);
+        } else if (ctx.getArgs().getFirst().equalsIgnoreCase("perto")) {
+            return handleXPAround(ctx);
         }
+        Optional<String> mentionedUserId = ctx.getArgs().getUserId(0);
+        if (mentionedUserId.isEmpty()) {
+            return ctx.reply("Uso inválido. Use `!xp [@membro]`, `!xp top [dia|semana|mês] [página]` ou `!xp perto`.");
+        }
+        return ctx.getClient().getUserById(mentionedUserId.get())
+                .thenCompose(user -> {
+                    if (user == null) {
+                        return ctx.reply("Não consegui encontrar esse usuário.");
+                    }
+                    return handleXPStatus(ctx, user);
+                });
     }
 
     private CompletableFuture<Void> handleXPStatus(CommandContext ctx, User targetUser) {
         String guildId = ctx.getGuildId();
         if (guildId == null) return ctx.reply("Este comando requer estar em um servidor.");
 
-        return dbManager.getUserXP(guildId, targetUser.getId()).thenCompose(userXP -> {
-            int xpRemainingForNextLevel = calculateXpForLevel(userXP.getLevel() + 1) - userXP.getXp();
-            String xpStatus = String.format("Nível **%d** (XP: %d/%d)", userXP.getLevel(), userXP.getXp(), calculateXpForLevel(userXP.getLevel() + 1));
+        CompletableFuture<Optional<XPRank>> rankFuture = xpEngine.getRank(guildId, targetUser.getId());
+        return xpEngine.getUserXP(guildId, targetUser.getId()).thenCombine(rankFuture, (userXP, rankOpt) -> {
+            int xpRemainingForNextLevel = XPEngine.xpForLevel(userXP.getLevel() + 1) - userXP.getXp();
+            String xpStatus = String.format("Nível **%d** (XP: %d/%d)", userXP.getLevel(), userXP.getXp(), XPEngine.xpForLevel(userXP.getLevel() + 1));
 
             EmbedBuilder embed = new EmbedBuilder()
                     .setTitle("📊 Status de XP de " + escapeMarkdown(targetUser.getGlobalName()))
@@ -81,48 +109,100 @@ public class XPCommand implements Command {
                     .setThumbnail(targetUser.getEffectiveAvatarUrl())
                     .addField("XP Faltando para o Próximo Nível", xpRemainingForNextLevel + " XP", true)
                     .setTimestamp(OffsetDateTime.now());
+            rankOpt.ifPresent(rank -> embed.addField("Posição no Ranking", "#" + rank.rank(), true));
+            embed.addField("XP na Semana", xpEngine.getWindowXP(guildId, targetUser.getId(), XPWindow.WEEK) + " XP", true);
+            return embed;
+        }).thenCompose(embed -> ctx.getClient().sendMessage(ctx.getChannelId(), new MessageBuilder().addEmbed(embed).build()).thenAccept(m -> {
+        }));
+    }
 
-            return ctx.getClient().sendMessage(ctx.getChannelId(), new MessageBuilder().addEmbed(embed).build()).thenAccept(m -> {
-            });
+    private CompletableFuture<Void> handleXPLeaderboard(CommandContext ctx, int page) {
+        String guildId = ctx.getGuildId();
+        if (guildId == null) return ctx.reply("Este comando requer estar em um servidor.");
+
+        return xpEngine.getLeaderboard(guildId, (page - 1) * LEADERBOARD_PAGE_SIZE, LEADERBOARD_PAGE_SIZE).thenCompose(topUsers -> {
+            if (topUsers.isEmpty()) {
+                return ctx.reply(page == 1 ? "Ninguém ganhou XP ainda neste servidor!" : "Essa página do ranking está vazia.");
+            }
+            return sendRanking(ctx, "🏆 Ranking de XP do Servidor 🏆" + (page > 1 ? " (página " + page + ")" : ""), topUsers, null);
         });
     }
 
-    private CompletableFuture<Void> handleXPLeaderboard(CommandContext ctx) {
+    private CompletableFuture<Void> handleXPWindowLeaderboard(CommandContext ctx, XPWindow window, int page) {
         String guildId = ctx.getGuildId();
         if (guildId == null) return ctx.reply("Este comando requer estar em um servidor.");
 
-        return dbManager.getTopXPUsers(guildId, 10).thenCompose(topUsers -> {
+        List<XPWindowRank> topUsers = xpEngine.getWindowLeaderboard(guildId, window, (page - 1) * LEADERBOARD_PAGE_SIZE, LEADERBOARD_PAGE_SIZE);
+        if (topUsers.isEmpty()) {
+            return ctx.reply(page == 1 ? "Ninguém ganhou XP " + describeWindow(window) + "!" : "Essa página do ranking está vazia.");
+        }
+        String title = "🏆 Ranking de XP " + describeWindow(window) + " 🏆" + (page > 1 ? " (página " + page + ")" : "");
+        return sendRanking(ctx, title, topUsers, XPWindowRank::getUserId,
+                (rank, username) -> String.format("**%d. %s** - %d XP", rank.rank(), username, rank.xp()), null);
+    }
+
+    private static XPWindow parseWindow(String arg) {
+        return switch (arg.toLowerCase()) {
+            case "dia", "hoje" -> XPWindow.DAY;
+            case "semana" -> XPWindow.WEEK;
+            case "mês", "mes" -> XPWindow.MONTH;
+            default -> null;
+        };
+    }
 
-            if (topUsers.isEmpty()) {
-                return ctx.reply("Ninguém ganhou XP ainda neste servidor!");
+    private static String describeWindow(XPWindow window) {
+        return switch (window) {
+            case DAY -> "nas Últimas 24h";
+            case WEEK -> "nos Últimos 7 Dias";
+            case MONTH -> "nos Últimos 30 Dias";
+        };
+    }
+
+    private CompletableFuture<Void> handleXPAround(CommandContext ctx) {
+        String guildId = ctx.getGuildId();
+        if (guildId == null) return ctx.reply("Este comando requer estar em um servidor.");
+
+        String authorId = ctx.getAuthor().getId();
+        return xpEngine.getRanksAround(guildId, authorId, 3).thenCompose(ranks -> {
+            if (ranks.isEmpty()) {
+                return ctx.reply("Você ainda não ganhou XP neste servidor.");
             }
+            return sendRanking(ctx, "📍 Sua Posição no Ranking", ranks, authorId);
+        });
+    }
+
+    private CompletableFuture<Void> sendRanking(CommandContext ctx, String title, List<XPRank> ranks, String highlightUserId) {
+        return sendRanking(ctx, title, ranks, XPRank::getUserId,
+                (rank, username) -> String.format("**%d. %s** - Nível %d (XP total: %d)", rank.rank(), username, rank.level(), rank.totalXp()),
+                highlightUserId);
+    }
 
-            StringBuilder leaderboardDesc = new StringBuilder();
-
-            List<CompletableFuture<String>> userNamesFutures = topUsers.stream()
-                    .map(userXP -> ctx.getClient().getUserById(userXP.getUserId())
-                            .thenApply(user -> user != null ? user.getAsTag() : "Usuário Desconhecido"))
-                    .toList();
-
-            return CompletableFuture.allOf(userNamesFutures.toArray(new CompletableFuture[0]))
-                    .thenCompose(v -> {
-                        for (int i = 0; i < topUsers.size(); i++) {
-                            UserXP userXP = topUsers.get(i);
-                            String username = userNamesFutures.get(i).join();
-                            leaderboardDesc.append(String.format("**%d. %s** - Nível %d (XP: %d)\n", i + 1, username, userXP.getLevel(), userXP.getXp()));
-                        }
-
-                        EmbedBuilder embed = new EmbedBuilder()
-                                .setTitle("🏆 Ranking de XP do Servidor 🏆")
-                                .setDescription(leaderboardDesc.toString())
-                                .setColor(Color.YELLOW)
-                                .setFooter("Nekoffee XP Leaderboard", ctx.getClient().getSelfUser().getEffectiveAvatarUrl())
-                                .setTimestamp(OffsetDateTime.now());
-
-                        return ctx.getClient().sendMessage(ctx.getChannelId(), new MessageBuilder().addEmbed(embed).build()).thenAccept(m -> {
-                        });
+    private <T> CompletableFuture<Void> sendRanking(CommandContext ctx, String title, List<T> ranks, Function<T, String> userIdOf,
+                                                    BiFunction<T, String, String> lineOf, String highlightUserId) {
+        List<CompletableFuture<String>> userNamesFutures = ranks.stream()
+                .map(rank -> ctx.getClient().getUserById(userIdOf.apply(rank))
+                        .thenApply(user -> user != null ? user.getAsTag() : "Usuário Desconhecido"))
+                .toList();
+
+        return CompletableFuture.allOf(userNamesFutures.toArray(new CompletableFuture[0]))
+                .thenCompose(v -> {
+                    StringBuilder leaderboardDesc = new StringBuilder();
+                    for (int i = 0; i < ranks.size(); i++) {
+                        T rank = ranks.get(i);
+                        String line = lineOf.apply(rank, userNamesFutures.get(i).join());
+                        leaderboardDesc.append(userIdOf.apply(rank).equals(highlightUserId) ? "➜ " + line : line).append('\n');
+                    }
+
+                    EmbedBuilder embed = new EmbedBuilder()
+                            .setTitle(title)
+                            .setDescription(leaderboardDesc.toString())
+                            .setColor(Color.YELLOW)
+                            .setFooter("Nekoffee XP Leaderboard", ctx.getClient().getSelfUser().getEffectiveAvatarUrl())
+                            .setTimestamp(OffsetDateTime.now());
+
+                    return ctx.getClient().sendMessage(ctx.getChannelId(), new MessageBuilder().addEmbed(embed).build()).thenAccept(m -> {
                     });
-        });
+                });
     }
 
     private static String escapeMarkdown(String text) {
@@ -152,9 +232,4 @@ public class XPCommand implements Command {
         }
         return escapedText.toString();
     }
-
-    private int calculateXpForLevel(int level) {
-        if (level <= 0) return 100;
-        return (level * level * 50) + (level * 100) + 100;
-    }
 }
\ No newline at end of file
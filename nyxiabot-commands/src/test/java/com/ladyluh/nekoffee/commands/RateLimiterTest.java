@@ -0,0 +1,207 @@
+package com.ladyluh.nekoffee.commands;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    /**
+     * Tamanho da tabela para {@code capacity = 8}; as chaves procuradas abaixo caem no mesmo slot inicial dela.
+     */
+    private static final int TABLE_MASK = 7;
+
+    private static long hash(long key) {
+        return key * 0x9E3779B97F4A7C15L;
+    }
+
+    private static int indexOf(long key) {
+        long h = hash(key);
+        return (int) (h ^ (h >>> 32)) & TABLE_MASK;
+    }
+
+    private static long tagOf(long key) {
+        return (hash(key) >>> 40) | 1;
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(16, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(16, 1_000, 0));
+    }
+
+    @Test
+    void burstIsAllowedThenRejected() {
+        RateLimiter limiter = new RateLimiter(64, HOUR, 3);
+        assertTrue(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+        assertTrue(limiter.tryAcquire(2L), "outra chave tem o próprio balde");
+    }
+
+    @Test
+    void tokenIsRestoredAfterTheInterval() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(64, 50, 1);
+        assertTrue(limiter.tryAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+        Thread.sleep(80);
+        assertTrue(limiter.tryAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+    }
+
+    @Test
+    void rejectedCallsDoNotConsume() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(64, 100, 1);
+        assertTrue(limiter.tryAcquire(1L));
+        for (int i = 0; i < 1_000; i++) {
+            assertFalse(limiter.tryAcquire(1L));
+        }
+        Thread.sleep(130);
+        assertTrue(limiter.tryAcquire(1L));
+    }
+
+    @Test
+    void canAcquireDoesNotConsume() {
+        RateLimiter limiter = new RateLimiter(64, HOUR, 2);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.canAcquire(1L));
+        }
+        assertTrue(limiter.tryAcquire(1L));
+        assertTrue(limiter.canAcquire(1L));
+        assertTrue(limiter.tryAcquire(1L));
+        assertFalse(limiter.canAcquire(1L));
+        assertFalse(limiter.tryAcquire(1L));
+        assertTrue(limiter.canAcquire(2L));
+    }
+
+    @Test
+    void globallyRejectedCommandKeepsItsCooldown() {
+        RateLimiter cooldown = new RateLimiter(64, HOUR, 1);
+        RateLimiter global = new RateLimiter(64, HOUR, 1);
+        assertTrue(global.tryAcquire(1L));
+
+        assertFalse(CommandManager.acquire(cooldown, global, 1L));
+        assertTrue(cooldown.canAcquire(1L), "o cooldown não pode ser gasto por um comando que não rodou");
+    }
+
+    @Test
+    void commandInCooldownKeepsTheGlobalToken() {
+        RateLimiter cooldown = new RateLimiter(64, HOUR, 1);
+        RateLimiter global = new RateLimiter(64, HOUR, 2);
+        assertTrue(CommandManager.acquire(cooldown, global, 1L));
+        for (int i = 0; i < 5; i++) {
+            assertFalse(CommandManager.acquire(cooldown, global, 1L));
+        }
+        assertTrue(CommandManager.acquire(null, global, 1L));
+        assertFalse(CommandManager.acquire(null, global, 1L));
+    }
+
+    @Test
+    void keysSharingASlotWithDifferentTagsAreIndependent() {
+        long first = 1L;
+        List<Long> neighbours = new ArrayList<>();
+        for (long key = 2; neighbours.size() < 3; key++) {
+            if (indexOf(key) == indexOf(first) && tagOf(key) != tagOf(first)) {
+                neighbours.add(key);
+            }
+        }
+        RateLimiter limiter = new RateLimiter(8, HOUR, 1);
+        assertTrue(limiter.tryAcquire(first));
+        for (long key : neighbours) {
+            assertTrue(limiter.tryAcquire(key));
+        }
+        assertFalse(limiter.tryAcquire(first));
+        for (long key : neighbours) {
+            assertFalse(limiter.tryAcquire(key));
+        }
+    }
+
+    @Test
+    void keysWithTheSameTagAndSlotShareTheBucket() {
+        long first = 1L;
+        long twin = 2;
+        while (indexOf(twin) != indexOf(first) || tagOf(twin) != tagOf(first)) {
+            twin++;
+        }
+        RateLimiter limiter = new RateLimiter(8, HOUR, 2);
+        assertTrue(limiter.tryAcquire(first));
+        assertTrue(limiter.tryAcquire(twin));
+        assertFalse(limiter.tryAcquire(first));
+    }
+
+    @Test
+    void fullTableFailsOpen() {
+        RateLimiter limiter = new RateLimiter(8, HOUR, 1);
+        for (long key = 1; key <= 1_000; key++) {
+            assertTrue(limiter.tryAcquire(key));
+        }
+        int limited = 0;
+        for (long key = 1; key <= 1_000; key++) {
+            if (!limiter.tryAcquire(key)) {
+                limited++;
+            }
+        }
+        // Só as chaves que ganharam uma das 8 células são limitadas; as outras passam.
+        assertTrue(limited > 0 && limited <= 8, "limitadas: " + limited);
+    }
+
+    @Test
+    void expiredCellIsReclaimedByAnotherKey() throws InterruptedException {
+        long first = 1L;
+        List<Long> rivals = new ArrayList<>();
+        for (long key = 2; rivals.size() < 4; key++) {
+            if (indexOf(key) == indexOf(first) && tagOf(key) != tagOf(first)) {
+                rivals.add(key);
+            }
+        }
+        RateLimiter limiter = new RateLimiter(8, 50, 1);
+        assertTrue(limiter.tryAcquire(first));
+        Thread.sleep(80);
+        // As 4 posições ficam com os rivais; a célula expirada da primeira chave é reaproveitada.
+        for (long key : rivals) {
+            assertTrue(limiter.tryAcquire(key));
+        }
+        for (long key : rivals) {
+            assertFalse(limiter.tryAcquire(key), "rival " + key + " deveria ter uma célula");
+        }
+    }
+
+    @Test
+    void concurrentCallersNeverExceedTheBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(64, HOUR, 50);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    int allowed = 0;
+                    for (int i = 0; i < 1_000; i++) {
+                        if (limiter.tryAcquire(42L)) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get();
+            }
+            assertEquals(50, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
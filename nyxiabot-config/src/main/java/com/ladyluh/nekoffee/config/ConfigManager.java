@@ -66,6 +66,21 @@ public class ConfigManager {
         return properties.getProperty("COMMAND_PREFIX", "!");
     }
 
+    /**
+     * Onde o XP é gravado: "sqlite" (padrão, no banco do bot) ou "log" (log próprio em data/xp-log).
+     * Não há migração entre os dois.
+     */
+    public String getXPStorage() {
+        return properties.getProperty("XP_STORAGE", Objects.requireNonNullElse(System.getenv("NEKOFFEE_XP_STORAGE"), "sqlite"));
+    }
+
+    /**
+     * A partir de quantos milissegundos executando uma operação do banco vai para o log de consultas lentas.
+     */
+    public long getDbSlowQueryMillis() {
+        return Long.parseLong(properties.getProperty("DB_SLOW_QUERY_MILLIS", Objects.requireNonNullElse(System.getenv("NEKOFFEE_DB_SLOW_QUERY_MILLIS"), "100")));
+    }
+
     private void loadXPRoleMappings() {
         for (String key : properties.stringPropertyNames()) {
             if (key.startsWith("XP_ROLE_LEVEL_")) {
@@ -0,0 +1,35 @@
+package com.ladyluh.nekoffee.database;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Preferências de cada usuário para os canais temporários que ele cria. Os métodos {@code set*} e
+ * {@link #toggleAutoOwnerSwitching(String, String)} mudam uma coluna só e devolvem a linha completa.
+ */
+public interface ChannelPreferenceRepository {
+
+    CompletableFuture<Optional<UserChannelPreference>> getUserChannelPreference(String guildId, String userId);
+
+    CompletableFuture<Void> updateUserChannelPreference(String guildId, String userId, Integer preferredUserLimit, String preferredNameTemplate, Integer defaultLocked, Integer autoOwnerSwitching);
+
+    /**
+     * Grava várias preferências de uma vez, substituindo as existentes.
+     */
+    CompletableFuture<Void> updateUserChannelPreferences(Collection<UserChannelPreference> preferences);
+
+    /**
+     * Percorre as preferências da guild sem montar uma lista. {@code consumer} roda na thread do repositório.
+     */
+    CompletableFuture<Void> scanUserChannelPreferences(String guildId, Consumer<UserChannelPreference> consumer);
+
+    CompletableFuture<UserChannelPreference> setPreferredUserLimit(String guildId, String userId, Integer preferredUserLimit);
+
+    CompletableFuture<UserChannelPreference> setPreferredNameTemplate(String guildId, String userId, String preferredNameTemplate);
+
+    CompletableFuture<UserChannelPreference> setDefaultLocked(String guildId, String userId, int defaultLocked);
+
+    CompletableFuture<UserChannelPreference> toggleAutoOwnerSwitching(String guildId, String userId);
+}
@@ -1,25 +1,63 @@
 package com.ladyluh.nekoffee.database;
 
-import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-
-public class DatabaseManager {
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Implementação SQLite de todos os repositórios do bot.
+ */
+public class DatabaseManager implements XPRepository, GuildConfigRepository, TemporaryChannelRepository, ChannelPreferenceRepository {
     private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseManager.class);
-    private final String dbUrl;
-    private final ExecutorService dbExecutor;
+    private static final int READER_CONNECTIONS = 4;
+    private static final long DEFAULT_SLOW_QUERY_MILLIS = 100;
+    private static final String[] PREFERENCE_COLUMNS = {"preferred_user_limit", "preferred_name_template", "locked", "auto_owner_switching"};
+    private static final String UPSERT_GUILD_CONFIG_SQL = """
+            INSERT OR REPLACE INTO guild_configs (
+                guild_id, log_channel_id, welcome_channel_id, auto_assign_role_id,
+                recordings_channel_id, temp_hub_channel_id, temp_channel_category_id, temp_channel_name_prefix,
+                default_temp_channel_user_limit, default_temp_channel_lock, join_sound_id
+            ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);""";
+    private static final String UPSERT_PREFERENCE_SQL = """
+            INSERT INTO user_channel_preferences
+            (guild_id, user_id, preferred_user_limit, preferred_name_template, locked, auto_owner_switching)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (guild_id, user_id) DO UPDATE SET
+                preferred_user_limit = excluded.preferred_user_limit,
+                preferred_name_template = excluded.preferred_name_template,
+                locked = excluded.locked,
+                auto_owner_switching = excluded.auto_owner_switching;""";
+    private final SqliteConnectionPool pool;
+    private final DbExecutor dbExecutor;
+    private final DbMetrics metrics;
+    /**
+     * Cópia em memória de guild_configs. Quando {@link #guildConfigsLoaded} é true ela tem todas as
+     * linhas, e uma guild ausente aqui também não existe no banco.
+     */
+    private final Map<String, GuildConfig> guildConfigs = new ConcurrentHashMap<>();
+    private volatile boolean guildConfigsLoaded;
 
     public DatabaseManager(String dbFileName) {
+        this(dbFileName, DEFAULT_SLOW_QUERY_MILLIS);
+    }
+
+    /**
+     * @param slowQueryMillis Operações que passam disso executando (sem contar a espera) vão para o log como WARN.
+     */
+    public DatabaseManager(String dbFileName, long slowQueryMillis) {
+        this.metrics = new DbMetrics(slowQueryMillis);
         File dataDir = new File("data");
         if (!dataDir.exists()) {
             if (dataDir.mkdirs()) {
@@ -28,24 +66,17 @@ public class DatabaseManager {
                 LOGGER.error("Falha ao criar diretório 'data'.");
             }
         }
-        this.dbUrl = "jdbc:sqlite:data/" + dbFileName;
-
-        this.dbExecutor = Executors.newFixedThreadPool(5, new ThreadFactory() {
-            private int count = 0;
+        try {
+            this.pool = new SqliteConnectionPool("jdbc:sqlite:data/" + dbFileName, READER_CONNECTIONS);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao abrir o banco de dados SQLite data/" + dbFileName, e);
+        }
 
-            @Override
-            public Thread newThread(@NotNull Runnable r) {
-                Thread thread = new Thread(r, "Nekoffee-DB-Pool-Thread-" + count++);
-                thread.setDaemon(true);
-                return thread;
-            }
-        });
+        // Virtual threads limitadas ao número de conexões: mais que isso só ficaria esperando o pool.
+        this.dbExecutor = new DbExecutor(pool.size());
 
         initializeDatabase();
-    }
-
-    private Connection connect() throws SQLException {
-        return DriverManager.getConnection(dbUrl);
+        loadGuildConfigs();
     }
 
     private void initializeDatabase() {
@@ -94,267 +125,587 @@ public class DatabaseManager {
                      join_sound_id TEXT
                 );""";
 
-        try (Connection conn = connect(); Statement stmt = conn.createStatement()) {
-            stmt.execute(createUserXPTableSQL);
-            LOGGER.info("Tabela user_xp verificada/criada.");
-            stmt.execute(createTempChannelsTableSQL);
-            LOGGER.info("Tabela temporary_channels verificada/criada.");
-            stmt.execute(createUserChannelPrefsTableSQL);
-            LOGGER.info("Tabela user_channel_preferences verificada/criada.");
-            stmt.execute(createGuildConfigsTableSQL);
-            LOGGER.info("Tabela 'guild_configs' verificada/criada.");
+        // XP por janela de tempo: as horas recentes em user_xp_hourly, o resto somado por dia em user_xp_daily.
+        String createUserXPHourlyTableSQL = """
+                CREATE TABLE IF NOT EXISTS user_xp_hourly (
+                    guild_id TEXT NOT NULL,
+                    user_id TEXT NOT NULL,
+                    hour INTEGER NOT NULL,
+                    xp INTEGER NOT NULL,
+                    PRIMARY KEY (guild_id, user_id, hour)
+                ) WITHOUT ROWID;""";
+
+        String createUserXPDailyTableSQL = """
+                CREATE TABLE IF NOT EXISTS user_xp_daily (
+                    guild_id TEXT NOT NULL,
+                    user_id TEXT NOT NULL,
+                    day INTEGER NOT NULL,
+                    xp INTEGER NOT NULL,
+                    PRIMARY KEY (guild_id, user_id, day)
+                ) WITHOUT ROWID;""";
 
-            try {
-                stmt.execute("ALTER TABLE guild_configs ADD COLUMN join_sound_id TEXT;");
-                LOGGER.info("Coluna 'join_sound_id' adicionada à tabela 'guild_configs'.");
-            } catch (SQLException e) {
-                if (e.getMessage().contains("duplicate column name")) {
-                    LOGGER.trace("Coluna 'join_sound_id' já existe em 'guild_configs'.");
-                } else {
-                    throw e;
+        try {
+            pool.write(conn -> {
+                try (Statement stmt = conn.connection().createStatement()) {
+                    stmt.execute(createUserXPTableSQL);
+                    LOGGER.info("Tabela user_xp verificada/criada.");
+                    stmt.execute(createTempChannelsTableSQL);
+                    LOGGER.info("Tabela temporary_channels verificada/criada.");
+                    stmt.execute(createUserChannelPrefsTableSQL);
+                    LOGGER.info("Tabela user_channel_preferences verificada/criada.");
+                    stmt.execute(createGuildConfigsTableSQL);
+                    LOGGER.info("Tabela 'guild_configs' verificada/criada.");
+                    stmt.execute(createUserXPHourlyTableSQL);
+                    stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_xp_hourly_hour ON user_xp_hourly (hour);");
+                    stmt.execute(createUserXPDailyTableSQL);
+                    stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_xp_daily_day ON user_xp_daily (day);");
+                    LOGGER.info("Tabelas user_xp_hourly e user_xp_daily verificadas/criadas.");
+
+                    try {
+                        stmt.execute("ALTER TABLE guild_configs ADD COLUMN join_sound_id TEXT;");
+                        LOGGER.info("Coluna 'join_sound_id' adicionada à tabela 'guild_configs'.");
+                    } catch (SQLException e) {
+                        if (e.getMessage().contains("duplicate column name")) {
+                            LOGGER.trace("Coluna 'join_sound_id' já existe em 'guild_configs'.");
+                        } else {
+                            throw e;
+                        }
+                    }
                 }
-            }
-
+                return null;
+            });
         } catch (SQLException e) {
             LOGGER.error("Erro ao inicializar o banco de dados SQLite:", e);
         }
     }
 
-    public CompletableFuture<Optional<GuildConfig>> getGuildConfig(String guildId) {
-        return CompletableFuture.supplyAsync(() -> {
-            String sql = "SELECT * FROM guild_configs WHERE guild_id = ?";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, guildId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return Optional.of(new GuildConfig(
-                            guildId,
-                            rs.getString("log_channel_id"),
-                            rs.getString("welcome_channel_id"),
-                            rs.getString("auto_assign_role_id"),
-                            rs.getString("recordings_channel_id"),
-                            rs.getString("temp_hub_channel_id"),
-                            rs.getString("temp_channel_category_id"),
-                            rs.getString("temp_channel_name_prefix"),
-                            rs.getObject("default_temp_channel_user_limit", Integer.class),
-                            rs.getObject("default_temp_channel_lock", Integer.class),
-                            rs.getString("join_sound_id")
-                    ));
+    private void loadGuildConfigs() {
+        try {
+            List<GuildConfig> configs = pool.read(conn -> {
+                List<GuildConfig> result = new ArrayList<>();
+                try (ResultSet rs = conn.prepare("SELECT * FROM guild_configs").executeQuery()) {
+                    while (rs.next()) {
+                        result.add(readGuildConfig(rs));
+                    }
                 }
-            } catch (SQLException e) {
-                LOGGER.error("Erro ao buscar GuildConfig para guild {}:", guildId, e);
-                throw new RuntimeException("DB Error fetching guild config for guild " + guildId, e);
-            }
-            return Optional.empty();
-        }, dbExecutor);
+                return result;
+            });
+            configs.forEach(config -> guildConfigs.put(config.guildId, config));
+            guildConfigsLoaded = true;
+            LOGGER.info("{} configurações de guild carregadas em memória.", configs.size());
+        } catch (SQLException e) {
+            LOGGER.error("Erro ao carregar guild_configs; as configurações serão lidas do banco sob demanda:", e);
+        }
     }
 
-    public CompletableFuture<Void> updateGuildConfig(GuildConfig config) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                    INSERT OR REPLACE INTO guild_configs (
-                        guild_id, log_channel_id, welcome_channel_id, auto_assign_role_id,
-                        recordings_channel_id, temp_hub_channel_id, temp_channel_category_id, temp_channel_name_prefix,
-                        default_temp_channel_user_limit, default_temp_channel_lock, join_sound_id
-                    ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?);"""; 
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                int i = 1;
-                pstmt.setString(i++, config.guildId);
-                pstmt.setString(i++, config.logChannelId);
-                pstmt.setString(i++, config.welcomeChannelId);
-                pstmt.setString(i++, config.autoAssignRoleId);
-                pstmt.setString(i++, config.recordingsChannelId);
-                pstmt.setString(i++, config.tempHubChannelId);
-                pstmt.setString(i++, config.tempChannelCategoryId);
-                pstmt.setString(i++, config.tempChannelNamePrefix);
-
-                if (config.defaultTempChannelUserLimit != null) {
-                    pstmt.setInt(i++, config.defaultTempChannelUserLimit);
-                } else {
-                    pstmt.setNull(i++, Types.INTEGER);
-                }
+    /**
+     * Versão assíncrona de {@link #getCachedGuildConfig(String)}; completa na hora quando a guild está em memória.
+     */
+    @Override
+    public CompletableFuture<Optional<GuildConfig>> getGuildConfig(String guildId) {
+        GuildConfig cached = guildConfigs.get(guildId);
+        if (cached != null || guildConfigsLoaded) {
+            return CompletableFuture.completedFuture(Optional.ofNullable(cached).map(GuildConfig::new));
+        }
+        return supplyTimed("getGuildConfig", () -> getCachedGuildConfig(guildId), dbExecutor.keyed(guildKey(guildId)));
+    }
 
-                if (config.defaultTempChannelLock != null) {
-                    pstmt.setInt(i++, config.defaultTempChannelLock);
-                } else {
-                    pstmt.setNull(i++, Types.INTEGER);
+    /**
+     * Leitura síncrona para listeners quentes: vem da memória, sem passar pelo executor do banco.
+     * Só consulta o banco (na thread de quem chama) se a carga inicial tiver falhado.
+     *
+     * @return Uma cópia da configuração, que pode ser alterada e passada para {@link #updateGuildConfig(GuildConfig)}.
+     */
+    @Override
+    public Optional<GuildConfig> getCachedGuildConfig(String guildId) {
+        GuildConfig cached = guildConfigs.get(guildId);
+        if (cached != null || guildConfigsLoaded) {
+            return Optional.ofNullable(cached).map(GuildConfig::new);
+        }
+        String sql = "SELECT * FROM guild_configs WHERE guild_id = ?";
+        try {
+            return pool.read(conn -> {
+                PreparedStatement pstmt = conn.prepare(sql);
+                pstmt.setString(1, guildId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        GuildConfig config = readGuildConfig(rs);
+                        guildConfigs.putIfAbsent(guildId, config);
+                        return Optional.of(new GuildConfig(config));
+                    }
                 }
+                return Optional.<GuildConfig>empty();
+            });
+        } catch (SQLException e) {
+            LOGGER.error("Erro ao buscar GuildConfig para guild {}:", guildId, e);
+            throw new RuntimeException("DB Error fetching guild config for guild " + guildId, e);
+        }
+    }
 
-                pstmt.setString(i++, config.joinSoundId);
+    private static GuildConfig readGuildConfig(ResultSet rs) throws SQLException {
+        return new GuildConfig(
+                rs.getString("guild_id"),
+                rs.getString("log_channel_id"),
+                rs.getString("welcome_channel_id"),
+                rs.getString("auto_assign_role_id"),
+                rs.getString("recordings_channel_id"),
+                rs.getString("temp_hub_channel_id"),
+                rs.getString("temp_channel_category_id"),
+                rs.getString("temp_channel_name_prefix"),
+                getNullableInt(rs, "default_temp_channel_user_limit"),
+                getNullableInt(rs, "default_temp_channel_lock"),
+                rs.getString("join_sound_id")
+        );
+    }
 
-                pstmt.executeUpdate();
+    @Override
+    public CompletableFuture<Void> updateGuildConfig(GuildConfig config) {
+        return runTimed("updateGuildConfig", () -> {
+            try {
+                pool.write(conn -> {
+                    PreparedStatement pstmt = conn.prepare(UPSERT_GUILD_CONFIG_SQL);
+                    bindGuildConfig(pstmt, config);
+                    int updated = pstmt.executeUpdate();
+                    // Ainda sob o lock de escrita: a memória muda na mesma ordem que o banco.
+                    guildConfigs.put(config.guildId, new GuildConfig(config));
+                    return updated;
+                });
                 LOGGER.info("Configuração da Guild {} atualizada/inserida no DB.", config.guildId);
             } catch (SQLException e) {
                 LOGGER.error("Erro ao atualizar GuildConfig para guild {}:", config.guildId, e);
                 throw new RuntimeException("DB Error updating guild config for guild " + config.guildId, e);
             }
+        }, dbExecutor.keyed(guildKey(config.guildId)));
+    }
+
+    /**
+     * Grava todas as configurações numa única transação, com um statement em batch.
+     */
+    @Override
+    public CompletableFuture<Void> updateGuildConfigs(Collection<GuildConfig> configs) {
+        if (configs.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return runTimed("updateGuildConfigs", () -> {
+            try {
+                pool.transaction(conn -> {
+                    PreparedStatement pstmt = conn.prepare(UPSERT_GUILD_CONFIG_SQL);
+                    for (GuildConfig config : configs) {
+                        bindGuildConfig(pstmt, config);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    for (GuildConfig config : configs) {
+                        guildConfigs.put(config.guildId, new GuildConfig(config));
+                    }
+                    return null;
+                });
+                LOGGER.info("{} configurações de guild gravadas em lote.", configs.size());
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao gravar lote de {} configurações de guild:", configs.size(), e);
+                throw new RuntimeException("DB Error updating guild config batch of " + configs.size() + " entries", e);
+            }
         }, dbExecutor);
     }
 
+    private static void bindGuildConfig(PreparedStatement pstmt, GuildConfig config) throws SQLException {
+        int i = 1;
+        pstmt.setString(i++, config.guildId);
+        pstmt.setString(i++, config.logChannelId);
+        pstmt.setString(i++, config.welcomeChannelId);
+        pstmt.setString(i++, config.autoAssignRoleId);
+        pstmt.setString(i++, config.recordingsChannelId);
+        pstmt.setString(i++, config.tempHubChannelId);
+        pstmt.setString(i++, config.tempChannelCategoryId);
+        pstmt.setString(i++, config.tempChannelNamePrefix);
+
+        if (config.defaultTempChannelUserLimit != null) {
+            pstmt.setInt(i++, config.defaultTempChannelUserLimit);
+        } else {
+            pstmt.setNull(i++, Types.INTEGER);
+        }
+
+        if (config.defaultTempChannelLock != null) {
+            pstmt.setInt(i++, config.defaultTempChannelLock);
+        } else {
+            pstmt.setNull(i++, Types.INTEGER);
+        }
+
+        pstmt.setString(i, config.joinSoundId);
+    }
+
+    @Override
     public CompletableFuture<UserXP> getUserXP(String guildId, String userId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyTimed("getUserXP", () -> {
             String sql = "SELECT guild_id, user_id, xp, level, last_message_timestamp FROM user_xp WHERE guild_id = ? AND user_id = ?";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, guildId);
-                pstmt.setString(2, userId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return new UserXP(
-                            rs.getString("guild_id"),
-                            rs.getString("user_id"),
-                            rs.getInt("xp"),
-                            rs.getInt("level"),
-                            rs.getLong("last_message_timestamp")
-                    );
-                }
+            try {
+                return pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    pstmt.setString(2, userId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            return readUserXP(rs);
+                        }
+                    }
+                    return new UserXP(guildId, userId, 0, 0, 0);
+                });
             } catch (SQLException e) {
                 LOGGER.error("Erro ao buscar UserXP para guild {} user {}:", guildId, userId, e);
                 throw new RuntimeException("DB Error fetching XP for user " + userId, e);
             }
-            return new UserXP(guildId, userId, 0, 0, 0);
-        }, dbExecutor);
+        }, dbExecutor.keyed(userKey("xp", guildId, userId)));
     }
 
+    @Override
     public CompletableFuture<Void> updateUserXP(String guildId, String userId, int newXp, int newLevel, long lastMessageTimestamp) {
-        return CompletableFuture.runAsync(() -> {
+        return runTimed("updateUserXP", () -> {
             String sql = """
-                    INSERT OR REPLACE INTO user_xp (guild_id, user_id, xp, level, last_message_timestamp)
-                    VALUES (?, ?, ?, ?, ?);""";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, guildId);
-                pstmt.setString(2, userId);
-                pstmt.setInt(3, newXp);
-                pstmt.setInt(4, newLevel);
-                pstmt.setLong(5, lastMessageTimestamp);
-                pstmt.executeUpdate();
+                    INSERT INTO user_xp (guild_id, user_id, xp, level, last_message_timestamp) VALUES (?, ?, ?, ?, ?)
+                    ON CONFLICT (guild_id, user_id) DO UPDATE SET
+                        xp = excluded.xp, level = excluded.level, last_message_timestamp = excluded.last_message_timestamp;""";
+            try {
+                pool.write(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    pstmt.setString(2, userId);
+                    pstmt.setInt(3, newXp);
+                    pstmt.setInt(4, newLevel);
+                    pstmt.setLong(5, lastMessageTimestamp);
+                    return pstmt.executeUpdate();
+                });
             } catch (SQLException e) {
                 LOGGER.error("Erro ao atualizar/inserir UserXP para guild {} user {}:", guildId, userId, e);
                 throw new RuntimeException("DB Error updating XP for user " + userId, e);
             }
+        }, dbExecutor.keyed(userKey("xp", guildId, userId)));
+    }
+
+    /**
+     * Grava vários registros de XP numa única transação, com um statement em batch.
+     */
+    @Override
+    public CompletableFuture<Void> updateUserXPBatch(Collection<UserXP> entries) {
+        return updateUserXPBatch(entries, List.of());
+    }
+
+    /**
+     * Grava os totais de XP e soma {@code hourly} em user_xp_hourly, tudo numa única transação.
+     */
+    @Override
+    public CompletableFuture<Void> updateUserXPBatch(Collection<UserXP> entries, Collection<XPBucket> hourly) {
+        if (entries.isEmpty() && hourly.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return runTimed("updateUserXPBatch", () -> {
+            String sql = """
+                    INSERT INTO user_xp (guild_id, user_id, xp, level, last_message_timestamp) VALUES (?, ?, ?, ?, ?)
+                    ON CONFLICT (guild_id, user_id) DO UPDATE SET
+                        xp = excluded.xp, level = excluded.level, last_message_timestamp = excluded.last_message_timestamp;""";
+            String hourlySql = """
+                    INSERT INTO user_xp_hourly (guild_id, user_id, hour, xp) VALUES (?, ?, ?, ?)
+                    ON CONFLICT (guild_id, user_id, hour) DO UPDATE SET xp = xp + excluded.xp;""";
+            try {
+                pool.transaction(conn -> {
+                    if (!entries.isEmpty()) {
+                        PreparedStatement pstmt = conn.prepare(sql);
+                        for (UserXP entry : entries) {
+                            pstmt.setString(1, entry.getGuildId());
+                            pstmt.setString(2, entry.getUserId());
+                            pstmt.setInt(3, entry.getXp());
+                            pstmt.setInt(4, entry.getLevel());
+                            pstmt.setLong(5, entry.getLastMessageTimestamp());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                    if (!hourly.isEmpty()) {
+                        PreparedStatement pstmt = conn.prepare(hourlySql);
+                        for (XPBucket bucket : hourly) {
+                            pstmt.setString(1, bucket.getGuildId());
+                            pstmt.setString(2, bucket.getUserId());
+                            pstmt.setLong(3, bucket.getBucket());
+                            pstmt.setInt(4, bucket.getXp());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
+                    return null;
+                });
+                LOGGER.debug("{} registros de XP e {} horas de XP gravados em lote.", entries.size(), hourly.size());
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao gravar lote de {} registros de XP:", entries.size(), e);
+                throw new RuntimeException("DB Error updating XP batch of " + entries.size() + " entries", e);
+            }
+        }, dbExecutor);
+    }
+
+    /**
+     * Soma as horas anteriores a {@code rollupBeforeHour} em user_xp_daily e apaga os dias anteriores a
+     * {@code expireBeforeDay}, numa única transação.
+     *
+     * @return Quantas linhas horárias foram consolidadas.
+     */
+    @Override
+    public CompletableFuture<Integer> rollupXPBuckets(long rollupBeforeHour, long expireBeforeDay) {
+        return supplyTimed("rollupXPBuckets", () -> {
+            String rollupSql = """
+                    INSERT INTO user_xp_daily (guild_id, user_id, day, xp)
+                    SELECT guild_id, user_id, hour / 24, SUM(xp) FROM user_xp_hourly WHERE hour < ?
+                    GROUP BY guild_id, user_id, hour / 24
+                    ON CONFLICT (guild_id, user_id, day) DO UPDATE SET xp = xp + excluded.xp;""";
+            try {
+                return pool.transaction(conn -> {
+                    PreparedStatement rollup = conn.prepare(rollupSql);
+                    rollup.setLong(1, rollupBeforeHour);
+                    rollup.executeUpdate();
+                    PreparedStatement deleteHourly = conn.prepare("DELETE FROM user_xp_hourly WHERE hour < ?");
+                    deleteHourly.setLong(1, rollupBeforeHour);
+                    int rolledUp = deleteHourly.executeUpdate();
+                    PreparedStatement deleteDaily = conn.prepare("DELETE FROM user_xp_daily WHERE day < ?");
+                    deleteDaily.setLong(1, expireBeforeDay);
+                    deleteDaily.executeUpdate();
+                    return rolledUp;
+                });
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao consolidar XP por hora:", e);
+                throw new RuntimeException("DB Error rolling up hourly XP", e);
+            }
+        }, dbExecutor);
+    }
+
+    /**
+     * Percorre user_xp_hourly a partir de {@code fromHour} sem montar uma lista com tudo.
+     * {@code consumer} roda na thread do banco.
+     */
+    @Override
+    public CompletableFuture<Void> scanHourlyXP(long fromHour, Consumer<XPBucket> consumer) {
+        return scanXPBuckets("scanHourlyXP", "SELECT guild_id, user_id, hour, xp FROM user_xp_hourly WHERE hour >= ?", fromHour, consumer);
+    }
+
+    /**
+     * Como {@link #scanHourlyXP(long, Consumer)}, para user_xp_daily.
+     */
+    @Override
+    public CompletableFuture<Void> scanDailyXP(long fromDay, Consumer<XPBucket> consumer) {
+        return scanXPBuckets("scanDailyXP", "SELECT guild_id, user_id, day, xp FROM user_xp_daily WHERE day >= ?", fromDay, consumer);
+    }
+
+    private CompletableFuture<Void> scanXPBuckets(String operation, String sql, long from, Consumer<XPBucket> consumer) {
+        return runTimed(operation, () -> {
+            try {
+                pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setLong(1, from);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            consumer.accept(new XPBucket(rs.getString(1), rs.getString(2), rs.getLong(3), rs.getInt(4)));
+                        }
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao ler XP por janela de tempo:", e);
+                throw new RuntimeException("DB Error scanning XP buckets", e);
+            }
         }, dbExecutor);
     }
 
+    @Override
     public CompletableFuture<List<UserXP>> getTopXPUsers(String guildId, int limit) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyTimed("getTopXPUsers", () -> {
             String sql = "SELECT guild_id, user_id, xp, level, last_message_timestamp FROM user_xp WHERE guild_id = ? ORDER BY xp DESC, level DESC LIMIT ?";
-            List<UserXP> topUsers = new ArrayList<>();
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, guildId);
-                pstmt.setInt(2, limit);
-                ResultSet rs = pstmt.executeQuery();
-                while (rs.next()) {
-                    topUsers.add(new UserXP(
-                            rs.getString("guild_id"),
-                            rs.getString("user_id"),
-                            rs.getInt("xp"),
-                            rs.getInt("level"),
-                            rs.getLong("last_message_timestamp")
-                    ));
-                }
+            try {
+                return pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    pstmt.setInt(2, limit);
+                    List<UserXP> topUsers = new ArrayList<>();
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            topUsers.add(readUserXP(rs));
+                        }
+                    }
+                    return topUsers;
+                });
             } catch (SQLException e) {
                 LOGGER.error("Erro ao buscar top XP users para guild {}:", guildId, e);
                 throw new RuntimeException("DB Error fetching top XP users for guild " + guildId, e);
             }
-            return topUsers;
         }, dbExecutor);
     }
 
+    /**
+     * @return Todos os registros de XP da guild, sem ordem definida.
+     */
+    @Override
+    public CompletableFuture<List<UserXP>> getGuildXP(String guildId) {
+        return supplyTimed("getGuildXP", () -> {
+            String sql = "SELECT guild_id, user_id, xp, level, last_message_timestamp FROM user_xp WHERE guild_id = ?";
+            try {
+                return pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    List<UserXP> rows = new ArrayList<>();
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(readUserXP(rs));
+                        }
+                    }
+                    return rows;
+                });
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao buscar XP da guild {}:", guildId, e);
+                throw new RuntimeException("DB Error fetching XP rows for guild " + guildId, e);
+            }
+        }, dbExecutor);
+    }
+
+    /**
+     * Percorre o XP da guild com um cursor, na ordem de user_id. {@code consumer} roda na thread do banco
+     * e segura uma conexão de leitura até o fim.
+     */
+    @Override
+    public CompletableFuture<Void> scanUserXP(String guildId, Consumer<UserXP> consumer) {
+        return runTimed("scanUserXP", () -> {
+            String sql = "SELECT guild_id, user_id, xp, level, last_message_timestamp FROM user_xp WHERE guild_id = ? ORDER BY user_id";
+            try {
+                pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            consumer.accept(readUserXP(rs));
+                        }
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao percorrer XP da guild {}:", guildId, e);
+                throw new RuntimeException("DB Error scanning XP rows for guild " + guildId, e);
+            }
+        }, dbExecutor);
+    }
+
+    /**
+     * O driver do SQLite não converte NULL em {@code getObject(coluna, Integer.class)}; lança exceção.
+     */
+    private static Integer getNullableInt(ResultSet rs, String column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static UserXP readUserXP(ResultSet rs) throws SQLException {
+        return new UserXP(
+                rs.getString("guild_id"),
+                rs.getString("user_id"),
+                rs.getInt("xp"),
+                rs.getInt("level"),
+                rs.getLong("last_message_timestamp")
+        );
+    }
+
+    @Override
     public CompletableFuture<Void> addTemporaryChannel(String channelId, String guildId, String ownerUserId) {
-        return CompletableFuture.runAsync(() -> {
+        return runTimed("addTemporaryChannel", () -> {
             String sql = "INSERT INTO temporary_channels (channel_id, guild_id, owner_user_id, created_at_timestamp) VALUES (?, ?, ?, ?)";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, channelId);
-                pstmt.setString(2, guildId);
-                pstmt.setString(3, ownerUserId);
-                pstmt.setLong(4, System.currentTimeMillis());
-                pstmt.executeUpdate();
+            try {
+                pool.write(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, channelId);
+                    pstmt.setString(2, guildId);
+                    pstmt.setString(3, ownerUserId);
+                    pstmt.setLong(4, System.currentTimeMillis());
+                    return pstmt.executeUpdate();
+                });
                 LOGGER.info("Canal temporário {} adicionado ao DB.", channelId);
             } catch (SQLException e) {
                 LOGGER.error("Erro ao adicionar canal temporário {} ao DB:", channelId, e);
                 throw new RuntimeException("DB Error adding temporary channel " + channelId, e);
             }
-        }, dbExecutor);
+        }, dbExecutor.keyed(channelKey(channelId)));
     }
 
+    @Override
     public CompletableFuture<Optional<TemporaryChannelRecord>> getTemporaryChannel(String channelId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyTimed("getTemporaryChannel", () -> {
             String sql = "SELECT channel_id, guild_id, owner_user_id, created_at_timestamp, locked FROM temporary_channels WHERE channel_id = ?";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, channelId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return Optional.of(new TemporaryChannelRecord(
-                            rs.getString("channel_id"),
-                            rs.getString("guild_id"),
-                            rs.getString("owner_user_id"),
-                            rs.getLong("created_at_timestamp"),
-                            rs.getInt("locked")
-                    ));
-                }
+            try {
+                return pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, channelId);
+                    return readTemporaryChannel(pstmt);
+                });
             } catch (SQLException e) {
                 LOGGER.error("Erro ao buscar canal temporário {} do DB:", channelId, e);
                 throw new RuntimeException("DB Error fetching temporary channel " + channelId, e);
             }
-            return Optional.empty();
-        }, dbExecutor);
+        }, dbExecutor.keyed(channelKey(channelId)));
     }
 
+    @Override
     public CompletableFuture<Optional<TemporaryChannelRecord>> getTemporaryChannelByOwner(String guildId, String ownerUserId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyTimed("getTemporaryChannelByOwner", () -> {
             String sql = "SELECT channel_id, guild_id, owner_user_id, created_at_timestamp, locked " +
                     "FROM temporary_channels WHERE guild_id = ? AND owner_user_id = ?";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, guildId);
-                pstmt.setString(2, ownerUserId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    return Optional.of(new TemporaryChannelRecord(
-                            rs.getString("channel_id"),
-                            rs.getString("guild_id"),
-                            rs.getString("owner_user_id"),
-                            rs.getLong("created_at_timestamp"),
-                            rs.getInt("locked")
-                    ));
-                }
+            try {
+                return pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    pstmt.setString(2, ownerUserId);
+                    return readTemporaryChannel(pstmt);
+                });
             } catch (SQLException e) {
                 LOGGER.error("Erro ao buscar canal temporário pelo dono {} na guild {}:", ownerUserId, guildId, e);
                 throw new RuntimeException("DB Error fetching temporary channel by owner " + ownerUserId, e);
             }
-            return Optional.empty();
         }, dbExecutor);
     }
 
+    private static Optional<TemporaryChannelRecord> readTemporaryChannel(PreparedStatement pstmt) throws SQLException {
+        try (ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next()) {
+                return Optional.of(new TemporaryChannelRecord(
+                        rs.getString("channel_id"),
+                        rs.getString("guild_id"),
+                        rs.getString("owner_user_id"),
+                        rs.getLong("created_at_timestamp"),
+                        rs.getInt("locked")
+                ));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
     public CompletableFuture<Void> updateTemporaryChannelOwner(String channelId, String newOwnerId) {
-        return CompletableFuture.runAsync(() -> {
+        return runTimed("updateTemporaryChannelOwner", () -> {
             String sql = "UPDATE temporary_channels SET owner_user_id = ? WHERE channel_id = ?";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, newOwnerId);
-                pstmt.setString(2, channelId);
-                pstmt.executeUpdate();
+            try {
+                pool.write(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, newOwnerId);
+                    pstmt.setString(2, channelId);
+                    return pstmt.executeUpdate();
+                });
                 LOGGER.info("Dono do canal temporário {} atualizado para {} no DB.", channelId, newOwnerId);
             } catch (SQLException e) {
                 LOGGER.error("Erro ao atualizar dono do canal temporário {} no DB:", channelId, e);
                 throw new RuntimeException("DB Error updating temporary channel owner for " + channelId, e);
             }
-        }, dbExecutor);
+        }, dbExecutor.keyed(channelKey(channelId)));
     }
 
+    @Override
     public void removeTemporaryChannel(String channelId) {
-        CompletableFuture.runAsync(() -> {
+        runTimed("removeTemporaryChannel", () -> {
             String sql = "DELETE FROM temporary_channels WHERE channel_id = ?";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, channelId);
-                int affectedRows = pstmt.executeUpdate();
+            try {
+                int affectedRows = pool.write(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, channelId);
+                    return pstmt.executeUpdate();
+                });
                 if (affectedRows > 0) {
                     LOGGER.info("Canal temporário {} removido do DB.", channelId);
                 }
@@ -362,59 +713,237 @@ public class DatabaseManager {
                 LOGGER.error("Erro ao remover canal temporário {} do DB:", channelId, e);
                 throw new RuntimeException("DB Error removing temporary channel " + channelId, e);
             }
-        }, dbExecutor);
+        }, dbExecutor.keyed(channelKey(channelId)));
     }
 
+    @Override
     public CompletableFuture<Optional<UserChannelPreference>> getUserChannelPreference(String guildId, String userId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return supplyTimed("getUserChannelPreference", () -> {
             String sql = "SELECT preferred_user_limit, preferred_name_template, locked, auto_owner_switching FROM user_channel_preferences WHERE guild_id = ? AND user_id = ?";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, guildId);
-                pstmt.setString(2, userId);
-                ResultSet rs = pstmt.executeQuery();
-                if (rs.next()) {
-                    Integer limit = rs.getObject("preferred_user_limit", Integer.class);
-                    String nameTemplate = rs.getString("preferred_name_template");
-                    Integer defaultLocked = rs.getObject("locked", Integer.class);
-                    Integer autoSwitch = rs.getObject("auto_owner_switching", Integer.class);
-                    return Optional.of(new UserChannelPreference(guildId, userId, limit, nameTemplate, defaultLocked, autoSwitch));
-                }
+            try {
+                return pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    pstmt.setString(2, userId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        return rs.next() ? Optional.of(readUserChannelPreference(rs, guildId, userId)) : Optional.<UserChannelPreference>empty();
+                    }
+                });
             } catch (SQLException e) {
                 LOGGER.error("Erro ao buscar UserChannelPreference para guild {} user {}:", guildId, userId, e);
                 throw new RuntimeException("DB Error fetching user channel preference for user " + userId, e);
             }
-            return Optional.empty();
-        }, dbExecutor);
+        }, dbExecutor.keyed(userKey("prefs", guildId, userId)));
     }
 
+    @Override
     public CompletableFuture<Void> updateUserChannelPreference(String guildId, String userId, Integer preferredUserLimit, String preferredNameTemplate, Integer defaultLocked, Integer autoOwnerSwitching) {
-        return CompletableFuture.runAsync(() -> {
-            String sql = """
-                    INSERT OR REPLACE INTO user_channel_preferences
-                    (guild_id, user_id, preferred_user_limit, preferred_name_template, locked, auto_owner_switching)
-                    VALUES (?, ?, ?, ?, ?, ?);""";
-            try (Connection conn = connect();
-                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                pstmt.setString(1, guildId);
-                pstmt.setString(2, userId);
-                if (preferredUserLimit != null) pstmt.setInt(3, preferredUserLimit);
-                else pstmt.setNull(3, Types.INTEGER);
-                if (preferredNameTemplate != null) pstmt.setString(4, preferredNameTemplate);
-                else pstmt.setNull(4, Types.VARCHAR);
-                if (defaultLocked != null) pstmt.setInt(5, defaultLocked);
-                else pstmt.setNull(5, Types.INTEGER);
-                if (autoOwnerSwitching != null) pstmt.setInt(6, autoOwnerSwitching);
-                else pstmt.setNull(6, Types.INTEGER);
-                pstmt.executeUpdate();
+        return runTimed("updateUserChannelPreference", () -> {
+            try {
+                pool.write(conn -> {
+                    PreparedStatement pstmt = conn.prepare(UPSERT_PREFERENCE_SQL);
+                    bindPreference(pstmt, new UserChannelPreference(guildId, userId, preferredUserLimit, preferredNameTemplate, defaultLocked, autoOwnerSwitching));
+                    return pstmt.executeUpdate();
+                });
                 LOGGER.info("Preferências de canal para user {} na guild {} atualizadas/inseridas.", userId, guildId);
             } catch (SQLException e) {
                 LOGGER.error("Erro ao atualizar/inserir UserChannelPreference para guild {} user {}:", guildId, userId, e);
                 throw new RuntimeException("DB Error updating user channel preference for user " + userId, e);
             }
+        }, dbExecutor.keyed(userKey("prefs", guildId, userId)));
+    }
+
+    /**
+     * Grava todas as preferências numa única transação, com um statement em batch.
+     */
+    @Override
+    public CompletableFuture<Void> updateUserChannelPreferences(Collection<UserChannelPreference> preferences) {
+        if (preferences.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return runTimed("updateUserChannelPreferences", () -> {
+            try {
+                pool.transaction(conn -> {
+                    PreparedStatement pstmt = conn.prepare(UPSERT_PREFERENCE_SQL);
+                    for (UserChannelPreference preference : preferences) {
+                        bindPreference(pstmt, preference);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    return null;
+                });
+                LOGGER.debug("{} preferências de canal gravadas em lote.", preferences.size());
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao gravar lote de {} preferências de canal:", preferences.size(), e);
+                throw new RuntimeException("DB Error updating user channel preference batch of " + preferences.size() + " entries", e);
+            }
         }, dbExecutor);
     }
 
+    private static void bindPreference(PreparedStatement pstmt, UserChannelPreference preference) throws SQLException {
+        pstmt.setString(1, preference.guildId);
+        pstmt.setString(2, preference.userId);
+        if (preference.preferredUserLimit != null) pstmt.setInt(3, preference.preferredUserLimit);
+        else pstmt.setNull(3, Types.INTEGER);
+        if (preference.preferredName != null) pstmt.setString(4, preference.preferredName);
+        else pstmt.setNull(4, Types.VARCHAR);
+        if (preference.defaultLocked != null) pstmt.setInt(5, preference.defaultLocked);
+        else pstmt.setNull(5, Types.INTEGER);
+        if (preference.autoOwnerSwitching != null) pstmt.setInt(6, preference.autoOwnerSwitching);
+        else pstmt.setNull(6, Types.INTEGER);
+    }
+
+    /**
+     * Percorre as preferências da guild com um cursor, na ordem de user_id. {@code consumer} roda na thread
+     * do banco e segura uma conexão de leitura até o fim.
+     */
+    @Override
+    public CompletableFuture<Void> scanUserChannelPreferences(String guildId, Consumer<UserChannelPreference> consumer) {
+        return runTimed("scanUserChannelPreferences", () -> {
+            String sql = "SELECT user_id, preferred_user_limit, preferred_name_template, locked, auto_owner_switching " +
+                    "FROM user_channel_preferences WHERE guild_id = ? ORDER BY user_id";
+            try {
+                pool.read(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    pstmt.setString(1, guildId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            consumer.accept(readUserChannelPreference(rs, guildId, rs.getString("user_id")));
+                        }
+                    }
+                    return null;
+                });
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao percorrer preferências de canal da guild {}:", guildId, e);
+                throw new RuntimeException("DB Error scanning user channel preferences for guild " + guildId, e);
+            }
+        }, dbExecutor);
+    }
+
+    private static UserChannelPreference readUserChannelPreference(ResultSet rs, String guildId, String userId) throws SQLException {
+        return new UserChannelPreference(
+                guildId,
+                userId,
+                getNullableInt(rs, "preferred_user_limit"),
+                rs.getString("preferred_name_template"),
+                getNullableInt(rs, "locked"),
+                getNullableInt(rs, "auto_owner_switching")
+        );
+    }
+
+    /**
+     * Muda só o limite de usuários preferido, criando as preferências com os valores padrão se não existirem.
+     *
+     * @return As preferências completas depois da mudança.
+     */
+    @Override
+    public CompletableFuture<UserChannelPreference> setPreferredUserLimit(String guildId, String userId, Integer preferredUserLimit) {
+        return upsertPreference("setPreferredUserLimit", guildId, userId, "preferred_user_limit", "?", "excluded.preferred_user_limit", preferredUserLimit);
+    }
+
+    @Override
+    public CompletableFuture<UserChannelPreference> setPreferredNameTemplate(String guildId, String userId, String preferredNameTemplate) {
+        return upsertPreference("setPreferredNameTemplate", guildId, userId, "preferred_name_template", "?", "excluded.preferred_name_template", preferredNameTemplate);
+    }
+
+    @Override
+    public CompletableFuture<UserChannelPreference> setDefaultLocked(String guildId, String userId, int defaultLocked) {
+        return upsertPreference("setDefaultLocked", guildId, userId, "locked", "?", "excluded.locked", defaultLocked);
+    }
+
+    /**
+     * Inverte a troca automática de dono no próprio banco; preferências novas partem do padrão (desativada).
+     *
+     * @return As preferências completas depois da troca.
+     */
+    @Override
+    public CompletableFuture<UserChannelPreference> toggleAutoOwnerSwitching(String guildId, String userId) {
+        return upsertPreference("toggleAutoOwnerSwitching", guildId, userId, "auto_owner_switching", "1",
+                "CASE WHEN COALESCE(auto_owner_switching, 0) = 0 THEN 1 ELSE 0 END", null);
+    }
+
+    /**
+     * Upsert de uma coluna só. As outras colunas de uma linha nova recebem os padrões de
+     * {@link UserChannelPreference#UserChannelPreference(String, String)}.
+     *
+     * @param insertValue Valor da coluna numa linha nova ("?" para usar {@code value}).
+     * @param updateValue Expressão da coluna numa linha existente.
+     */
+    private CompletableFuture<UserChannelPreference> upsertPreference(String operation, String guildId, String userId, String column,
+                                                                      String insertValue, String updateValue, Object value) {
+        UserChannelPreference defaults = new UserChannelPreference(guildId, userId);
+        Object[] defaultValues = {defaults.preferredUserLimit, defaults.preferredName, defaults.defaultLocked, defaults.autoOwnerSwitching};
+        return supplyTimed(operation, () -> {
+            StringBuilder values = new StringBuilder("?, ?");
+            for (String name : PREFERENCE_COLUMNS) {
+                values.append(", ").append(name.equals(column) ? insertValue : "?");
+            }
+            String sql = "INSERT INTO user_channel_preferences (guild_id, user_id, " + String.join(", ", PREFERENCE_COLUMNS) + ") " +
+                    "VALUES (" + values + ") " +
+                    "ON CONFLICT (guild_id, user_id) DO UPDATE SET " + column + " = " + updateValue + " " +
+                    "RETURNING " + String.join(", ", PREFERENCE_COLUMNS) + ";";
+            try {
+                return pool.write(conn -> {
+                    PreparedStatement pstmt = conn.prepare(sql);
+                    int i = 1;
+                    pstmt.setString(i++, guildId);
+                    pstmt.setString(i++, userId);
+                    for (int c = 0; c < PREFERENCE_COLUMNS.length; c++) {
+                        if (!PREFERENCE_COLUMNS[c].equals(column)) {
+                            pstmt.setObject(i++, defaultValues[c]);
+                        } else if ("?".equals(insertValue)) {
+                            pstmt.setObject(i++, value);
+                        }
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        rs.next();
+                        return readUserChannelPreference(rs, guildId, userId);
+                    }
+                });
+            } catch (SQLException e) {
+                LOGGER.error("Erro ao atualizar {} das preferências de canal para guild {} user {}:", column, guildId, userId, e);
+                throw new RuntimeException("DB Error updating " + column + " for user " + userId, e);
+            }
+        }, dbExecutor.keyed(userKey("prefs", guildId, userId)));
+    }
+
+    /**
+     * Como {@link CompletableFuture#supplyAsync(Supplier, Executor)}, registrando a operação em {@link #getOperationStats()}.
+     */
+    private <T> CompletableFuture<T> supplyTimed(String operation, Supplier<T> task, Executor executor) {
+        DbMetrics.Operation timer = metrics.start(operation);
+        return CompletableFuture.supplyAsync(() -> timer.run(task), executor);
+    }
+
+    private CompletableFuture<Void> runTimed(String operation, Runnable task, Executor executor) {
+        return supplyTimed(operation, () -> {
+            task.run();
+            return null;
+        }, executor);
+    }
+
+    /**
+     * Tempos de cada operação desde a abertura do banco: espera até ter uma conexão e execução com ela.
+     */
+    public List<DbOperationStats> getOperationStats() {
+        return metrics.snapshot();
+    }
+
+    private static String guildKey(String guildId) {
+        return "guild:" + guildId;
+    }
+
+    private static String channelKey(String channelId) {
+        return "channel:" + channelId;
+    }
+
+    /**
+     * Chave das operações de uma tabela sobre um usuário numa guild, como "xp" ou "prefs".
+     */
+    private static String userKey(String table, String guildId, String userId) {
+        return table + ':' + guildId + ':' + userId;
+    }
+
     public void shutdown() {
         LOGGER.info("Desligando o Executor de Banco de Dados...");
         dbExecutor.shutdown();
@@ -427,5 +956,9 @@ public class DatabaseManager {
             Thread.currentThread().interrupt();
             LOGGER.error("Desligamento do Executor de Banco de Dados interrompido.");
         }
+        pool.close();
+        for (DbOperationStats stats : metrics.snapshot()) {
+            LOGGER.info("DB stats: {}", stats);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.ladyluh.nekoffee.database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor das operações de banco. Cada tarefa roda numa virtual thread, mas no máximo {@code permits}
+ * ao mesmo tempo (o tamanho do pool de conexões): o resto espera no semáforo sem ocupar thread de plataforma.
+ * <p>
+ * Tarefas submetidas por {@link #keyed(String)} com a mesma chave (um canal, um usuário numa guild) rodam
+ * uma de cada vez, na ordem em que chegaram. A fila de cada chave é só a última tarefa dela: a próxima
+ * começa quando essa termina, e a chave sai do mapa quando a fila esvazia.
+ */
+class DbExecutor implements Executor {
+    private final Semaphore permits;
+    private final ExecutorService threads = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("Nekoffee-DB-", 0).factory());
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> tails = new ConcurrentHashMap<>();
+
+    DbExecutor(int permits) {
+        this.permits = new Semaphore(permits, true);
+    }
+
+    /**
+     * Executa sem ordem em relação às outras tarefas.
+     */
+    @Override
+    public void execute(Runnable task) {
+        threads.execute(() -> runBounded(task));
+    }
+
+    /**
+     * @return Um executor que enfileira as tarefas atrás das que já estão pendentes para {@code key}.
+     */
+    Executor keyed(String key) {
+        return task -> execute(key, task);
+    }
+
+    private void execute(String key, Runnable task) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        CompletableFuture<Void> previous = tails.put(key, done);
+        Runnable run = () -> {
+            try {
+                runBounded(task);
+            } finally {
+                tails.remove(key, done);
+                done.complete(null);
+            }
+        };
+        if (previous == null) {
+            threads.execute(run);
+            return;
+        }
+        previous.whenComplete((v, e) -> {
+            try {
+                threads.execute(run);
+            } catch (RejectedExecutionException rejected) {
+                // Desligando: roda aqui mesmo para a fila da chave não parar com tarefas esperando.
+                run.run();
+            }
+        });
+    }
+
+    private void runBounded(Runnable task) {
+        permits.acquireUninterruptibly();
+        try {
+            task.run();
+        } finally {
+            permits.release();
+        }
+    }
+
+    void shutdown() {
+        threads.shutdown();
+    }
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+
+    void shutdownNow() {
+        threads.shutdownNow();
+    }
+}
@@ -0,0 +1,15 @@
+package com.ladyluh.nekoffee.database;
+
+/**
+ * Resumo de um histograma de latências, em microssegundos.
+ *
+ * @param count Quantas medições entraram no histograma.
+ */
+public record DbLatency(long count, double meanMicros, long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+
+    @Override
+    public String toString() {
+        return String.format("mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                meanMicros / 1000.0, p50Micros / 1000.0, p95Micros / 1000.0, p99Micros / 1000.0, maxMicros / 1000.0);
+    }
+}
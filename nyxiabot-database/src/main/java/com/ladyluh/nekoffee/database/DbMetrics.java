@@ -0,0 +1,150 @@
+package com.ladyluh.nekoffee.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Tempos das operações do banco, por nome de operação: espera (da chamada até pegar uma conexão) e
+ * execução (com a conexão), cada um num {@link LatencyHistogram}.
+ * <p>
+ * A operação em andamento fica num {@link ThreadLocal} enquanto roda, e o {@link SqliteConnectionPool}
+ * avisa por ele quando entrega a conexão e quais SQLs foram preparados. Cada operação roda na sua
+ * própria virtual thread, então não há mistura entre elas.
+ */
+final class DbMetrics {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DbMetrics.class);
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+
+    private final ConcurrentHashMap<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+    private final long slowThresholdNanos;
+
+    DbMetrics(long slowThresholdMillis) {
+        this.slowThresholdNanos = slowThresholdMillis * 1_000_000;
+    }
+
+    /**
+     * Marca o início da espera; chamar antes de submeter a tarefa ao executor.
+     */
+    Operation start(String name) {
+        return new Operation(operations.computeIfAbsent(name, OperationMetrics::new), System.nanoTime());
+    }
+
+    /**
+     * Chamado pelo pool quando a thread atual recebe uma conexão. Só a primeira conta.
+     */
+    static void connectionAcquired() {
+        Operation operation = CURRENT.get();
+        if (operation != null && operation.acquiredAt == 0) {
+            operation.acquiredAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Chamado pelo pool a cada SQL preparado, para o log de consultas lentas.
+     */
+    static void statementPrepared(String sql) {
+        Operation operation = CURRENT.get();
+        if (operation != null && !operation.statements.contains(sql)) {
+            operation.statements.add(sql);
+        }
+    }
+
+    List<DbOperationStats> snapshot() {
+        List<DbOperationStats> stats = new ArrayList<>(operations.size());
+        for (OperationMetrics metrics : operations.values()) {
+            stats.add(new DbOperationStats(metrics.name, metrics.count.sum(), metrics.errors.sum(), metrics.slow.sum(),
+                    metrics.queueWait.snapshot(), metrics.execution.snapshot()));
+        }
+        stats.sort(Comparator.comparing(DbOperationStats::operation));
+        return stats;
+    }
+
+    /**
+     * SQL numa linha só. Os valores nunca aparecem: todos entram como parâmetros ({@code ?}).
+     */
+    private static String redact(List<String> statements) {
+        if (statements.isEmpty()) {
+            return "(nenhum SQL preparado)";
+        }
+        List<String> lines = new ArrayList<>(statements.size());
+        for (String sql : statements) {
+            lines.add(sql.replaceAll("\\s+", " ").trim());
+        }
+        return String.join(" | ", lines);
+    }
+
+    private static final class OperationMetrics {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram execution = new LatencyHistogram();
+
+        private OperationMetrics(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Uma execução de uma operação.
+     */
+    final class Operation {
+        private final OperationMetrics metrics;
+        private final long submittedAt;
+        private final List<String> statements = new ArrayList<>(2);
+        private long acquiredAt;
+
+        private Operation(OperationMetrics metrics, long submittedAt) {
+            this.metrics = metrics;
+            this.submittedAt = submittedAt;
+        }
+
+        /**
+         * Roda {@code task} na thread atual, medindo a espera desde {@link #start(String)} e a execução.
+         */
+        <T> T run(Supplier<T> task) {
+            Operation outer = CURRENT.get();
+            CURRENT.set(this);
+            boolean failed = true;
+            try {
+                T result = task.get();
+                failed = false;
+                return result;
+            } finally {
+                if (outer == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(outer);
+                }
+                finish(failed);
+            }
+        }
+
+        private void finish(boolean failed) {
+            long end = System.nanoTime();
+            // Sem conexão (erro antes dela, ou operação sem SQL): tudo conta como execução.
+            long acquired = acquiredAt == 0 ? submittedAt : acquiredAt;
+            long waitNanos = acquired - submittedAt;
+            long execNanos = end - acquired;
+            metrics.count.increment();
+            if (failed) {
+                metrics.errors.increment();
+            }
+            metrics.queueWait.record(waitNanos / 1000);
+            metrics.execution.record(execNanos / 1000);
+            if (execNanos >= slowThresholdNanos) {
+                metrics.slow.increment();
+                LOGGER.warn("Operação lenta no banco: {} levou {} ms executando (+{} ms de espera){}. SQL (parâmetros omitidos): {}",
+                        metrics.name, execNanos / 1_000_000, waitNanos / 1_000_000, failed ? " e falhou" : "", redact(statements));
+            }
+        }
+    }
+}
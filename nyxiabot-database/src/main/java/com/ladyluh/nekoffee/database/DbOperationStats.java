@@ -0,0 +1,20 @@
+package com.ladyluh.nekoffee.database;
+
+/**
+ * Contadores de uma operação do {@link DatabaseManager} num instante.
+ *
+ * @param operation Nome do método, como "getUserXP".
+ * @param errors    Execuções que terminaram com exceção.
+ * @param slow      Execuções acima do limite do log de consultas lentas.
+ * @param queueWait Da chamada até a operação conseguir uma conexão (executor, ordem por chave e pool).
+ * @param execution Com a conexão em mãos, até terminar.
+ */
+public record DbOperationStats(String operation, long count, long errors, long slow,
+                               DbLatency queueWait, DbLatency execution) {
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d, errors=%d, slow=%d, queue[%s], exec[%s]",
+                operation, count, errors, slow, queueWait, execution);
+    }
+}
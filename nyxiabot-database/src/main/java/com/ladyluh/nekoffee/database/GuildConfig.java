@@ -27,6 +27,12 @@ public class GuildConfig {
         this.joinSoundId = joinSoundId; 
     }
 
+    public GuildConfig(GuildConfig other) {
+        this(other.guildId, other.logChannelId, other.welcomeChannelId, other.autoAssignRoleId, other.recordingsChannelId,
+                other.tempHubChannelId, other.tempChannelCategoryId, other.tempChannelNamePrefix,
+                other.defaultTempChannelUserLimit, other.defaultTempChannelLock, other.joinSoundId);
+    }
+
     public GuildConfig(String guildId) {
         this.guildId = guildId;
         this.logChannelId = "";
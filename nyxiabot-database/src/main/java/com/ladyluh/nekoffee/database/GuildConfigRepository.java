@@ -0,0 +1,27 @@
+package com.ladyluh.nekoffee.database;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Configurações por guild.
+ */
+public interface GuildConfigRepository {
+
+    CompletableFuture<Optional<GuildConfig>> getGuildConfig(String guildId);
+
+    /**
+     * Leitura síncrona, para listeners quentes.
+     *
+     * @return Uma cópia da configuração, que pode ser alterada e passada para {@link #updateGuildConfig(GuildConfig)}.
+     */
+    Optional<GuildConfig> getCachedGuildConfig(String guildId);
+
+    CompletableFuture<Void> updateGuildConfig(GuildConfig config);
+
+    /**
+     * Grava várias configurações de uma vez, substituindo as existentes.
+     */
+    CompletableFuture<Void> updateGuildConfigs(Collection<GuildConfig> configs);
+}
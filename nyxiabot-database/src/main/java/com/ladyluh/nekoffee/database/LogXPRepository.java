@@ -0,0 +1,703 @@
+package com.ladyluh.nekoffee.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * {@link XPRepository} sem SQL, feito para a carga de escrita do XP.
+ * <p>
+ * Toda gravação é um registro de tamanho fixo no fim de {@code xp.log}; um lote é uma única escrita sequencial
+ * seguida de fsync. O valor mais recente de cada (guild, usuário) fica em {@code xp.idx}, uma tabela hash com
+ * sondagem linear mapeada em memória, então as leituras nunca tocam o log; a lista de slots de cada guild fica
+ * no heap (4 bytes por chave, refeita na abertura) para as consultas por guild não percorrerem a tabela toda.
+ * O XP por hora e por dia vai para {@code xp-buckets.log}, que a consolidação reescreve já somado.
+ * <p>
+ * O índice só é confiável se foi fechado direito: o cabeçalho marca "limpo" no {@link #close()} e "sujo" na
+ * abertura. Depois de uma queda ele é reconstruído lendo o log, e registros com CRC inválido no fim do log
+ * (escrita interrompida) são descartados. Quando o log passa de {@link #COMPACT_RATIO} vezes o número de chaves,
+ * ele é reescrito com um registro por chave. As duas reescritas gravam um arquivo novo e só trocam o canal
+ * depois que ele substituiu o antigo; se algo falhar no caminho, o arquivo antigo continua em uso.
+ * <p>
+ * Não migra dados do SQLite: trocar de implementação começa o XP do zero.
+ */
+public class LogXPRepository implements XPRepository, AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogXPRepository.class);
+
+    /**
+     * guild, usuário, xp, nível, timestamp e CRC32 dos 32 bytes anteriores.
+     */
+    private static final int RECORD_SIZE = 36;
+    /**
+     * tipo, guild, usuário, hora ou dia, xp e CRC32 dos 29 bytes anteriores.
+     */
+    private static final int BUCKET_RECORD_SIZE = 33;
+    private static final byte HOURLY = 1;
+    private static final byte DAILY = 2;
+    /**
+     * guild, usuário, xp, nível, timestamp. Guild e usuário 0 marcam um slot vazio.
+     */
+    private static final int SLOT_SIZE = 32;
+    /**
+     * magic, versão, capacidade, chaves, bytes do log cobertos pelo índice e a marca de limpo.
+     */
+    private static final int HEADER_SIZE = 32;
+    private static final int INDEX_MAGIC = 0x4E595849; // "NYXI"
+    private static final int INDEX_VERSION = 1;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    /**
+     * Maior tabela que cabe num único MappedByteBuffer.
+     */
+    private static final int MAX_CAPACITY = 1 << 25;
+    private static final int COMPACT_RATIO = 4;
+    private static final long COMPACT_MIN_RECORDS = 1 << 16;
+    private static final int IO_BUFFER_RECORDS = 4096;
+    /**
+     * Chaves somadas em memória de cada vez na consolidação; passou disso, o que foi somado é gravado.
+     */
+    private static final int ROLLUP_MERGE_KEYS = 1 << 16;
+
+    private final Path logPath;
+    private final Path indexPath;
+    private final Path bucketPath;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("Nekoffee-XPLog-", 0).factory());
+    private FileChannel log;
+    private long logSize;
+    private FileChannel bucketLog;
+    private long bucketLogSize;
+    private final FileChannel indexFile;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int count;
+    /**
+     * Guild -> slots dos seus usuários no índice. Alterado sob o lock de escrita.
+     */
+    private final Map<Long, GuildSlots> slotsByGuild = new HashMap<>();
+
+    public LogXPRepository(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.logPath = directory.resolve("xp.log");
+        this.indexPath = directory.resolve("xp.idx");
+        this.bucketPath = directory.resolve("xp-buckets.log");
+
+        this.log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.logSize = log.size();
+        this.indexFile = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!openIndex()) {
+            rebuildIndex();
+        }
+        index.putInt(24, 0);
+        index.force(0, HEADER_SIZE);
+
+        this.bucketLog = FileChannel.open(bucketPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.bucketLogSize = scan(bucketLog, BUCKET_RECORD_SIZE, (buf, offset) -> {
+        });
+        bucketLog.truncate(bucketLogSize);
+        LOGGER.info("LogXPRepository aberto em {}: {} chaves, log com {} bytes.", directory, count, logSize);
+    }
+
+    /**
+     * @return true se o índice em disco foi fechado direito e cobre o log inteiro.
+     */
+    private boolean openIndex() throws IOException {
+        if (indexFile.size() < HEADER_SIZE || logSize % RECORD_SIZE != 0) {
+            return false;
+        }
+        MappedByteBuffer header = indexFile.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        int storedCapacity = header.getInt(8);
+        boolean valid = header.getInt(0) == INDEX_MAGIC
+                && header.getInt(4) == INDEX_VERSION
+                && header.getInt(24) == 1
+                && header.getLong(16) == logSize
+                && Integer.bitCount(storedCapacity) == 1
+                && indexFile.size() >= HEADER_SIZE + (long) storedCapacity * SLOT_SIZE;
+        if (!valid) {
+            return false;
+        }
+        this.capacity = storedCapacity;
+        this.count = header.getInt(12);
+        this.index = indexFile.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!isEmpty(slot)) {
+                addGuildSlot(index.getLong(slotPosition(slot)), slot);
+            }
+        }
+        return true;
+    }
+
+    private void rebuildIndex() throws IOException {
+        LOGGER.warn("Índice de XP ausente ou não fechado corretamente; reconstruindo a partir de {}.", logPath);
+        mapEmptyIndex(INITIAL_CAPACITY);
+        long valid = scan(log, RECORD_SIZE, (buf, offset) -> putSlot(buf.getLong(offset), buf.getLong(offset + 8),
+                buf.getInt(offset + 16), buf.getInt(offset + 20), buf.getLong(offset + 24)));
+        if (valid < log.size()) {
+            LOGGER.warn("Descartando {} bytes inválidos no fim de {}.", log.size() - valid, logPath);
+            log.truncate(valid);
+        }
+        logSize = valid;
+        LOGGER.info("Índice de XP reconstruído com {} chaves.", count);
+    }
+
+    /**
+     * Recria o arquivo do índice vazio com {@code newCapacity} slots. O mapeamento anterior não pode mais ser
+     * acessado depois disto: o arquivo é truncado por baixo dele.
+     */
+    private void mapEmptyIndex(int newCapacity) throws IOException {
+        indexFile.truncate(0);
+        index = indexFile.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+        capacity = newCapacity;
+        count = 0;
+        slotsByGuild.clear();
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, INDEX_VERSION);
+        index.putInt(8, capacity);
+    }
+
+    @Override
+    public CompletableFuture<UserXP> getUserXP(String guildId, String userId) {
+        return CompletableFuture.supplyAsync(() -> read(() -> {
+            long guildKey = parseId(guildId);
+            long userKey = parseId(userId);
+            int slot = find(guildKey, userKey);
+            return isEmpty(slot) ? new UserXP(guildId, userId, 0, 0, 0) : readSlot(slot);
+        }), executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUserXP(String guildId, String userId, int newXp, int newLevel, long lastMessageTimestamp) {
+        return updateUserXPBatch(List.of(new UserXP(guildId, userId, newXp, newLevel, lastMessageTimestamp)), List.of());
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUserXPBatch(Collection<UserXP> entries, Collection<XPBucket> hourly) {
+        if (entries.isEmpty() && hourly.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> write(() -> {
+            // Log primeiro: o índice nunca fica à frente do que está em disco.
+            appendRecords(entries);
+            appendBuckets(hourly, HOURLY);
+            log.force(false);
+            bucketLog.force(false);
+            for (UserXP entry : entries) {
+                putSlot(parseId(entry.getGuildId()), parseId(entry.getUserId()), entry.getXp(), entry.getLevel(), entry.getLastMessageTimestamp());
+            }
+            compactIfNeeded();
+            return null;
+        }), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<UserXP>> getTopXPUsers(String guildId, int limit) {
+        return CompletableFuture.supplyAsync(() -> {
+            // Mesma ordem da consulta SQL do DatabaseManager.
+            List<UserXP> rows = guildRows(guildId);
+            rows.sort(Comparator.comparingInt(UserXP::getXp).thenComparingInt(UserXP::getLevel).reversed());
+            return rows.size() > limit ? new ArrayList<>(rows.subList(0, limit)) : rows;
+        }, executor);
+    }
+
+    @Override
+    public CompletableFuture<List<UserXP>> getGuildXP(String guildId) {
+        return CompletableFuture.supplyAsync(() -> guildRows(guildId), executor);
+    }
+
+    /**
+     * {@code consumer} roda sob o lock de leitura; não pode gravar neste repositório.
+     */
+    @Override
+    public CompletableFuture<Void> scanUserXP(String guildId, Consumer<UserXP> consumer) {
+        return CompletableFuture.runAsync(() -> read(() -> {
+            forEachGuildRow(guildId, consumer);
+            return null;
+        }), executor);
+    }
+
+    private List<UserXP> guildRows(String guildId) {
+        return read(() -> {
+            List<UserXP> rows = new ArrayList<>();
+            forEachGuildRow(guildId, rows::add);
+            return rows;
+        });
+    }
+
+    /**
+     * Linear no tamanho da guild. Chamar sob um dos locks.
+     */
+    private void forEachGuildRow(String guildId, Consumer<UserXP> consumer) {
+        GuildSlots guild = slotsByGuild.get(parseId(guildId));
+        if (guild == null) {
+            return;
+        }
+        for (int i = 0; i < guild.size; i++) {
+            consumer.accept(readSlot(guild.slots[i]));
+        }
+    }
+
+    private void addGuildSlot(long guildId, int slot) {
+        slotsByGuild.computeIfAbsent(guildId, id -> new GuildSlots()).add(slot);
+    }
+
+    /**
+     * Reescreve o log de horas e dias em streaming: as chaves são somadas em lotes de até
+     * {@link #ROLLUP_MERGE_KEYS}, então a mesma chave pode sair em mais de um registro (quem lê soma).
+     */
+    @Override
+    public CompletableFuture<Integer> rollupXPBuckets(long rollupBeforeHour, long expireBeforeDay) {
+        return CompletableFuture.supplyAsync(() -> write(() -> {
+            Map<BucketKey, Integer> pending = new HashMap<>();
+            ByteBuffer buf = ByteBuffer.allocate(IO_BUFFER_RECORDS * BUCKET_RECORD_SIZE);
+            int[] rolledUp = new int[1];
+            long[] position = new long[1];
+            Path tmp = bucketPath.resolveSibling(bucketPath.getFileName() + ".tmp");
+            FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                scan(bucketLog, BUCKET_RECORD_SIZE, (in, offset) -> {
+                    byte type = in.get(offset);
+                    long bucket = in.getLong(offset + 17);
+                    if (type == HOURLY && bucket < rollupBeforeHour) {
+                        type = DAILY;
+                        bucket = Math.floorDiv(bucket, 24);
+                        rolledUp[0]++;
+                    }
+                    if (type == DAILY && bucket < expireBeforeDay) {
+                        return;
+                    }
+                    pending.merge(new BucketKey(type, in.getLong(offset + 1), in.getLong(offset + 9), bucket), in.getInt(offset + 25), Integer::sum);
+                    if (pending.size() >= ROLLUP_MERGE_KEYS) {
+                        position[0] = writeBuckets(out, buf, pending, position[0]);
+                    }
+                });
+                position[0] = writeBuckets(out, buf, pending, position[0]);
+                out.force(true);
+            } catch (IOException | RuntimeException e) {
+                discard(out, tmp);
+                throw e;
+            }
+            bucketLog = replace(bucketLog, out, tmp, bucketPath);
+            bucketLogSize = position[0];
+            return rolledUp[0];
+        }), executor);
+    }
+
+    /**
+     * Grava e esvazia {@code pending}.
+     *
+     * @return A posição logo depois do que foi gravado.
+     */
+    private static long writeBuckets(FileChannel out, ByteBuffer buf, Map<BucketKey, Integer> pending, long position) throws IOException {
+        for (Map.Entry<BucketKey, Integer> entry : pending.entrySet()) {
+            if (!buf.hasRemaining()) {
+                position = writeFully(out, buf, position);
+            }
+            BucketKey key = entry.getKey();
+            encodeBucket(buf, key.type(), key.guildId(), key.userId(), key.bucket(), entry.getValue());
+        }
+        pending.clear();
+        return writeFully(out, buf, position);
+    }
+
+    /**
+     * Troca {@code current} pelo arquivo reescrito em {@code tmp}, já gravado e com fsync. O canal novo é o próprio
+     * {@code out}, aberto antes da troca; o antigo só é fechado depois que o arquivo novo tomou o lugar dele.
+     *
+     * @return O canal a usar daqui em diante.
+     */
+    private static FileChannel replace(FileChannel current, FileChannel out, Path tmp, Path target) throws IOException {
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            discard(out, tmp);
+            throw e;
+        }
+        try {
+            current.close();
+        } catch (IOException e) {
+            LOGGER.warn("Falha ao fechar o arquivo substituído por {}.", target, e);
+        }
+        return out;
+    }
+
+    private static void discard(FileChannel out, Path tmp) {
+        try {
+            out.close();
+            Files.deleteIfExists(tmp);
+        } catch (IOException e) {
+            LOGGER.warn("Falha ao apagar o arquivo temporário {}.", tmp, e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> scanHourlyXP(long fromHour, Consumer<XPBucket> consumer) {
+        return scanBuckets(HOURLY, fromHour, consumer);
+    }
+
+    @Override
+    public CompletableFuture<Void> scanDailyXP(long fromDay, Consumer<XPBucket> consumer) {
+        return scanBuckets(DAILY, fromDay, consumer);
+    }
+
+    /**
+     * {@code consumer} roda sob o lock de leitura; não pode gravar neste repositório.
+     */
+    private CompletableFuture<Void> scanBuckets(byte type, long from, Consumer<XPBucket> consumer) {
+        return CompletableFuture.runAsync(() -> read(() -> {
+            scan(bucketLog, BUCKET_RECORD_SIZE, (buf, offset) -> {
+                long bucket = buf.getLong(offset + 17);
+                if (buf.get(offset) == type && bucket >= from) {
+                    consumer.accept(new XPBucket(Long.toUnsignedString(buf.getLong(offset + 1)),
+                            Long.toUnsignedString(buf.getLong(offset + 9)), bucket, buf.getInt(offset + 25)));
+                }
+            });
+            return null;
+        }), executor);
+    }
+
+    private void appendRecords(Collection<UserXP> entries) throws IOException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(Math.min(entries.size(), IO_BUFFER_RECORDS) * RECORD_SIZE);
+        CRC32 crc = new CRC32();
+        for (UserXP entry : entries) {
+            if (!buf.hasRemaining()) {
+                logSize = writeFully(log, buf, logSize);
+            }
+            int start = buf.position();
+            buf.putLong(parseId(entry.getGuildId()))
+                    .putLong(parseId(entry.getUserId()))
+                    .putInt(entry.getXp())
+                    .putInt(entry.getLevel())
+                    .putLong(entry.getLastMessageTimestamp());
+            crc.reset();
+            crc.update(buf.array(), start, RECORD_SIZE - 4);
+            buf.putInt((int) crc.getValue());
+        }
+        logSize = writeFully(log, buf, logSize);
+    }
+
+    private void appendBuckets(Collection<XPBucket> buckets, byte type) throws IOException {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        ByteBuffer buf = ByteBuffer.allocate(Math.min(buckets.size(), IO_BUFFER_RECORDS) * BUCKET_RECORD_SIZE);
+        for (XPBucket bucket : buckets) {
+            if (!buf.hasRemaining()) {
+                bucketLogSize = writeFully(bucketLog, buf, bucketLogSize);
+            }
+            encodeBucket(buf, type, parseId(bucket.getGuildId()), parseId(bucket.getUserId()), bucket.getBucket(), bucket.getXp());
+        }
+        bucketLogSize = writeFully(bucketLog, buf, bucketLogSize);
+    }
+
+    private static void encodeBucket(ByteBuffer buf, byte type, long guildId, long userId, long bucket, int xp) {
+        int start = buf.position();
+        buf.put(type).putLong(guildId).putLong(userId).putLong(bucket).putInt(xp);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), start, BUCKET_RECORD_SIZE - 4);
+        buf.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Grava {@code buf} (de 0 até a posição atual) em {@code position} e limpa o buffer.
+     *
+     * @return A posição logo depois do que foi gravado.
+     */
+    private static long writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+        buf.clear();
+        return position;
+    }
+
+    /**
+     * Lê os registros do começo do arquivo até o primeiro com tamanho ou CRC inválido.
+     *
+     * @return Quantos bytes do arquivo são válidos.
+     */
+    private static long scan(FileChannel channel, int recordSize, RecordVisitor visitor) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(IO_BUFFER_RECORDS * recordSize);
+        CRC32 crc = new CRC32();
+        long position = 0;
+        long size = channel.size();
+        while (position < size) {
+            buf.clear();
+            while (buf.hasRemaining() && channel.read(buf, position + buf.position()) > 0) {
+                // Lê até encher o buffer ou chegar ao fim do arquivo.
+            }
+            int records = buf.position() / recordSize;
+            for (int i = 0; i < records; i++) {
+                int offset = i * recordSize;
+                crc.reset();
+                crc.update(buf.array(), offset, recordSize - 4);
+                if ((int) crc.getValue() != buf.getInt(offset + recordSize - 4)) {
+                    return position + offset;
+                }
+                visitor.visit(buf, offset);
+            }
+            position += (long) records * recordSize;
+            if (records * recordSize < buf.capacity()) {
+                break;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Reescreve o log com um registro por chave quando ele cresceu demais.
+     */
+    private void compactIfNeeded() throws IOException {
+        long records = logSize / RECORD_SIZE;
+        if (records < COMPACT_MIN_RECORDS || records < (long) count * COMPACT_RATIO) {
+            return;
+        }
+        Path tmp = logPath.resolveSibling(logPath.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        long position = 0;
+        FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(IO_BUFFER_RECORDS * RECORD_SIZE);
+            for (int slot = 0; slot < capacity; slot++) {
+                if (isEmpty(slot)) {
+                    continue;
+                }
+                if (!buf.hasRemaining()) {
+                    position = writeFully(out, buf, position);
+                }
+                int slotPos = slotPosition(slot);
+                int start = buf.position();
+                buf.putLong(index.getLong(slotPos))
+                        .putLong(index.getLong(slotPos + 8))
+                        .putInt(index.getInt(slotPos + 16))
+                        .putInt(index.getInt(slotPos + 20))
+                        .putLong(index.getLong(slotPos + 24));
+                crc.reset();
+                crc.update(buf.array(), start, RECORD_SIZE - 4);
+                buf.putInt((int) crc.getValue());
+            }
+            position = writeFully(out, buf, position);
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            discard(out, tmp);
+            throw e;
+        }
+        log = replace(log, out, tmp, logPath);
+        LOGGER.debug("Log de XP compactado de {} para {} registros.", records, position / RECORD_SIZE);
+        logSize = position;
+    }
+
+    private static int hash(long guildId, long userId) {
+        long h = guildId * 0x9E3779B97F4A7C15L ^ userId;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int slotPosition(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * @return O slot da chave, ou o slot vazio onde ela entraria.
+     */
+    private int find(long guildId, long userId) {
+        int mask = capacity - 1;
+        int slot = hash(guildId, userId) & mask;
+        while (true) {
+            int pos = slotPosition(slot);
+            long storedGuild = index.getLong(pos);
+            long storedUser = index.getLong(pos + 8);
+            if ((storedGuild == guildId && storedUser == userId) || (storedGuild == 0 && storedUser == 0)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean isEmpty(int slot) {
+        int pos = slotPosition(slot);
+        return index.getLong(pos) == 0 && index.getLong(pos + 8) == 0;
+    }
+
+    private UserXP readSlot(int slot) {
+        int pos = slotPosition(slot);
+        return new UserXP(Long.toUnsignedString(index.getLong(pos)), Long.toUnsignedString(index.getLong(pos + 8)),
+                index.getInt(pos + 16), index.getInt(pos + 20), index.getLong(pos + 24));
+    }
+
+    private void putSlot(long guildId, long userId, int xp, int level, long timestamp) throws IOException {
+        int slot = find(guildId, userId);
+        if (isEmpty(slot)) {
+            if ((count + 1) * 10L > capacity * 7L) {
+                grow();
+                slot = find(guildId, userId);
+            }
+            count++;
+            addGuildSlot(guildId, slot);
+        }
+        int pos = slotPosition(slot);
+        index.putLong(pos, guildId);
+        index.putLong(pos + 8, userId);
+        index.putInt(pos + 16, xp);
+        index.putInt(pos + 20, level);
+        index.putLong(pos + 24, timestamp);
+    }
+
+    /**
+     * Dobra a tabela: copia as chaves para o heap, recria o arquivo e reinsere.
+     */
+    private void grow() throws IOException {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("XP index is full (" + count + " keys)");
+        }
+        int live = count;
+        long[] keys = new long[live * 3];
+        int[] values = new int[live * 2];
+        int n = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            if (!isEmpty(slot)) {
+                int pos = slotPosition(slot);
+                keys[n * 3] = index.getLong(pos);
+                keys[n * 3 + 1] = index.getLong(pos + 8);
+                keys[n * 3 + 2] = index.getLong(pos + 24);
+                values[n * 2] = index.getInt(pos + 16);
+                values[n * 2 + 1] = index.getInt(pos + 20);
+                n++;
+            }
+        }
+        mapEmptyIndex(capacity * 2);
+        index.putInt(24, 0);
+        for (int i = 0; i < n; i++) {
+            int slot = find(keys[i * 3], keys[i * 3 + 1]);
+            int pos = slotPosition(slot);
+            index.putLong(pos, keys[i * 3]);
+            index.putLong(pos + 8, keys[i * 3 + 1]);
+            index.putInt(pos + 16, values[i * 2]);
+            index.putInt(pos + 20, values[i * 2 + 1]);
+            index.putLong(pos + 24, keys[i * 3 + 2]);
+            addGuildSlot(keys[i * 3], slot);
+        }
+        count = n;
+        LOGGER.debug("Índice de XP aumentado para {} slots.", capacity);
+    }
+
+    private static long parseId(String id) {
+        long value = Long.parseUnsignedLong(id);
+        if (value == 0) {
+            throw new IllegalArgumentException("Snowflake 0 is reserved for empty index slots");
+        }
+        return value;
+    }
+
+    private <T> T read(IOWork<T> work) {
+        lock.readLock().lock();
+        try {
+            return work.run();
+        } catch (IOException e) {
+            LOGGER.error("Erro de I/O ao ler o XP de {}:", logPath, e);
+            throw new RuntimeException("I/O error reading XP log " + logPath, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T write(IOWork<T> work) {
+        lock.writeLock().lock();
+        try {
+            return work.run();
+        } catch (IOException e) {
+            LOGGER.error("Erro de I/O ao gravar o XP em {}:", logPath, e);
+            throw new RuntimeException("I/O error writing XP log " + logPath, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Espera as operações em andamento, grava tudo e marca o índice como limpo.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.writeLock().lock();
+        try {
+            log.force(true);
+            bucketLog.force(true);
+            index.putInt(12, count);
+            index.putLong(16, logSize);
+            index.force();
+            index.putInt(24, 1);
+            index.force(0, HEADER_SIZE);
+            log.close();
+            bucketLog.close();
+            indexFile.close();
+            LOGGER.info("LogXPRepository fechado: {} chaves.", count);
+        } catch (IOException e) {
+            LOGGER.error("Erro ao fechar o LogXPRepository; o índice será reconstruído na próxima abertura.", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOWork<T> {
+        T run() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(ByteBuffer buf, int offset) throws IOException;
+    }
+
+    private record BucketKey(byte type, long guildId, long userId, long bucket) {
+    }
+
+    /**
+     * Slots de uma guild no índice; só cresce, porque chaves nunca saem do índice.
+     */
+    private static final class GuildSlots {
+        private int[] slots = new int[8];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.ladyluh.nekoffee.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conexões SQLite abertas uma vez e reaproveitadas: uma conexão de escrita, protegida por lock
+ * (o SQLite só aceita um escritor por vez), e algumas de leitura, que em WAL rodam em paralelo
+ * com a escrita. Cada conexão guarda seus {@link PreparedStatement}s por SQL.
+ */
+class SqliteConnectionPool implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqliteConnectionPool.class);
+
+    private static final String[] CONNECTION_PRAGMAS = {
+            "PRAGMA synchronous = NORMAL",
+            "PRAGMA busy_timeout = 5000",
+            "PRAGMA cache_size = -16384",
+            "PRAGMA mmap_size = 268435456",
+            "PRAGMA temp_store = MEMORY"
+    };
+
+    private final PooledConnection writer;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<PooledConnection> readers;
+    private final List<PooledConnection> all = new ArrayList<>();
+
+    /**
+     * @param readerCount Conexões só de leitura, além da de escrita.
+     */
+    SqliteConnectionPool(String dbUrl, int readerCount) throws SQLException {
+        this.writer = open(dbUrl, false);
+        // journal_mode fica gravado no arquivo; precisa vir antes de abrir os leitores.
+        try (Statement stmt = writer.connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+        }
+        this.readers = new ArrayBlockingQueue<>(readerCount);
+        for (int i = 0; i < readerCount; i++) {
+            readers.add(open(dbUrl, true));
+        }
+        LOGGER.info("Pool SQLite aberto: 1 conexão de escrita e {} de leitura (WAL).", readerCount);
+    }
+
+    private PooledConnection open(String dbUrl, boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = connection.createStatement()) {
+            for (String pragma : CONNECTION_PRAGMAS) {
+                stmt.execute(pragma);
+            }
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON");
+            }
+        }
+        PooledConnection pooled = new PooledConnection(connection);
+        all.add(pooled);
+        return pooled;
+    }
+
+    /**
+     * Total de conexões, incluindo a de escrita.
+     */
+    int size() {
+        return all.size();
+    }
+
+    /**
+     * Executa uma leitura numa das conexões de leitura, esperando se todas estiverem ocupadas.
+     */
+    <T> T read(SqlWork<T> work) throws SQLException {
+        PooledConnection connection;
+        try {
+            connection = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection", e);
+        }
+        DbMetrics.connectionAcquired();
+        try {
+            return work.run(connection);
+        } finally {
+            readers.add(connection);
+        }
+    }
+
+    /**
+     * Executa na conexão de escrita, em autocommit.
+     */
+    <T> T write(SqlWork<T> work) throws SQLException {
+        writeLock.lock();
+        DbMetrics.connectionAcquired();
+        try {
+            return work.run(writer);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Executa na conexão de escrita dentro de uma transação: commit se o trabalho terminar, rollback se lançar.
+     */
+    <T> T transaction(SqlWork<T> work) throws SQLException {
+        return write(conn -> {
+            Connection connection = conn.connection();
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run(conn);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        writeLock.lock();
+        try {
+            for (PooledConnection connection : all) {
+                connection.close();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    interface SqlWork<T> {
+        T run(PooledConnection connection) throws SQLException;
+    }
+
+    /**
+     * Uma conexão do pool. Só é usada por uma thread de cada vez, então o cache de statements não tem lock.
+     */
+    static final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * @return O statement já preparado para este SQL, com parâmetros e batch limpos. Não deve ser fechado
+         * por quem chama; os ResultSets, sim.
+         */
+        PreparedStatement prepare(String sql) throws SQLException {
+            DbMetrics.statementPrepared(sql);
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+                statement.clearBatch();
+            }
+            return statement;
+        }
+
+        Connection connection() {
+            return connection;
+        }
+
+        private void close() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    LOGGER.warn("Falha ao fechar statement em cache.", e);
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOGGER.warn("Falha ao fechar conexão SQLite.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ladyluh.nekoffee.database;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Canais de voz temporários criados pelo hub e seus donos.
+ */
+public interface TemporaryChannelRepository {
+
+    CompletableFuture<Void> addTemporaryChannel(String channelId, String guildId, String ownerUserId);
+
+    CompletableFuture<Optional<TemporaryChannelRecord>> getTemporaryChannel(String channelId);
+
+    CompletableFuture<Optional<TemporaryChannelRecord>> getTemporaryChannelByOwner(String guildId, String ownerUserId);
+
+    CompletableFuture<Void> updateTemporaryChannelOwner(String channelId, String newOwnerId);
+
+    void removeTemporaryChannel(String channelId);
+}
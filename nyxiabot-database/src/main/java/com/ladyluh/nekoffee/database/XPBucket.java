@@ -0,0 +1,35 @@
+package com.ladyluh.nekoffee.database;
+
+/**
+ * XP ganho por um usuário numa janela de tempo: uma hora ({@code user_xp_hourly}) ou um dia
+ * ({@code user_xp_daily}), contados em horas/dias desde a época Unix (UTC).
+ */
+public class XPBucket {
+    private final String guildId;
+    private final String userId;
+    private final long bucket;
+    private final int xp;
+
+    public XPBucket(String guildId, String userId, long bucket, int xp) {
+        this.guildId = guildId;
+        this.userId = userId;
+        this.bucket = bucket;
+        this.xp = xp;
+    }
+
+    public String getGuildId() {
+        return guildId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getBucket() {
+        return bucket;
+    }
+
+    public int getXp() {
+        return xp;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ladyluh.nekoffee.database;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Armazenamento do XP: o total de cada usuário por guild e o XP por hora/dia usado nos rankings por janela.
+ * Implementado pelo {@link DatabaseManager} (SQLite) e pelo {@link LogXPRepository} (log + índice mapeado).
+ */
+public interface XPRepository {
+
+    /**
+     * XP necessário para passar do nível {@code level - 1} para {@code level}. Satura em
+     * {@link Integer#MAX_VALUE} a partir do nível ~6500, onde a conta não cabe mais num int.
+     */
+    static int xpForLevel(int level) {
+        if (level <= 0) return 100;
+        long cost = 50L * level * level + 100L * level + 100;
+        return (int) Math.min(cost, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return O XP do usuário; um registro zerado se ele nunca ganhou XP.
+     */
+    CompletableFuture<UserXP> getUserXP(String guildId, String userId);
+
+    CompletableFuture<Void> updateUserXP(String guildId, String userId, int newXp, int newLevel, long lastMessageTimestamp);
+
+    default CompletableFuture<Void> updateUserXPBatch(Collection<UserXP> entries) {
+        return updateUserXPBatch(entries, List.of());
+    }
+
+    /**
+     * Grava os totais e soma {@code hourly} no XP por hora, tudo de uma vez.
+     */
+    CompletableFuture<Void> updateUserXPBatch(Collection<UserXP> entries, Collection<XPBucket> hourly);
+
+    CompletableFuture<List<UserXP>> getTopXPUsers(String guildId, int limit);
+
+    /**
+     * @return Todos os registros de XP da guild, sem ordem definida.
+     */
+    CompletableFuture<List<UserXP>> getGuildXP(String guildId);
+
+    /**
+     * Como {@link #getGuildXP(String)}, mas entrega um registro de cada vez, sem montar a lista.
+     * {@code consumer} roda na thread do repositório.
+     */
+    CompletableFuture<Void> scanUserXP(String guildId, Consumer<UserXP> consumer);
+
+    /**
+     * Soma as horas anteriores a {@code rollupBeforeHour} por dia e apaga os dias anteriores a {@code expireBeforeDay}.
+     *
+     * @return Quantos registros por hora foram consolidados.
+     */
+    CompletableFuture<Integer> rollupXPBuckets(long rollupBeforeHour, long expireBeforeDay);
+
+    /**
+     * Percorre o XP por hora a partir de {@code fromHour}. A mesma hora pode vir em mais de um registro;
+     * os valores se somam.
+     */
+    CompletableFuture<Void> scanHourlyXP(long fromHour, Consumer<XPBucket> consumer);
+
+    /**
+     * Como {@link #scanHourlyXP(long, Consumer)}, para o XP já consolidado por dia.
+     */
+    CompletableFuture<Void> scanDailyXP(long fromDay, Consumer<XPBucket> consumer);
+}
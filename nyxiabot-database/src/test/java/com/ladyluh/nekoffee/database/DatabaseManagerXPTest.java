@@ -0,0 +1,34 @@
+package com.ladyluh.nekoffee.database;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * O contrato do {@link XPRepository} contra o SQLite. O {@link DatabaseManager} abre arquivos em {@code data/};
+ * o caminho relativo manda o banco para {@code target/}.
+ */
+class DatabaseManagerXPTest extends XPRepositoryContract {
+    private final String name = UUID.randomUUID() + ".db";
+    private final Path directory = Path.of("target", "xp-repository-tests");
+
+    @Override
+    XPRepository open() throws IOException {
+        Files.createDirectories(directory);
+        return new DatabaseManager("../target/xp-repository-tests/" + name);
+    }
+
+    @Override
+    void close(XPRepository repository) {
+        ((DatabaseManager) repository).shutdown();
+    }
+
+    /**
+     * Um WAL com o cabeçalho pela metade: o SQLite deve ignorá-lo e abrir o que foi confirmado.
+     */
+    @Override
+    void tearLastWrite() throws IOException {
+        Files.write(directory.resolve(name + "-wal"), new byte[20]);
+    }
+}
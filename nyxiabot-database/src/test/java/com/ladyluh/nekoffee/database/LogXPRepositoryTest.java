@@ -0,0 +1,59 @@
+package com.ladyluh.nekoffee.database;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class LogXPRepositoryTest extends XPRepositoryContract {
+    @TempDir
+    Path directory;
+
+    @Override
+    XPRepository open() throws IOException {
+        return new LogXPRepository(directory);
+    }
+
+    @Override
+    void close(XPRepository repository) {
+        ((LogXPRepository) repository).close();
+    }
+
+    /**
+     * Metade de um registro no fim de cada log, como se o processo tivesse caído no meio do write.
+     */
+    @Override
+    void tearLastWrite() throws IOException {
+        Files.write(directory.resolve("xp.log"), new byte[18], StandardOpenOption.APPEND);
+        Files.write(directory.resolve("xp-buckets.log"), new byte[20], StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void compactionRewritesOneRecordPerKey() throws IOException {
+        LogXPRepository repository = new LogXPRepository(directory);
+        try {
+            for (int round = 0; round < 70; round++) {
+                List<UserXP> rows = new ArrayList<>();
+                for (int i = 0; i < 1_000; i++) {
+                    rows.add(new UserXP(GUILD, Long.toString(1_000 + i), round, 0, round));
+                }
+                repository.updateUserXPBatch(rows).join();
+            }
+        } finally {
+            repository.close();
+        }
+        // 70 000 registros passam do limite (4 x 1000 chaves); depois da compactação sobram só os lotes seguintes.
+        long records = Files.size(directory.resolve("xp.log")) / 36;
+        assertEquals(0, records % 1_000);
+        assertFalse(records >= 70_000, "registros no log: " + records);
+        assertFalse(Files.exists(directory.resolve("xp.log.tmp")));
+    }
+}
@@ -0,0 +1,234 @@
+package com.ladyluh.nekoffee.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Comportamento que toda implementação de {@link XPRepository} deve ter. Cada subclasse diz como abrir,
+ * fechar e simular uma escrita interrompida no seu armazenamento.
+ */
+abstract class XPRepositoryContract {
+    static final String GUILD = "41771983423143937";
+    static final String OTHER_GUILD = "81384788765712384";
+
+    private XPRepository repository;
+
+    /**
+     * Abre (ou reabre) o armazenamento deste teste.
+     */
+    abstract XPRepository open() throws IOException;
+
+    abstract void close(XPRepository repository);
+
+    /**
+     * Com o repositório fechado, deixa no armazenamento o resto de uma escrita que não terminou.
+     */
+    abstract void tearLastWrite() throws IOException;
+
+    private XPRepository repository() throws IOException {
+        if (repository == null) {
+            repository = open();
+        }
+        return repository;
+    }
+
+    private XPRepository reopen() throws IOException {
+        closeRepository();
+        return repository();
+    }
+
+    @AfterEach
+    void closeRepository() {
+        if (repository != null) {
+            close(repository);
+            repository = null;
+        }
+    }
+
+    private static String user(int i) {
+        return Long.toString(80351110224678912L + i);
+    }
+
+    private static Map<String, Long> sum(List<XPBucket> buckets) {
+        Map<String, Long> sums = new HashMap<>();
+        for (XPBucket bucket : buckets) {
+            sums.merge(bucket.getGuildId() + ':' + bucket.getUserId() + ':' + bucket.getBucket(), (long) bucket.getXp(), Long::sum);
+        }
+        return sums;
+    }
+
+    private Map<String, Long> hourly(long fromHour) throws IOException {
+        List<XPBucket> buckets = new ArrayList<>();
+        repository().scanHourlyXP(fromHour, buckets::add).join();
+        return sum(buckets);
+    }
+
+    private Map<String, Long> daily(long fromDay) throws IOException {
+        List<XPBucket> buckets = new ArrayList<>();
+        repository().scanDailyXP(fromDay, buckets::add).join();
+        return sum(buckets);
+    }
+
+    private static void assertRow(UserXP row, int xp, int level, long timestamp) {
+        assertEquals(xp, row.getXp(), "xp");
+        assertEquals(level, row.getLevel(), "level");
+        assertEquals(timestamp, row.getLastMessageTimestamp(), "timestamp");
+    }
+
+    @Test
+    void unknownUserReadsAsZero() throws IOException {
+        assertRow(repository().getUserXP(GUILD, user(1)).join(), 0, 0, 0);
+        assertTrue(repository().getGuildXP(GUILD).join().isEmpty());
+    }
+
+    @Test
+    void batchIsReadBackAndLatestWriteWins() throws IOException {
+        repository().updateUserXPBatch(List.of(
+                new UserXP(GUILD, user(1), 10, 1, 1_000L),
+                new UserXP(GUILD, user(2), 20, 2, 2_000L),
+                new UserXP(OTHER_GUILD, user(1), 30, 3, 3_000L))).join();
+        repository().updateUserXP(GUILD, user(1), 15, 4, 4_000L).join();
+
+        assertRow(repository().getUserXP(GUILD, user(1)).join(), 15, 4, 4_000L);
+        assertRow(repository().getUserXP(GUILD, user(2)).join(), 20, 2, 2_000L);
+        assertRow(repository().getUserXP(OTHER_GUILD, user(1)).join(), 30, 3, 3_000L);
+    }
+
+    @Test
+    void guildQueriesOnlySeeTheirGuild() throws IOException {
+        List<UserXP> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(new UserXP(GUILD, user(i), i * 3, 1, i));
+        }
+        for (int i = 0; i < 30; i++) {
+            rows.add(new UserXP(OTHER_GUILD, user(i), 1_000, 1, i));
+        }
+        repository().updateUserXPBatch(rows).join();
+
+        Set<String> users = new HashSet<>();
+        for (UserXP row : repository().getGuildXP(GUILD).join()) {
+            assertEquals(GUILD, row.getGuildId());
+            users.add(row.getUserId());
+        }
+        assertEquals(50, users.size());
+
+        int[] scanned = new int[1];
+        repository().scanUserXP(OTHER_GUILD, row -> {
+            assertEquals(OTHER_GUILD, row.getGuildId());
+            scanned[0]++;
+        }).join();
+        assertEquals(30, scanned[0]);
+
+        List<UserXP> top = repository().getTopXPUsers(GUILD, 5).join();
+        assertEquals(5, top.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(user(49 - i), top.get(i).getUserId());
+        }
+    }
+
+    @Test
+    void hourlyBucketsAddUp() throws IOException {
+        repository().updateUserXPBatch(List.of(), List.of(new XPBucket(GUILD, user(1), 1_000, 10))).join();
+        repository().updateUserXPBatch(List.of(), List.of(new XPBucket(GUILD, user(1), 1_000, 5), new XPBucket(GUILD, user(1), 1_001, 7))).join();
+
+        assertEquals(Map.of(GUILD + ':' + user(1) + ":1000", 15L, GUILD + ':' + user(1) + ":1001", 7L), hourly(0));
+        assertEquals(Map.of(GUILD + ':' + user(1) + ":1001", 7L), hourly(1_001));
+    }
+
+    @Test
+    void rollupMovesOldHoursToDaysAndExpiresOldDays() throws IOException {
+        String a = GUILD + ':' + user(1) + ':';
+        repository().updateUserXPBatch(List.of(), List.of(
+                new XPBucket(GUILD, user(1), 2_400, 1),
+                new XPBucket(GUILD, user(1), 2_401, 2),
+                new XPBucket(GUILD, user(1), 2_402, 3),
+                new XPBucket(GUILD, user(1), 2_424, 5),
+                new XPBucket(GUILD, user(1), 2_450, 7))).join();
+
+        // Horas antes do dia 102 viram dias; dias antes do 101 expiram.
+        assertEquals(4, repository().rollupXPBuckets(2_448, 101).join());
+        assertEquals(Map.of(a + "101", 5L), daily(0));
+        assertEquals(Map.of(a + "2450", 7L), hourly(0));
+
+        assertEquals(0, repository().rollupXPBuckets(2_448, 101).join());
+        assertEquals(Map.of(a + "101", 5L), daily(0));
+
+        repository().updateUserXPBatch(List.of(), List.of(new XPBucket(GUILD, user(1), 2_425, 1))).join();
+        assertEquals(1, repository().rollupXPBuckets(2_448, 101).join());
+        assertEquals(Map.of(a + "101", 6L), daily(0));
+    }
+
+    @Test
+    void rollupOfManyKeysKeepsEveryTotal() throws IOException {
+        int users = 80_000;
+        List<XPBucket> buckets = new ArrayList<>(users * 2);
+        for (int i = 0; i < users; i++) {
+            buckets.add(new XPBucket(GUILD, user(i), 2_400, 1));
+            buckets.add(new XPBucket(GUILD, user(i), 2_401, i % 100));
+        }
+        repository().updateUserXPBatch(List.of(), buckets).join();
+        repository().rollupXPBuckets(2_448, 0).join();
+
+        Map<String, Long> days = daily(0);
+        assertEquals(users, days.size());
+        for (int i = 0; i < users; i++) {
+            assertEquals(1L + i % 100, days.get(GUILD + ':' + user(i) + ":100"), "usuário " + i);
+        }
+        assertTrue(hourly(0).isEmpty());
+    }
+
+    @Test
+    void manyOverwritesSurviveCompactionAndReopen() throws IOException {
+        int users = 1_000;
+        for (int round = 1; round <= 70; round++) {
+            List<UserXP> rows = new ArrayList<>(users);
+            for (int i = 0; i < users; i++) {
+                rows.add(new UserXP(GUILD, user(i), round, i, round * 1_000L));
+            }
+            repository().updateUserXPBatch(rows).join();
+        }
+        assertLatestRound(users, 70);
+        reopen();
+        assertLatestRound(users, 70);
+    }
+
+    private void assertLatestRound(int users, int round) throws IOException {
+        List<UserXP> rows = repository().getGuildXP(GUILD).join();
+        assertEquals(users, rows.size());
+        for (UserXP row : rows) {
+            assertEquals(round, row.getXp());
+            assertEquals(round * 1_000L, row.getLastMessageTimestamp());
+        }
+    }
+
+    @Test
+    void reopenAfterTruncatedWriteKeepsCommittedData() throws IOException {
+        repository().updateUserXPBatch(List.of(new UserXP(GUILD, user(1), 10, 1, 1_000L), new UserXP(GUILD, user(2), 20, 2, 2_000L)),
+                List.of(new XPBucket(GUILD, user(1), 1_000, 10))).join();
+        closeRepository();
+        tearLastWrite();
+
+        assertRow(repository().getUserXP(GUILD, user(1)).join(), 10, 1, 1_000L);
+        assertRow(repository().getUserXP(GUILD, user(2)).join(), 20, 2, 2_000L);
+        assertEquals(2, repository().getGuildXP(GUILD).join().size());
+        assertEquals(Map.of(GUILD + ':' + user(1) + ":1000", 10L), hourly(0));
+
+        repository().updateUserXPBatch(List.of(new UserXP(GUILD, user(3), 30, 3, 3_000L)),
+                List.of(new XPBucket(GUILD, user(1), 1_000, 5))).join();
+        reopen();
+        assertRow(repository().getUserXP(GUILD, user(3)).join(), 30, 3, 3_000L);
+        assertEquals(3, repository().getGuildXP(GUILD).join().size());
+        assertEquals(Map.of(GUILD + ':' + user(1) + ":1000", 15L), hourly(0));
+    }
+}
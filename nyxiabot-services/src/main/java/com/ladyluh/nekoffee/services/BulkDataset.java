@@ -0,0 +1,45 @@
+package com.ladyluh.nekoffee.services;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * O que pode ser importado/exportado em massa, com as colunas do arquivo (os nomes das colunas no banco).
+ */
+public enum BulkDataset {
+    /**
+     * Na importação, {@code level} é opcional: sem ele, {@code xp} é o XP total acumulado e o nível é
+     * calculado pela curva do bot (o formato da maioria dos outros bots).
+     */
+    XP("xp", List.of("guild_id", "user_id", "xp", "level", "last_message_timestamp")),
+    GUILD_CONFIG("config", List.of("guild_id", "log_channel_id", "welcome_channel_id", "auto_assign_role_id",
+            "recordings_channel_id", "temp_hub_channel_id", "temp_channel_category_id", "temp_channel_name_prefix",
+            "default_temp_channel_user_limit", "default_temp_channel_lock", "join_sound_id")),
+    PREFERENCES("preferencias", List.of("guild_id", "user_id", "preferred_user_limit", "preferred_name_template",
+            "locked", "auto_owner_switching"));
+
+    private final String name;
+    private final List<String> columns;
+
+    BulkDataset(String name, List<String> columns) {
+        this.name = name;
+        this.columns = columns;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public static Optional<BulkDataset> fromName(String name) {
+        return switch (name.toLowerCase()) {
+            case "xp" -> Optional.of(XP);
+            case "config", "configs" -> Optional.of(GUILD_CONFIG);
+            case "preferencias", "preferências", "prefs" -> Optional.of(PREFERENCES);
+            default -> Optional.empty();
+        };
+    }
+}
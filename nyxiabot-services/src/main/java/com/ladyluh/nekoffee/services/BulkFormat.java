@@ -0,0 +1,58 @@
+package com.ladyluh.nekoffee.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Formatos de arquivo da importação/exportação em massa ({@link BulkTransferService}).
+ */
+public enum BulkFormat {
+    CSV("csv"),
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    BulkFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @param name "csv", "ndjson" ou "jsonl", sem diferenciar maiúsculas.
+     */
+    public static Optional<BulkFormat> fromName(String name) {
+        return switch (name.toLowerCase()) {
+            case "csv" -> Optional.of(CSV);
+            case "ndjson", "jsonl" -> Optional.of(NDJSON);
+            default -> Optional.empty();
+        };
+    }
+
+    /**
+     * Pelo que vem depois do último ponto do nome do arquivo.
+     */
+    public static Optional<BulkFormat> fromFileName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? Optional.empty() : fromName(fileName.substring(dot + 1));
+    }
+
+    BulkRows.RowWriter writer(Writer out, List<String> columns) throws IOException {
+        return switch (this) {
+            case CSV -> new BulkRows.CsvWriter(out, columns);
+            case NDJSON -> new BulkRows.NdjsonWriter(out, columns);
+        };
+    }
+
+    BulkRows.RowReader reader(Reader in) throws IOException {
+        return switch (this) {
+            case CSV -> new BulkRows.CsvReader(in);
+            case NDJSON -> new BulkRows.NdjsonReader(in);
+        };
+    }
+}
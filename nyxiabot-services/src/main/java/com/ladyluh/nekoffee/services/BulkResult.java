@@ -0,0 +1,14 @@
+package com.ladyluh.nekoffee.services;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Resultado de uma importação ou exportação do {@link BulkTransferService}.
+ *
+ * @param rows    Linhas gravadas (no banco, na importação; no arquivo, na exportação).
+ * @param skipped Linhas do arquivo ignoradas por erro ou por serem de outra guild.
+ * @param errors  As primeiras mensagens de erro, com a linha do arquivo.
+ */
+public record BulkResult(Path file, long rows, long skipped, List<String> errors) {
+}
@@ -0,0 +1,305 @@
+package com.ladyluh.nekoffee.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.ladyluh.nekoffee.json.util.JsonTextWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura e escrita de uma linha de cada vez nos formatos de {@link BulkFormat}. Nenhuma das
+ * implementações guarda mais que a linha atual.
+ */
+final class BulkRows {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private BulkRows() {
+    }
+
+    interface RowWriter {
+        /**
+         * @param values Na ordem das colunas. Strings, números (Integer/Long) ou null.
+         */
+        void write(Object[] values) throws IOException;
+    }
+
+    interface RowReader {
+        /**
+         * @return Coluna -> valor (null para vazio/null), ou null no fim do arquivo.
+         */
+        Map<String, String> next() throws IOException;
+
+        /**
+         * Linha do arquivo onde o último registro começou, para mensagens de erro.
+         */
+        long line();
+    }
+
+    /**
+     * CSV (RFC 4180) com cabeçalho. Campo vazio e null são a mesma coisa.
+     */
+    static final class CsvWriter implements RowWriter {
+        private final Writer out;
+
+        CsvWriter(Writer out, List<String> columns) throws IOException {
+            this.out = out;
+            write(columns.toArray());
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                if (values[i] != null) {
+                    writeField(values[i].toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    static final class CsvReader implements RowReader {
+        private final Reader in;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private long line = 1;
+        private long recordLine;
+        private final List<String> header;
+        private final StringBuilder field = new StringBuilder();
+
+        CsvReader(Reader in) throws IOException {
+            this.in = in;
+            List<String> columns = readRecord();
+            if (columns == null) {
+                throw new IOException("CSV file is empty (missing header)");
+            }
+            List<String> normalized = new ArrayList<>(columns.size());
+            for (String column : columns) {
+                normalized.add(column == null ? "" : column.trim().toLowerCase());
+            }
+            this.header = normalized;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            List<String> values;
+            do {
+                values = readRecord();
+                if (values == null) {
+                    return null;
+                }
+                // Linhas em branco não contam como registro.
+            } while (values.size() == 1 && values.getFirst() == null);
+            if (values.size() != header.size()) {
+                throw new BulkFormatException("expected " + header.size() + " fields but found " + values.size(), recordLine);
+            }
+            Map<String, String> row = new HashMap<>(header.size() * 2);
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), values.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return recordLine;
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            int c = read();
+            if (c != -1) {
+                position--;
+            }
+            return c;
+        }
+
+        /**
+         * @return Os campos do próximo registro (vazio vira null), ou null no fim do arquivo.
+         */
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> values = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new BulkFormatException("unterminated quoted field", recordLine);
+                    }
+                    if (c == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',' || c == '\n' || c == '\r' || c == -1) {
+                    values.add(field.isEmpty() ? null : field.toString());
+                    field.setLength(0);
+                    wasQuoted = false;
+                    if (c != ',') {
+                        if (c == '\r' && peek() == '\n') {
+                            read();
+                        }
+                        if (c != -1) {
+                            line++;
+                        }
+                        return values;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+    }
+
+    /**
+     * Um objeto JSON por linha, com as colunas como chaves. IDs vão como strings, como na API do Discord.
+     */
+    static final class NdjsonWriter implements RowWriter {
+        private final Writer out;
+        private final List<String> columns;
+        private final JsonTextWriter json = new JsonTextWriter();
+
+        NdjsonWriter(Writer out, List<String> columns) {
+            this.out = out;
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            json.reset().beginObject();
+            for (int i = 0; i < values.length; i++) {
+                json.name(columns.get(i));
+                switch (values[i]) {
+                    case null -> json.nullValue();
+                    case Number number -> json.value(number.longValue());
+                    default -> json.value(values[i].toString());
+                }
+            }
+            json.endObject();
+            out.write(json.toString());
+            out.write('\n');
+        }
+    }
+
+    static final class NdjsonReader implements RowReader {
+        private final JsonParser parser;
+        private long recordLine;
+
+        NdjsonReader(Reader in) throws IOException {
+            this.parser = JSON_FACTORY.createParser(in);
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return null;
+            }
+            recordLine = parser.currentLocation().getLineNr();
+            if (token != JsonToken.START_OBJECT) {
+                throw new BulkFormatException("expected a JSON object", recordLine);
+            }
+            Map<String, String> row = new HashMap<>();
+            String invalidField = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName().toLowerCase();
+                JsonToken value = parser.nextToken();
+                switch (value) {
+                    case VALUE_NULL -> row.put(name, null);
+                    case VALUE_STRING, VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT, VALUE_TRUE, VALUE_FALSE -> row.put(name, parser.getText());
+                    default -> {
+                        // Consome o valor inteiro para o próximo registro começar no lugar certo.
+                        parser.skipChildren();
+                        invalidField = name;
+                    }
+                }
+            }
+            if (invalidField != null) {
+                throw new BulkFormatException("field '" + invalidField + "' must be a string, number or null", recordLine);
+            }
+            return row;
+        }
+
+        @Override
+        public long line() {
+            return recordLine;
+        }
+    }
+
+    /**
+     * Registro malformado. Quem lê conta como linha pulada e segue para a próxima, menos quando o
+     * arquivo não dá para continuar (aspas sem fechar).
+     */
+    static final class BulkFormatException extends IOException {
+        private final long line;
+
+        BulkFormatException(String message, long line) {
+            super(message);
+            this.line = line;
+        }
+
+        long line() {
+            return line;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import com.ladyluh.nekoffee.database.ChannelPreferenceRepository;
+import com.ladyluh.nekoffee.database.GuildConfig;
+import com.ladyluh.nekoffee.database.GuildConfigRepository;
+import com.ladyluh.nekoffee.database.UserChannelPreference;
+import com.ladyluh.nekoffee.database.UserXP;
+import com.ladyluh.nekoffee.database.XPRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Importação e exportação em massa dos dados de uma guild (XP, configuração e preferências de canal)
+ * em CSV ou NDJSON.
+ * <p>
+ * Nada é carregado inteiro: a exportação escreve cada linha conforme o cursor do banco avança, e a
+ * importação lê o arquivo uma linha por vez e grava em lotes de {@link #BATCH_SIZE}, cada lote numa
+ * transação. Linhas inválidas ou de outra guild são puladas e contadas. Só uma transferência por
+ * guild de cada vez.
+ */
+public class BulkTransferService implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BulkTransferService.class);
+    static final int BATCH_SIZE = 5000;
+    private static final long EXPORT_PROGRESS_INTERVAL = 10_000;
+    private static final int MAX_ERRORS = 10;
+
+    private final XPRepository xpRepository;
+    private final XPEngine xpEngine;
+    private final GuildConfigRepository guildConfigRepository;
+    private final ChannelPreferenceRepository preferenceRepository;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("Nekoffee-Bulk-", 0).factory());
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public BulkTransferService(XPRepository xpRepository, XPEngine xpEngine,
+                               GuildConfigRepository guildConfigRepository, ChannelPreferenceRepository preferenceRepository) {
+        this.xpRepository = xpRepository;
+        this.xpEngine = xpEngine;
+        this.guildConfigRepository = guildConfigRepository;
+        this.preferenceRepository = preferenceRepository;
+    }
+
+    /**
+     * Escreve os dados da guild em {@code file} (primeiro num .tmp, movido no fim).
+     *
+     * @param progress Recebe o total de linhas escritas de tempos em tempos, e uma última vez no fim.
+     */
+    public CompletableFuture<BulkResult> exportGuild(BulkDataset dataset, String guildId, BulkFormat format,
+                                                     Path file, LongConsumer progress) {
+        return runExclusive(guildId, () -> {
+            try {
+                return export(dataset, guildId, format, file, progress);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to export " + dataset.getName() + " to " + file.getFileName(), e);
+            }
+        });
+    }
+
+    /**
+     * Lê {@code file} (formato pela extensão) e grava as linhas da guild, substituindo as existentes.
+     *
+     * @param progress Recebe o total de linhas gravadas a cada lote.
+     */
+    public CompletableFuture<BulkResult> importGuild(BulkDataset dataset, String guildId, Path file, LongConsumer progress) {
+        BulkFormat format = BulkFormat.fromFileName(file.getFileName().toString()).orElse(null);
+        if (format == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown file format (use .csv, .ndjson or .jsonl): " + file.getFileName()));
+        }
+        return runExclusive(guildId, () -> {
+            try {
+                return switch (dataset) {
+                    case XP -> importXP(guildId, file, format, progress);
+                    case GUILD_CONFIG -> importRows(guildId, file, format, row -> parseGuildConfig(guildId, row),
+                            guildConfigRepository::updateGuildConfigs, progress);
+                    case PREFERENCES -> importRows(guildId, file, format, row -> parsePreference(guildId, row),
+                            preferenceRepository::updateUserChannelPreferences, progress);
+                };
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to import " + dataset.getName() + " from " + file.getFileName(), e);
+            }
+        });
+    }
+
+    private CompletableFuture<BulkResult> runExclusive(String guildId, Supplier<BulkResult> task) {
+        if (!running.add(guildId)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("A bulk import/export is already running for this guild"));
+        }
+        return CompletableFuture.supplyAsync(task, executor).whenComplete((result, ex) -> running.remove(guildId));
+    }
+
+    private BulkResult export(BulkDataset dataset, String guildId, BulkFormat format, Path file, LongConsumer progress) throws IOException {
+        if (dataset == BulkDataset.XP) {
+            // O XP recente pode estar só em memória.
+            xpEngine.flush().join();
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        long[] rows = {0};
+        try {
+            try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                BulkRows.RowWriter writer = format.writer(out, dataset.getColumns());
+                Consumer<Object[]> sink = values -> {
+                    try {
+                        writer.write(values);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    if (++rows[0] % EXPORT_PROGRESS_INTERVAL == 0) {
+                        progress.accept(rows[0]);
+                    }
+                };
+                switch (dataset) {
+                    case XP -> xpRepository.scanUserXP(guildId, row -> sink.accept(new Object[]{
+                            row.getGuildId(), row.getUserId(), row.getXp(), row.getLevel(), row.getLastMessageTimestamp()})).join();
+                    case GUILD_CONFIG -> guildConfigRepository.getGuildConfig(guildId).join().ifPresent(config -> sink.accept(new Object[]{
+                            config.guildId, config.logChannelId, config.welcomeChannelId, config.autoAssignRoleId,
+                            config.recordingsChannelId, config.tempHubChannelId, config.tempChannelCategoryId, config.tempChannelNamePrefix,
+                            config.defaultTempChannelUserLimit, config.defaultTempChannelLock, config.joinSoundId}));
+                    case PREFERENCES -> preferenceRepository.scanUserChannelPreferences(guildId, pref -> sink.accept(new Object[]{
+                            pref.guildId, pref.userId, pref.preferredUserLimit, pref.preferredName, pref.defaultLocked, pref.autoOwnerSwitching})).join();
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        progress.accept(rows[0]);
+        LOGGER.info("Exportação de {} da guild {}: {} linhas em {}.", dataset.getName(), guildId, rows[0], file);
+        return new BulkResult(file, rows[0], 0, List.of());
+    }
+
+    private BulkResult importXP(String guildId, Path file, BulkFormat format, LongConsumer progress) throws IOException {
+        // Sem XP novo na guild durante a importação: nada em memória pode ser gravado por cima dela depois.
+        xpEngine.suspendGuild(guildId).join();
+        try {
+            return importRows(guildId, file, format, row -> parseXP(guildId, row), xpRepository::updateUserXPBatch, progress);
+        } finally {
+            xpEngine.resumeGuild(guildId).join();
+        }
+    }
+
+    private <T> BulkResult importRows(String guildId, Path file, BulkFormat format, Function<Map<String, String>, T> parser,
+                                      Function<List<T>, CompletableFuture<Void>> writeBatch, LongConsumer progress) throws IOException {
+        long rows = 0;
+        long skipped = 0;
+        List<String> errors = new ArrayList<>();
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            BulkRows.RowReader reader = format.reader(in);
+            while (true) {
+                Map<String, String> row;
+                try {
+                    row = reader.next();
+                } catch (BulkRows.BulkFormatException e) {
+                    skipped++;
+                    addError(errors, e.line(), e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                String rowGuild = value(row, "guild_id");
+                if (rowGuild != null && !rowGuild.equals(guildId)) {
+                    skipped++;
+                    addError(errors, reader.line(), "guild_id " + rowGuild + " is not this guild");
+                    continue;
+                }
+                try {
+                    batch.add(parser.apply(row));
+                } catch (IllegalArgumentException e) {
+                    skipped++;
+                    addError(errors, reader.line(), e.getMessage());
+                    continue;
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    writeBatch.apply(batch).join();
+                    rows += batch.size();
+                    batch = new ArrayList<>(BATCH_SIZE);
+                    progress.accept(rows);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch.apply(batch).join();
+                rows += batch.size();
+            }
+        }
+        progress.accept(rows);
+        LOGGER.info("Importação de {} para a guild {}: {} linhas gravadas, {} puladas.", file.getFileName(), guildId, rows, skipped);
+        return new BulkResult(file, rows, skipped, errors);
+    }
+
+    private static void addError(List<String> errors, long line, String message) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("line " + line + ": " + message);
+        }
+    }
+
+    private static UserXP parseXP(String guildId, Map<String, String> row) {
+        String userId = requireId(row, "user_id");
+        if (value(row, "xp") == null) {
+            throw new IllegalArgumentException("xp is required");
+        }
+        int level;
+        int xp;
+        if (value(row, "level") == null) {
+            long total = parseLong(row, "xp", 0);
+            if (total < 0 || total > XPEngine.MAX_TOTAL_XP) {
+                throw new IllegalArgumentException("xp must be between 0 and " + XPEngine.MAX_TOTAL_XP + ": " + total);
+            }
+            level = XPEngine.levelForTotalXp(total);
+            xp = (int) (total - XPEngine.totalXp(level, 0));
+        } else {
+            level = parseInt(row, "level", 0);
+            xp = parseInt(row, "xp", 0);
+            if (level < 0 || xp < 0) {
+                throw new IllegalArgumentException("xp and level must not be negative");
+            }
+            if (level > XPEngine.MAX_LEVEL) {
+                throw new IllegalArgumentException("level must be at most " + XPEngine.MAX_LEVEL + ": " + level);
+            }
+            // O engine sobe um nível por mensagem: XP além do próximo nível viraria vários level-ups seguidos.
+            if (xp >= XPEngine.xpForLevel(level + 1)) {
+                throw new IllegalArgumentException("xp must be below " + XPEngine.xpForLevel(level + 1) + " at level " + level + ": " + xp);
+            }
+        }
+        return new UserXP(guildId, userId, xp, level, parseLong(row, "last_message_timestamp", 0));
+    }
+
+    private static GuildConfig parseGuildConfig(String guildId, Map<String, String> row) {
+        return new GuildConfig(guildId,
+                optionalId(row, "log_channel_id"),
+                optionalId(row, "welcome_channel_id"),
+                optionalId(row, "auto_assign_role_id"),
+                optionalId(row, "recordings_channel_id"),
+                optionalId(row, "temp_hub_channel_id"),
+                optionalId(row, "temp_channel_category_id"),
+                value(row, "temp_channel_name_prefix"),
+                parseOptionalInt(row, "default_temp_channel_user_limit"),
+                parseOptionalInt(row, "default_temp_channel_lock"),
+                optionalId(row, "join_sound_id"));
+    }
+
+    private static UserChannelPreference parsePreference(String guildId, Map<String, String> row) {
+        return new UserChannelPreference(guildId,
+                requireId(row, "user_id"),
+                parseOptionalInt(row, "preferred_user_limit"),
+                value(row, "preferred_name_template"),
+                parseOptionalInt(row, "locked"),
+                parseOptionalInt(row, "auto_owner_switching"));
+    }
+
+    private static String requireId(Map<String, String> row, String column) {
+        String id = optionalId(row, column);
+        if (id == null) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return id;
+    }
+
+    /**
+     * Campo vazio conta como ausente: o CSV não distingue os dois e o NDJSON exportado usa "" nos IDs não configurados.
+     */
+    private static String value(Map<String, String> row, String column) {
+        String value = row.get(column);
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static String optionalId(Map<String, String> row, String column) {
+        String value = value(row, column);
+        if (value == null) {
+            return null;
+        }
+        if (Snowflake.parse(value) == Snowflake.NONE) {
+            throw new IllegalArgumentException(column + " is not a valid ID: " + value);
+        }
+        return value;
+    }
+
+    private static int parseInt(Map<String, String> row, String column, int defaultValue) {
+        long value = parseLong(row, column, defaultValue);
+        if (value != (int) value) {
+            throw new IllegalArgumentException(column + " is out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Aceita também true/false, para as colunas 0/1.
+     */
+    private static Integer parseOptionalInt(Map<String, String> row, String column) {
+        String value = value(row, column);
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toLowerCase()) {
+            case "true" -> 1;
+            case "false" -> 0;
+            default -> parseInt(row, column, 0);
+        };
+    }
+
+    private static long parseLong(Map<String, String> row, String column, long defaultValue) {
+        String value = value(row, column);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
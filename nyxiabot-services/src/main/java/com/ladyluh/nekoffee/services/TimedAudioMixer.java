@@ -60,23 +60,7 @@ public class TimedAudioMixer implements AutoCloseable {
             
             AudioPacket packet;
             while ((packet = audioQueue.poll()) != null) {
-                ByteBuffer packetBuffer = ByteBuffer.wrap(packet.pcmData).order(ByteOrder.LITTLE_ENDIAN);
-                
-                mixedFrameBuffer.position(0);
-                packetBuffer.position(0);
-                
-                for (int i = 0; i < FRAME_SIZE_BYTES / 2; i++) {
-                    int currentSample = mixedFrameBuffer.getShort(i * 2);
-                    int newSample = packetBuffer.getShort(i * 2);
-                    int mixedSample = currentSample + newSample;
-                    
-                    if (mixedSample > Short.MAX_VALUE) {
-                        mixedSample = Short.MAX_VALUE;
-                    } else if (mixedSample < Short.MIN_VALUE) {
-                        mixedSample = Short.MIN_VALUE;
-                    }
-                    mixedFrameBuffer.putShort(i * 2, (short) mixedSample);
-                }
+                mixInto(mixedFrameBuffer, packet.pcmData);
             }
             
             mixedOutputFile.write(mixedFrame);
@@ -86,6 +70,29 @@ public class TimedAudioMixer implements AutoCloseable {
         }
     }
 
+    /**
+     * Soma um frame PCM 16-bit little-endian ao frame mixado, saturando cada amostra.
+     */
+    public static void mixInto(ByteBuffer mixedFrameBuffer, byte[] pcmData) {
+        ByteBuffer packetBuffer = ByteBuffer.wrap(pcmData).order(ByteOrder.LITTLE_ENDIAN);
+        
+        mixedFrameBuffer.position(0);
+        packetBuffer.position(0);
+        
+        for (int i = 0; i < FRAME_SIZE_BYTES / 2; i++) {
+            int currentSample = mixedFrameBuffer.getShort(i * 2);
+            int newSample = packetBuffer.getShort(i * 2);
+            int mixedSample = currentSample + newSample;
+            
+            if (mixedSample > Short.MAX_VALUE) {
+                mixedSample = Short.MAX_VALUE;
+            } else if (mixedSample < Short.MIN_VALUE) {
+                mixedSample = Short.MIN_VALUE;
+            }
+            mixedFrameBuffer.putShort(i * 2, (short) mixedSample);
+        }
+    }
+
     @Override
     public void close() {
         scheduler.shutdown();
@@ -18,6 +18,7 @@ import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -39,7 +40,10 @@ public class VideoGenerator implements AutoCloseable {
 
     private final Map<String, BufferedImage> avatarCache = new ConcurrentHashMap<>();
     private final Map<String, Boolean> speakingState = new ConcurrentHashMap<>();
-    private final Map<String, User> userCache = new ConcurrentHashMap<>();
+    /**
+     * Só os IDs de quem aparece no vídeo; os objetos User ficam no cache compartilhado do cliente.
+     */
+    private final Set<String> participantIds = ConcurrentHashMap.newKeySet();
     private final ExecutorService avatarDownloader = Executors.newCachedThreadPool();
 
     public VideoGenerator(File outputFile) throws IOException {
@@ -81,7 +85,7 @@ public class VideoGenerator implements AutoCloseable {
 
     public void initializeUsers(Collection<User> users) {
         for (User user : users) {
-            userCache.put(user.getId(), user);
+            participantIds.add(user.getId());
             updateUserAvatar(user);
         }
     }
@@ -130,13 +134,13 @@ public class VideoGenerator implements AutoCloseable {
             g2d.fillRect(0, 0, WIDTH, HEIGHT);
             int x = PADDING;
             int y = PADDING;
-            for (User user : userCache.values()) {
-                BufferedImage avatar = avatarCache.get(user.getId());
+            for (String userId : participantIds) {
+                BufferedImage avatar = avatarCache.get(userId);
                 if (avatar == null) continue;
                 g2d.setClip(new Ellipse2D.Float(x, y, AVATAR_SIZE, AVATAR_SIZE));
                 g2d.drawImage(avatar, x, y, AVATAR_SIZE, AVATAR_SIZE, null);
                 g2d.setClip(null);
-                if (speakingState.getOrDefault(user.getId(), false)) {
+                if (speakingState.getOrDefault(userId, false)) {
                     g2d.setColor(new Color(59, 165, 93));
                     g2d.setStroke(new java.awt.BasicStroke(6));
                     g2d.drawOval(x - 3, y - 3, AVATAR_SIZE + 6, AVATAR_SIZE + 6);
@@ -0,0 +1,665 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.LongObjectHashMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+import com.ladyluh.nekoffee.database.XPRepository;
+import com.ladyluh.nekoffee.database.UserXP;
+import com.ladyluh.nekoffee.database.XPBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * XP de mensagens mantido em memória, com gravação atrasada (write-behind).
+ * <p>
+ * Cada (guild, usuário) é lido do banco uma vez e depois só muda em memória: o cooldown e a subida de
+ * nível são decididos sob o lock do próprio estado, então mensagens simultâneas do mesmo usuário não
+ * perdem XP nem ganham duas vezes. Estados alterados entram numa fila e são gravados em lote, numa única
+ * transação, a cada {@code flushIntervalMillis} ou quando a fila chega a {@code flushBatchSize}.
+ * {@link #close()} grava o que faltar.
+ * <p>
+ * O ranking de cada guild ({@link XPRankIndex}) é montado do banco na primeira consulta e, a partir daí,
+ * atualizado a cada XP concedido.
+ * <p>
+ * O XP também é somado por hora ({@link XPWindowStore}) para os rankings de dia, semana e mês. As horas vão
+ * para o banco junto com o lote de flush; uma vez por dia as horas antigas são consolidadas por dia e os
+ * dias com mais de 30 dias, apagados. Na inicialização, as janelas são recarregadas do banco.
+ */
+public class XPEngine implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(XPEngine.class);
+    public static final long XP_COOLDOWN_MILLIS = 60 * 1000;
+    public static final int XP_MIN_PER_MESSAGE = 15;
+    public static final int XP_MAX_PER_MESSAGE = 30;
+    /**
+     * Maior nível aceito de fora (importações). O XP de um nível ainda cabe num int e o total, num long.
+     */
+    public static final int MAX_LEVEL = 5000;
+    /**
+     * XP acumulado ao chegar no {@link #MAX_LEVEL}.
+     */
+    public static final long MAX_TOTAL_XP = totalXp(MAX_LEVEL, 0);
+    /**
+     * Estados limpos sem mensagem há mais que isso saem da memória; a próxima mensagem relê do banco.
+     */
+    private static final long IDLE_EVICTION_MILLIS = 30 * 60 * 1000;
+    private static final long SWEEP_INTERVAL_MILLIS = 60 * 1000;
+    /**
+     * Horas mantidas em user_xp_hourly antes de virarem dias: o dia atual e o anterior, para as últimas 24h
+     * nunca dependerem de dados consolidados.
+     */
+    private static final int HOURLY_RETENTION_DAYS = 2;
+    /**
+     * Devolvido por {@link XPState#award(long, int)} quando o estado já saiu da memória: a concessão é refeita
+     * sobre o estado recarregado.
+     */
+    private static final XPAward RETIRED = new XPAward(0, 0, 0, 0);
+
+    private final XPRepository xpRepository;
+    private final int flushBatchSize;
+    private final ConcurrentLongObjectMap<GuildXP> guilds = new ConcurrentLongObjectMap<>();
+    private final ConcurrentLongObjectMap<CompletableFuture<XPRankIndex>> rankings = new ConcurrentLongObjectMap<>();
+    /**
+     * Guilds com o XP sendo substituído por fora do engine; mensagens nelas não ganham XP.
+     */
+    private final Set<Long> suspendedGuilds = ConcurrentHashMap.newKeySet();
+    private final Queue<XPState> dirtyQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger dirtyCount = new AtomicInteger();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    private final XPWindowStore windows = new XPWindowStore(() -> XPWindowStore.hourOf(System.currentTimeMillis()));
+    private final Queue<XPBucket> pendingBuckets = new ConcurrentLinkedQueue<>();
+    private long lastRollupDay = -1;
+    private final ScheduledExecutorService scheduler;
+    private long lastSweep = System.currentTimeMillis();
+
+    public XPEngine(XPRepository xpRepository, long flushIntervalMillis, int flushBatchSize) {
+        this.xpRepository = xpRepository;
+        this.flushBatchSize = flushBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Nekoffee-XP-Flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        loadWindows();
+        scheduler.scheduleWithFixedDelay(this::tick, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * XP total necessário para passar do nível {@code level - 1} para {@code level}.
+     */
+    public static int xpForLevel(int level) {
+        return XPRepository.xpForLevel(level);
+    }
+
+    /**
+     * XP acumulado de quem está no nível {@code level} com {@code xp} dentro dele.
+     */
+    public static long totalXp(int level, int xp) {
+        // Soma fechada de 50l² + 100l + 100 para l = 1..level, em long.
+        long n = Math.max(level, 0);
+        return xp + 50 * n * (n + 1) * (2 * n + 1) / 6 + 100 * n * (n + 1) / 2 + 100 * n;
+    }
+
+    /**
+     * Inverso de {@link #totalXp(int, int)}: o nível alcançado com {@code totalXp} acumulado, no máximo
+     * {@link #MAX_LEVEL}.
+     */
+    public static int levelForTotalXp(long totalXp) {
+        int level = 0;
+        long remaining = totalXp;
+        while (level < MAX_LEVEL && remaining >= xpForLevel(level + 1)) {
+            remaining -= xpForLevel(level + 1);
+            level++;
+        }
+        return level;
+    }
+
+    /**
+     * Concede XP por uma mensagem, respeitando o cooldown.
+     *
+     * @return O resultado, ou vazio se o usuário ainda está em cooldown.
+     */
+    public CompletableFuture<Optional<XPAward>> awardMessageXP(String guildId, String userId, long now) {
+        int xpGained = ThreadLocalRandom.current().nextInt(XP_MIN_PER_MESSAGE, XP_MAX_PER_MESSAGE + 1);
+        return award(guildId, userId, now, xpGained);
+    }
+
+    private CompletableFuture<Optional<XPAward>> award(String guildId, String userId, long now, int xpGained) {
+        if (suspendedGuilds.contains(Snowflake.parse(guildId))) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return stateOf(guildId, userId).thenCompose(state -> {
+            XPAward award = state.award(now, xpGained);
+            if (award == RETIRED) {
+                return award(guildId, userId, now, xpGained);
+            }
+            if (award == null) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            long hour = XPWindowStore.hourOf(now);
+            windows.addHourly(state.guildKey, state.userKey, hour, xpGained);
+            pendingBuckets.add(new XPBucket(state.guildId, state.userId, hour, xpGained));
+            markDirty(state);
+            updateRanking(state);
+            return CompletableFuture.completedFuture(Optional.of(award));
+        });
+    }
+
+    /**
+     * @param offset Quantas posições pular a partir do primeiro lugar.
+     * @return Até {@code count} posições do ranking da guild, por XP total.
+     */
+    public CompletableFuture<List<XPRank>> getLeaderboard(String guildId, int offset, int count) {
+        return rankingOf(guildId).thenApply(index -> {
+            synchronized (index) {
+                return index.range(offset + 1, count);
+            }
+        });
+    }
+
+    /**
+     * @return A posição do usuário, ou vazio se ele nunca ganhou XP na guild.
+     */
+    public CompletableFuture<Optional<XPRank>> getRank(String guildId, String userId) {
+        long userKey = Snowflake.parse(userId);
+        return rankingOf(guildId).thenApply(index -> {
+            synchronized (index) {
+                int rank = index.rankOf(userKey);
+                return rank == 0 ? Optional.<XPRank>empty() : Optional.of(index.range(rank, 1).getFirst());
+            }
+        });
+    }
+
+    /**
+     * @return As posições de {@code radius} acima até {@code radius} abaixo do usuário; vazio se ele não está no ranking.
+     */
+    public CompletableFuture<List<XPRank>> getRanksAround(String guildId, String userId, int radius) {
+        long userKey = Snowflake.parse(userId);
+        return rankingOf(guildId).thenApply(index -> {
+            synchronized (index) {
+                int rank = index.rankOf(userKey);
+                if (rank == 0) {
+                    return List.<XPRank>of();
+                }
+                int from = Math.max(1, rank - radius);
+                return index.range(from, rank + radius - from + 1);
+            }
+        });
+    }
+
+    /**
+     * @param offset Quantas posições pular a partir do primeiro lugar.
+     * @return Até {@code count} posições do ranking da janela, por XP ganho nela.
+     */
+    public List<XPWindowRank> getWindowLeaderboard(String guildId, XPWindow window, int offset, int count) {
+        return windows.top(Snowflake.parse(guildId), window, offset, count);
+    }
+
+    /**
+     * @return O XP que o usuário ganhou dentro da janela.
+     */
+    public long getWindowXP(String guildId, String userId, XPWindow window) {
+        return windows.xpOf(Snowflake.parse(guildId), Snowflake.parse(userId), window);
+    }
+
+    private void loadWindows() {
+        long now = System.currentTimeMillis();
+        long today = XPWindowStore.hourOf(now) / XPWindowStore.HOURS;
+        long firstDay = today - XPWindowStore.DAYS + 1;
+        try {
+            rollup(today);
+            int[] rows = new int[1];
+            xpRepository.scanDailyXP(firstDay, bucket -> {
+                windows.addDaily(Snowflake.parse(bucket.getGuildId()), Snowflake.parse(bucket.getUserId()), bucket.getBucket(), bucket.getXp());
+                rows[0]++;
+            }).join();
+            xpRepository.scanHourlyXP(firstDay * XPWindowStore.HOURS, bucket -> {
+                windows.addHourly(Snowflake.parse(bucket.getGuildId()), Snowflake.parse(bucket.getUserId()), bucket.getBucket(), bucket.getXp());
+                rows[0]++;
+            }).join();
+            LOGGER.info("XPEngine: XP por janela de tempo carregado ({} registros).", rows[0]);
+        } catch (Exception e) {
+            LOGGER.error("Falha ao carregar o XP por janela de tempo; os rankings de dia/semana/mês começam vazios.", e);
+        }
+    }
+
+    /**
+     * Consolida as horas anteriores à retenção e expira os dias fora da janela de mês.
+     */
+    private void rollup(long today) {
+        int rolledUp = xpRepository.rollupXPBuckets((today - HOURLY_RETENTION_DAYS + 1) * XPWindowStore.HOURS,
+                today - XPWindowStore.DAYS + 1).join();
+        lastRollupDay = today;
+        if (rolledUp > 0) {
+            LOGGER.debug("XPEngine: {} horas de XP consolidadas por dia.", rolledUp);
+        }
+    }
+
+    private void updateRanking(XPState state) {
+        CompletableFuture<XPRankIndex> ranking = rankings.get(state.guildKey);
+        if (ranking != null) {
+            // Se o índice ainda está carregando, roda quando ele ficar pronto; sempre com o XP mais recente.
+            ranking.thenAccept(index -> {
+                synchronized (index) {
+                    index.put(state.userKey, state.totalXp());
+                }
+            });
+        }
+    }
+
+    private CompletableFuture<XPRankIndex> rankingOf(String guildId) {
+        long guildKey = Snowflake.parse(guildId);
+        CompletableFuture<XPRankIndex> existing = rankings.get(guildKey);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<XPRankIndex> created = new CompletableFuture<>();
+        CompletableFuture<XPRankIndex> raced = rankings.putIfAbsent(guildKey, created);
+        if (raced != null) {
+            return raced;
+        }
+        xpRepository.getGuildXP(guildId).whenComplete((rows, ex) -> {
+            if (ex != null) {
+                rankings.remove(guildKey, created);
+                created.completeExceptionally(ex);
+                return;
+            }
+            XPRankIndex index = new XPRankIndex();
+            synchronized (index) {
+                for (UserXP row : rows) {
+                    index.put(Snowflake.parse(row.getUserId()), totalXp(row.getLevel(), row.getXp()));
+                }
+                // O banco pode estar atrás da memória: aplica por cima o XP ainda não gravado.
+                GuildXP guild = guilds.get(guildKey);
+                if (guild != null) {
+                    List<XPState> loaded = new ArrayList<>();
+                    synchronized (guild) {
+                        guild.states.forEach((userId, future) -> {
+                            XPState state = future.getNow(null);
+                            if (state != null) loaded.add(state);
+                        });
+                    }
+                    for (XPState state : loaded) {
+                        index.put(state.userKey, state.totalXp());
+                    }
+                }
+            }
+            LOGGER.debug("XPEngine: ranking da guild {} montado com {} usuários.", guildId, index.size());
+            created.complete(index);
+        });
+        return created;
+    }
+
+    /**
+     * @return O XP atual do usuário: a versão em memória se houver, senão a do banco.
+     */
+    public CompletableFuture<UserXP> getUserXP(String guildId, String userId) {
+        CompletableFuture<XPState> loaded = loadedState(guildId, userId);
+        if (loaded != null) {
+            return loaded.thenApply(XPState::snapshot);
+        }
+        return xpRepository.getUserXP(guildId, userId);
+    }
+
+    /**
+     * Grava imediatamente tudo o que está pendente.
+     */
+    public CompletableFuture<Void> flush() {
+        return CompletableFuture.runAsync(this::flushPending, scheduler);
+    }
+
+    /**
+     * Para de conceder XP na guild, grava o que está pendente e tira da memória os estados e o ranking dela.
+     * Para quando o XP da guild vai mudar por fora do engine, como numa importação; termine com
+     * {@link #resumeGuild(String)}.
+     */
+    public CompletableFuture<Void> suspendGuild(String guildId) {
+        long guildKey = Snowflake.parse(guildId);
+        suspendedGuilds.add(guildKey);
+        return CompletableFuture.runAsync(() -> {
+            flushPending();
+            discardGuild(guildKey);
+        }, scheduler);
+    }
+
+    /**
+     * Volta a conceder XP na guild; as próximas leituras vêm do banco. Um estado que uma concessão já em
+     * andamento tenha sujado durante a suspensão é descartado sem gravar, para não passar por cima do
+     * que foi escrito por fora.
+     */
+    public CompletableFuture<Void> resumeGuild(String guildId) {
+        long guildKey = Snowflake.parse(guildId);
+        return CompletableFuture.runAsync(() -> discardGuild(guildKey), scheduler)
+                .whenComplete((v, ex) -> suspendedGuilds.remove(guildKey));
+    }
+
+    /**
+     * Aposenta todos os estados da guild, gravados ou não, e descarta o ranking. Sob o lock do flush, para
+     * nenhum lote em andamento ainda estar com uma cópia deles.
+     */
+    private void discardGuild(long guildKey) {
+        synchronized (flushLock) {
+            GuildXP guild = guilds.get(guildKey);
+            if (guild != null) {
+                synchronized (guild) {
+                    for (long userId : guild.states.keys()) {
+                        XPState state = guild.states.get(userId).getNow(null);
+                        if (state != null) {
+                            state.retire();
+                        }
+                        guild.states.remove(userId);
+                    }
+                }
+            }
+            rankings.remove(guildKey);
+        }
+    }
+
+    private CompletableFuture<XPState> stateOf(String guildId, String userId) {
+        long guildKey = Snowflake.parse(guildId);
+        long userKey = Snowflake.parse(userId);
+        GuildXP guild = guilds.computeIfAbsent(guildKey, id -> new GuildXP());
+        CompletableFuture<XPState> created;
+        synchronized (guild) {
+            CompletableFuture<XPState> existing = guild.states.get(userKey);
+            if (existing != null) {
+                return existing;
+            }
+            created = new CompletableFuture<>();
+            guild.states.put(userKey, created);
+        }
+        // Todas as mensagens que chegarem durante a leitura esperam o mesmo future.
+        xpRepository.getUserXP(guildId, userId).whenComplete((userXP, ex) -> {
+            if (ex != null) {
+                synchronized (guild) {
+                    if (guild.states.get(userKey) == created) {
+                        guild.states.remove(userKey);
+                    }
+                }
+                created.completeExceptionally(ex);
+            } else {
+                created.complete(new XPState(guildKey, userKey, userXP));
+            }
+        });
+        return created;
+    }
+
+    private CompletableFuture<XPState> loadedState(String guildId, String userId) {
+        GuildXP guild = guilds.get(Snowflake.parse(guildId));
+        if (guild == null) {
+            return null;
+        }
+        synchronized (guild) {
+            return guild.states.get(Snowflake.parse(userId));
+        }
+    }
+
+    private void markDirty(XPState state) {
+        if (!state.claimQueueSlot()) {
+            return;
+        }
+        dirtyQueue.add(state);
+        if (dirtyCount.incrementAndGet() >= flushBatchSize && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flushPending);
+        }
+    }
+
+    private void tick() {
+        flushPending();
+        long now = System.currentTimeMillis();
+        if (now - lastSweep >= SWEEP_INTERVAL_MILLIS) {
+            lastSweep = now;
+            evictIdle(now);
+        }
+        long today = XPWindowStore.hourOf(now) / XPWindowStore.HOURS;
+        if (today != lastRollupDay) {
+            int released = windows.expire();
+            LOGGER.debug("XPEngine: {} usuários sem XP recente removidos das janelas.", released);
+            try {
+                rollup(today);
+            } catch (Exception e) {
+                LOGGER.error("Falha ao consolidar o XP por hora. Tentando de novo no próximo ciclo.", e);
+            }
+        }
+    }
+
+    private void flushPending() {
+        synchronized (flushLock) {
+            flushRequested.set(false);
+            // As horas vão inteiras no primeiro lote, somadas por (guild, usuário, hora).
+            List<XPBucket> buckets = drainBuckets();
+            while (!dirtyQueue.isEmpty() || !buckets.isEmpty()) {
+                List<XPState> batch = new ArrayList<>(Math.min(flushBatchSize, dirtyCount.get()));
+                List<UserXP> rows = new ArrayList<>(batch.size());
+                long[] versions = new long[flushBatchSize];
+                XPState state;
+                while (batch.size() < flushBatchSize && (state = dirtyQueue.poll()) != null) {
+                    dirtyCount.decrementAndGet();
+                    if (state.isRetired()) {
+                        // Descartado por discardGuild: o que está no banco vale mais que esta cópia.
+                        continue;
+                    }
+                    versions[batch.size()] = state.dequeue();
+                    batch.add(state);
+                    rows.add(state.snapshot());
+                }
+                if (rows.isEmpty() && buckets.isEmpty()) {
+                    break;
+                }
+                try {
+                    xpRepository.updateUserXPBatch(rows, buckets).join();
+                } catch (Exception e) {
+                    LOGGER.error("Falha ao gravar lote de {} registros de XP. Tentando de novo no próximo ciclo.", rows.size(), e);
+                    // Segura os flushes por lote cheio até o próximo ciclo; senão um banco fora do ar vira um loop.
+                    flushRequested.set(true);
+                    batch.forEach(this::markDirty);
+                    pendingBuckets.addAll(buckets);
+                    return;
+                }
+                buckets = List.of();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).markFlushed(versions[i]);
+                }
+            }
+        }
+    }
+
+    private List<XPBucket> drainBuckets() {
+        Map<String, XPBucket> merged = new HashMap<>();
+        XPBucket bucket;
+        while ((bucket = pendingBuckets.poll()) != null) {
+            merged.merge(bucket.getGuildId() + ':' + bucket.getUserId() + ':' + bucket.getBucket(), bucket,
+                    (a, b) -> new XPBucket(a.getGuildId(), a.getUserId(), a.getBucket(), a.getXp() + b.getXp()));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Tira da memória os estados limpos e ociosos. O estado é aposentado sob o próprio lock, então uma
+     * concessão que já o tinha em mãos não altera uma cópia que ninguém mais grava: ela recarrega e refaz.
+     */
+    void evictIdle(long now) {
+        int evicted = 0;
+        for (GuildXP guild : guilds.values()) {
+            synchronized (guild) {
+                for (long userId : guild.states.keys()) {
+                    CompletableFuture<XPState> future = guild.states.get(userId);
+                    XPState state = future.getNow(null);
+                    if (state != null && state.retireIfIdle(now)) {
+                        guild.states.remove(userId);
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            LOGGER.debug("XPEngine: {} estados ociosos removidos da memória.", evicted);
+        }
+    }
+
+    /**
+     * Para o flush periódico e grava o que estiver pendente.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushPending();
+        LOGGER.info("XPEngine: XP pendente gravado.");
+    }
+
+    /**
+     * Resultado de uma concessão de XP.
+     *
+     * @param xp XP dentro do nível atual, depois do ganho.
+     */
+    public record XPAward(int xpGained, int xp, int oldLevel, int newLevel) {
+        public boolean leveledUp() {
+            return newLevel > oldLevel;
+        }
+    }
+
+    private static final class GuildXP {
+        /**
+         * Usuário -> estado, ainda carregando ou já pronto. Acessado sob o lock da GuildXP.
+         */
+        private final LongObjectHashMap<CompletableFuture<XPState>> states = new LongObjectHashMap<>();
+    }
+
+    /**
+     * XP de um usuário numa guild. Todos os campos mudam sob o lock do próprio estado.
+     */
+    private static final class XPState {
+        private final long guildKey;
+        private final long userKey;
+        private final String guildId;
+        private final String userId;
+        private int xp;
+        private int level;
+        private long lastMessageTimestamp;
+        /**
+         * Incrementa a cada mudança; o flush só marca como gravado se nada mudou desde a cópia.
+         */
+        private long version;
+        private long flushedVersion;
+        /**
+         * Já está na fila de flush; evita enfileirar o mesmo estado duas vezes.
+         */
+        private boolean queued;
+        /**
+         * Saiu do mapa de estados; não aceita mais XP.
+         */
+        private boolean retired;
+
+        XPState(long guildId, long userId, UserXP stored) {
+            this.guildKey = guildId;
+            this.userKey = userId;
+            this.guildId = Snowflake.toString(guildId);
+            this.userId = Snowflake.toString(userId);
+            this.xp = stored.getXp();
+            this.level = stored.getLevel();
+            this.lastMessageTimestamp = stored.getLastMessageTimestamp();
+        }
+
+        synchronized XPAward award(long now, int xpGained) {
+            if (retired) {
+                return RETIRED;
+            }
+            if (now - lastMessageTimestamp <= XP_COOLDOWN_MILLIS) {
+                return null;
+            }
+            int oldLevel = level;
+            xp += xpGained;
+            lastMessageTimestamp = now;
+
+            int xpForNextLevel = xpForLevel(level + 1);
+            if (xp >= xpForNextLevel) {
+                level++;
+                xp -= xpForNextLevel;
+            }
+            version++;
+            return new XPAward(xpGained, xp, oldLevel, level);
+        }
+
+        synchronized boolean claimQueueSlot() {
+            if (queued) {
+                return false;
+            }
+            queued = true;
+            return true;
+        }
+
+        /**
+         * Sai da fila de flush. Mudanças feitas a partir daqui colocam o estado na fila de novo.
+         *
+         * @return A versão que está sendo gravada.
+         */
+        synchronized long dequeue() {
+            queued = false;
+            return version;
+        }
+
+        synchronized void markFlushed(long flushed) {
+            flushedVersion = Math.max(flushedVersion, flushed);
+        }
+
+        synchronized long totalXp() {
+            return XPEngine.totalXp(level, xp);
+        }
+
+        synchronized UserXP snapshot() {
+            return new UserXP(guildId, userId, xp, level, lastMessageTimestamp);
+        }
+
+        synchronized boolean isClean() {
+            return flushedVersion == version && !queued;
+        }
+
+        /**
+         * Aposenta o estado se tudo já foi gravado.
+         */
+        synchronized boolean retireIfClean() {
+            if (!isClean()) {
+                return false;
+            }
+            retired = true;
+            return true;
+        }
+
+        /**
+         * Aposenta o estado mesmo com XP não gravado, que é perdido.
+         */
+        synchronized void retire() {
+            retired = true;
+        }
+
+        synchronized boolean isRetired() {
+            return retired;
+        }
+
+        synchronized boolean retireIfIdle(long now) {
+            return now - lastMessageTimestamp > IDLE_EVICTION_MILLIS && retireIfClean();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.api.util.Snowflake;
+
+/**
+ * Uma posição no ranking de XP de uma guild.
+ *
+ * @param rank    Posição, começando em 1.
+ * @param totalXp XP acumulado em todos os níveis.
+ */
+public record XPRank(int rank, long userId, long totalXp) {
+
+    public String getUserId() {
+        return Snowflake.toString(userId);
+    }
+
+    public int level() {
+        return XPEngine.levelForTotalXp(totalXp);
+    }
+}
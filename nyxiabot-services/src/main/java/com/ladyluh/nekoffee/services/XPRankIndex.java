@@ -0,0 +1,206 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.api.util.LongLongHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ranking de XP de uma guild: skip list ordenada por XP total (maior primeiro, empate pelo menor ID),
+ * com a largura de cada ponteiro guardada em {@code span} para achar posições em O(log n).
+ * <p>
+ * Não é thread-safe; o {@link XPEngine} acessa sob o lock do próprio índice.
+ */
+final class XPRankIndex {
+    private static final int MAX_LEVEL = 32;
+    private static final long ABSENT = Long.MIN_VALUE;
+
+    private final Node head = new Node(ABSENT, 0L, MAX_LEVEL);
+    private final LongLongHashMap scoreByUser = new LongLongHashMap();
+    private int level = 1;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Define o XP total do usuário, reposicionando-o se já estava no ranking.
+     */
+    void put(long userId, long totalXp) {
+        long previous = scoreByUser.get(userId, ABSENT);
+        if (previous == totalXp) {
+            return;
+        }
+        if (previous != ABSENT) {
+            delete(previous, userId);
+        }
+        insert(totalXp, userId);
+        scoreByUser.put(userId, totalXp);
+    }
+
+    void remove(long userId) {
+        long previous = scoreByUser.get(userId, ABSENT);
+        if (previous != ABSENT) {
+            delete(previous, userId);
+            scoreByUser.remove(userId);
+        }
+    }
+
+    /**
+     * @return A posição do usuário (1 = primeiro), ou 0 se ele não está no ranking.
+     */
+    int rankOf(long userId) {
+        long score = scoreByUser.get(userId, ABSENT);
+        if (score == ABSENT) {
+            return 0;
+        }
+        int rank = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && !after(x.next[i], score, userId)) {
+                rank += x.span[i];
+                x = x.next[i];
+            }
+            if (x != head && x.userId == userId) {
+                return rank;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param fromRank Primeira posição, começando em 1.
+     * @return Até {@code count} entradas a partir de {@code fromRank}, em ordem.
+     */
+    List<XPRank> range(int fromRank, int count) {
+        List<XPRank> result = new ArrayList<>(Math.max(0, Math.min(count, size - fromRank + 1)));
+        Node x = nodeAt(fromRank);
+        for (int rank = fromRank; x != null && result.size() < count; rank++, x = x.next[0]) {
+            result.add(new XPRank(rank, x.userId, x.score));
+        }
+        return result;
+    }
+
+    private Node nodeAt(int rank) {
+        if (rank < 1 || rank > size) {
+            return null;
+        }
+        int traversed = 0;
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && traversed + x.span[i] <= rank) {
+                traversed += x.span[i];
+                x = x.next[i];
+            }
+            if (traversed == rank) {
+                return x;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true se {@code node} vem antes de (score, userId) na ordem do ranking.
+     */
+    private static boolean before(Node node, long score, long userId) {
+        return node.score > score || (node.score == score && node.userId < userId);
+    }
+
+    private static boolean after(Node node, long score, long userId) {
+        return node.score < score || (node.score == score && node.userId > userId);
+    }
+
+    private void insert(long score, long userId) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (x.next[i] != null && before(x.next[i], score, userId)) {
+                rank[i] += x.span[i];
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node node = new Node(score, userId, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            node.next[i] = update[i].next[i];
+            update[i].next[i] = node;
+            node.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+        size++;
+    }
+
+    private void delete(long score, long userId) {
+        Node[] update = new Node[MAX_LEVEL];
+        Node x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.next[i] != null && before(x.next[i], score, userId)) {
+                x = x.next[i];
+            }
+            update[i] = x;
+        }
+        x = x.next[0];
+        if (x == null || x.score != score || x.userId != userId) {
+            return;
+        }
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == x) {
+                update[i].span[i] += x.span[i] - 1;
+                update[i].next[i] = x.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        size--;
+    }
+
+    /**
+     * Nível geométrico com p = 1/4: em média 1,33 ponteiros por nó.
+     */
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (nodeLevel < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+    private static final class Node {
+        final long score;
+        final long userId;
+        final Node[] next;
+        /**
+         * Quantos nós do nível 0 cada ponteiro pula.
+         */
+        final int[] span;
+
+        Node(long score, long userId, int level) {
+            this.score = score;
+            this.userId = userId;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ladyluh.nekoffee.services;
+
+/**
+ * Janelas móveis do ranking de XP. O dia é contado por hora (últimas 24h); semana e mês, por dia UTC,
+ * incluindo o dia corrente.
+ */
+public enum XPWindow {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,16 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.api.util.Snowflake;
+
+/**
+ * Uma posição no ranking de XP de uma {@link XPWindow}.
+ *
+ * @param rank Posição, começando em 1.
+ * @param xp   XP ganho dentro da janela.
+ */
+public record XPWindowRank(int rank, long userId, long xp) {
+
+    public String getUserId() {
+        return Snowflake.toString(userId);
+    }
+}
@@ -0,0 +1,357 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.api.util.ConcurrentLongObjectMap;
+import com.ladyluh.nekoffee.api.util.LongLongHashMap;
+import com.ladyluh.nekoffee.api.util.Snowflake;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * XP por hora e por dia de cada usuário, em memória, para os rankings de {@link XPWindow}.
+ * <p>
+ * Cada guild guarda os dados em colunas: um {@code char[]} por hora (as últimas 24) e um por dia
+ * (os últimos 30), indexados pelo slot do usuário. As colunas formam anéis: quando o relógio avança,
+ * a coluna que volta a ser usada é zerada, e é assim que as horas e os dias antigos expiram.
+ * Um top-N soma as colunas da janela em sequência e escolhe os maiores num heap de tamanho N.
+ * <p>
+ * Os valores saturam em 65535, bem acima do máximo que o cooldown permite num dia.
+ */
+final class XPWindowStore {
+    static final long HOUR_MILLIS = 60 * 60 * 1000;
+    static final int HOURS = 24;
+    static final int DAYS = 30;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ConcurrentLongObjectMap<GuildWindows> guilds = new ConcurrentLongObjectMap<>();
+    /**
+     * Hora atual, em horas desde a época Unix.
+     */
+    private final LongSupplier clock;
+
+    XPWindowStore(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    static long hourOf(long epochMillis) {
+        return epochMillis / HOUR_MILLIS;
+    }
+
+    /**
+     * Soma XP na hora {@code hour} (e no dia dela). Horas fora das janelas são ignoradas.
+     */
+    void addHourly(long guildId, long userId, long hour, int xp) {
+        while (true) {
+            GuildWindows guild = guilds.computeIfAbsent(guildId, id -> new GuildWindows(clock.getAsLong()));
+            synchronized (guild) {
+                if (!guild.removed) {
+                    guild.addHourly(userId, hour, xp);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Soma XP já consolidado por dia (só entra nas janelas de semana e mês).
+     */
+    void addDaily(long guildId, long userId, long day, int xp) {
+        while (true) {
+            GuildWindows guild = guilds.computeIfAbsent(guildId, id -> new GuildWindows(clock.getAsLong()));
+            synchronized (guild) {
+                if (!guild.removed) {
+                    guild.addDaily(userId, day, xp);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @param offset Quantas posições pular a partir do primeiro lugar.
+     * @return Até {@code count} posições do ranking da janela; quem não ganhou XP nela fica de fora.
+     */
+    List<XPWindowRank> top(long guildId, XPWindow window, int offset, int count) {
+        GuildWindows guild = guilds.get(guildId);
+        if (guild == null || count <= 0) {
+            return List.of();
+        }
+        synchronized (guild) {
+            guild.advance(clock.getAsLong());
+            return guild.top(window, offset, count);
+        }
+    }
+
+    /**
+     * @return O XP do usuário na janela, ou 0.
+     */
+    long xpOf(long guildId, long userId, XPWindow window) {
+        GuildWindows guild = guilds.get(guildId);
+        if (guild == null) {
+            return 0;
+        }
+        synchronized (guild) {
+            guild.advance(clock.getAsLong());
+            int slot = (int) guild.slotByUser.get(userId, -1);
+            return slot < 0 ? 0 : guild.sumOf(slot, window);
+        }
+    }
+
+    /**
+     * Avança todas as guilds até a hora atual e libera os usuários sem XP nos últimos 30 dias.
+     *
+     * @return Quantos usuários foram liberados.
+     */
+    int expire() {
+        long now = clock.getAsLong();
+        int released = 0;
+        for (long guildId : guilds.keys()) {
+            GuildWindows guild = guilds.get(guildId);
+            if (guild == null) {
+                continue;
+            }
+            synchronized (guild) {
+                guild.advance(now);
+                released += guild.releaseInactive();
+                if (guild.slotByUser.size() == 0) {
+                    guild.removed = true;
+                    guilds.remove(guildId, guild);
+                }
+            }
+        }
+        return released;
+    }
+
+    /**
+     * Dados de uma guild. Todo acesso acontece sob o lock do objeto.
+     */
+    private static final class GuildWindows {
+        private final LongLongHashMap slotByUser = new LongLongHashMap();
+        private long[] userBySlot = new long[INITIAL_CAPACITY];
+        private final char[][] hourly = new char[HOURS][INITIAL_CAPACITY];
+        private final char[][] daily = new char[DAYS][INITIAL_CAPACITY];
+        /**
+         * Slots já usados alguma vez; os liberados voltam por {@code freeSlots}.
+         */
+        private int slotCount;
+        private int[] freeSlots = new int[0];
+        private int freeCount;
+        /**
+         * Hora mais recente das colunas.
+         */
+        private long headHour;
+        /**
+         * true depois de sair do mapa; quem ainda tem a referência busca (ou cria) outra.
+         */
+        private boolean removed;
+
+        GuildWindows(long headHour) {
+            this.headHour = headHour;
+        }
+
+        void addHourly(long userId, long hour, int xp) {
+            advance(hour);
+            long day = hour / HOURS;
+            if (day <= headHour / HOURS - DAYS) {
+                return;
+            }
+            int slot = slotOf(userId);
+            if (hour > headHour - HOURS) {
+                add(hourly[(int) Math.floorMod(hour, (long) HOURS)], slot, xp);
+            }
+            add(daily[(int) Math.floorMod(day, (long) DAYS)], slot, xp);
+        }
+
+        void addDaily(long userId, long day, int xp) {
+            advance(day * HOURS);
+            if (day <= headHour / HOURS - DAYS) {
+                return;
+            }
+            add(daily[(int) Math.floorMod(day, (long) DAYS)], slotOf(userId), xp);
+        }
+
+        private static void add(char[] column, int slot, int xp) {
+            column[slot] = (char) Math.min(Character.MAX_VALUE, column[slot] + xp);
+        }
+
+        /**
+         * Move a cabeça para {@code hour}, zerando as colunas de horas e dias que ficaram para trás.
+         */
+        void advance(long hour) {
+            if (hour <= headHour) {
+                return;
+            }
+            long hours = Math.min(hour - headHour, HOURS);
+            for (long h = 1; h <= hours; h++) {
+                Arrays.fill(hourly[(int) Math.floorMod(headHour + h, (long) HOURS)], 0, slotCount, (char) 0);
+            }
+            long headDay = headHour / HOURS;
+            long days = Math.min(hour / HOURS - headDay, DAYS);
+            for (long d = 1; d <= days; d++) {
+                Arrays.fill(daily[(int) Math.floorMod(headDay + d, (long) DAYS)], 0, slotCount, (char) 0);
+            }
+            headHour = hour;
+        }
+
+        private int slotOf(long userId) {
+            int slot = (int) slotByUser.get(userId, -1);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (freeCount > 0) {
+                slot = freeSlots[--freeCount];
+            } else {
+                if (slotCount == userBySlot.length) {
+                    grow();
+                }
+                slot = slotCount++;
+            }
+            userBySlot[slot] = userId;
+            slotByUser.put(userId, slot);
+            return slot;
+        }
+
+        private void grow() {
+            int capacity = userBySlot.length + (userBySlot.length >> 1);
+            userBySlot = Arrays.copyOf(userBySlot, capacity);
+            for (int i = 0; i < HOURS; i++) {
+                hourly[i] = Arrays.copyOf(hourly[i], capacity);
+            }
+            for (int i = 0; i < DAYS; i++) {
+                daily[i] = Arrays.copyOf(daily[i], capacity);
+            }
+        }
+
+        /**
+         * Libera os slots de quem não tem XP em nenhum dos últimos 30 dias (e, portanto, em nenhuma hora).
+         */
+        int releaseInactive() {
+            int[] sums = new int[slotCount];
+            for (char[] column : daily) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    sums[slot] += column[slot];
+                }
+            }
+            int released = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (sums[slot] == 0 && userBySlot[slot] != Snowflake.NONE) {
+                    slotByUser.remove(userBySlot[slot]);
+                    userBySlot[slot] = Snowflake.NONE;
+                    if (freeCount == freeSlots.length) {
+                        freeSlots = Arrays.copyOf(freeSlots, Math.max(16, freeCount * 2));
+                    }
+                    freeSlots[freeCount++] = slot;
+                    released++;
+                }
+            }
+            return released;
+        }
+
+        private List<char[]> columnsOf(XPWindow window) {
+            List<char[]> columns = new ArrayList<>(DAYS);
+            switch (window) {
+                case DAY -> columns.addAll(Arrays.asList(hourly));
+                case WEEK -> {
+                    long headDay = headHour / HOURS;
+                    for (int d = 0; d < 7; d++) {
+                        columns.add(daily[(int) Math.floorMod(headDay - d, (long) DAYS)]);
+                    }
+                }
+                case MONTH -> columns.addAll(Arrays.asList(daily));
+            }
+            return columns;
+        }
+
+        long sumOf(int slot, XPWindow window) {
+            long sum = 0;
+            for (char[] column : columnsOf(window)) {
+                sum += column[slot];
+            }
+            return sum;
+        }
+
+        List<XPWindowRank> top(XPWindow window, int offset, int count) {
+            int[] sums = new int[slotCount];
+            for (char[] column : columnsOf(window)) {
+                for (int slot = 0; slot < slotCount; slot++) {
+                    sums[slot] += column[slot];
+                }
+            }
+
+            // Min-heap com os k melhores slots; a raiz é o pior deles.
+            int k = offset + count;
+            int[] heap = new int[Math.min(k, slotCount)];
+            int heapSize = 0;
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (sums[slot] == 0) {
+                    continue;
+                }
+                if (heapSize < heap.length) {
+                    heap[heapSize] = slot;
+                    siftUp(heap, heapSize++, sums);
+                } else if (heapSize > 0 && better(slot, heap[0], sums)) {
+                    heap[0] = slot;
+                    siftDown(heap, heapSize, sums);
+                }
+            }
+
+            // Esvaziar o min-heap dá os slots do pior para o melhor.
+            int[] ordered = new int[heapSize];
+            for (int i = heapSize - 1; i >= 0; i--) {
+                ordered[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, sums);
+            }
+            List<XPWindowRank> result = new ArrayList<>(Math.max(0, ordered.length - offset));
+            for (int i = offset; i < ordered.length; i++) {
+                result.add(new XPWindowRank(i + 1, userBySlot[ordered[i]], sums[ordered[i]]));
+            }
+            return result;
+        }
+
+        /**
+         * Mais XP primeiro; no empate, o menor ID, como no ranking geral.
+         */
+        private boolean better(int a, int b, int[] sums) {
+            return sums[a] > sums[b] || (sums[a] == sums[b] && userBySlot[a] < userBySlot[b]);
+        }
+
+        private void siftUp(int[] heap, int i, int[] sums) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!better(heap[parent], heap[i], sums)) {
+                    break;
+                }
+                swap(heap, i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size, int[] sums) {
+            int i = 0;
+            while (true) {
+                int left = 2 * i + 1;
+                if (left >= size) {
+                    break;
+                }
+                int worst = left;
+                if (left + 1 < size && better(heap[left], heap[left + 1], sums)) {
+                    worst = left + 1;
+                }
+                if (!better(heap[i], heap[worst], sums)) {
+                    break;
+                }
+                swap(heap, i, worst);
+                i = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+}
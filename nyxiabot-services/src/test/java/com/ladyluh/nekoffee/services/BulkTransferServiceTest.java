@@ -0,0 +1,69 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.database.UserXP;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkTransferServiceTest {
+    private static final String GUILD = "41771983423143937";
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryXPRepository repository = new InMemoryXPRepository();
+    private final XPEngine engine = new XPEngine(repository, TimeUnit.HOURS.toMillis(1), 100);
+    private final BulkTransferService service = new BulkTransferService(repository, engine, null, null);
+
+    @AfterEach
+    void close() {
+        service.close();
+        engine.close();
+    }
+
+    private BulkResult importXP(String csv) throws IOException {
+        Path file = directory.resolve("xp.csv");
+        Files.writeString(file, csv);
+        return service.importGuild(BulkDataset.XP, GUILD, file, rows -> {
+        }).join();
+    }
+
+    @Test
+    void levelAndXpAreImportedAsIs() throws IOException {
+        BulkResult result = importXP("user_id,xp,level\n1001,10,3\n1002," + (XPEngine.xpForLevel(2) - 1) + ",1\n");
+        assertEquals(2, result.rows());
+        assertEquals(0, result.skipped());
+        UserXP row = repository.stored(GUILD, "1001");
+        assertEquals(10, row.getXp());
+        assertEquals(3, row.getLevel());
+    }
+
+    @Test
+    void xpBeyondTheNextLevelIsRejected() throws IOException {
+        BulkResult result = importXP("user_id,xp,level\n1001,2147483647,1\n1002," + XPEngine.xpForLevel(2) + ",1\n1003,5,1\n");
+        assertEquals(1, result.rows());
+        assertEquals(2, result.skipped());
+        assertNull(repository.stored(GUILD, "1001"));
+        assertNull(repository.stored(GUILD, "1002"));
+        assertEquals(5, repository.stored(GUILD, "1003").getXp());
+    }
+
+    @Test
+    void totalOnlyRowsAreSplitIntoLevels() throws IOException {
+        long total = XPEngine.totalXp(4, 17);
+        BulkResult result = importXP("user_id,xp\n1001," + total + "\n1002,99999999999999999\n");
+        assertEquals(1, result.rows());
+        assertEquals(1, result.skipped());
+        UserXP row = repository.stored(GUILD, "1001");
+        assertEquals(4, row.getLevel());
+        assertEquals(17, row.getXp());
+    }
+}
@@ -0,0 +1,102 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.database.UserXP;
+import com.ladyluh.nekoffee.database.XPBucket;
+import com.ladyluh.nekoffee.database.XPRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Repositório em memória para os testes do {@link XPEngine}: conta leituras e lotes e pode falhar sob demanda.
+ */
+class InMemoryXPRepository implements XPRepository {
+    private final Map<String, UserXP> rows = new ConcurrentHashMap<>();
+    private final List<XPBucket> hourly = new ArrayList<>();
+    final AtomicInteger loads = new AtomicInteger();
+    final AtomicInteger batches = new AtomicInteger();
+    /**
+     * Quantos dos próximos lotes devem falhar.
+     */
+    final AtomicInteger failingBatches = new AtomicInteger();
+
+    private static String key(String guildId, String userId) {
+        return guildId + ':' + userId;
+    }
+
+    UserXP stored(String guildId, String userId) {
+        return rows.get(key(guildId, userId));
+    }
+
+    synchronized long hourlyXp() {
+        return hourly.stream().mapToLong(XPBucket::getXp).sum();
+    }
+
+    @Override
+    public CompletableFuture<UserXP> getUserXP(String guildId, String userId) {
+        loads.incrementAndGet();
+        UserXP row = rows.get(key(guildId, userId));
+        return CompletableFuture.completedFuture(row != null ? row : new UserXP(guildId, userId));
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUserXP(String guildId, String userId, int newXp, int newLevel, long lastMessageTimestamp) {
+        rows.put(key(guildId, userId), new UserXP(guildId, userId, newXp, newLevel, lastMessageTimestamp));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUserXPBatch(Collection<UserXP> entries, Collection<XPBucket> buckets) {
+        batches.incrementAndGet();
+        if (failingBatches.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            return CompletableFuture.failedFuture(new IllegalStateException("falha simulada"));
+        }
+        for (UserXP entry : entries) {
+            rows.put(key(entry.getGuildId(), entry.getUserId()), entry);
+        }
+        synchronized (this) {
+            hourly.addAll(buckets);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<List<UserXP>> getTopXPUsers(String guildId, int limit) {
+        return getGuildXP(guildId).thenApply(list -> list.stream()
+                .sorted(Comparator.comparingLong((UserXP row) -> XPEngine.totalXp(row.getLevel(), row.getXp())).reversed())
+                .limit(limit)
+                .toList());
+    }
+
+    @Override
+    public CompletableFuture<List<UserXP>> getGuildXP(String guildId) {
+        return CompletableFuture.completedFuture(rows.values().stream().filter(row -> row.getGuildId().equals(guildId)).toList());
+    }
+
+    @Override
+    public CompletableFuture<Void> scanUserXP(String guildId, Consumer<UserXP> consumer) {
+        return getGuildXP(guildId).thenAccept(list -> list.forEach(consumer));
+    }
+
+    @Override
+    public CompletableFuture<Integer> rollupXPBuckets(long rollupBeforeHour, long expireBeforeDay) {
+        return CompletableFuture.completedFuture(0);
+    }
+
+    @Override
+    public CompletableFuture<Void> scanHourlyXP(long fromHour, Consumer<XPBucket> consumer) {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> scanDailyXP(long fromDay, Consumer<XPBucket> consumer) {
+        return CompletableFuture.completedFuture(null);
+    }
+}
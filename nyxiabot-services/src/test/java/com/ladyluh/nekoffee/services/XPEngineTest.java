@@ -0,0 +1,244 @@
+package com.ladyluh.nekoffee.services;
+
+import com.ladyluh.nekoffee.database.UserXP;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XPEngineTest {
+    private static final String GUILD = "41771983423143937";
+    private static final String USER = "80351110224678912";
+    /**
+     * Longe o bastante para o flush periódico nunca rodar durante um teste.
+     */
+    private static final long NO_PERIODIC_FLUSH = TimeUnit.HOURS.toMillis(1);
+    private static final long FAR_FUTURE = Long.MAX_VALUE / 2;
+
+    private final InMemoryXPRepository repository = new InMemoryXPRepository();
+    private XPEngine engine;
+
+    @AfterEach
+    void closeEngine() {
+        if (engine != null) {
+            engine.close();
+        }
+    }
+
+    private int award(String userId, long now) {
+        Optional<XPEngine.XPAward> award = engine.awardMessageXP(GUILD, userId, now).join();
+        return award.map(XPEngine.XPAward::xpGained).orElse(0);
+    }
+
+    private long storedTotal(String userId) {
+        UserXP row = repository.stored(GUILD, userId);
+        return row == null ? 0 : XPEngine.totalXp(row.getLevel(), row.getXp());
+    }
+
+    @Test
+    void awardsStayInMemoryUntilFlush() {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 100);
+        int gained = award(USER, 1_000_000L);
+        assertTrue(gained >= XPEngine.XP_MIN_PER_MESSAGE);
+        assertNull(repository.stored(GUILD, USER));
+        assertEquals(gained, engine.getUserXP(GUILD, USER).join().getXp());
+
+        engine.flush().join();
+        assertEquals(gained, storedTotal(USER));
+        assertEquals(gained, repository.hourlyXp());
+    }
+
+    @Test
+    void cooldownRejectsSecondMessage() {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 100);
+        long now = 1_000_000L;
+        assertTrue(award(USER, now) > 0);
+        assertEquals(0, award(USER, now + XPEngine.XP_COOLDOWN_MILLIS));
+        assertTrue(award(USER, now + XPEngine.XP_COOLDOWN_MILLIS + 1) > 0);
+        assertEquals(1, repository.loads.get());
+    }
+
+    @Test
+    void fullBatchFlushesWithoutWaitingForTheInterval() throws InterruptedException {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 2);
+        award("1001", 1_000_000L);
+        award("1002", 1_000_000L);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (repository.stored(GUILD, "1002") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(repository.stored(GUILD, "1001"));
+        assertNotNull(repository.stored(GUILD, "1002"));
+    }
+
+    @Test
+    void failedBatchIsRetriedWithItsHourlyBuckets() {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 100);
+        int gained = award(USER, 1_000_000L);
+        repository.failingBatches.set(1);
+        engine.flush().join();
+        assertNull(repository.stored(GUILD, USER));
+
+        engine.flush().join();
+        assertEquals(gained, storedTotal(USER));
+        assertEquals(gained, repository.hourlyXp());
+    }
+
+    @Test
+    void failingDatabaseIsRetriedOnlyOnTheNextCycle() throws InterruptedException {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 2);
+        repository.failingBatches.set(Integer.MAX_VALUE);
+        award("1001", 1_000_000L);
+        award("1002", 1_000_000L);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (repository.batches.get() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // Um lote cheio a mais não dispara outra tentativa antes do ciclo.
+        award("1003", 1_000_000L);
+        Thread.sleep(200);
+        assertEquals(1, repository.batches.get());
+
+        engine.flush().join();
+        assertEquals(2, repository.batches.get());
+
+        repository.failingBatches.set(0);
+        engine.flush().join();
+        assertNotNull(repository.stored(GUILD, "1001"));
+        assertNotNull(repository.stored(GUILD, "1003"));
+    }
+
+    @Test
+    void awardDuringFailedFlushIsNotLost() {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 100);
+        int total = award(USER, 1_000_000L);
+        repository.failingBatches.set(1);
+        engine.flush().join();
+        total += award(USER, 2_000_000L);
+        engine.flush().join();
+        assertEquals(total, storedTotal(USER));
+    }
+
+    @Test
+    void idleCleanStateIsEvictedAndReloaded() {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 100);
+        int total = award(USER, 1_000_000L);
+        engine.flush().join();
+        engine.evictIdle(FAR_FUTURE);
+        total += award(USER, 2_000_000L);
+        assertEquals(2, repository.loads.get());
+        engine.flush().join();
+        assertEquals(total, storedTotal(USER));
+    }
+
+    @Test
+    void dirtyStateIsNotEvicted() {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 100);
+        int total = award(USER, 1_000_000L);
+        engine.evictIdle(FAR_FUTURE);
+        total += award(USER, 2_000_000L);
+        assertEquals(1, repository.loads.get());
+        engine.flush().join();
+        assertEquals(total, storedTotal(USER));
+    }
+
+    @Test
+    void awardsRacingEvictionAreNeverLost() throws Exception {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 16);
+        int users = 8;
+        int messages = 3_000;
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            CompletableFuture<Void> evictor = CompletableFuture.runAsync(() -> {
+                while (!done.get()) {
+                    engine.flush().join();
+                    engine.evictIdle(FAR_FUTURE);
+                }
+            });
+            List<Future<Long>> results = new ArrayList<>();
+            for (int u = 0; u < users; u++) {
+                String userId = Long.toString(1_000 + u);
+                results.add(executor.submit(() -> {
+                    long sum = 0;
+                    for (int i = 1; i <= messages; i++) {
+                        sum += award(userId, i * (XPEngine.XP_COOLDOWN_MILLIS + 1));
+                        if (i % 20 == 0) {
+                            // Dá tempo para o flush deixar o estado limpo e a remoção alcançá-lo.
+                            Thread.sleep(1);
+                        }
+                    }
+                    return sum;
+                }));
+            }
+            long[] expected = new long[users];
+            for (int u = 0; u < users; u++) {
+                expected[u] = results.get(u).get();
+            }
+            done.set(true);
+            evictor.join();
+            engine.flush().join();
+            for (int u = 0; u < users; u++) {
+                assertEquals(expected[u], storedTotal(Long.toString(1_000 + u)), "usuário " + u);
+            }
+            assertTrue(repository.loads.get() > users, "a remoção nunca aconteceu durante o teste");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void totalXpMatchesTheLevelCurve() {
+        long total = 0;
+        for (int level = 0; level <= 500; level++) {
+            assertEquals(total, XPEngine.totalXp(level, 0), "nível " + level);
+            int next = XPEngine.xpForLevel(level + 1);
+            assertEquals(level, XPEngine.levelForTotalXp(total));
+            assertEquals(level, XPEngine.levelForTotalXp(total + next - 1));
+            total += next;
+        }
+    }
+
+    @Test
+    void hugeTotalsStopAtMaxLevel() {
+        assertEquals(XPEngine.MAX_LEVEL, XPEngine.levelForTotalXp(Long.MAX_VALUE));
+        assertEquals(XPEngine.MAX_LEVEL, XPEngine.levelForTotalXp(XPEngine.MAX_TOTAL_XP));
+        assertEquals(XPEngine.MAX_LEVEL - 1, XPEngine.levelForTotalXp(XPEngine.MAX_TOTAL_XP - 1));
+        // A conta em int estouraria aqui e ficaria negativa.
+        assertEquals(Integer.MAX_VALUE, XPEngine.xpForLevel(100_000));
+    }
+
+    @Test
+    void suspendedGuildEarnsNothingAndKeepsWhatWasWrittenOutside() {
+        engine = new XPEngine(repository, NO_PERIODIC_FLUSH, 100);
+        int gained = award(USER, 1_000_000L);
+
+        engine.suspendGuild(GUILD).join();
+        // O que estava pendente foi gravado antes da suspensão.
+        assertEquals(gained, storedTotal(USER));
+        assertEquals(0, award(USER, 2_000_000L));
+        assertEquals(0, award("1001", 2_000_000L));
+
+        repository.updateUserXPBatch(List.of(new UserXP(GUILD, USER, 7, 3, 0))).join();
+        engine.resumeGuild(GUILD).join();
+        assertEquals(7, engine.getUserXP(GUILD, USER).join().getXp());
+
+        int after = award(USER, 3_000_000L);
+        assertTrue(after > 0);
+        engine.flush().join();
+        assertEquals(XPEngine.totalXp(3, 7) + after, storedTotal(USER));
+    }
+}
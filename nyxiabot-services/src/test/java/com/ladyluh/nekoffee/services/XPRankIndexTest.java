@@ -0,0 +1,104 @@
+package com.ladyluh.nekoffee.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XPRankIndexTest {
+
+    @Test
+    void ordersByXpThenByLowerId() {
+        XPRankIndex index = new XPRankIndex();
+        index.put(30L, 100L);
+        index.put(10L, 500L);
+        index.put(20L, 100L);
+        assertEquals(List.of(new XPRank(1, 10L, 500L), new XPRank(2, 20L, 100L), new XPRank(3, 30L, 100L)),
+                index.range(1, 10));
+        assertEquals(2, index.rankOf(20L));
+        assertEquals(0, index.rankOf(99L));
+    }
+
+    @Test
+    void putRepositionsExistingUser() {
+        XPRankIndex index = new XPRankIndex();
+        index.put(1L, 10L);
+        index.put(2L, 20L);
+        index.put(1L, 30L);
+        assertEquals(2, index.size());
+        assertEquals(1, index.rankOf(1L));
+        assertEquals(2, index.rankOf(2L));
+        index.put(1L, 30L);
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void rangeOutsideTheIndexIsEmpty() {
+        XPRankIndex index = new XPRankIndex();
+        assertTrue(index.range(1, 5).isEmpty());
+        index.put(1L, 10L);
+        assertTrue(index.range(0, 5).isEmpty());
+        assertTrue(index.range(2, 5).isEmpty());
+        assertEquals(1, index.range(1, 5).size());
+    }
+
+    @Test
+    void removeKeepsRanksConsistent() {
+        XPRankIndex index = new XPRankIndex();
+        for (long user = 1; user <= 100; user++) {
+            index.put(user, user * 10);
+        }
+        index.remove(100L);
+        index.remove(50L);
+        index.remove(1L);
+        index.remove(1234L);
+        assertEquals(97, index.size());
+        assertEquals(1, index.rankOf(99L));
+        assertEquals(50, index.rankOf(49L));
+        assertEquals(0, index.rankOf(50L));
+        assertEquals(97, index.rankOf(2L));
+    }
+
+    /**
+     * Confere, depois de cada lote de operações aleatórias, a posição de todos os usuários e cada posição
+     * isolada: qualquer erro de span em qualquer nível aparece como posição errada.
+     */
+    @Test
+    void spansMatchReferenceOrderingUnderRandomOperations() {
+        SplittableRandom random = new SplittableRandom(11);
+        XPRankIndex index = new XPRankIndex();
+        Map<Long, Long> reference = new HashMap<>();
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 400; i++) {
+                long user = 1 + random.nextLong(1_000);
+                if (random.nextInt(5) == 0) {
+                    index.remove(user);
+                    reference.remove(user);
+                } else {
+                    // Poucos valores de XP distintos: muitos empates, desempatados pelo ID.
+                    long xp = random.nextLong(200);
+                    index.put(user, xp);
+                    reference.put(user, xp);
+                }
+            }
+            List<Map.Entry<Long, Long>> expected = new ArrayList<>(reference.entrySet());
+            expected.sort(Comparator.comparing((Map.Entry<Long, Long> e) -> -e.getValue()).thenComparing(Map.Entry::getKey));
+
+            assertEquals(expected.size(), index.size());
+            List<XPRank> all = index.range(1, expected.size());
+            for (int i = 0; i < expected.size(); i++) {
+                Map.Entry<Long, Long> entry = expected.get(i);
+                assertEquals(new XPRank(i + 1, entry.getKey(), entry.getValue()), all.get(i));
+                assertEquals(i + 1, index.rankOf(entry.getKey()), "rankOf " + entry.getKey());
+                assertEquals(all.get(i), index.range(i + 1, 1).getFirst());
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ladyluh.nekoffee.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XPWindowStoreTest {
+    private static final long GUILD = 41771983423143937L;
+    /**
+     * Meia-noite UTC de um dia qualquer, em horas desde a época.
+     */
+    private static final long MIDNIGHT = 20_000L * XPWindowStore.HOURS;
+
+    private long now = MIDNIGHT;
+    private final XPWindowStore store = new XPWindowStore(() -> now);
+
+    @Test
+    void dayWindowCoversTheLast24Hours() {
+        store.addHourly(GUILD, 1L, MIDNIGHT, 10);
+        now = MIDNIGHT + 23;
+        assertEquals(10, store.xpOf(GUILD, 1L, XPWindow.DAY));
+        now = MIDNIGHT + 24;
+        assertEquals(0, store.xpOf(GUILD, 1L, XPWindow.DAY));
+        assertEquals(10, store.xpOf(GUILD, 1L, XPWindow.WEEK));
+    }
+
+    @Test
+    void hourRingColumnIsClearedWhenReused() {
+        store.addHourly(GUILD, 1L, MIDNIGHT, 10);
+        store.addHourly(GUILD, 1L, MIDNIGHT + 24, 5);
+        now = MIDNIGHT + 24;
+        assertEquals(5, store.xpOf(GUILD, 1L, XPWindow.DAY));
+        assertEquals(15, store.xpOf(GUILD, 1L, XPWindow.WEEK));
+    }
+
+    @Test
+    void weekWindowIncludesTodayAndSixDaysBefore() {
+        store.addHourly(GUILD, 1L, MIDNIGHT + 5, 10);
+        now = MIDNIGHT + 6 * XPWindowStore.HOURS + 23;
+        assertEquals(10, store.xpOf(GUILD, 1L, XPWindow.WEEK));
+        now = MIDNIGHT + 7 * XPWindowStore.HOURS;
+        assertEquals(0, store.xpOf(GUILD, 1L, XPWindow.WEEK));
+        assertEquals(10, store.xpOf(GUILD, 1L, XPWindow.MONTH));
+    }
+
+    @Test
+    void monthWindowExpiresAfterThirtyDays() {
+        store.addDaily(GUILD, 1L, MIDNIGHT / XPWindowStore.HOURS, 10);
+        now = MIDNIGHT + 29 * XPWindowStore.HOURS;
+        assertEquals(10, store.xpOf(GUILD, 1L, XPWindow.MONTH));
+        now = MIDNIGHT + 30 * XPWindowStore.HOURS;
+        assertEquals(0, store.xpOf(GUILD, 1L, XPWindow.MONTH));
+    }
+
+    @Test
+    void jumpLongerThanTheRingClearsEverything() {
+        store.addHourly(GUILD, 1L, MIDNIGHT, 10);
+        now = MIDNIGHT + 1_000 * XPWindowStore.HOURS;
+        for (XPWindow window : XPWindow.values()) {
+            assertEquals(0, store.xpOf(GUILD, 1L, window), window.name());
+        }
+    }
+
+    @Test
+    void dataOlderThanTheWindowsIsIgnored() {
+        now = MIDNIGHT + 40 * XPWindowStore.HOURS;
+        store.addHourly(GUILD, 1L, MIDNIGHT, 10);
+        store.addDaily(GUILD, 2L, MIDNIGHT / XPWindowStore.HOURS, 10);
+        assertEquals(0, store.xpOf(GUILD, 1L, XPWindow.MONTH));
+        assertEquals(0, store.xpOf(GUILD, 2L, XPWindow.MONTH));
+    }
+
+    @Test
+    void countersSaturate() {
+        for (int i = 0; i < 10; i++) {
+            store.addHourly(GUILD, 1L, MIDNIGHT, 10_000);
+        }
+        assertEquals(Character.MAX_VALUE, store.xpOf(GUILD, 1L, XPWindow.DAY));
+        assertEquals(Character.MAX_VALUE, store.xpOf(GUILD, 1L, XPWindow.MONTH));
+    }
+
+    @Test
+    void topOrdersByXpThenLowerIdAndHonoursOffset() {
+        store.addHourly(GUILD, 3L, MIDNIGHT, 20);
+        store.addHourly(GUILD, 1L, MIDNIGHT, 50);
+        store.addHourly(GUILD, 2L, MIDNIGHT, 20);
+        store.addDaily(GUILD, 4L, MIDNIGHT / XPWindowStore.HOURS - 3, 99);
+        assertEquals(List.of(new XPWindowRank(1, 1L, 50), new XPWindowRank(2, 2L, 20), new XPWindowRank(3, 3L, 20)),
+                store.top(GUILD, XPWindow.DAY, 0, 10));
+        assertEquals(List.of(new XPWindowRank(2, 1L, 50), new XPWindowRank(3, 2L, 20)),
+                store.top(GUILD, XPWindow.WEEK, 1, 2));
+        assertTrue(store.top(GUILD, XPWindow.DAY, 3, 10).isEmpty());
+        assertTrue(store.top(12345L, XPWindow.DAY, 0, 10).isEmpty());
+    }
+
+    @Test
+    void expireReleasesInactiveUsersAndReusesSlots() {
+        for (long user = 1; user <= 40; user++) {
+            store.addHourly(GUILD, user, MIDNIGHT, 1);
+        }
+        now = MIDNIGHT + 10 * XPWindowStore.HOURS;
+        store.addHourly(GUILD, 100L, now, 7);
+        now = MIDNIGHT + 30 * XPWindowStore.HOURS;
+        assertEquals(40, store.expire());
+        store.addHourly(GUILD, 200L, now, 3);
+        assertEquals(List.of(new XPWindowRank(1, 100L, 7), new XPWindowRank(2, 200L, 3)),
+                store.top(GUILD, XPWindow.MONTH, 0, 10));
+        assertEquals(0, store.xpOf(GUILD, 1L, XPWindow.MONTH));
+
+        now = MIDNIGHT + 100 * XPWindowStore.HOURS;
+        assertEquals(2, store.expire());
+        assertTrue(store.top(GUILD, XPWindow.MONTH, 0, 10).isEmpty());
+        store.addHourly(GUILD, 1L, now, 5);
+        assertEquals(5, store.xpOf(GUILD, 1L, XPWindow.DAY));
+    }
+}
@@ -2,10 +2,15 @@ package com.ladyluh.nekoffee;
 
 import com.ladyluh.nekoffee.api.NekoffeeClient;
 import com.ladyluh.nekoffee.api.gateway.GatewayIntent;
+import com.ladyluh.nekoffee.cache.MessageCache;
 import com.ladyluh.nekoffee.cache.VoiceStateCacheManager;
+import com.ladyluh.nekoffee.cache.VoiceStateSnapshotter;
+import com.ladyluh.nekoffee.cache.entity.CacheFlag;
 import com.ladyluh.nekoffee.commands.CommandManager;
 import com.ladyluh.nekoffee.config.ConfigManager;
 import com.ladyluh.nekoffee.database.DatabaseManager;
+import com.ladyluh.nekoffee.database.LogXPRepository;
+import com.ladyluh.nekoffee.database.XPRepository;
 import com.ladyluh.nekoffee.json.util.JsonEngine;
 import com.ladyluh.nekoffee.json.util.impl.JacksonJsonEngineImpl;
 import com.ladyluh.nekoffee.listeners.GuildEventListener;
@@ -13,10 +18,14 @@ import com.ladyluh.nekoffee.listeners.LogEventListener;
 import com.ladyluh.nekoffee.listeners.MessageEventListener;
 import com.ladyluh.nekoffee.listeners.TemporaryChannelListener;
 import com.ladyluh.nekoffee.services.AudioRecordingService;
+import com.ladyluh.nekoffee.services.BulkTransferService;
+import com.ladyluh.nekoffee.services.XPEngine;
 import com.ladyluh.nekoffee.services.XPRoleService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.concurrent.Executors;
@@ -31,20 +40,31 @@ public class NyxiaBot {
     private final DatabaseManager databaseManager;
     private final CommandManager commandManager;
     private final VoiceStateCacheManager voiceStateCacheManager;
+    private final VoiceStateSnapshotter voiceStateSnapshotter;
     private final XPRoleService xpRoleService;
+    private final XPRepository xpRepository;
+    private final XPEngine xpEngine;
+    private final BulkTransferService bulkTransferService;
     private final ScheduledExecutorService statusRotator;
 
     public NyxiaBot() throws Exception {
         this.config = new ConfigManager();
-        this.nekoffeeClient = Nekoffee.createDefault();
-        this.databaseManager = new DatabaseManager("nyxiabot.db");
+        this.nekoffeeClient = Nekoffee.createDefault(true, EnumSet.complementOf(EnumSet.of(CacheFlag.MEMBERS_OFF_HEAP)));
+        this.databaseManager = new DatabaseManager("nyxiabot.db", config.getDbSlowQueryMillis());
         this.voiceStateCacheManager = new VoiceStateCacheManager();
+        this.voiceStateSnapshotter = new VoiceStateSnapshotter(voiceStateCacheManager, Path.of("nyxiabot-voice.snapshot"), Duration.ofMinutes(10));
         JsonEngine jsonEngine = new JacksonJsonEngineImpl();
 
         this.xpRoleService = new XPRoleService(nekoffeeClient, config);
+        this.xpRepository = "log".equalsIgnoreCase(config.getXPStorage())
+                ? new LogXPRepository(Path.of("data", "xp-log"))
+                : databaseManager;
+        this.xpEngine = new XPEngine(xpRepository, 5000, 500);
         AudioRecordingService audioRecordingService = new AudioRecordingService(nekoffeeClient, jsonEngine, this.voiceStateCacheManager);
 
-        this.commandManager = new CommandManager(nekoffeeClient, config, databaseManager, audioRecordingService, voiceStateCacheManager);
+        this.bulkTransferService = new BulkTransferService(xpRepository, xpEngine, databaseManager, databaseManager);
+
+        this.commandManager = new CommandManager(nekoffeeClient, config, databaseManager, audioRecordingService, voiceStateCacheManager, xpEngine, bulkTransferService);
         this.statusRotator = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "Nekoffee-Status-Rotator");
             t.setDaemon(true);
@@ -64,8 +84,9 @@ public class NyxiaBot {
 
     private void setupListeners() {
         nekoffeeClient.addEventListener(new GuildEventListener(nekoffeeClient, databaseManager));
-        nekoffeeClient.addEventListener(new LogEventListener(config, nekoffeeClient, databaseManager));
-        nekoffeeClient.addEventListener(new MessageEventListener(nekoffeeClient, databaseManager, commandManager, xpRoleService));
+        MessageCache messageCache = new MessageCache(100, 64 * 1024, 32L * 1024 * 1024);
+        nekoffeeClient.addEventListener(new LogEventListener(config, nekoffeeClient, databaseManager, messageCache));
+        nekoffeeClient.addEventListener(new MessageEventListener(nekoffeeClient, xpEngine, commandManager, xpRoleService));
 
         TemporaryChannelListener tempListener = new TemporaryChannelListener(config, nekoffeeClient, databaseManager, voiceStateCacheManager);
         nekoffeeClient.addEventListener(tempListener);
@@ -81,6 +102,9 @@ public class NyxiaBot {
         );
 
         LOGGER.info("Iniciando NyxiaBot...");
+        // Antes do login: até cada GUILD_CREATE chegar, os canais temporários usam o estado do snapshot.
+        voiceStateSnapshotter.load();
+        voiceStateSnapshotter.schedule(Duration.ofMinutes(1));
         nekoffeeClient.login(config.getBotToken(), intents)
                 .thenRun(() -> {
                     LOGGER.info("NyxiaBot conectado ao Gateway e PRONTO!");
@@ -96,7 +120,13 @@ public class NyxiaBot {
             if (statusRotator != null && !statusRotator.isShutdown()) {
                 statusRotator.shutdownNow();
             }
+            voiceStateSnapshotter.close();
             nekoffeeClient.shutdown();
+            bulkTransferService.close();
+            xpEngine.close();
+            if (xpRepository instanceof LogXPRepository logRepository) {
+                logRepository.close();
+            }
             databaseManager.shutdown();
             LOGGER.info("NyxiaBot desligado.");
         }));
@@ -5,13 +5,19 @@ import com.ladyluh.nekoffee.api.entities.Message;
 import com.ladyluh.nekoffee.api.entities.User;
 import com.ladyluh.nekoffee.api.event.Event;
 import com.ladyluh.nekoffee.api.event.EventListener;
+import com.ladyluh.nekoffee.api.event.channel.ChannelDeleteEvent;
+import com.ladyluh.nekoffee.api.event.guild.GuildDeleteEvent;
 import com.ladyluh.nekoffee.api.event.message.MessageDeleteEvent;
 import com.ladyluh.nekoffee.api.event.message.MessageUpdateEvent;
+import com.ladyluh.nekoffee.api.util.Snowflake;
 import com.ladyluh.nekoffee.builder.EmbedBuilder;
 import com.ladyluh.nekoffee.builder.MessageBuilder;
+import com.ladyluh.nekoffee.cache.CachedMessage;
+import com.ladyluh.nekoffee.cache.MessageCache;
 import com.ladyluh.nekoffee.config.ConfigManager;
 import com.ladyluh.nekoffee.database.DatabaseManager;
 import com.ladyluh.nekoffee.database.GuildConfig;
+import com.ladyluh.nekoffee.model.gateway.MessageCreateEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,19 +26,30 @@ import java.time.OffsetDateTime;
 
 public class LogEventListener implements EventListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(LogEventListener.class);
+    private static final int EMBED_FIELD_LIMIT = 1024;
     private final NekoffeeClient client;
     private final DatabaseManager dbManager;
+    private final MessageCache messageCache;
 
-    public LogEventListener(ConfigManager config, NekoffeeClient client, DatabaseManager dbManager) {
+    public LogEventListener(ConfigManager config, NekoffeeClient client, DatabaseManager dbManager, MessageCache messageCache) {
         this.client = client;
         this.dbManager = dbManager;
+        this.messageCache = messageCache;
     }
     @Override
     public void onEvent(Event event) {
-        if (event instanceof MessageUpdateEvent muEvent) {
+        if (event instanceof MessageCreateEvent mcEvent) {
+            if (mcEvent.getMessage().getGuildId() != null) {
+                messageCache.onMessageCreate(mcEvent.getMessage());
+            }
+        } else if (event instanceof MessageUpdateEvent muEvent) {
             handleMessageUpdate(muEvent);
         } else if (event instanceof MessageDeleteEvent mdEvent) {
             handleMessageDelete(mdEvent);
+        } else if (event instanceof ChannelDeleteEvent cdEvent) {
+            messageCache.removeChannel(cdEvent.getChannel().getIdLong());
+        } else if (event instanceof GuildDeleteEvent gdEvent && !gdEvent.isUnavailable()) {
+            messageCache.removeGuild(Snowflake.parse(gdEvent.getGuildId()));
         }
     }
 
@@ -40,88 +57,98 @@ public class LogEventListener implements EventListener {
         String guildId = event.getMessage().getGuildId();
         if (guildId == null) return; 
 
-        dbManager.getGuildConfig(guildId)
-                .thenAccept(configOpt -> {
-                    GuildConfig guildConfig = configOpt.orElse(new GuildConfig(guildId));
-                    String logChannelId = guildConfig.logChannelId; 
-
-                    if (logChannelId == null || logChannelId.isEmpty()) {
-                        LOGGER.trace("Log channel ID não configurado para guild {}. Log de MessageUpdate pulado.", guildId);
-                        return;
-                    }
-
-                    Message updatedMessage = event.getMessage();
-                    User author = updatedMessage.getAuthor();
-
-                    EmbedBuilder logEmbed = new EmbedBuilder()
-                            .setTitle("📝 Mensagem Editada")
-                            .setColor(Color.ORANGE)
-                            .addField("Canal", "<#" + updatedMessage.getChannelId() + "> (`" + updatedMessage.getChannelId() + "`)", true);
-
-                    if (author != null) {
-                        logEmbed.addField("Autor", author.getAsTag() + " (`" + author.getId() + "`)", true);
-                    } else if (updatedMessage.getAuthor() != null && updatedMessage.getAuthor().getId() != null) {
-                        logEmbed.addField("Autor ID", "`" + updatedMessage.getAuthor().getId() + "`", true);
-                    } else {
-                        logEmbed.addField("Autor", "Desconhecido", true);
-                    }
-
-                    logEmbed.addField("ID da Mensagem", "`" + updatedMessage.getId() + "`", false)
-                            .addField("Novo Conteúdo", updatedMessage.getContentRaw() != null && !updatedMessage.getContentRaw().isEmpty() ? updatedMessage.getContentRaw() : "*Conteúdo não presente ou embed editado*", false)
-                            .setTimestamp(OffsetDateTime.now());
-
-                    String messageLink = String.format("https://discord.com/channels/%s/%s/%s",
-                            guildId,
-                            updatedMessage.getChannelId(),
-                            updatedMessage.getId());
-                    logEmbed.addField("Link", "[Pular para Mensagem](" + messageLink + ")", false);
-
-                    client.sendMessage(logChannelId, new MessageBuilder().addEmbed(logEmbed).build())
-                            .exceptionally(ex -> {
-                                LOGGER.error("Falha ao enviar log de MessageUpdate para guild {}:", guildId, ex);
-                                return null;
-                            });
-                    LOGGER.info("Log: Mensagem {} editada no canal {} da guild {}", updatedMessage.getId(), updatedMessage.getChannelId(), guildId);
-                })
+        // O cache muda aqui, na thread do evento, para que a ordem das edições seja preservada.
+        CachedMessage previous = messageCache.onMessageUpdate(event.getMessage());
+        String newContent = event.getMessage().getContentRaw();
+        if (previous != null && (newContent == null || newContent.isEmpty() || newContent.equals(previous.content()))) {
+            // Só embeds ou anexos mudaram; não é uma edição de texto.
+            return;
+        }
+
+        GuildConfig guildConfig = dbManager.getCachedGuildConfig(guildId).orElse(new GuildConfig(guildId));
+        String logChannelId = guildConfig.logChannelId; 
+
+        if (logChannelId == null || logChannelId.isEmpty()) {
+            LOGGER.trace("Log channel ID não configurado para guild {}. Log de MessageUpdate pulado.", guildId);
+            return;
+        }
+
+        Message updatedMessage = event.getMessage();
+        User author = updatedMessage.getAuthor();
+
+        EmbedBuilder logEmbed = new EmbedBuilder()
+                .setTitle("📝 Mensagem Editada")
+                .setColor(Color.ORANGE)
+                .addField("Canal", "<#" + updatedMessage.getChannelId() + "> (`" + updatedMessage.getChannelId() + "`)", true);
+
+        if (author != null) {
+            logEmbed.addField("Autor", author.getAsTag() + " (`" + author.getId() + "`)", true);
+        } else if (updatedMessage.getAuthor() != null && updatedMessage.getAuthor().getId() != null) {
+            logEmbed.addField("Autor ID", "`" + updatedMessage.getAuthor().getId() + "`", true);
+        } else {
+            logEmbed.addField("Autor", "Desconhecido", true);
+        }
+
+        logEmbed.addField("ID da Mensagem", "`" + updatedMessage.getId() + "`", false);
+        if (previous != null) {
+            logEmbed.addField("Conteúdo Anterior", truncate(previous.content()), false);
+        }
+        logEmbed.addField("Novo Conteúdo", updatedMessage.getContentRaw() != null && !updatedMessage.getContentRaw().isEmpty() ? truncate(updatedMessage.getContentRaw()) : "*Conteúdo não presente ou embed editado*", false)
+                .setTimestamp(OffsetDateTime.now());
+
+        String messageLink = String.format("https://discord.com/channels/%s/%s/%s",
+                guildId,
+                updatedMessage.getChannelId(),
+                updatedMessage.getId());
+        logEmbed.addField("Link", "[Pular para Mensagem](" + messageLink + ")", false);
+
+        client.sendMessage(logChannelId, new MessageBuilder().addEmbed(logEmbed).build())
                 .exceptionally(ex -> {
-                    LOGGER.error("Erro ao buscar configurações da guild para MessageUpdateEvent");
+                    LOGGER.error("Falha ao enviar log de MessageUpdate para guild {}:", guildId, ex);
                     return null;
                 });
+        LOGGER.info("Log: Mensagem {} editada no canal {} da guild {}", updatedMessage.getId(), updatedMessage.getChannelId(), guildId);
     }
 
     private void handleMessageDelete(MessageDeleteEvent event) {
         String guildId = event.getGuildId();
         if (guildId == null) return; 
 
-        dbManager.getGuildConfig(guildId)
-                .thenAccept(configOpt -> {
-                    GuildConfig guildConfig = configOpt.orElse(new GuildConfig(guildId));
-                    String logChannelId = guildConfig.logChannelId;
-
-                    if (logChannelId == null || logChannelId.isEmpty()) {
-                        LOGGER.trace("Log channel ID não configurado para guild {}. Log de MessageDelete pulado.", guildId);
-                        return;
-                    }
-
-                    EmbedBuilder logEmbed = new EmbedBuilder()
-                            .setTitle("🗑️ Mensagem Deletada")
-                            .setColor(Color.RED)
-                            .addField("Canal", "<#" + event.getChannelId() + "> (`" + event.getChannelId() + "`)", false)
-                            .addField("ID da Mensagem", "`" + event.getMessageId() + "`", false)
-                            .setTimestamp(OffsetDateTime.now());
-
-                    logEmbed.addField("Servidor ID", "`" + guildId + "`", true); 
-
-                    client.sendMessage(logChannelId, new MessageBuilder().addEmbed(logEmbed).build())
-                            .exceptionally(ex -> {
-                                LOGGER.error("Falha ao enviar log de MessageDelete para guild {}:", guildId, ex);
-                                return null;
-                            });
-                    LOGGER.info("Log: Mensagem {} deletada no canal {} da guild {}", event.getMessageId(), event.getChannelId(), guildId);
-                })
+        CachedMessage deleted = messageCache.onMessageDelete(Snowflake.parse(event.getChannelId()), Snowflake.parse(event.getMessageId()));
+
+        GuildConfig guildConfig = dbManager.getCachedGuildConfig(guildId).orElse(new GuildConfig(guildId));
+        String logChannelId = guildConfig.logChannelId;
+
+        if (logChannelId == null || logChannelId.isEmpty()) {
+            LOGGER.trace("Log channel ID não configurado para guild {}. Log de MessageDelete pulado.", guildId);
+            return;
+        }
+
+        EmbedBuilder logEmbed = new EmbedBuilder()
+                .setTitle("🗑️ Mensagem Deletada")
+                .setColor(Color.RED)
+                .addField("Canal", "<#" + event.getChannelId() + "> (`" + event.getChannelId() + "`)", false)
+                .addField("ID da Mensagem", "`" + event.getMessageId() + "`", false)
+                .setTimestamp(OffsetDateTime.now());
+
+        if (deleted != null) {
+            if (deleted.authorId() != Snowflake.NONE) {
+                logEmbed.addField("Autor", "<@" + deleted.authorId() + "> (`" + deleted.authorId() + "`)", true);
+            }
+            logEmbed.addField("Conteúdo", truncate(deleted.content()), false);
+        }
+
+        logEmbed.addField("Servidor ID", "`" + guildId + "`", true); 
+
+        client.sendMessage(logChannelId, new MessageBuilder().addEmbed(logEmbed).build())
                 .exceptionally(ex -> {
-                    LOGGER.error("Erro ao buscar configurações da guild para MessageDeleteEvent");
+                    LOGGER.error("Falha ao enviar log de MessageDelete para guild {}:", guildId, ex);
                     return null;
                 });
+        LOGGER.info("Log: Mensagem {} deletada no canal {} da guild {}", event.getMessageId(), event.getChannelId(), guildId);
+    }
+
+    private static String truncate(String content) {
+        return content.length() <= EMBED_FIELD_LIMIT ? content : content.substring(0, EMBED_FIELD_LIMIT - 1) + "…";
     }
-}
\ No newline at end of file
+}
@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.EnumSet;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -72,12 +73,11 @@ public class TemporaryChannelListener implements EventListener {
         }
 
         if (newChannelId != null) {
-            dbManager.getGuildConfig(guildId).thenAccept(configOpt -> {
-                String hubId = configOpt.map(cfg -> cfg.tempHubChannelId).orElse(null);
-                if (hubId != null && hubId.equals(newChannelId)) {
-                    handleHubJoin(event, guildId, userId, configOpt.orElse(new GuildConfig(guildId)));
-                }
-            });
+            Optional<GuildConfig> configOpt = dbManager.getCachedGuildConfig(guildId);
+            String hubId = configOpt.map(cfg -> cfg.tempHubChannelId).orElse(null);
+            if (hubId != null && hubId.equals(newChannelId)) {
+                handleHubJoin(event, guildId, userId, configOpt.orElse(new GuildConfig(guildId)));
+            }
         }
     }
 